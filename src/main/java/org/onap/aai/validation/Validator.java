@@ -20,9 +20,13 @@
  */
 package org.onap.aai.validation;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.onap.aai.validation.exception.ValidationServiceException;
+import org.onap.aai.validation.reader.data.ParsedEvent;
 import org.onap.aai.validation.result.ValidationResult;
+import org.onap.aai.validation.util.ExecutionProfileReport;
 
 /**
  * Validator (e.g. model-driven or rule-based).
@@ -45,4 +49,52 @@ public interface Validator {
      * @throws ValidationServiceException
      */
     public List<ValidationResult> validate(String event) throws ValidationServiceException;
+
+    /**
+     * Validate the entity or entities found in the (already parsed) event.
+     *
+     * @param event the parsed event containing the entity or entities to validate
+     * @return a list of validation results
+     * @throws ValidationServiceException
+     */
+    public List<ValidationResult> validate(ParsedEvent event) throws ValidationServiceException;
+
+    /**
+     * Get the entity attribute paths that are read when validating an entity of the given type. This allows a large
+     * event to be read retaining only the parts of the entity that are required for validation.
+     *
+     * @param eventType the type of the event containing the entity
+     * @param entityType the type of the entity
+     * @return the attribute paths, or an empty Optional if the validator may read any part of the entity
+     * @throws ValidationServiceException
+     */
+    public default Optional<Collection<String>> getAttributePaths(String eventType, String entityType)
+            throws ValidationServiceException {
+        return Optional.empty();
+    }
+
+    /**
+     * Get a description of the validator's status, for inclusion in the status report of the Info Service.
+     *
+     * @return the status text, or an empty Optional if the validator has no status to report
+     */
+    public default Optional<String> getStatusReport() {
+        return Optional.empty();
+    }
+
+    /**
+     * Get the profile of the validator's executions (e.g. the latency of each rule), for the Info Service.
+     *
+     * @return the profile, or an empty Optional if the validator is not profiled
+     */
+    public default Optional<ExecutionProfileReport> getExecutionProfile() {
+        return Optional.empty();
+    }
+
+    /**
+     * Discard the recorded execution profile.
+     */
+    public default void resetExecutionProfile() {
+        // Nothing is profiled by default
+    }
 }
@@ -59,6 +59,17 @@ public class EventReaderConfig extends PropertiesConfig {
     @Value("${entity.resource.version.path}")
     private String entityResourceVersionPath;
 
+    /** Events of at least this size (in bytes) are read in large-event mode. Zero disables large-event mode. */
+    @Value("${event.large.threshold:0}")
+    private long largeEventThreshold;
+
+    /**
+     * The maximum (estimated) heap in bytes retained for a large event; a larger event is rejected. Zero means that
+     * there is no limit. Defaults to 32 MiB.
+     */
+    @Value("${event.large.max.retained.size:33554432}")
+    private long largeEventMaxRetainedSize;
+
     public String getEventDomainPath() {
         return eventDomainPath;
     }
@@ -160,4 +171,23 @@ public class EventReaderConfig extends PropertiesConfig {
     public void setEntityResourceVersionPath(String entityResourceVersionPath) {
         this.entityResourceVersionPath = entityResourceVersionPath;
     }
+
+    public long getLargeEventThreshold() {
+        return largeEventThreshold;
+    }
+
+    public void setLargeEventThreshold(long largeEventThreshold) {
+        this.largeEventThreshold = largeEventThreshold;
+    }
+
+    /**
+     * @return the maximum (estimated) heap in bytes retained for a large event, or zero for no limit
+     */
+    public long getLargeEventMaxRetainedSize() {
+        return largeEventMaxRetainedSize;
+    }
+
+    public void setLargeEventMaxRetainedSize(long largeEventMaxRetainedSize) {
+        this.largeEventMaxRetainedSize = largeEventMaxRetainedSize;
+    }
 }
@@ -17,14 +17,19 @@
  */
 package org.onap.aai.validation.controller;
 
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -40,10 +45,14 @@ import org.onap.aai.validation.logging.ApplicationMsgs;
 import org.onap.aai.validation.logging.LogHelper;
 import org.onap.aai.validation.publisher.MessagePublisher;
 import org.onap.aai.validation.reader.EventReader;
+import org.onap.aai.validation.reader.JsonProjection;
 import org.onap.aai.validation.reader.data.Entity;
+import org.onap.aai.validation.reader.data.EventHeader;
+import org.onap.aai.validation.reader.data.ParsedEvent;
 import org.onap.aai.validation.result.ValidationResult;
 import org.onap.aai.validation.result.ValidationResultBuilder;
 import org.onap.aai.validation.result.Violation;
+import org.onap.aai.validation.util.ExecutionProfileReport;
 import org.onap.aai.validation.util.JsonUtil;
 
 /**
@@ -85,15 +94,19 @@ public class ValidationController {
         }
 
         /**
-         * @return a JSON string representing the first ValidationResult, or an empty string when there are no results
+         * @return a JSON string representing the ValidationResult (a JSON object) where there is a single result, or a
+         *         JSON array of all the ValidationResults where there are several (e.g. for the nested instances of an
+         *         event), or an empty string when there are no results
          */
         public String getValidationResultAsJson() {
             List<ValidationResult> resultsList = getValidationResults();
             if (resultsList.isEmpty()) {
                 return "";
-            } else {
-                // Only one Validation Result is returned (as only one is expected)
+            } else if (resultsList.size() == 1) {
+                // A single Validation Result is returned as an object (as for an event with no nested instances)
                 return JsonUtil.toJson(resultsList.get(0));
+            } else {
+                return JsonUtil.toJson(resultsList);
             }
         }
 
@@ -101,12 +114,18 @@ public class ValidationController {
             return Optional.ofNullable(errorText);
         }
 
-        private void handleException(String event, Exception rootException) {
+        private void handleException(EventPayload event, Exception rootException) {
+            if (!event.getParsedEvent().isPresent() && eventReader.isLargeEvent(event.size())) {
+                // Do not parse the whole of a large event only to report the error
+                errorText = rootException.getMessage();
+                return;
+            }
             try {
-                Entity entity = eventReader.getEntity(event);
-                if (!entity.getIds().isEmpty() && eventReader.getEntityType(event).isPresent()
+                ParsedEvent document = event.parse();
+                Entity entity = eventReader.getEntity(document);
+                if (!entity.getIds().isEmpty() && eventReader.getEntityType(document).isPresent()
                         && entity.getResourceVersion().isPresent()) {
-                    ValidationResult validationResult = new ValidationResultBuilder(eventReader, event).build();
+                    ValidationResult validationResult = new ValidationResultBuilder(eventReader, document).build();
                     // @formatter:off
 					validationResult.addViolation(new Violation.Builder(entity)
 						.category(VALIDATION_ERROR_CATEGORY)
@@ -121,8 +140,158 @@ public class ValidationController {
                 }
             } catch (Exception e) {
                 errorText = e.getMessage();
-                applicationLogger.error(ApplicationMsgs.CANNOT_VALIDATE_HANDLE_EXCEPTION_ERROR, e, event);
+                applicationLogger.error(ApplicationMsgs.CANNOT_VALIDATE_HANDLE_EXCEPTION_ERROR, e, event.toString());
+            }
+        }
+    }
+
+    /**
+     * An event in the form in which it was received. The event is parsed (once) only when it is to be validated or an
+     * error is to be reported. An event received as bytes is converted to a String only for logging.
+     */
+    private abstract class EventPayload {
+
+        private ParsedEvent parsedEvent;
+
+        /**
+         * @return the event header, or an empty Optional if the header cannot be read without parsing the event
+         */
+        abstract Optional<EventHeader> readHeader();
+
+        abstract ParsedEvent parseEvent() throws ValidationServiceException;
+
+        abstract ParsedEvent parseEvent(JsonProjection projection) throws ValidationServiceException;
+
+        /**
+         * @return the size of the event (in bytes), or -1 if the size is not known
+         */
+        abstract long size();
+
+        ParsedEvent parse() throws ValidationServiceException {
+            if (parsedEvent == null) {
+                parsedEvent = parseEvent();
             }
+            return parsedEvent;
+        }
+
+        ParsedEvent parse(JsonProjection projection) throws ValidationServiceException {
+            if (parsedEvent == null) {
+                parsedEvent = parseEvent(projection);
+            }
+            return parsedEvent;
+        }
+
+        Optional<ParsedEvent> getParsedEvent() {
+            return Optional.ofNullable(parsedEvent);
+        }
+    }
+
+    private class StringEventPayload extends EventPayload {
+
+        private final String event;
+
+        StringEventPayload(String event) {
+            this.event = event;
+        }
+
+        @Override
+        Optional<EventHeader> readHeader() {
+            return eventReader.readEventHeader(event);
+        }
+
+        @Override
+        ParsedEvent parseEvent() throws ValidationServiceException {
+            return eventReader.parseEvent(event);
+        }
+
+        @Override
+        ParsedEvent parseEvent(JsonProjection projection) throws ValidationServiceException {
+            return eventReader.parseEvent(event, projection);
+        }
+
+        /**
+         * The number of characters is taken as the size of the event.
+         */
+        @Override
+        long size() {
+            return event == null ? -1 : event.length();
+        }
+
+        @Override
+        public String toString() {
+            return event;
+        }
+    }
+
+    private class ByteEventPayload extends EventPayload {
+
+        private final ByteBuffer event;
+
+        ByteEventPayload(ByteBuffer event) {
+            this.event = event;
+        }
+
+        @Override
+        Optional<EventHeader> readHeader() {
+            return eventReader.readEventHeader(event);
+        }
+
+        @Override
+        ParsedEvent parseEvent() throws ValidationServiceException {
+            return eventReader.parseEvent(event);
+        }
+
+        @Override
+        ParsedEvent parseEvent(JsonProjection projection) throws ValidationServiceException {
+            return eventReader.parseEvent(event, projection);
+        }
+
+        @Override
+        long size() {
+            return event.remaining();
+        }
+
+        @Override
+        public String toString() {
+            return StandardCharsets.UTF_8.decode(event.duplicate()).toString();
+        }
+    }
+
+    /**
+     * The stream can be read only once, and so the header is read from the parsed event. Because the entity type is
+     * not known before the stream is read, the event is always parsed in full.
+     */
+    private class StreamEventPayload extends EventPayload {
+
+        private final InputStream event;
+
+        StreamEventPayload(InputStream event) {
+            this.event = event;
+        }
+
+        @Override
+        Optional<EventHeader> readHeader() {
+            return Optional.empty();
+        }
+
+        @Override
+        ParsedEvent parseEvent() throws ValidationServiceException {
+            return eventReader.parseEvent(event);
+        }
+
+        @Override
+        ParsedEvent parseEvent(JsonProjection projection) throws ValidationServiceException {
+            return parseEvent();
+        }
+
+        @Override
+        long size() {
+            return -1;
+        }
+
+        @Override
+        public String toString() {
+            return getParsedEvent().map(ParsedEvent::getJson).orElse("");
         }
     }
 
@@ -156,6 +325,12 @@ public class ValidationController {
             formatStats(stats, "info", sb, "Info Service");
             formatStats(stats, "http", sb, "Validation REST API");
             formatStats(stats, "topic", sb, "Events Consumed");
+            for (Validator validator : Arrays.asList(ruleDrivenValidator, modelDrivenValidator)) {
+                Optional<String> status = validator == null ? Optional.empty() : validator.getStatusReport();
+                if (status.isPresent()) {
+                    sb.append("\n").append(status.get()).append("\n");
+                }
+            }
             if (stats.reportedThrowable != null) {
                 StringWriter sw = new StringWriter();
                 stats.reportedThrowable.printStackTrace(new PrintWriter(sw));
@@ -253,6 +428,7 @@ public class ValidationController {
      * @throws ValidationServiceException if an error occurs initialising the controller
      */
     public void initialise() throws ValidationServiceException {
+        eventReader.initialise();
         ruleDrivenValidator.initialise();
         modelDrivenValidator.initialise();
     }
@@ -266,21 +442,66 @@ public class ValidationController {
      * @return Result a result containing either the set of ValidationResults or an error message
      */
     public Result execute(String event, String eventSource) {
+        return execute(new StringEventPayload(event), eventSource);
+    }
+
+    /**
+     * Validates the event supplied as UTF-8 encoded bytes. No intermediate String is created for the event (other than
+     * for logging).
+     *
+     * @param event the bytes of the event to be validated
+     * @param eventSource the source of the event
+     * @return Result a result containing either the set of ValidationResults or an error message
+     */
+    public Result execute(byte[] event, String eventSource) {
+        return execute(ByteBuffer.wrap(event), eventSource);
+    }
+
+    /**
+     * Validates the event supplied as UTF-8 encoded bytes. No intermediate String is created for the event (other than
+     * for logging).
+     *
+     * @param event the bytes of the event to be validated (from the current position to the limit)
+     * @param eventSource the source of the event
+     * @return Result a result containing either the set of ValidationResults or an error message
+     */
+    public Result execute(ByteBuffer event, String eventSource) {
+        return execute(new ByteEventPayload(event), eventSource);
+    }
+
+    /**
+     * Validates the event read from a stream of UTF-8 encoded bytes. The event is parsed as it is read from the stream.
+     *
+     * @param event a stream supplying the event to be validated
+     * @param eventSource the source of the event
+     * @return Result a result containing either the set of ValidationResults or an error message
+     */
+    public Result execute(InputStream event, String eventSource) {
+        return execute(new StreamEventPayload(event), eventSource);
+    }
+
+    private Result execute(EventPayload event, String eventSource) {
         Result result = new Result();
         try {
             stats.incrementEventCount(eventSource, "total");
-            if (isEndEvent(event)) {
-                applicationLogger.debug("Event has not been processed. End event type was detected. Event :" + event);
+            EventHeader header = getEventHeader(event);
+            if (isEndEvent(header)) {
+                if (applicationLogger.isDebugEnabled()) {
+                    applicationLogger
+                            .debug("Event has not been processed. End event type was detected. Event :" + event);
+                }
                 stats.incrementEventCount(eventSource, "end");
-            } else if (isValidationCandidate(event)) {
-                result.validationResults = dispatchEvent(event, eventSource);
+            } else if (isValidationCandidate(header)) {
+                result.validationResults = dispatchEvent(event, header, eventSource);
                 publishValidationResults(result.validationResults);
             } else {
                 stats.incrementEventCount(eventSource, "filtered");
-                applicationLogger.debug(ApplicationMsgs.FILTERED_EVENT,event);
+                if (applicationLogger.isDebugEnabled()) {
+                    applicationLogger.debug(ApplicationMsgs.FILTERED_EVENT, event.toString());
+                }
             }
         } catch (Exception e) {
-            applicationLogger.error(ApplicationMsgs.CANNOT_VALIDATE_ERROR, e, event);
+            applicationLogger.error(ApplicationMsgs.CANNOT_VALIDATE_ERROR, e, event.toString());
             stats.incrementEventCount(eventSource, "errored");
             result.handleException(event, e);
         }
@@ -299,32 +520,70 @@ public class ValidationController {
         }
     }
 
-    private Optional<List<ValidationResult>> dispatchEvent(String event, String eventSource)
-            throws ValidationServiceException {
+    /**
+     * Read the event header without parsing the full event where possible. Otherwise parse the event (once) and read
+     * the header from the parsed document.
+     */
+    private EventHeader getEventHeader(EventPayload event) throws ValidationServiceException {
+        Optional<EventHeader> header = event.readHeader();
+        if (header.isPresent()) {
+            return header.get();
+        }
+        return eventReader.getEventHeader(event.parse());
+    }
+
+    private Optional<List<ValidationResult>> dispatchEvent(EventPayload event, EventHeader header,
+            String eventSource) throws ValidationServiceException {
         List<ValidationResult> validationResults = null;
-        Optional<String> eventType = eventReader.getEventType(event);
+        Optional<String> eventType = header.getEventType();
 
-        applicationLogger.debug("Event consumed: " + event);
+        if (applicationLogger.isDebugEnabled()) {
+            applicationLogger.debug("Event consumed: " + event);
+        }
 
         if (eventType.isPresent()) {
             if (isRuleDriven(eventType.get())) {
-                validationResults = ruleDrivenValidator.validate(event);
+                validationResults = ruleDrivenValidator.validate(parse(event, header, ruleDrivenValidator, eventSource));
                 stats.incrementEventCount(eventSource, "rule");
             } else if (isModelDriven(eventType.get())) {
-                validationResults = modelDrivenValidator.validate(event);
+                validationResults =
+                        modelDrivenValidator.validate(parse(event, header, modelDrivenValidator, eventSource));
                 stats.incrementEventCount(eventSource, "model");
             } else {
-                applicationLogger.info(ApplicationMsgs.INVALID_EVENT_TYPE, event);
+                applicationLogger.info(ApplicationMsgs.INVALID_EVENT_TYPE, event.toString());
                 stats.incrementEventCount(eventSource, "invalid");
             }
         } else {
-            applicationLogger.info(ApplicationMsgs.MISSING_EVENT_TYPE, event);
+            applicationLogger.info(ApplicationMsgs.MISSING_EVENT_TYPE, event.toString());
             stats.incrementEventCount(eventSource, "missing event type");
         }
 
         return Optional.ofNullable(validationResults);
     }
 
+    /**
+     * Parse the event for validation. A large event is read retaining only the parts of the event that are required by
+     * the validator (where the validator supports this).
+     */
+    private ParsedEvent parse(EventPayload event, EventHeader header, Validator validator, String eventSource)
+            throws ValidationServiceException {
+        if (!event.getParsedEvent().isPresent() && eventReader.isLargeEvent(event.size())
+                && header.getEntityType().isPresent()) {
+            String entityType = header.getEntityType().get();
+            Optional<Collection<String>> attributePaths =
+                    validator.getAttributePaths(header.getEventType().orElse(null), entityType);
+            if (attributePaths.isPresent()) {
+                ParsedEvent parsedEvent = event.parse(
+                        eventReader.createProjection(entityType, header.getTopEntityType(), attributePaths.get()));
+                stats.incrementEventCount(eventSource, "large");
+                applicationLogger.info(ApplicationMsgs.LARGE_EVENT, Long.toString(event.size()), entityType,
+                        Long.toString(parsedEvent.getRetainedSize()));
+                return parsedEvent;
+            }
+        }
+        return event.parse();
+    }
+
     private Boolean isRuleDriven(String eventType) {
         return validationControllerConfig.getEventTypeRule().contains(eventType);
     }
@@ -333,22 +592,22 @@ public class ValidationController {
         return validationControllerConfig.getEventTypeModel().contains(eventType);
     }
 
-    private boolean isEndEvent(String event) throws ValidationServiceException {
-        Optional<String> eventType = eventReader.getEventType(event);
+    private boolean isEndEvent(EventHeader header) {
+        Optional<String> eventType = header.getEventType();
 
         return eventType.isPresent() && "END-EVENT".equalsIgnoreCase(eventType.get());
     }
 
-    private Boolean isDomainValid(String event) throws ValidationServiceException {
-        Optional<String> eventDomain = eventReader.getEventDomain(event);
+    private Boolean isDomainValid(EventHeader header) {
+        Optional<String> eventDomain = header.getDomain();
 
         // Domain is optional in Event Header
         return !eventDomain.isPresent()
                 || validationControllerConfig.getEventDomain().equalsIgnoreCase(eventDomain.get());
     }
 
-    private Boolean isNotExcludedAction(String event) throws ValidationServiceException {
-        Optional<String> eventAction = eventReader.getEventAction(event);
+    private Boolean isNotExcludedAction(EventHeader header) {
+        Optional<String> eventAction = header.getAction();
 
         // Action is optional in Event Header
         return !eventAction.isPresent()
@@ -356,8 +615,8 @@ public class ValidationController {
     }
 
 
-    private Boolean isValidationCandidate(String event) throws ValidationServiceException {
-        return isDomainValid(event) && isNotExcludedAction(event);
+    private Boolean isValidationCandidate(EventHeader header) {
+        return isDomainValid(header) && isNotExcludedAction(header);
     }
 
     /**
@@ -367,6 +626,30 @@ public class ValidationController {
         return new StatusReport();
     }
 
+    /**
+     * @return the execution profiles of the validators
+     */
+    public ExecutionProfileReport executionProfile() {
+        ExecutionProfileReport report = new ExecutionProfileReport();
+        for (Validator validator : Arrays.asList(ruleDrivenValidator, modelDrivenValidator)) {
+            if (validator != null) {
+                validator.getExecutionProfile().ifPresent(report::addAll);
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Discard the execution profiles of the validators.
+     */
+    public void resetExecutionProfile() {
+        for (Validator validator : Arrays.asList(ruleDrivenValidator, modelDrivenValidator)) {
+            if (validator != null) {
+                validator.resetExecutionProfile();
+            }
+        }
+    }
+
     /**
      * Record a Throwable which will then be added to the status reporting text.
      *
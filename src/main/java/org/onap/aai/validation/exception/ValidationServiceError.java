@@ -38,6 +38,8 @@ public enum ValidationServiceError {
     
 	// Rule exceptions. Range 200..299
 	RULE_EXECUTION_ERROR("VS-201", "Error executing rule {0} with arguments {1}"),
+	RULE_EXECUTION_BUDGET_EXCEEDED("VS-202", "Rule {0} exceeded its execution budget of {1} ms"),
+	RULE_EXECUTION_QUARANTINED("VS-203", "Rule {0} is quarantined after repeatedly exceeding its execution budget of {1} ms"),
 
 	// Validation service processing exceptions. Range 300..399
 	OMX_LOAD_ERROR("VS-300", "Validation service failed to load the OXM file."),
@@ -62,6 +64,8 @@ public enum ValidationServiceError {
 	EVENT_READER_TOO_MANY_ENTITIES("VS-502", "Unexpected number or entities."),
 	INSTANCE_READER_NO_INSTANCE("VS-503", "Failed to extract instance under path: {0}. JSON payload: {1}"),
 	EVENT_READER_PROPERTY_READ_ERROR("VS-504", "Failed to read entity link property. Check event reader configuration properties."),
+	JSON_READER_INVALID_PATH("VS-505", "Invalid JSON path: {0}"),
+	EVENT_READER_EVENT_TOO_LARGE("VS-506", "Event exceeds the maximum retained size of {0} bytes."),
 
 	// Model-instance mapping exceptions. Range 600..649
 	MODEL_INSTANCE_MAPPING_RETRIEVAL_ERROR("VS-600", "Error retrieving model-instance mappings."),
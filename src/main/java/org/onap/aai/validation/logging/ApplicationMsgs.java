@@ -52,6 +52,8 @@ public enum ApplicationMsgs implements LogMessageEnum {
 	EVENT_CLIENT_CLOSE_UNSENT_MESSAGE,
 	SEND_MESSAGE_ABORT_WARN,
 	SEND_MESSAGE_RETRY_WARN,
+	RULE_EXECUTION_OVERRUN,
+	RULE_QUARANTINED,
 	FILE_ARG_NULL_ERROR,
 	LOAD_PROPERTIES,
 	FILE_LOAD_INTO_MAP,
@@ -60,11 +62,16 @@ public enum ApplicationMsgs implements LogMessageEnum {
 	FILE_MONITOR_BLOCK_ERROR,
 	READ_FILE_STREAM_ERROR,
 	STRING_UTILS_INVALID_REGEX,
+	RULES_CACHE_INVALID,
+	RULES_CACHE_WRITE_ERROR,
+	RULES_RELOAD_ERROR,
 	MALFORMED_REQUEST_ERROR,
 	PROCESS_REQUEST_ERROR,
     INVALID_EVENT_TYPE,
     MISSING_EVENT_TYPE,
-    FILTERED_EVENT;
+    FILTERED_EVENT,
+    LARGE_EVENT,
+    RULES_LOADED;
 	// @formatter:on
 
     /**
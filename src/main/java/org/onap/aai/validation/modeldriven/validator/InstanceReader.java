@@ -64,6 +64,18 @@ public class InstanceReader {
         return oxmReader;
     }
 
+    /**
+     * Parse the instance so that the document may be shared by subsequent reads.
+     *
+     * @param json
+     *        a Named Query JSON payload
+     * @return the parsed payload
+     * @throws ValidationServiceException
+     */
+    public DocumentContext parse(String json) throws ValidationServiceException {
+        return jsonReader.parse(json);
+    }
+
     /**
      * Gets object instance values.
      *
@@ -182,6 +194,17 @@ public class InstanceReader {
         return getNamedQueryEntity(jsonParser.parse(json).getAsJsonObject());
     }
 
+    /**
+     * Extracts the entity from a parsed Named Query JSON payload.
+     *
+     * @param document
+     *        a parsed Named Query JSON payload
+     * @return an {@link InstanceEntity} object
+     */
+    public InstanceEntity getNamedQueryEntity(DocumentContext document) {
+        return getNamedQueryEntity(jsonReader.getJsonElement(document).getAsJsonObject());
+    }
+
     /**
      * Gets the model identifier of a given entity.
      *
@@ -207,10 +230,22 @@ public class InstanceReader {
      * @return the resource version of the object instance
      */
     public String getResourceVersion(String json) {
-        String resourceVersion = null;
+        return getResourceVersion(getNamedQueryEntity(json));
+    }
 
-        InstanceEntity entity = getNamedQueryEntity(json);
+    /**
+     * Gets the resource version of the instance.
+     *
+     * @param document
+     *        a parsed Named Query JSON payload
+     * @return the resource version of the object instance
+     */
+    public String getResourceVersion(DocumentContext document) {
+        return getResourceVersion(getNamedQueryEntity(document));
+    }
 
+    private String getResourceVersion(InstanceEntity entity) {
+        String resourceVersion = null;
         if (entity != null && entity.getObject() != null
                 && entity.getObject().getAsJsonObject().has(RESOURCE_VERSION)) {
             resourceVersion = entity.getObject().getAsJsonObject().get(RESOURCE_VERSION).getAsString();
@@ -43,6 +43,7 @@ import org.onap.aai.validation.reader.EventReader;
 import org.onap.aai.validation.reader.InstanceEntityReader;
 import org.onap.aai.validation.reader.data.Entity;
 import org.onap.aai.validation.reader.data.EntityId;
+import org.onap.aai.validation.reader.data.ParsedEvent;
 import org.onap.aai.validation.result.ValidationResult;
 import org.onap.aai.validation.result.ValidationResultBuilder;
 import org.onap.aai.validation.result.Violation;
@@ -110,6 +111,19 @@ public class ModelDrivenValidator implements Validator {
 	 */
 	@Override
 	public List<ValidationResult> validate(String eventInstance) throws ValidationServiceException {
+		return validate(eventReader.parseEvent(eventInstance));
+	}
+
+	/**
+	 * Validates the given (parsed) event instance against the ECOMP model.
+	 *
+	 * @param eventInstance
+	 *            the parsed event instance to be validated
+	 * @return {@link Violation} with the results of the object validation
+	 * @throws ValidationServiceException
+	 */
+	@Override
+	public List<ValidationResult> validate(ParsedEvent eventInstance) throws ValidationServiceException {
 		// Read event json into Entity bean
 		Entity eventEntity = eventReader.getEntity(eventInstance);
 
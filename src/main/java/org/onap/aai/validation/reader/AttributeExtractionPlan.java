@@ -0,0 +1,204 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A precomputed plan for reading a fixed set of attribute paths from an entity.<br>
+ * The distinct paths are merged into a tree keyed by path segment, so that a prefix shared by several paths (e.g.
+ * <code>relationship-list.relationship[*]</code>) is navigated once per entity rather than once per path. All of the
+ * values are then read in a single walk of the parsed document.
+ *
+ * <p>
+ * Only paths made up of property names and <code>[*]</code> wildcards are planned. These are read with the same
+ * semantics as JsonPath (using the document's JSON provider). Any other path (e.g. one containing a filter, an index or
+ * a deep scan) is evaluated individually using JsonPath.
+ */
+public class AttributeExtractionPlan {
+
+	private static final String NAME = "[^.\\[\\]*$@?()'\",\\s]+";
+	private static final String SEGMENT = NAME + "(?:\\[\\*\\])*";
+	private static final Pattern SIMPLE_PATH = Pattern.compile("^(?:\\$\\.)?" + SEGMENT + "(?:\\." + SEGMENT + ")*$");
+	private static final String WILDCARD = "[*]";
+
+	private final List<String> attributePaths;
+	private final List<String> unplannedPaths = new ArrayList<>();
+	private final List<Target> targets = new ArrayList<>();
+	private final Step root = new Step(null);
+
+	/**
+	 * @param paths
+	 *            the attribute paths to be read (duplicates are ignored)
+	 */
+	public AttributeExtractionPlan(Collection<String> paths) {
+		this.attributePaths = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(paths)));
+		for (String path : attributePaths) {
+			if (SIMPLE_PATH.matcher(path).matches()) {
+				addTarget(path);
+			} else {
+				unplannedPaths.add(path);
+			}
+		}
+	}
+
+	/**
+	 * @return the distinct attribute paths read by this plan
+	 */
+	public List<String> getAttributePaths() {
+		return attributePaths;
+	}
+
+	/**
+	 * @return the number of attribute paths that are not planned and so must be evaluated individually
+	 */
+	public int getUnplannedPathCount() {
+		return unplannedPaths.size();
+	}
+
+	/**
+	 * Read the value of every attribute path from the parsed document.
+	 *
+	 * @param document
+	 *            the parsed entity
+	 * @param jsonReader
+	 *            the reader used to evaluate unplanned paths and to convert the values
+	 * @return a Map of attribute path to value, each value being identical to that returned by
+	 *         {@link JsonReader#getObject(DocumentContext, String)}
+	 */
+	public Map<String, Object> extract(DocumentContext document, JsonReader jsonReader) {
+		Map<String, Object> values = new HashMap<>();
+
+		if (!targets.isEmpty()) {
+			JsonProvider provider = document.configuration().jsonProvider();
+			Object[] results = new Object[targets.size()];
+			for (Step step : root.children.values()) {
+				step.evaluate(document.json(), provider, results);
+			}
+			for (Target target : targets) {
+				Object result = results[target.index];
+				if (target.definite) {
+					result = result == null ? null : provider.getArrayIndex(result, 0);
+				} else if (result == null) {
+					result = provider.createArray();
+				}
+				values.put(target.path, jsonReader.toObject(result));
+			}
+		}
+
+		for (String path : unplannedPaths) {
+			values.put(path, jsonReader.getObject(document, path));
+		}
+
+		return values;
+	}
+
+	private void addTarget(String path) {
+		String relativePath = path.startsWith("$.") ? path.substring(2) : path;
+		Step step = root;
+		for (String segment : relativePath.split("\\.")) {
+			int wildcards = segment.indexOf('[');
+			String name = wildcards < 0 ? segment : segment.substring(0, wildcards);
+			step = step.getChild(name);
+			for (int i = wildcards; i >= 0; i = segment.indexOf('[', i + 1)) {
+				step = step.getChild(WILDCARD);
+			}
+		}
+		Target target = new Target(path, targets.size(), !relativePath.contains(WILDCARD));
+		targets.add(target);
+		step.targets.add(target);
+	}
+
+	/**
+	 * An attribute path which ends at a {@link Step}.
+	 */
+	private static class Target {
+		private final String path;
+		private final int index;
+		private final boolean definite;
+
+		Target(String path, int index, boolean definite) {
+			this.path = path;
+			this.index = index;
+			this.definite = definite;
+		}
+	}
+
+	/**
+	 * A single path token (a property name or a wildcard) shared by all the planned paths with the same prefix.
+	 */
+	private static class Step {
+		private final String property;
+		private final Map<String, Step> children = new LinkedHashMap<>();
+		private final List<Target> targets = new ArrayList<>();
+
+		Step(String property) {
+			this.property = property;
+		}
+
+		Step getChild(String token) {
+			return children.computeIfAbsent(token, t -> new Step(WILDCARD.equals(t) ? null : t));
+		}
+
+		/**
+		 * Apply this token to the model, collecting a value for each path ending here and then continuing with the
+		 * child tokens. Missing properties, and properties of values that are not objects, are ignored (as for
+		 * JsonPath with exceptions suppressed).
+		 */
+		void evaluate(Object model, JsonProvider provider, Object[] results) {
+			if (property != null) {
+				if (provider.isMap(model)) {
+					Object value = provider.getMapValue(model, property);
+					if (value != JsonProvider.UNDEFINED) {
+						accept(value, provider, results);
+					}
+				}
+			} else if (provider.isMap(model)) {
+				for (String key : provider.getPropertyKeys(model)) {
+					accept(provider.getMapValue(model, key), provider, results);
+				}
+			} else if (provider.isArray(model)) {
+				for (int i = 0; i < provider.length(model); i++) {
+					accept(provider.getArrayIndex(model, i), provider, results);
+				}
+			}
+		}
+
+		private void accept(Object value, JsonProvider provider, Object[] results) {
+			for (Target target : targets) {
+				if (results[target.index] == null) {
+					results[target.index] = provider.createArray();
+				}
+				provider.setArrayIndex(results[target.index], provider.length(results[target.index]), value);
+			}
+			for (Step child : children.values()) {
+				child.evaluate(value, provider, results);
+			}
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import com.jayway.jsonpath.DocumentContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.onap.aai.validation.config.EventReaderConfig;
+import org.onap.aai.validation.exception.ValidationServiceError;
+import org.onap.aai.validation.exception.ValidationServiceException;
+import org.onap.aai.validation.reader.data.EntityId;
+
+/**
+ * Reads the primary key values of one type of entity. The paths to each key are prepared once (per entity type).
+ *
+ * <p>
+ * The entity id path is configured as a list of alternatives, one for each supported entity layout (e.g. the plain
+ * A&AI layout and the <code>vertex.properties</code> layout). The layout of an entity is detected from the first
+ * primary key found, and the remaining keys are then read directly using the same layout. The other alternatives are
+ * tried only if a key is not found using the detected layout.
+ */
+public class EntityIdAccessor {
+
+    private final List<String> primaryKeys;
+    private final List<String> pkPathsConfig = new ArrayList<>();
+    private final List<List<PropertyPath>> pkPaths = new ArrayList<>();
+
+    /**
+     * @param primaryKeys the primary key names of the entity type
+     * @param eventReaderConfig the configuration defining the path to each key
+     * @param jsonReader the reader used to evaluate the paths
+     * @throws ValidationServiceException if any of the paths is not valid
+     */
+    public EntityIdAccessor(List<String> primaryKeys, EventReaderConfig eventReaderConfig, JsonReader jsonReader)
+            throws ValidationServiceException {
+        this.primaryKeys = primaryKeys;
+        for (String pk : primaryKeys) {
+            String paths = eventReaderConfig.getEntityIdPath(pk);
+            pkPathsConfig.add(paths);
+            pkPaths.add(PropertyPath.compileAll(paths, jsonReader));
+        }
+    }
+
+    /**
+     * @param document the parsed entity
+     * @return the key value(s) identifying the entity
+     * @throws ValidationServiceException if a primary key value is not present
+     */
+    public List<EntityId> getIds(DocumentContext document) throws ValidationServiceException {
+        List<EntityId> ids = new ArrayList<>(primaryKeys.size());
+        int layout = -1;
+        for (int i = 0; i < primaryKeys.size(); i++) {
+            List<PropertyPath> paths = pkPaths.get(i);
+            Optional<String> pkValue = Optional.empty();
+            if (layout >= 0 && layout < paths.size()) {
+                pkValue = paths.get(layout).read(document);
+            }
+            for (int j = 0; !pkValue.isPresent() && j < paths.size(); j++) {
+                pkValue = paths.get(j).read(document);
+                layout = j;
+            }
+            final String pkPaths = pkPathsConfig.get(i);
+            ids.add(new EntityId(primaryKeys.get(i), pkValue.orElseThrow(
+                    () -> new ValidationServiceException(ValidationServiceError.EVENT_READER_MISSING_PROPERTY,
+                            pkPaths))));
+        }
+        return ids;
+    }
+}
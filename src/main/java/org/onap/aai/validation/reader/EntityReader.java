@@ -17,17 +17,33 @@
  */
 package org.onap.aai.validation.reader;
 
+import com.jayway.jsonpath.DocumentContext;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.onap.aai.validation.exception.ValidationServiceException;
 import org.onap.aai.validation.reader.data.EntityId;
 
 /**
- * Interface for extracting values from an entity (in JSON format).
+ * Interface for extracting values from an entity (in JSON format).<br>
+ * Each value may be read either from the JSON String or from a document previously returned by
+ * {@link #parse(String)}. Callers reading more than one value from the same entity should parse it once and use the
+ * document.
  *
  */
 public interface EntityReader {
 
+	/**
+	 * Parse the entity so that the document may be shared by subsequent reads.
+	 *
+	 * @param json
+	 *            the JSON representation of the entity
+	 * @return the parsed entity
+	 * @throws ValidationServiceException
+	 *             if the JSON cannot be parsed
+	 */
+	DocumentContext parse(String json) throws ValidationServiceException;
+
 	/**
 	 * Return the value found at the supplied path.
 	 *
@@ -40,6 +56,31 @@ public interface EntityReader {
 	 */
 	Object getObject(String json, String path) throws ValidationServiceException;
 
+	/**
+	 * Return the value found at the supplied path.
+	 *
+	 * @param document
+	 *            the parsed entity
+	 * @param path
+	 *            specifier of the path to the value within the JSON entity
+	 * @return either a primitive object (e.g. String, Integer) or a JSON element
+	 * @throws ValidationServiceException
+	 */
+	Object getObject(DocumentContext document, String path) throws ValidationServiceException;
+
+	/**
+	 * Return the values found at each of the paths of the supplied plan.
+	 *
+	 * @param document
+	 *            the parsed entity
+	 * @param plan
+	 *            the attribute paths to read
+	 * @return a Map of each path to its value (as returned by {@link #getObject(DocumentContext, String)})
+	 * @throws ValidationServiceException
+	 */
+	Map<String, Object> getObjects(DocumentContext document, AttributeExtractionPlan plan)
+			throws ValidationServiceException;
+
 	/**
 	 * @param json
 	 *            the JSON representation of the entity
@@ -50,6 +91,16 @@ public interface EntityReader {
 	 */
 	List<EntityId> getIds(String json, String type) throws ValidationServiceException;
 
+	/**
+	 * @param document
+	 *            the parsed entity
+	 * @param type
+	 *            the type of the entity
+	 * @return the key value(s) identifying the entity
+	 * @throws ValidationServiceException
+	 */
+	List<EntityId> getIds(DocumentContext document, String type) throws ValidationServiceException;
+
 	/**
 	 * @param json
 	 *            the JSON representation of the entity
@@ -58,4 +109,12 @@ public interface EntityReader {
 	 */
 	Optional<String> getResourceVersion(String json) throws ValidationServiceException;
 
+	/**
+	 * @param document
+	 *            the parsed entity
+	 * @return the resource version of the entity (if present)
+	 * @throws ValidationServiceException
+	 */
+	Optional<String> getResourceVersion(DocumentContext document) throws ValidationServiceException;
+
 }
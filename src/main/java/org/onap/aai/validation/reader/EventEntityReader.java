@@ -17,11 +17,13 @@
  */
 package org.onap.aai.validation.reader;
 
-import java.util.ArrayList;
+import com.jayway.jsonpath.DocumentContext;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.onap.aai.validation.config.EventReaderConfig;
-import org.onap.aai.validation.exception.ValidationServiceError;
 import org.onap.aai.validation.exception.ValidationServiceException;
 import org.onap.aai.validation.reader.data.EntityId;
 
@@ -36,6 +38,10 @@ public class EventEntityReader implements EntityReader {
 
     private EventReaderConfig config;
 
+    // Prepared paths to the resource version, and to the primary keys of each entity type
+    private List<PropertyPath> resourceVersionPaths;
+    private Map<String, EntityIdAccessor> idAccessors = new ConcurrentHashMap<>();
+
     /**
      * @param eventReaderConfig
      * @param jsonReader
@@ -48,6 +54,21 @@ public class EventEntityReader implements EntityReader {
         this.config = eventReaderConfig;
     }
 
+    /**
+     * Prepare the configured entity paths: the resource version paths and the ID accessor for every entity type
+     * defined in the OXM.
+     *
+     * @throws ValidationServiceException if any of the paths is not valid
+     */
+    public void initialise() throws ValidationServiceException {
+        resourceVersionPaths = PropertyPath.compileAll(getEntityResourceVersionPath(), jsonReader);
+        if (oxmReader != null) {
+            for (Entry<String, List<String>> entry : oxmReader.getPrimaryKeysMap().entrySet()) {
+                idAccessors.put(entry.getKey(), new EntityIdAccessor(entry.getValue(), config, jsonReader));
+            }
+        }
+    }
+
     /**
      * Parse the supplied json and return the content (values) specified by the supplied path
      *
@@ -58,7 +79,22 @@ public class EventEntityReader implements EntityReader {
      */
     @Override
     public Object getObject(String json, String path) throws ValidationServiceException {
-        return jsonReader.getObject(jsonReader.parse(json), path);
+        return getObject(parse(json), path);
+    }
+
+    @Override
+    public DocumentContext parse(String json) throws ValidationServiceException {
+        return jsonReader.parse(json);
+    }
+
+    @Override
+    public Object getObject(DocumentContext document, String path) {
+        return jsonReader.getObject(document, path);
+    }
+
+    @Override
+    public Map<String, Object> getObjects(DocumentContext document, AttributeExtractionPlan plan) {
+        return plan.extract(document, jsonReader);
     }
 
     public String getEntityResourceVersionPath() {
@@ -67,15 +103,12 @@ public class EventEntityReader implements EntityReader {
 
     @Override
     public List<EntityId> getIds(String json, String type) throws ValidationServiceException {
-        List<EntityId> ids = new ArrayList<>();
-        for (String pk : oxmReader.getPrimaryKeys(type)) {
-            String pkPaths = config.getEntityIdPath(pk);
-            String pkValue = getPropertyForMultiplePaths(json, pkPaths).orElseThrow(
-                    () -> new ValidationServiceException(ValidationServiceError.EVENT_READER_MISSING_PROPERTY,
-                            pkPaths));
-            ids.add(new EntityId(pk, pkValue));
-        }
-        return ids;
+        return getIds(parse(json), type);
+    }
+
+    @Override
+    public List<EntityId> getIds(DocumentContext document, String type) throws ValidationServiceException {
+        return getIdAccessor(type).getIds(document);
     }
 
     /**
@@ -87,32 +120,44 @@ public class EventEntityReader implements EntityReader {
      * @throws ValidationServiceException
      */
     public Optional<String> getProperty(String json, String path) throws ValidationServiceException {
-        return jsonReader.get(json, path).stream().findFirst();
+        return getProperty(parse(json), path);
+    }
+
+    /**
+     * Get an entity property from a parsed entity.
+     *
+     * @param document the parsed entity
+     * @param path the JSON path to the property
+     * @return an optional property value
+     */
+    public Optional<String> getProperty(DocumentContext document, String path) {
+        return jsonReader.getAsList(document, path).stream().findFirst();
     }
 
     @Override
     public Optional<String> getResourceVersion(String json) throws ValidationServiceException {
-        return getPropertyForMultiplePaths(json, getEntityResourceVersionPath());
+        return getResourceVersion(parse(json));
+    }
+
+    @Override
+    public Optional<String> getResourceVersion(DocumentContext document) throws ValidationServiceException {
+        if (resourceVersionPaths == null) {
+            resourceVersionPaths = PropertyPath.compileAll(getEntityResourceVersionPath(), jsonReader);
+        }
+        return PropertyPath.readFirst(resourceVersionPaths, document);
     }
 
     /**
-     * Takes a comma separated list of jsonpaths and applies each one in turn until a value is found.
-     * 
-     * @param json The json to search
-     * @param multiplePaths Comma separated list of jsonpath strings
-     * @return The value of the first jsonpath string that returns a value
-     * @throws ValidationServiceException
+     * Get the ID accessor for the entity type. An accessor is created on first use for a type which was not known when
+     * the reader was initialised.
      */
-    private Optional<String> getPropertyForMultiplePaths(String json, String multiplePaths)
-            throws ValidationServiceException {
-        Optional<String> propertyValue = Optional.empty();
-        for (String path : multiplePaths.split(",")) {
-            propertyValue = getProperty(json, path);
-            if (propertyValue.isPresent()) {
-                break;
-            }
+    private EntityIdAccessor getIdAccessor(String type) throws ValidationServiceException {
+        EntityIdAccessor accessor = idAccessors.get(type);
+        if (accessor == null) {
+            accessor = new EntityIdAccessor(oxmReader.getPrimaryKeys(type), config, jsonReader);
+            idAccessors.putIfAbsent(type, accessor);
         }
-        return propertyValue;
+        return accessor;
     }
 
 }
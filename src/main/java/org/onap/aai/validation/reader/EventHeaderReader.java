@@ -0,0 +1,199 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.onap.aai.validation.config.EventReaderConfig;
+import org.onap.aai.validation.reader.data.EventHeader;
+import org.onap.aai.validation.util.ByteBufferInputStream;
+
+/**
+ * Reads the event header properties (domain, action and event type) using the Gson token stream. Only the header
+ * object is read; the remainder of the event (e.g. the entity) is never materialised.
+ *
+ * <p>
+ * Streaming is only possible when each of the configured header paths has the simple form
+ * <code>$.header-name.property-name</code> with a common header object. When the paths are not of this form, or when
+ * the event cannot be read in this way, no header is returned and the caller must parse the full event instead. The
+ * entity type and top entity type are also read where their paths are to properties of the same header object.
+ */
+public class EventHeaderReader {
+
+    private static final Pattern SIMPLE_HEADER_PATH = Pattern.compile("^\\$\\.([^.\\[\\]*@?]+)\\.([^.\\[\\]*@?]+)$");
+
+    private String headerName;
+    private String domainProperty;
+    private String actionProperty;
+    private String eventTypeProperty;
+    private String entityTypeProperty;
+    private String topEntityTypeProperty;
+
+    /**
+     * @param eventReaderConfig the event reader configuration including paths to event header properties
+     */
+    public EventHeaderReader(final EventReaderConfig eventReaderConfig) {
+        if (eventReaderConfig == null) {
+            return;
+        }
+        Matcher domain = matchHeaderPath(eventReaderConfig.getEventDomainPath());
+        Matcher action = matchHeaderPath(eventReaderConfig.getEventActionPath());
+        Matcher eventType = matchHeaderPath(eventReaderConfig.getEventTypePath());
+        if (domain != null && action != null && eventType != null && domain.group(1).equals(action.group(1))
+                && domain.group(1).equals(eventType.group(1))) {
+            this.headerName = domain.group(1);
+            this.domainProperty = domain.group(2);
+            this.actionProperty = action.group(2);
+            this.eventTypeProperty = eventType.group(2);
+            this.entityTypeProperty = getHeaderProperty(eventReaderConfig.getEntityTypePath());
+            this.topEntityTypeProperty = getHeaderProperty(eventReaderConfig.getTopEntityTypePath());
+        }
+    }
+
+    /**
+     * @return true if the configured header paths can be read from the token stream
+     */
+    public boolean isStreamingSupported() {
+        return headerName != null;
+    }
+
+    /**
+     * Read the event header properties without parsing the full event.
+     *
+     * @param event a JSON String with the event contents
+     * @return the event header, or an empty Optional if the header could not be determined by streaming
+     */
+    public Optional<EventHeader> read(String event) {
+        if (event == null) {
+            return Optional.empty();
+        }
+        return read(new StringReader(event));
+    }
+
+    /**
+     * Read the event header properties directly from the UTF-8 encoded event bytes without parsing the full event.
+     *
+     * @param event the bytes of the event (from the current position to the limit). The buffer position is unchanged.
+     * @return the event header, or an empty Optional if the header could not be determined by streaming
+     */
+    public Optional<EventHeader> read(ByteBuffer event) {
+        if (event == null) {
+            return Optional.empty();
+        }
+        return read(new InputStreamReader(new ByteBufferInputStream(event), StandardCharsets.UTF_8));
+    }
+
+    private Optional<EventHeader> read(Reader event) {
+        if (!isStreamingSupported()) {
+            return Optional.empty();
+        }
+        try (com.google.gson.stream.JsonReader reader = new com.google.gson.stream.JsonReader(event)) {
+            reader.setLenient(true);
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return Optional.empty();
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (headerName.equals(reader.nextName())) {
+                    return readHeader(reader);
+                }
+                reader.skipValue();
+            }
+            return Optional.of(createHeader(new HashMap<>()));
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            // Not readable as a stream. The full parse will report any error.
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Read the properties of the header object. Only primitive values are accepted: any other value means that the
+     * header cannot be determined from the stream.
+     */
+    private Optional<EventHeader> readHeader(com.google.gson.stream.JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            return Optional.of(createHeader(new HashMap<>()));
+        } else if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            return Optional.empty();
+        }
+
+        Map<String, String> values = new HashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals(domainProperty) || name.equals(actionProperty) || name.equals(eventTypeProperty)
+                    || name.equals(entityTypeProperty) || name.equals(topEntityTypeProperty)) {
+                JsonToken token = reader.peek();
+                if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+                    values.put(name, reader.nextString());
+                } else if (token == JsonToken.BOOLEAN) {
+                    values.put(name, Boolean.toString(reader.nextBoolean()));
+                } else if (token == JsonToken.NULL) {
+                    reader.nextNull();
+                    values.remove(name);
+                } else if (name.equals(domainProperty) || name.equals(actionProperty)
+                        || name.equals(eventTypeProperty)) {
+                    return Optional.empty();
+                } else {
+                    // The entity type is then read from the parsed event
+                    reader.skipValue();
+                }
+            } else {
+                reader.skipValue();
+            }
+        }
+        return Optional.of(createHeader(values));
+    }
+
+    private EventHeader createHeader(Map<String, String> values) {
+        return new EventHeader(Optional.ofNullable(values.get(domainProperty)),
+                Optional.ofNullable(values.get(actionProperty)), Optional.ofNullable(values.get(eventTypeProperty)),
+                getValue(values, entityTypeProperty), getValue(values, topEntityTypeProperty));
+    }
+
+    private Optional<String> getValue(Map<String, String> values, String property) {
+        return property == null ? Optional.empty() : Optional.ofNullable(values.get(property));
+    }
+
+    /**
+     * @return the name of the property if the path is to a property of the (common) header object, otherwise null (in
+     *         which case the property is not read from the stream)
+     */
+    private String getHeaderProperty(String path) {
+        Matcher matcher = matchHeaderPath(path);
+        return matcher != null && matcher.group(1).equals(headerName) ? matcher.group(2) : null;
+    }
+
+    private Matcher matchHeaderPath(String path) {
+        if (path == null) {
+            return null;
+        }
+        Matcher matcher = SIMPLE_HEADER_PATH.matcher(path.trim());
+        return matcher.matches() ? matcher : null;
+    }
+}
@@ -18,12 +18,27 @@
 package org.onap.aai.validation.reader;
 
 import com.jayway.jsonpath.DocumentContext;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.onap.aai.validation.config.EventReaderConfig;
 import org.onap.aai.validation.exception.ValidationServiceError;
 import org.onap.aai.validation.exception.ValidationServiceException;
 import org.onap.aai.validation.reader.data.Entity;
+import org.onap.aai.validation.reader.data.EventHeader;
+import org.onap.aai.validation.reader.data.ParsedEvent;
+import org.onap.aai.validation.util.ByteBufferInputStream;
 import org.onap.aai.validation.util.StringUtils;
 
 /**
@@ -36,7 +51,13 @@ public class EventReader {
 
     private JsonReader jsonReader;
 
-    private EntityReader entityReader;
+    private EventEntityReader entityReader;
+
+    private OxmReader oxmReader;
+
+    private EventHeaderReader headerReader;
+
+    private Set<String> nestedEntityTypes = Collections.emptySet();
 
     /**
      *
@@ -49,12 +70,198 @@ public class EventReader {
         this.eventReaderConfig = eventReaderConfig;
         this.jsonReader = jsonReader;
         this.entityReader = new EventEntityReader(eventReaderConfig, jsonReader, oxmReader);
+        this.oxmReader = oxmReader;
+        this.headerReader = new EventHeaderReader(eventReaderConfig);
     }
 
     ///////////////////////////////////////////////////////////////////////////
     // PUBLIC METHODS
     ///////////////////////////////////////////////////////////////////////////
 
+    /**
+     * Compile all the configured event and entity paths so that an invalid path is reported on start-up. The nested
+     * entity path is expanded and compiled for each entity type defined in the OXM.
+     *
+     * @throws ValidationServiceException if any of the configured paths is not valid
+     */
+    public void initialise() throws ValidationServiceException {
+        jsonReader.compile(Arrays.asList(eventReaderConfig.getEventDomainPath(),
+                eventReaderConfig.getEventActionPath(), eventReaderConfig.getEventTypePath(),
+                eventReaderConfig.getEntityTypePath(), eventReaderConfig.getTopEntityTypePath(),
+                eventReaderConfig.getEntityLinkPath(), eventReaderConfig.getEntityPath()));
+        if (oxmReader != null) {
+            Set<String> entityTypes = new HashSet<>();
+            for (String entityType : oxmReader.getPrimaryKeysMap().keySet()) {
+                jsonReader.compile(eventReaderConfig.getNestedEntityPath(entityType));
+                entityTypes.add(entityType);
+            }
+            nestedEntityTypes = Collections.unmodifiableSet(entityTypes);
+        }
+        entityReader.initialise();
+    }
+
+    /**
+     * Compile the supplied paths (e.g. rule attribute paths) for use when reading entity values.
+     *
+     * @param paths JSON paths
+     * @throws ValidationServiceException if any of the paths is not valid
+     */
+    public void compilePaths(Collection<String> paths) throws ValidationServiceException {
+        jsonReader.compile(paths);
+    }
+
+    /**
+     * Parse the event. The returned {@link ParsedEvent} may be passed to the other methods of this reader so that the
+     * event JSON is parsed only once.
+     *
+     * @param event a JSON String with the event contents
+     * @return the parsed event
+     * @throws ValidationServiceException if the event is not valid JSON
+     */
+    public ParsedEvent parseEvent(String event) throws ValidationServiceException {
+        return new ParsedEvent(event, jsonReader.parse(event));
+    }
+
+    /**
+     * Parse the event directly from its UTF-8 encoded bytes, without creating an intermediate String.
+     *
+     * @param event the event bytes
+     * @return the parsed event
+     * @throws ValidationServiceException if the event is not valid JSON
+     */
+    public ParsedEvent parseEvent(byte[] event) throws ValidationServiceException {
+        return parseEvent(ByteBuffer.wrap(event));
+    }
+
+    /**
+     * Parse the event directly from its UTF-8 encoded bytes, without creating an intermediate String.
+     *
+     * @param event the event bytes (from the current position to the limit). The buffer position is unchanged.
+     * @return the parsed event
+     * @throws ValidationServiceException if the event is not valid JSON
+     */
+    public ParsedEvent parseEvent(ByteBuffer event) throws ValidationServiceException {
+        return parseEvent(new ByteBufferInputStream(event));
+    }
+
+    /**
+     * Parse the event as it is read from the stream of UTF-8 encoded bytes, without creating an intermediate String.
+     *
+     * @param event the event stream (this is closed once it has been read)
+     * @return the parsed event
+     * @throws ValidationServiceException if the event is not valid JSON
+     */
+    public ParsedEvent parseEvent(InputStream event) throws ValidationServiceException {
+        return new ParsedEvent(jsonReader.parse(event));
+    }
+
+    /**
+     * @param eventSize the size of the event (in bytes), or a negative value if the size is not known
+     * @return true if the event is to be read in large-event mode (i.e. using a {@link JsonProjection})
+     */
+    public boolean isLargeEvent(long eventSize) {
+        long threshold = eventReaderConfig.getLargeEventThreshold();
+        return threshold > 0 && eventSize >= threshold;
+    }
+
+    /**
+     * Create the projection of an event which retains the event header properties and, for each entity to be
+     * validated, the entity id, the resource version and the supplied attributes.
+     *
+     * @param entityType the type of the entity to be validated
+     * @param topEntityType the type of the top-level entity of the event (if known)
+     * @param attributePaths the entity attribute paths read by the validator
+     * @return the projection
+     * @throws ValidationServiceException if the primary keys of the entity type cannot be determined
+     */
+    public JsonProjection createProjection(String entityType, Optional<String> topEntityType,
+            Collection<String> attributePaths) throws ValidationServiceException {
+        JsonProjection projection = new JsonProjection();
+        for (String path : Arrays.asList(eventReaderConfig.getEventDomainPath(),
+                eventReaderConfig.getEventActionPath(), eventReaderConfig.getEventTypePath(),
+                eventReaderConfig.getEntityTypePath(), eventReaderConfig.getTopEntityTypePath(),
+                eventReaderConfig.getEntityLinkPath())) {
+            if (path != null) {
+                projection.retain(path);
+            }
+        }
+
+        String entityPath = entityType.equals(topEntityType.orElse(entityType)) ? eventReaderConfig.getEntityPath()
+                : eventReaderConfig.getNestedEntityPath(entityType);
+        JsonProjection.Scope entity = projection.scope(entityPath);
+        if (oxmReader != null) {
+            for (String pk : oxmReader.getPrimaryKeys(entityType)) {
+                for (String path : eventReaderConfig.getEntityIdPath(pk).split(",")) {
+                    entity.retain(path);
+                }
+            }
+        }
+        for (String path : eventReaderConfig.getEntityResourceVersionPath().split(",")) {
+            entity.retain(path);
+        }
+        for (String path : attributePaths) {
+            entity.retain(path);
+        }
+        return projection;
+    }
+
+    /**
+     * Read the event, retaining only the parts of the event defined by the projection. The estimated size of the
+     * retained document is limited by the configured maximum.
+     *
+     * @param event a JSON String with the event contents
+     * @param projection the parts of the event to be retained
+     * @return the parsed (projected) event
+     * @throws ValidationServiceException if the event is not valid JSON, or the projected event is too large
+     */
+    public ParsedEvent parseEvent(String event, JsonProjection projection) throws ValidationServiceException {
+        return parseEvent(new StringReader(event), projection);
+    }
+
+    /**
+     * Read the event from its UTF-8 encoded bytes, retaining only the parts of the event defined by the projection.
+     * The estimated size of the retained document is limited by the configured maximum.
+     *
+     * @param event the event bytes (from the current position to the limit). The buffer position is unchanged.
+     * @param projection the parts of the event to be retained
+     * @return the parsed (projected) event
+     * @throws ValidationServiceException if the event is not valid JSON, or the projected event is too large
+     */
+    public ParsedEvent parseEvent(ByteBuffer event, JsonProjection projection) throws ValidationServiceException {
+        return parseEvent(new InputStreamReader(new ByteBufferInputStream(event), StandardCharsets.UTF_8), projection);
+    }
+
+    /**
+     * Read the event header properties from the event without parsing the full event. Only the header object is
+     * read, so that events which are not to be validated are never fully materialised.
+     *
+     * @param event a JSON String with the event contents
+     * @return the event header, or an empty Optional if the header cannot be read without parsing the event
+     */
+    public Optional<EventHeader> readEventHeader(String event) {
+        return headerReader.read(event);
+    }
+
+    /**
+     * Read the event header properties from the UTF-8 encoded event bytes without parsing the full event.
+     *
+     * @param event the event bytes (from the current position to the limit). The buffer position is unchanged.
+     * @return the event header, or an empty Optional if the header cannot be read without parsing the event
+     */
+    public Optional<EventHeader> readEventHeader(ByteBuffer event) {
+        return headerReader.read(event);
+    }
+
+    /**
+     * Get the event header properties from the parsed event.
+     *
+     * @param event the parsed event
+     * @return the event header
+     */
+    public EventHeader getEventHeader(ParsedEvent event) {
+        return new EventHeader(getEventDomain(event), getEventAction(event), getEventType(event));
+    }
+
     /**
      * Get the domain of the event.
      *
@@ -63,8 +270,17 @@ public class EventReader {
      * @throws ValidationServiceException
      */
     public Optional<String> getEventDomain(String event) throws ValidationServiceException {
-        List<String> readerResult = jsonReader.get(event, eventReaderConfig.getEventDomainPath());
-        return getFirst(readerResult);
+        return getEventDomain(parseEvent(event));
+    }
+
+    /**
+     * Get the domain of the event.
+     *
+     * @param event the parsed event
+     * @return the domain of the event
+     */
+    public Optional<String> getEventDomain(ParsedEvent event) {
+        return getValue(event.getDocument(), eventReaderConfig.getEventDomainPath());
     }
 
     /**
@@ -75,8 +291,17 @@ public class EventReader {
      * @throws ValidationServiceException
      */
     public Optional<String> getEventAction(String event) throws ValidationServiceException {
-        List<String> readerResult = jsonReader.get(event, eventReaderConfig.getEventActionPath());
-        return getFirst(readerResult);
+        return getEventAction(parseEvent(event));
+    }
+
+    /**
+     * Get the action of the event.
+     *
+     * @param event the parsed event
+     * @return the action of the event
+     */
+    public Optional<String> getEventAction(ParsedEvent event) {
+        return getValue(event.getDocument(), eventReaderConfig.getEventActionPath());
     }
 
     /**
@@ -87,8 +312,17 @@ public class EventReader {
      * @throws ValidationServiceException
      */
     public Optional<String> getEventType(String event) throws ValidationServiceException {
-        List<String> readerResult = jsonReader.get(event, eventReaderConfig.getEventTypePath());
-        return getFirst(readerResult);
+        return getEventType(parseEvent(event));
+    }
+
+    /**
+     * Get the type of the event.
+     *
+     * @param event the parsed event
+     * @return the type of the event
+     */
+    public Optional<String> getEventType(ParsedEvent event) {
+        return getValue(event.getDocument(), eventReaderConfig.getEventTypePath());
     }
 
     /**
@@ -99,8 +333,17 @@ public class EventReader {
      * @throws ValidationServiceException
      */
     public Optional<String> getEntityType(String event) throws ValidationServiceException {
-        List<String> readerResult = jsonReader.get(event, eventReaderConfig.getEntityTypePath());
-        return getFirst(readerResult);
+        return getEntityType(parseEvent(event));
+    }
+
+    /**
+     * Get the entity type of the entity in the event.
+     *
+     * @param event the parsed event
+     * @return the type of the entity
+     */
+    public Optional<String> getEntityType(ParsedEvent event) {
+        return getValue(event.getDocument(), eventReaderConfig.getEntityTypePath());
     }
 
     /**
@@ -110,16 +353,48 @@ public class EventReader {
      * @return the entity
      */
     public Entity getEntity(String event) throws ValidationServiceException {
-        DocumentContext document = jsonReader.parse(event);
+        return getEntity(parseEvent(event));
+    }
+
+    /**
+     * Get the entity contained in the event.
+     *
+     * @param event the parsed event
+     * @return the entity
+     * @throws ValidationServiceException if the entity is not present, or if more than one nested entity of the event's
+     *         entity type is present
+     */
+    public Entity getEntity(ParsedEvent event) throws ValidationServiceException {
+        List<Entity> entities = getEntities(event);
+        if (entities.size() > 1) {
+            throw new ValidationServiceException(ValidationServiceError.EVENT_READER_TOO_MANY_ENTITIES);
+        }
+        return entities.get(0);
+    }
+
+    /**
+     * Get all of the entities contained in the event. Where the entity type differs from the top entity type, every
+     * nested instance of the entity type is returned (in document order) so that the instances can be validated as a
+     * batch.
+     *
+     * @param event the parsed event
+     * @return the entities (at least one)
+     * @throws ValidationServiceException if the entity is not present
+     */
+    public List<Entity> getEntities(ParsedEvent event) throws ValidationServiceException {
+        DocumentContext document = event.getDocument();
 
         String entityType = getValue(document, eventReaderConfig.getEntityTypePath())
                 .orElseThrow(() -> new ValidationServiceException(ValidationServiceError.EVENT_READER_MISSING_PROPERTY,
                         eventReaderConfig.getEntityTypePath()));
         String topEntityType = getValue(document, eventReaderConfig.getTopEntityTypePath()).orElse(entityType);
         String entityLink = getEntityLink(document);
-        String json = findEntity(event, topEntityType, entityType);
 
-        return new Entity(json, entityType, entityLink, entityReader);
+        List<Entity> entities = new ArrayList<>();
+        for (String json : findEntities(event, topEntityType, entityType)) {
+            entities.add(new Entity(json, entityType, entityLink, entityReader));
+        }
+        return entities;
     }
 
     /**
@@ -131,38 +406,75 @@ public class EventReader {
      * @throws ValidationServiceException if the value is not present
      */
     public String getValue(final String json, final String path) throws ValidationServiceException {
-        return getFirst(jsonReader.get(json, path)).orElseThrow(
-                () -> new ValidationServiceException(ValidationServiceError.EVENT_READER_MISSING_PROPERTY, path));
+        return getValue(parseEvent(json), path);
+    }
+
+    /**
+     * Get the value of the JSON property defined by the path.
+     *
+     * @param event the parsed event
+     * @param path the path to a property
+     * @return the value
+     * @throws ValidationServiceException if the value is not present
+     */
+    public String getValue(final ParsedEvent event, final String path) throws ValidationServiceException {
+        return getRequiredValue(event.getDocument(), path);
     }
 
     ///////////////////////////////////////////////////////////////////////////
     // PRIVATE METHODS
     ///////////////////////////////////////////////////////////////////////////
 
-    private String findEntity(String event, String topEntityType, String entityType) throws ValidationServiceException {
-        String json;
+    private ParsedEvent parseEvent(Reader event, JsonProjection projection) throws ValidationServiceException {
+        JsonProjection.Result result = projection.read(event, eventReaderConfig.getLargeEventMaxRetainedSize());
+        return new ParsedEvent(jsonReader.parse(result.getJson()), result.getRetainedSize());
+    }
+
+    private List<String> findEntities(ParsedEvent event, String topEntityType, String entityType)
+            throws ValidationServiceException {
         if (entityType.equals(topEntityType)) {
-            json = getValue(event, eventReaderConfig.getEntityPath());
+            return Collections.singletonList(getRequiredValue(event.getDocument(), eventReaderConfig.getEntityPath()));
         } else {
-            json = findNestedEntity(event, eventReaderConfig.getNestedEntityPath(entityType));
+            return findNestedEntities(event, entityType);
         }
-        return json;
     }
 
     /**
-     * @param event
-     * @param path
-     * @return
-     * @throws ValidationServiceException
+     * Find every nested entity of the specified type. The entities are read from the event's {@link NestedEntityIndex}
+     * (built on first use) where the configured path allows, otherwise by evaluating the nested entity path.
+     *
+     * @param event the parsed event
+     * @param entityType the type of the nested entities
+     * @return the nested entities (at least one)
+     * @throws ValidationServiceException if there is no entity of the specified type
      */
-    private String findNestedEntity(String event, String path) throws ValidationServiceException {
-        List<String> entities = jsonReader.get(event, path);
+    private List<String> findNestedEntities(ParsedEvent event, String entityType) throws ValidationServiceException {
+        String path = eventReaderConfig.getNestedEntityPath(entityType);
+        Optional<List<String>> indexedEntities = Optional.empty();
+        NestedEntityIndex index = getNestedEntityIndex(event);
+        if (index != null) {
+            indexedEntities = index.getEntities(entityType, jsonReader);
+        }
+        List<String> entities = indexedEntities.orElseGet(() -> jsonReader.getAsList(event.getDocument(), path));
         if (entities.isEmpty()) {
             throw new ValidationServiceException(ValidationServiceError.EVENT_READER_MISSING_PROPERTY, path);
-        } else if (entities.size() > 1) {
-            throw new ValidationServiceException(ValidationServiceError.EVENT_READER_TOO_MANY_ENTITIES);
         }
-        return entities.get(0);
+        return entities;
+    }
+
+    private NestedEntityIndex getNestedEntityIndex(ParsedEvent event) {
+        if (event.getNestedEntityIndex() == null && !nestedEntityTypes.isEmpty() && NestedEntityIndex
+                .supports(eventReaderConfig.getNestedEntityPath("{0}"), eventReaderConfig.getEntityPath())) {
+            event.setNestedEntityIndex(new NestedEntityIndex(event.getDocument(), eventReaderConfig.getEntityPath(),
+                    nestedEntityTypes));
+        }
+        return event.getNestedEntityIndex();
+    }
+
+    private String getRequiredValue(final DocumentContext document, final String path)
+            throws ValidationServiceException {
+        return getValue(document, path).orElseThrow(
+                () -> new ValidationServiceException(ValidationServiceError.EVENT_READER_MISSING_PROPERTY, path));
     }
 
     private Optional<String> getFirst(List<String> l) {
@@ -210,6 +522,7 @@ public class EventReader {
      */
     public void setEventReaderConfig(EventReaderConfig eventReaderConfig) {
         this.eventReaderConfig = eventReaderConfig;
+        this.headerReader = new EventHeaderReader(eventReaderConfig);
     }
 
 }
@@ -18,8 +18,10 @@
 package org.onap.aai.validation.reader;
 
 import com.google.gson.JsonElement;
+import com.jayway.jsonpath.DocumentContext;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.onap.aai.validation.exception.ValidationServiceError;
 import org.onap.aai.validation.exception.ValidationServiceException;
@@ -42,16 +44,37 @@ public class InstanceEntityReader implements EntityReader {
 		this.reader = instanceReader;
 	}
 
+	@Override
+	public DocumentContext parse(String json) throws ValidationServiceException {
+		return reader.parse(json);
+	}
+
 	@Override
 	public Object getObject(String json, String attribute) throws ValidationServiceException {
 		throw new ValidationServiceException(ValidationServiceError.INSTANCE_READER_NO_INSTANCE, "Not implemented");
 	}
 
+	@Override
+	public Object getObject(DocumentContext document, String attribute) throws ValidationServiceException {
+		throw new ValidationServiceException(ValidationServiceError.INSTANCE_READER_NO_INSTANCE, "Not implemented");
+	}
+
+	@Override
+	public Map<String, Object> getObjects(DocumentContext document, AttributeExtractionPlan plan)
+			throws ValidationServiceException {
+		throw new ValidationServiceException(ValidationServiceError.INSTANCE_READER_NO_INSTANCE, "Not implemented");
+	}
+
 	@Override
 	public List<EntityId> getIds(String json, String type) throws ValidationServiceException {
+		return getIds(parse(json), type);
+	}
+
+	@Override
+	public List<EntityId> getIds(DocumentContext document, String type) throws ValidationServiceException {
 		List<EntityId> ids = new ArrayList<>();
 
-		InstanceEntity entity = reader.getNamedQueryEntity(json);
+		InstanceEntity entity = reader.getNamedQueryEntity(document);
 
 		List<String> primaryKeys = reader.getOxmReader().getPrimaryKeys(entity.getEntityType());
 
@@ -69,7 +92,12 @@ public class InstanceEntityReader implements EntityReader {
 
 	@Override
 	public Optional<String> getResourceVersion(String json) throws ValidationServiceException {
-		return Optional.of(reader.getResourceVersion(json));
+		return getResourceVersion(parse(json));
+	}
+
+	@Override
+	public Optional<String> getResourceVersion(DocumentContext document) throws ValidationServiceException {
+		return Optional.of(reader.getResourceVersion(document));
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A read-only List presenting a JSON array in the reader's tree model, as returned by
+ * {@link JsonReader#getObject(com.jayway.jsonpath.DocumentContext, String)}.<br>
+ * The array is not copied: each element is converted only when it is read (in the same way as the reader converts a
+ * single value), so a rule which only tests the array for null or reads its size does not convert any element. Nested
+ * arrays are presented as further views. The view compares equal to any other List of the same (converted) elements.
+ *
+ * <p>
+ * The view does not copy the array and so must not outlive a change to the parsed document. Parsed documents are not
+ * changed once read.
+ */
+public final class JsonArrayView extends AbstractList<Object> implements RandomAccess {
+
+	private final JsonReader reader;
+	private final JsonProvider jsonProvider;
+	private final Object array;
+	private final int size;
+
+	/**
+	 * @param reader
+	 *            the reader which parsed the array (used to convert the elements)
+	 * @param jsonProvider
+	 *            the reader's tree model
+	 * @param array
+	 *            an array in the reader's tree model
+	 */
+	JsonArrayView(JsonReader reader, JsonProvider jsonProvider, Object array) {
+		this.reader = reader;
+		this.jsonProvider = jsonProvider;
+		this.array = array;
+		this.size = jsonProvider.length(array);
+	}
+
+	@Override
+	public Object get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		// The element is not unwrapped by the provider, so that Gson numbers retain their text and a JSON null is
+		// read as JsonNull (as for any other value read by the reader)
+		return reader.toObject(jsonProvider.getArrayIndex(array, index));
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.cache.Cache;
+import com.jayway.jsonpath.spi.cache.CacheProvider;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.onap.aai.validation.exception.ValidationServiceError;
+import org.onap.aai.validation.exception.ValidationServiceException;
+
+/**
+ * Registry of compiled JayWay {@link JsonPath} objects, keyed by the path String.<br>
+ * Paths known from configuration are registered (compiled) at initialisation time so that any invalid path is reported
+ * on start-up and so that reading a value does not need to tokenise the path again.
+ */
+public class JsonPathRegistry {
+
+	private final Map<String, JsonPath> compiledPaths = new ConcurrentHashMap<>();
+
+	/**
+	 * Compile and register the path.
+	 *
+	 * @param path
+	 *            the path to property values. The format must comply with the JayWay JsonPath definition.
+	 * @return the compiled path
+	 * @throws ValidationServiceException
+	 *             if the path is not valid
+	 */
+	public JsonPath register(String path) throws ValidationServiceException {
+		JsonPath jsonPath = compiledPaths.get(path);
+		if (jsonPath == null) {
+			try {
+				jsonPath = JsonPath.compile(path);
+			} catch (InvalidPathException | IllegalArgumentException e) {
+				throw new ValidationServiceException(ValidationServiceError.JSON_READER_INVALID_PATH, e, path);
+			}
+			compiledPaths.putIfAbsent(path, jsonPath);
+		}
+		return jsonPath;
+	}
+
+	/**
+	 * Compile and register each of the paths.
+	 *
+	 * @param paths
+	 *            the paths to register
+	 * @throws ValidationServiceException
+	 *             if any of the paths is not valid
+	 */
+	public void registerAll(Collection<String> paths) throws ValidationServiceException {
+		for (String path : paths) {
+			register(path);
+		}
+	}
+
+	/**
+	 * Get the compiled path. A path that was not registered (e.g. a path built from the content of an event) is not
+	 * added to the registry, which would otherwise grow without bound; it is held in JsonPath's own (bounded) cache.
+	 *
+	 * @param path
+	 *            the path to property values
+	 * @return the compiled path
+	 * @throws InvalidPathException
+	 *             if the (unregistered) path is not valid
+	 */
+	public JsonPath get(String path) {
+		JsonPath jsonPath = compiledPaths.get(path);
+		if (jsonPath == null) {
+			Cache cache = CacheProvider.getCache();
+			jsonPath = cache.get(path);
+			if (jsonPath == null) {
+				jsonPath = JsonPath.compile(path);
+				cache.put(path, jsonPath);
+			}
+		}
+		return jsonPath;
+	}
+
+	/**
+	 * @param path
+	 * @return true if the path has been registered
+	 */
+	public boolean isRegistered(String path) {
+		return compiledPaths.containsKey(path);
+	}
+
+	/**
+	 * @return the number of registered paths
+	 */
+	public int size() {
+		return compiledPaths.size();
+	}
+}
@@ -0,0 +1,375 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.onap.aai.validation.exception.ValidationServiceError;
+import org.onap.aai.validation.exception.ValidationServiceException;
+
+/**
+ * The parts of a JSON document that are to be retained when the document is read as a stream. Only the values found by
+ * the retained paths (and the objects and arrays containing them) are materialised; all other values are skipped.
+ *
+ * <p>
+ * Retained paths are made up of property names, <code>[*]</code> and <code>.*</code> wildcards and <code>..name</code>
+ * deep scans. Evaluating such a path against the projected document gives the same result as evaluating it against the
+ * full document. A path of any other form causes the whole of the value at which it starts to be retained.
+ *
+ * <p>
+ * A {@link Scope} is used to retain paths relative to each of the values found by a path, for example the attributes
+ * of each (nested) entity found in an event.
+ */
+public class JsonProjection {
+
+    private static final Pattern TOKEN = Pattern.compile("\\.\\.([^.\\[\\]*$@?()'\",\\s]+)|\\.([^.\\[\\]*$@?()'\",\\s]+)"
+            + "|\\[\\*\\]|\\.\\*");
+
+    // Rough estimates of the heap used by the materialised tree
+    private static final int CONTAINER_SIZE = 48;
+    private static final int ENTRY_SIZE = 40;
+    private static final int ELEMENT_SIZE = 8;
+    private static final int VALUE_SIZE = 40;
+
+    private final Node root = new Node();
+
+    /**
+     * Create an empty projection, i.e. one which retains only the document root.
+     */
+    public JsonProjection() {
+        root.required = true;
+    }
+
+    /**
+     * A value found by a path, relative to which further paths may be retained.
+     */
+    public class Scope {
+
+        private final Node node;
+
+        private Scope(Node node) {
+            this.node = node;
+        }
+
+        /**
+         * Retain the values found by the path, relative to this scope.
+         *
+         * @param path a path, with or without a leading <code>$</code>
+         * @return this scope
+         */
+        public Scope retain(String path) {
+            add(node, path).retainAll = true;
+            return this;
+        }
+    }
+
+    /**
+     * Retain the values found by the path.
+     *
+     * @param path a JSON path (from the document root)
+     * @return this projection
+     */
+    public JsonProjection retain(String path) {
+        add(root, path).retainAll = true;
+        return this;
+    }
+
+    /**
+     * Create a scope for the values found by the path. Each value is retained (even if none of the paths relative to
+     * the scope is found) but none of its content is retained other than that found by the paths of the scope.
+     *
+     * @param path a JSON path (from the document root)
+     * @return the scope
+     */
+    public Scope scope(String path) {
+        Node node = add(root, path);
+        node.required = true;
+        return new Scope(node);
+    }
+
+    /**
+     * Read the JSON document, retaining only the parts of the document found by the retained paths.
+     *
+     * @param json the JSON document (the reader is closed once it has been read)
+     * @param maxRetainedSize the maximum estimated size (in bytes) of the projected document. Zero means that there is
+     *        no limit.
+     * @return the projected document
+     * @throws ValidationServiceException if the document cannot be parsed, or if the size limit is exceeded
+     */
+    public Result read(Reader json, long maxRetainedSize) throws ValidationServiceException {
+        Result result = new Result(maxRetainedSize);
+        try (com.google.gson.stream.JsonReader reader = new com.google.gson.stream.JsonReader(json)) {
+            reader.setLenient(true);
+            List<Node> states = new ArrayList<>();
+            addState(states, root);
+            result.json = read(reader, states, result);
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new ValidationServiceException(ValidationServiceError.JSON_READER_PARSE_ERROR, e);
+        }
+        return result;
+    }
+
+    /**
+     * The projected document.
+     */
+    public static class Result {
+
+        private final long maxRetainedSize;
+        private JsonElement json;
+        private long retainedSize;
+
+        private Result(long maxRetainedSize) {
+            this.maxRetainedSize = maxRetainedSize;
+        }
+
+        /**
+         * @return the document model, or null if no part of the document is retained
+         */
+        public JsonElement getJson() {
+            return json;
+        }
+
+        /**
+         * @return the estimated heap size (in bytes) of the document model
+         */
+        public long getRetainedSize() {
+            return retainedSize;
+        }
+
+        private void retain(long size) throws ValidationServiceException {
+            retainedSize += size;
+            if (maxRetainedSize > 0 && retainedSize > maxRetainedSize) {
+                throw new ValidationServiceException(ValidationServiceError.EVENT_READER_EVENT_TOO_LARGE,
+                        maxRetainedSize);
+            }
+        }
+    }
+
+    /**
+     * A state in the (non-deterministic) automaton matching the property names and array elements on the way from the
+     * document root to each value.
+     */
+    private static class Node {
+        private final Map<String, Node> properties = new HashMap<>();
+        private final List<Node> alternatives = new ArrayList<>();
+        private Node wildcard;
+        private boolean retainAll;
+        private boolean required;
+
+        Node getProperty(String name) {
+            return properties.computeIfAbsent(name, n -> new Node());
+        }
+
+        Node getWildcard() {
+            if (wildcard == null) {
+                wildcard = new Node();
+            }
+            return wildcard;
+        }
+    }
+
+    /**
+     * Add the states for each token of the path.
+     *
+     * @return the state matching the values found by the path
+     */
+    private Node add(Node start, String path) {
+        String tokens = path.trim();
+        if (tokens.startsWith("$")) {
+            tokens = tokens.substring(1);
+        } else if (!tokens.isEmpty() && !tokens.startsWith(".") && !tokens.startsWith("[")) {
+            tokens = "." + tokens;
+        }
+
+        Node node = start;
+        Matcher matcher = TOKEN.matcher(tokens);
+        int position = 0;
+        while (position < tokens.length()) {
+            if (!matcher.find(position) || matcher.start() != position) {
+                // Not a supported path: retain everything from the start
+                return start;
+            }
+            if (matcher.group(1) != null) {
+                Node scan = new Node();
+                scan.wildcard = scan;
+                node.alternatives.add(scan);
+                node = scan.getProperty(matcher.group(1));
+            } else if (matcher.group(2) != null) {
+                node = node.getProperty(matcher.group(2));
+            } else {
+                node = node.getWildcard();
+            }
+            position = matcher.end();
+        }
+        return node;
+    }
+
+    private static void addState(List<Node> states, Node node) {
+        if (node != null && !states.contains(node)) {
+            states.add(node);
+            for (Node alternative : node.alternatives) {
+                addState(states, alternative);
+            }
+        }
+    }
+
+    private static List<Node> nextStates(List<Node> states, String name) {
+        List<Node> next = new ArrayList<>();
+        for (Node state : states) {
+            if (name != null) {
+                addState(next, state.properties.get(name));
+            }
+            addState(next, state.wildcard);
+        }
+        return next;
+    }
+
+    /**
+     * Read the next value, retaining only those parts matched by the states.
+     *
+     * @return the value, or null if no part of the value is retained
+     */
+    private JsonElement read(com.google.gson.stream.JsonReader reader, List<Node> states, Result result)
+            throws IOException, ValidationServiceException {
+        boolean required = false;
+        for (Node state : states) {
+            if (state.retainAll) {
+                return readAll(reader, result);
+            }
+            required |= state.required;
+        }
+
+        JsonToken token = reader.peek();
+        if (token == JsonToken.BEGIN_OBJECT) {
+            JsonObject map = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                List<Node> next = nextStates(states, name);
+                JsonElement value = next.isEmpty() ? skip(reader) : read(reader, next, result);
+                if (value != null) {
+                    if (map == null) {
+                        map = new JsonObject();
+                    }
+                    map.add(name, value);
+                    result.retain(ENTRY_SIZE + 2L * name.length());
+                }
+            }
+            reader.endObject();
+            if (map == null && required) {
+                map = new JsonObject();
+            }
+            return retainContainer(map, result);
+        } else if (token == JsonToken.BEGIN_ARRAY) {
+            JsonArray array = null;
+            List<Node> next = nextStates(states, null);
+            reader.beginArray();
+            while (reader.hasNext()) {
+                JsonElement value = next.isEmpty() ? skip(reader) : read(reader, next, result);
+                if (value != null) {
+                    if (array == null) {
+                        array = new JsonArray();
+                    }
+                    array.add(value);
+                    result.retain(ELEMENT_SIZE);
+                }
+            }
+            reader.endArray();
+            if (array == null && required) {
+                array = new JsonArray();
+            }
+            return retainContainer(array, result);
+        } else if (required) {
+            return readAll(reader, result);
+        } else {
+            return skip(reader);
+        }
+    }
+
+    private JsonElement retainContainer(JsonElement container, Result result) throws ValidationServiceException {
+        if (container != null) {
+            result.retain(CONTAINER_SIZE);
+        }
+        return container;
+    }
+
+    private JsonElement skip(com.google.gson.stream.JsonReader reader) throws IOException {
+        reader.skipValue();
+        return null;
+    }
+
+    /**
+     * Read the whole of the next value (creating the same elements as the Gson parser).
+     */
+    private JsonElement readAll(com.google.gson.stream.JsonReader reader, Result result)
+            throws IOException, ValidationServiceException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                JsonObject map = new JsonObject();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    map.add(name, readAll(reader, result));
+                    result.retain(ENTRY_SIZE + 2L * name.length());
+                }
+                reader.endObject();
+                result.retain(CONTAINER_SIZE);
+                return map;
+            case BEGIN_ARRAY:
+                JsonArray array = new JsonArray();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    array.add(readAll(reader, result));
+                    result.retain(ELEMENT_SIZE);
+                }
+                reader.endArray();
+                result.retain(CONTAINER_SIZE);
+                return array;
+            case STRING:
+                String string = reader.nextString();
+                result.retain(VALUE_SIZE + 2L * string.length());
+                return new JsonPrimitive(string);
+            case NUMBER:
+                String number = reader.nextString();
+                result.retain(VALUE_SIZE + 2L * number.length());
+                return new JsonPrimitive(new LazilyParsedNumber(number));
+            case BOOLEAN:
+                result.retain(VALUE_SIZE);
+                return new JsonPrimitive(reader.nextBoolean());
+            case NULL:
+                reader.nextNull();
+                result.retain(ELEMENT_SIZE);
+                return JsonNull.INSTANCE;
+            default:
+                throw new IllegalStateException("Unexpected token " + reader.peek());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.spi.json.GsonJsonProvider;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import com.jayway.jsonpath.spi.json.JsonSmartJsonProvider;
+import com.jayway.jsonpath.spi.mapper.GsonMappingProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import com.jayway.jsonpath.spi.mapper.JsonSmartMappingProvider;
+
+/**
+ * The JSON tree models which may be used by a {@link JsonReader} to represent parsed documents. Each type knows how to
+ * convert the values of its own model to the Strings and Lists returned by the reader, so that code reading documents
+ * does not depend on the classes of any one model.
+ *
+ * <p>
+ * Object values are always presented to rules as Gson objects (as they were before the tree model was configurable).
+ * Models other than Gson render numbers from their parsed values (e.g. <code>1.50</code> is read as <code>1.5</code>)
+ * and return JSON nulls as null.
+ */
+public enum JsonProviderType {
+
+    /**
+     * Gson <code>JsonElement</code> trees. Numbers retain the text of the original document.
+     */
+    GSON {
+        @Override
+        JsonProvider createJsonProvider() {
+            return new GsonJsonProvider();
+        }
+
+        @Override
+        Configuration.ConfigurationBuilder configure(Configuration.ConfigurationBuilder builder) {
+            return builder.mappingProvider(new GsonMappingProvider());
+        }
+
+        @Override
+        Object toScalar(Object value, JsonProvider provider) {
+            if (value instanceof JsonElement) {
+                JsonElement element = (JsonElement) value;
+                // A JSON null is returned as the JsonNull element itself
+                return element.isJsonPrimitive() ? element.getAsString() : element;
+            }
+            return value == null ? null : value.toString();
+        }
+
+        @Override
+        boolean isNull(Object value, JsonProvider provider) {
+            return value instanceof JsonElement && ((JsonElement) value).isJsonNull();
+        }
+
+        @Override
+        String toJson(Object value, JsonProvider provider) {
+            return value.toString();
+        }
+
+        @Override
+        JsonElement toJsonElement(Object value, JsonProvider provider) {
+            return (JsonElement) value;
+        }
+    },
+
+    /**
+     * Jackson <code>JsonNode</code> trees.
+     */
+    JACKSON {
+        @Override
+        JsonProvider createJsonProvider() {
+            return new JacksonJsonNodeJsonProvider();
+        }
+
+        @Override
+        Configuration.ConfigurationBuilder configure(Configuration.ConfigurationBuilder builder) {
+            return builder.mappingProvider(new JacksonMappingProvider());
+        }
+    },
+
+    /**
+     * JsonSmart trees of Maps and Lists.
+     */
+    JSON_SMART {
+        @Override
+        JsonProvider createJsonProvider() {
+            return new JsonSmartJsonProvider();
+        }
+
+        @Override
+        Configuration.ConfigurationBuilder configure(Configuration.ConfigurationBuilder builder) {
+            return builder.mappingProvider(new JsonSmartMappingProvider());
+        }
+    };
+
+    /**
+     * @return a new JsonPath configuration for this model (exceptions are suppressed)
+     */
+    Configuration createConfiguration() {
+        return configure(Configuration.builder().jsonProvider(createJsonProvider()))
+                .options(Option.SUPPRESS_EXCEPTIONS).build();
+    }
+
+    abstract JsonProvider createJsonProvider();
+
+    abstract Configuration.ConfigurationBuilder configure(Configuration.ConfigurationBuilder builder);
+
+    /**
+     * Convert a value which is neither an object nor an array.
+     *
+     * @return the value as a String, or null for a JSON null
+     */
+    Object toScalar(Object value, JsonProvider provider) {
+        Object unwrapped = provider.unwrap(value);
+        return unwrapped == null ? null : unwrapped.toString();
+    }
+
+    /**
+     * @return true if a value which is neither an object nor an array is a JSON null
+     */
+    boolean isNull(Object value, JsonProvider provider) {
+        return provider.unwrap(value) == null;
+    }
+
+    /**
+     * @return the serialised form of an object value
+     */
+    String toJson(Object value, JsonProvider provider) {
+        return provider.toJson(value);
+    }
+
+    /**
+     * @return the value converted to a Gson element
+     */
+    JsonElement toJsonElement(Object value, JsonProvider provider) {
+        if (provider.isMap(value) || provider.isArray(value)) {
+            return new JsonParser().parse(provider.toJson(value));
+        }
+        Object unwrapped = provider.unwrap(value);
+        if (unwrapped == null) {
+            return JsonNull.INSTANCE;
+        } else if (unwrapped instanceof Boolean) {
+            return new JsonPrimitive((Boolean) unwrapped);
+        } else if (unwrapped instanceof Number) {
+            return new JsonPrimitive((Number) unwrapped);
+        } else {
+            return new JsonPrimitive(unwrapped.toString());
+        }
+    }
+}
@@ -17,37 +17,58 @@
  */
 package org.onap.aai.validation.reader;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.Option;
 import com.jayway.jsonpath.ReadContext;
-import com.jayway.jsonpath.spi.json.GsonJsonProvider;
 import com.jayway.jsonpath.spi.json.JsonProvider;
-import com.jayway.jsonpath.spi.mapper.GsonMappingProvider;
-import com.jayway.jsonpath.spi.mapper.MappingProvider;
+import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.EnumSet;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 import org.onap.aai.validation.exception.ValidationServiceError;
 import org.onap.aai.validation.exception.ValidationServiceException;
 
 /**
- * Reads JSON objects. Supported by the JayWay JsonPath library.
+ * Reads JSON objects. Supported by the JayWay JsonPath library.<br>
+ * Each reader has its own JsonPath configuration, using the JSON tree model of its {@link JsonProviderType}. The
+ * process-wide JsonPath defaults are neither used nor modified.
  */
 public class JsonReader {
 
-	private Configuration jsonPathConfig;
+	private final JsonProviderType providerType;
+
+	private final Configuration jsonPathConfig;
+
+	private final JsonProvider jsonProvider;
+
+	private final JsonPathRegistry pathRegistry = new JsonPathRegistry();
 
 	/**
-	 * Initialise the JSON reader.
+	 * Initialise the JSON reader using the Gson tree model.
 	 */
 	public JsonReader() {
-		setJsonProvider();
-		this.jsonPathConfig = Configuration.builder().options(Option.SUPPRESS_EXCEPTIONS).build();
+		this(JsonProviderType.GSON);
+	}
+
+	/**
+	 * Initialise the JSON reader.
+	 *
+	 * @param providerType
+	 *            the JSON tree model used for parsed documents
+	 */
+	public JsonReader(JsonProviderType providerType) {
+		this.providerType = providerType;
+		this.jsonPathConfig = providerType.createConfiguration();
+		this.jsonProvider = jsonPathConfig.jsonProvider();
+	}
+
+	/**
+	 * @return the JSON tree model used for parsed documents
+	 */
+	public JsonProviderType getProviderType() {
+		return providerType;
 	}
 
 	/**
@@ -68,6 +89,65 @@ public class JsonReader {
 		return document;
 	}
 
+	/**
+	 * Parse the JSON directly from a stream of UTF-8 encoded bytes, without creating an intermediate String.
+	 *
+	 * @param json
+	 *            the JSON object (the stream is closed once it has been read)
+	 * @return a {@link ReadContext} the parsed JSON.
+	 * @throws ValidationServiceException
+	 */
+	public DocumentContext parse(InputStream json) throws ValidationServiceException {
+		DocumentContext document = null;
+		try {
+			document = JsonPath.using(jsonPathConfig).parse(json);
+		} catch (Exception e) {
+			throw new ValidationServiceException(ValidationServiceError.JSON_READER_PARSE_ERROR, e);
+		}
+		return document;
+	}
+
+	/**
+	 * Create a document from JSON which has already been read (e.g. a projection of a larger document). Where the
+	 * reader does not use the Gson tree model the JSON is converted.
+	 *
+	 * @param json
+	 *            the JSON object
+	 * @return a {@link ReadContext} for the JSON.
+	 * @throws ValidationServiceException
+	 */
+	public DocumentContext parse(JsonElement json) throws ValidationServiceException {
+		if (providerType == JsonProviderType.GSON) {
+			return JsonPath.using(jsonPathConfig).parse(json);
+		}
+		return parse(json.toString());
+	}
+
+	/**
+	 * Compile the path and retain it for use by subsequent reads.
+	 *
+	 * @param path
+	 *            the path to property values. The format must comply with the JayWay JsonPath definition.
+	 * @return the compiled path
+	 * @throws ValidationServiceException
+	 *             if the path is not valid
+	 */
+	public JsonPath compile(String path) throws ValidationServiceException {
+		return pathRegistry.register(path);
+	}
+
+	/**
+	 * Compile each of the paths and retain them for use by subsequent reads.
+	 *
+	 * @param paths
+	 *            the paths to property values
+	 * @throws ValidationServiceException
+	 *             if any of the paths is not valid
+	 */
+	public void compile(Collection<String> paths) throws ValidationServiceException {
+		pathRegistry.registerAll(paths);
+	}
+
 	/**
 	 * Gets values from JSON objects.
 	 *
@@ -93,21 +173,62 @@ public class JsonReader {
 	 * @return a List of values found by evaluating the path, or an empty list if no values were found
 	 */
 	public List<String> getAsList(DocumentContext document, String path) {
-		List<String> result = new ArrayList<>();
-		JsonElement jsonElement = document.read(path);
-		if (jsonElement != null) {
-			if (jsonElement.isJsonPrimitive()) {
-				result.add(jsonElement.getAsString());
-			} else if (jsonElement.isJsonObject()) {
-				result.add(jsonElement.getAsJsonObject().toString());
-			} else if (jsonElement.isJsonArray()) {
-				for (JsonElement obj : jsonElement.getAsJsonArray()) {
-					Object object = jsonElementToObject(obj);
-					result.add(object == null ? null : object.toString());
-				}
+		return getAsList(document, pathRegistry.get(path));
+	}
+
+	/**
+	 * Gets values from JSON objects using a compiled path.
+	 *
+	 * @param document
+	 *            a {@link DocumentContext} object with the parsed JSON
+	 * @param path
+	 *            the compiled path to property values
+	 * @return a List of values found by evaluating the path, or an empty list if no values were found
+	 */
+	public List<String> getAsList(DocumentContext document, JsonPath path) {
+		return toList(document.read(path));
+	}
+
+	/**
+	 * Convert the result of evaluating a path to a List of values, as returned by
+	 * {@link JsonReader#getAsList(DocumentContext, JsonPath)}.
+	 *
+	 * @param result
+	 *            the path result, in the reader's tree model (may be null)
+	 * @return a List of values, or an empty list if there is no result
+	 */
+	List<String> toList(Object result) {
+		List<String> values = new ArrayList<>();
+		if (result == null || result == JsonProvider.UNDEFINED) {
+			return values;
+		} else if (jsonProvider.isArray(result)) {
+			// The provider's iterator would unwrap the elements, losing the text of Gson numbers and JSON nulls
+			int length = jsonProvider.length(result);
+			for (int i = 0; i < length; i++) {
+				values.add(toString(jsonProvider.getArrayIndex(result, i)));
 			}
+		} else if (jsonProvider.isMap(result)) {
+			values.add(providerType.toJson(result, jsonProvider));
+		} else if (!providerType.isNull(result, jsonProvider)) {
+			values.add(providerType.toScalar(result, jsonProvider).toString());
 		}
-		return result;
+		return values;
+	}
+
+	/**
+	 * Convert a single value to a String: objects are serialised and arrays are converted as for
+	 * {@link JsonReader#getObject(DocumentContext, JsonPath)}.
+	 *
+	 * @param value
+	 *            a value in the reader's tree model
+	 * @return the String, or null for a JSON null (except with Gson, where a JSON null is rendered as "null")
+	 */
+	String toString(Object value) {
+		if (value != null && jsonProvider.isMap(value)) {
+			return providerType.toJson(value, jsonProvider);
+		}
+		Object object = toObject(value);
+		return object == null ? null : object.toString();
 	}
 
 	/**
@@ -121,66 +242,62 @@ public class JsonReader {
 	 *         the path evaluates to a single primitive value
 	 */
 	public Object getObject(DocumentContext document, String path) {
-		return jsonElementToObject(document.read(path));
+		return getObject(document, pathRegistry.get(path));
 	}
 
 	/**
-	 * Convert the JSON element to a String or Array where possible, otherwise return the JSON object.
+	 * Get the value(s) from the specified JSON document using a compiled path.
 	 *
-	 * @param jsonElement
-	 * @return the jsonElement converted to a Java Object
+	 * @param document
+	 *            a {@link DocumentContext} object with the parsed JSON
+	 * @param path
+	 *            the compiled path to property value(s)
+	 * @return either all the values found by evaluating the path (e.g. as an array), or a String object (only) where
+	 *         the path evaluates to a single primitive value
 	 */
-	private Object jsonElementToObject(JsonElement jsonElement) {
-		if (jsonElement == null) {
-			return null;
-		} else if (jsonElement.isJsonPrimitive()) {
-			return jsonElement.getAsString();
-		} else if (jsonElement.isJsonObject()) {
-			return jsonElement.getAsJsonObject();
-		} else if (jsonElement.isJsonArray()) {
-			// Convert to a List for simplified handling within rules
-			return jsonArrayToList(jsonElement.getAsJsonArray());
-		} else {
-			return jsonElement;
-		}
+	public Object getObject(DocumentContext document, JsonPath path) {
+		return toObject(document.read(path));
 	}
 
-	private List<Object> jsonArrayToList(JsonArray jsonArray) {
-		List<Object> result = new ArrayList<>();
-		for (JsonElement obj : jsonArray) {
-			result.add(jsonElementToObject(obj));
+	/**
+	 * Convert a value to a String or List where possible, otherwise return the JSON object (as a Gson element).
+	 *
+	 * @param value
+	 *            a value in the reader's tree model
+	 * @return the value converted to a Java Object (an array is returned as a read-only {@link JsonArrayView})
+	 */
+	Object toObject(Object value) {
+		if (value == null || value == JsonProvider.UNDEFINED) {
+			return null;
+		} else if (jsonProvider.isMap(value)) {
+			return providerType.toJsonElement(value, jsonProvider);
+		} else if (jsonProvider.isArray(value)) {
+			// Present as a List for simplified handling within rules, converting the elements only when read
+			return new JsonArrayView(this, jsonProvider, value);
+		} else {
+			return providerType.toScalar(value, jsonProvider);
 		}
-		return result;
 	}
 
 	/**
 	 * @param document
 	 * @param path
-	 * @return a JsonElement from the document
+	 * @return a JsonElement from the document (converted where the reader does not use the Gson tree model)
 	 */
 	public JsonElement getJsonElement(DocumentContext document, String path) {
-		return document.read(path);
+		return toJsonElement(document.read(pathRegistry.get(path)));
 	}
 
-	private void setJsonProvider() {
-		Configuration.setDefaults(new Configuration.Defaults() {
-			private final JsonProvider jsonProvider = new GsonJsonProvider();
-			private final MappingProvider mappingProvider = new GsonMappingProvider();
-
-			@Override
-			public JsonProvider jsonProvider() {
-				return jsonProvider;
-			}
-
-			@Override
-			public MappingProvider mappingProvider() {
-				return mappingProvider;
-			}
+	/**
+	 * @param document
+	 *            a parsed JSON document
+	 * @return the whole document as a JsonElement (converted where the reader does not use the Gson tree model)
+	 */
+	public JsonElement getJsonElement(DocumentContext document) {
+		return toJsonElement(document.json());
+	}
 
-			@Override
-			public Set<Option> options() {
-				return EnumSet.noneOf(Option.class);
-			}
-		});
+	private JsonElement toJsonElement(Object value) {
+		return value == null ? null : providerType.toJsonElement(value, jsonProvider);
 	}
 }
@@ -0,0 +1,132 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * An index of the nested entities of an event, keyed by entity type. The index is built in a single walk of the event's
+ * entity sub-tree, after which the nested entities of any (indexed) type are found without evaluating a deep-scan path.
+ *
+ * <p>
+ * The index supports the nested entity path <code>entityPath..{0}[*]</code> (where the entity path is of the simple
+ * form <code>$.name1.name2</code>). The entities of each type are collected with the same semantics and in the same
+ * order as JsonPath evaluates that path: for every object (at any depth) having a property named after the type, the
+ * elements of the property value, in document order.
+ */
+public class NestedEntityIndex {
+
+    private static final Pattern SIMPLE_PATH = Pattern.compile("^\\$(?:\\.[^.\\[\\]*$@?()'\",\\s]+)+$");
+    private static final String NESTED_ENTITY_SUFFIX = "..{0}[*]";
+
+    private final JsonProvider provider;
+    private final Set<String> entityTypes;
+    private final Map<String, Object> entities = new HashMap<>();
+
+    /**
+     * Build the index for the event.
+     *
+     * @param document the parsed event
+     * @param entityPath the (simple) path to the entity within the event
+     * @param entityTypes the entity types to be indexed
+     */
+    public NestedEntityIndex(DocumentContext document, String entityPath, Set<String> entityTypes) {
+        this.provider = document.configuration().jsonProvider();
+        this.entityTypes = entityTypes;
+
+        Object model = document.json();
+        for (String name : Arrays.asList(entityPath.substring(2).split("\\."))) {
+            model = provider.isMap(model) ? provider.getMapValue(model, name) : null;
+        }
+        walk(model);
+    }
+
+    /**
+     * @param nestedEntityPath the configured nested entity path (before formatting with the entity type)
+     * @param entityPath the configured path to the entity
+     * @return true if the nested entities found by the path can be read from a {@link NestedEntityIndex}
+     */
+    public static boolean supports(String nestedEntityPath, String entityPath) {
+        return entityPath != null && SIMPLE_PATH.matcher(entityPath).matches()
+                && (entityPath + NESTED_ENTITY_SUFFIX).equals(nestedEntityPath);
+    }
+
+    /**
+     * @param entityType the type of the nested entities
+     * @param jsonReader the reader used to convert the entities
+     * @return the entities of this type, identical to those returned by {@link JsonReader#getAsList} for the nested
+     *         entity path, or an empty Optional if the type is not indexed
+     */
+    public Optional<List<String>> getEntities(String entityType, JsonReader jsonReader) {
+        if (!entityTypes.contains(entityType)) {
+            return Optional.empty();
+        }
+        Object found = entities.get(entityType);
+        return Optional.of(found == null ? Collections.emptyList() : jsonReader.toList(found));
+    }
+
+    /**
+     * Visit the model in the same order as a JsonPath deep scan: the properties of an object that match an indexed
+     * type are collected before its property values are walked in turn.
+     */
+    private void walk(Object model) {
+        if (provider.isMap(model)) {
+            for (String key : provider.getPropertyKeys(model)) {
+                if (entityTypes.contains(key)) {
+                    collect(key, provider.getMapValue(model, key));
+                }
+            }
+            for (String key : provider.getPropertyKeys(model)) {
+                walk(provider.getMapValue(model, key));
+            }
+        } else if (provider.isArray(model)) {
+            for (int i = 0; i < provider.length(model); i++) {
+                walk(provider.getArrayIndex(model, i));
+            }
+        }
+    }
+
+    /**
+     * Add the elements of the value (i.e. the result of applying the <code>[*]</code> wildcard).
+     */
+    private void collect(String entityType, Object value) {
+        if (provider.isMap(value)) {
+            for (String key : provider.getPropertyKeys(value)) {
+                add(entityType, provider.getMapValue(value, key));
+            }
+        } else if (provider.isArray(value)) {
+            for (int i = 0; i < provider.length(value); i++) {
+                add(entityType, provider.getArrayIndex(value, i));
+            }
+        }
+    }
+
+    private void add(String entityType, Object entity) {
+        Object found = entities.computeIfAbsent(entityType, t -> provider.createArray());
+        provider.setArrayIndex(found, provider.length(found), entity);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import org.onap.aai.validation.exception.ValidationServiceException;
+
+/**
+ * The path to a single (String) property of an entity, prepared once for repeated reads.<br>
+ * A path of the simple form <code>$.name1.name2.property</code> is read by navigating directly to the parent object of
+ * the property. Any other path is evaluated using the compiled JsonPath. In either case the value is the first element
+ * returned by {@link JsonReader#getAsList(DocumentContext, JsonPath)}.
+ */
+public class PropertyPath {
+
+    private static final Pattern SIMPLE_PATH = Pattern.compile("^\\$(?:\\.[^.\\[\\]*$@?()'\",\\s]+)+$");
+
+    private final String path;
+    private final JsonReader jsonReader;
+    private final JsonPath jsonPath;
+    private final List<String> parents;
+    private final String property;
+
+    /**
+     * @param path the JSON path to the property
+     * @param jsonReader the reader used to evaluate paths which are not of the simple form
+     * @throws ValidationServiceException if the path is not valid
+     */
+    public PropertyPath(String path, JsonReader jsonReader) throws ValidationServiceException {
+        this.path = path;
+        this.jsonReader = jsonReader;
+        this.jsonPath = jsonReader.compile(path);
+        if (SIMPLE_PATH.matcher(path).matches()) {
+            List<String> names = Arrays.asList(path.substring(2).split("\\."));
+            this.parents = names.subList(0, names.size() - 1);
+            this.property = names.get(names.size() - 1);
+        } else {
+            this.parents = null;
+            this.property = null;
+        }
+    }
+
+    /**
+     * Prepare each of a comma-separated list of alternative paths.
+     *
+     * @param multiplePaths comma-separated JSON paths
+     * @param jsonReader the reader used to evaluate paths which are not of the simple form
+     * @return the paths, in the order specified
+     * @throws ValidationServiceException if any of the paths is not valid
+     */
+    public static List<PropertyPath> compileAll(String multiplePaths, JsonReader jsonReader)
+            throws ValidationServiceException {
+        List<PropertyPath> paths = new ArrayList<>();
+        for (String path : multiplePaths.split(",")) {
+            paths.add(new PropertyPath(path, jsonReader));
+        }
+        return paths;
+    }
+
+    /**
+     * Read the first of a list of alternative paths which has a value.
+     *
+     * @param paths the alternative paths
+     * @param document the parsed entity
+     * @return the value of the first path found, or an empty Optional if none of the paths has a value
+     */
+    public static Optional<String> readFirst(List<PropertyPath> paths, DocumentContext document) {
+        for (PropertyPath path : paths) {
+            Optional<String> value = path.read(document);
+            if (value.isPresent()) {
+                return value;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param document the parsed entity
+     * @return the property value, if present
+     */
+    public Optional<String> read(DocumentContext document) {
+        if (property == null) {
+            return jsonReader.getAsList(document, jsonPath).stream().findFirst();
+        }
+
+        JsonProvider provider = document.configuration().jsonProvider();
+        Object model = document.json();
+        for (String parent : parents) {
+            if (!provider.isMap(model)) {
+                return Optional.empty();
+            }
+            model = provider.getMapValue(model, parent);
+        }
+        if (!provider.isMap(model)) {
+            return Optional.empty();
+        }
+        return toValue(provider.getMapValue(model, property), provider);
+    }
+
+    /**
+     * Convert a value (as returned by the JSON provider) in the same way as {@link JsonReader#getAsList}.
+     */
+    private Optional<String> toValue(Object value, JsonProvider provider) {
+        if (value == null || value == JsonProvider.UNDEFINED) {
+            return Optional.empty();
+        } else if (provider.isArray(value)) {
+            return provider.length(value) == 0 ? Optional.empty()
+                    : Optional.ofNullable(jsonReader.toString(provider.getArrayIndex(value, 0)));
+        } else {
+            return jsonReader.toList(value).stream().findFirst();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
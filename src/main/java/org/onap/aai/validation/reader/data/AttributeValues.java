@@ -17,6 +17,7 @@
  */
 package org.onap.aai.validation.reader.data;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -127,6 +128,21 @@ public class AttributeValues {
 		return this.map.get(attrName);
 	}
 
+	/**
+	 * Select a subset of the attributes, e.g. those required by a single rule from the values read for all rules.
+	 *
+	 * @param attrNames
+	 *            the names of the attributes to select
+	 * @return a new AttributeValues object containing only the named attributes
+	 */
+	public AttributeValues subset(Collection<String> attrNames) {
+		Map<String, Object> subset = new HashMap<>();
+		for (String attrName : attrNames) {
+			subset.put(attrName, this.map.get(attrName));
+		}
+		return new AttributeValues(subset);
+	}
+
 	/**
 	 * Converts the attribute values into a report-friendly format
 	 *
@@ -17,10 +17,12 @@
  */
 package org.onap.aai.validation.reader.data;
 
+import com.jayway.jsonpath.DocumentContext;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import org.onap.aai.validation.exception.ValidationServiceException;
+import org.onap.aai.validation.reader.AttributeExtractionPlan;
 import org.onap.aai.validation.reader.EntityReader;
 
 /**
@@ -34,6 +36,7 @@ public class Entity {
 	private List<EntityId> ids = new ArrayList<>();
 	private Optional<String> resourceVersion = Optional.empty();
 	private String entityLink;
+	private DocumentContext document;
 
 	/**
 	 *
@@ -61,6 +64,21 @@ public class Entity {
 		return json;
 	}
 
+	/**
+	 * Get the parsed entity. The entity JSON is parsed (once) on first use and the document is then shared by all
+	 * subsequent attribute, identifier and resource version lookups.
+	 *
+	 * @return the parsed entity
+	 * @throws ValidationServiceException
+	 *             if the entity JSON cannot be parsed
+	 */
+	public DocumentContext getDocument() throws ValidationServiceException {
+		if (document == null) {
+			document = reader.parse(getJson());
+		}
+		return document;
+	}
+
 	/**
 	 * Get the entity type.
 	 *
@@ -78,7 +96,7 @@ public class Entity {
 	 */
 	public List<EntityId> getIds() throws ValidationServiceException {
 		if (ids.isEmpty()) {
-			ids = reader.getIds(getJson(), getType());
+			ids = reader.getIds(getDocument(), getType());
 		}
 		return ids;
 	}
@@ -91,7 +109,7 @@ public class Entity {
 	 */
 	public Optional<String> getResourceVersion() throws ValidationServiceException {
 		if (!resourceVersion.isPresent()) {
-			resourceVersion = reader.getResourceVersion(getJson());
+			resourceVersion = reader.getResourceVersion(getDocument());
 		}
 		return resourceVersion;
 	}
@@ -120,13 +138,30 @@ public class Entity {
 			return attributeValues;
 		}
 
+		DocumentContext entityDocument = getDocument();
 		for (String attribute : attributes) {
-			attributeValues.put(attribute, reader.getObject(getJson(), attribute));
+			attributeValues.put(attribute, reader.getObject(entityDocument, attribute));
 		}
 
 		return attributeValues;
 	}
 
+	/**
+	 * Get the values of all the attributes of an extraction plan. The values are read in a single pass of the parsed
+	 * entity.
+	 *
+	 * @param plan
+	 *            the attribute paths to read
+	 * @return an {@link AttributeValues} object containing the value of every attribute in the plan
+	 * @throws ValidationServiceException
+	 */
+	public AttributeValues getAttributeValues(AttributeExtractionPlan plan) throws ValidationServiceException {
+		if (plan.getAttributePaths().isEmpty()) {
+			return new AttributeValues();
+		}
+		return new AttributeValues(reader.getObjects(getDocument(), plan));
+	}
+
 	@Override
 	public String toString() {
 		return json;
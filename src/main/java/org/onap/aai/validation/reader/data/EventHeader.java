@@ -0,0 +1,97 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader.data;
+
+import java.util.Optional;
+
+/**
+ * The event header properties used to decide whether (and how) an event is to be validated.
+ */
+public class EventHeader {
+
+	private final Optional<String> domain;
+	private final Optional<String> action;
+	private final Optional<String> eventType;
+	private final Optional<String> entityType;
+	private final Optional<String> topEntityType;
+
+	/**
+	 * @param domain
+	 *            the domain of the event
+	 * @param action
+	 *            the action of the event
+	 * @param eventType
+	 *            the type of the event
+	 */
+	public EventHeader(Optional<String> domain, Optional<String> action, Optional<String> eventType) {
+		this(domain, action, eventType, Optional.empty(), Optional.empty());
+	}
+
+	/**
+	 * @param domain
+	 *            the domain of the event
+	 * @param action
+	 *            the action of the event
+	 * @param eventType
+	 *            the type of the event
+	 * @param entityType
+	 *            the type of the entity to be validated
+	 * @param topEntityType
+	 *            the type of the top-level entity of the event
+	 */
+	public EventHeader(Optional<String> domain, Optional<String> action, Optional<String> eventType,
+			Optional<String> entityType, Optional<String> topEntityType) {
+		this.domain = domain;
+		this.action = action;
+		this.eventType = eventType;
+		this.entityType = entityType;
+		this.topEntityType = topEntityType;
+	}
+
+	public Optional<String> getDomain() {
+		return domain;
+	}
+
+	public Optional<String> getAction() {
+		return action;
+	}
+
+	public Optional<String> getEventType() {
+		return eventType;
+	}
+
+	/**
+	 * @return the type of the entity, if this was read with the header
+	 */
+	public Optional<String> getEntityType() {
+		return entityType;
+	}
+
+	/**
+	 * @return the type of the top-level entity, if this was read with the header
+	 */
+	public Optional<String> getTopEntityType() {
+		return topEntityType;
+	}
+
+	@Override
+	public String toString() {
+		return "EventHeader [domain=" + domain.orElse(null) + ", action=" + action.orElse(null) + ", eventType="
+				+ eventType.orElse(null) + "]";
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader.data;
+
+import com.jayway.jsonpath.DocumentContext;
+import org.onap.aai.validation.reader.NestedEntityIndex;
+
+/**
+ * An event which has been parsed once from its raw payload. The parsed document is retained so that all subsequent
+ * reads of event properties and of the contained entity can be made without parsing the JSON again.
+ */
+public class ParsedEvent {
+
+	private String json;
+	private final DocumentContext document;
+	private NestedEntityIndex nestedEntityIndex;
+	private final long retainedSize;
+
+	/**
+	 * @param json
+	 *            the raw JSON event payload
+	 * @param document
+	 *            the parsed JSON document
+	 */
+	public ParsedEvent(final String json, final DocumentContext document) {
+		this.json = json;
+		this.document = document;
+		this.retainedSize = -1;
+	}
+
+	/**
+	 * Create a parsed event for which no JSON String is held, e.g. because the event was parsed directly from bytes.
+	 * The JSON is then serialised from the document only if required.
+	 *
+	 * @param document
+	 *            the parsed JSON document
+	 */
+	public ParsedEvent(final DocumentContext document) {
+		this(null, document);
+	}
+
+	/**
+	 * Create a parsed event from a projection of the event, i.e. a document retaining only those parts of the event
+	 * required for validation.
+	 *
+	 * @param document
+	 *            the projected JSON document
+	 * @param retainedSize
+	 *            the estimated heap size (in bytes) of the document
+	 */
+	public ParsedEvent(final DocumentContext document, final long retainedSize) {
+		this.document = document;
+		this.retainedSize = retainedSize;
+	}
+
+	/**
+	 * Get the raw event payload.
+	 *
+	 * @return the event JSON
+	 */
+	public String getJson() {
+		if (json == null && document != null) {
+			json = document.jsonString();
+		}
+		return json;
+	}
+
+	/**
+	 * Get the parsed event.
+	 *
+	 * @return the parsed JSON document
+	 */
+	public DocumentContext getDocument() {
+		return document;
+	}
+
+	/**
+	 * @return true if the document retains only part of the event
+	 */
+	public boolean isProjected() {
+		return retainedSize >= 0;
+	}
+
+	/**
+	 * @return the estimated heap size (in bytes) of a projected document, or -1 if the event is not projected
+	 */
+	public long getRetainedSize() {
+		return retainedSize;
+	}
+
+	/**
+	 * Get the index of the nested entities of this event.
+	 *
+	 * @return the index, or null if the index has not yet been built
+	 */
+	public NestedEntityIndex getNestedEntityIndex() {
+		return nestedEntityIndex;
+	}
+
+	/**
+	 * Retain the index of the nested entities, so that it is built at most once for this event.
+	 *
+	 * @param nestedEntityIndex
+	 *            the index
+	 */
+	public void setNestedEntityIndex(NestedEntityIndex nestedEntityIndex) {
+		this.nestedEntityIndex = nestedEntityIndex;
+	}
+
+	@Override
+	public String toString() {
+		return getJson();
+	}
+}
@@ -20,11 +20,13 @@ package org.onap.aai.validation.result;
 import org.onap.aai.validation.exception.ValidationServiceException;
 import org.onap.aai.validation.reader.EventReader;
 import org.onap.aai.validation.reader.data.Entity;
+import org.onap.aai.validation.reader.data.ParsedEvent;
 
 public class ValidationResultBuilder {
 
     private final EventReader eventReader;
     private final String event;
+    private ParsedEvent parsedEvent;
     private Entity entity;
 
     public ValidationResultBuilder(EventReader eventReader, String event) {
@@ -32,6 +34,12 @@ public class ValidationResultBuilder {
         this.event = event;
     }
 
+    public ValidationResultBuilder(EventReader eventReader, ParsedEvent event) {
+        this.eventReader = eventReader;
+        this.event = event.getJson();
+        this.parsedEvent = event;
+    }
+
     public ValidationResultBuilder(Entity entity) {
         this.eventReader = null;
         this.event = null;
@@ -48,7 +56,10 @@ public class ValidationResultBuilder {
 
     private Entity getEntity() throws ValidationServiceException {
         if (entity == null) {
-            entity = eventReader.getEntity(event);
+            if (parsedEvent == null) {
+                parsedEvent = eventReader.parseEvent(event);
+            }
+            entity = eventReader.getEntity(parsedEvent);
         }
         return entity;
     }
@@ -0,0 +1,246 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import org.onap.aai.validation.reader.data.AttributeValues;
+import org.onap.aai.validation.result.Violation;
+import org.onap.aai.validation.ruledriven.rule.Rule;
+
+/**
+ * A bounded store of the outcome of the last validation of each entity, so that an update of the entity need only
+ * re-evaluate the rules whose attributes have changed.<br>
+ * For each entity (identified by the event type, entity link, entity type and keys) the store keeps the values of the
+ * attributes read by the rules, the resource version, and the violation (if any) reported by each rule. The store is a
+ * least recently used map bounded by the (approximate) size in bytes of the stored state.
+ *
+ * <p>
+ * Only attribute values which are cheap to compare and to copy are stored: null, Strings, Numbers, Booleans and Lists
+ * of these. Any other value (e.g. a JSON object) is treated as changed, so the rules reading it are always evaluated.
+ * The state of an entity is discarded when its rules are replaced (when the rules are reloaded), since the stored
+ * violations were produced by the previous rules.
+ */
+public class EntityStateStore {
+
+    private static final int ENTRY_WEIGHT = 128;
+    private static final int VIOLATION_WEIGHT = 512;
+
+    /** Stored in place of an attribute value which cannot be compared. */
+    private static final Object UNCOMPARABLE = new Object();
+
+    /**
+     * The outcome of validating an entity.
+     */
+    static final class EntityState {
+        private final List<Rule> rules;
+        private final Optional<String> resourceVersion;
+        private final Object[] attributeValues;
+        private final Violation[] violations;
+        private final BitSet unsettledRules;
+
+        /**
+         * @param rules
+         *            the rules applied to the entity
+         * @param resourceVersion
+         *            the resource version of the entity
+         * @param attributeValues
+         *            the values of the attributes read by the rules (see {@link EntityStateStore#snapshot})
+         * @param violations
+         *            the violation reported by each rule, or null where the rule passed
+         * @param unsettledRules
+         *            the positions of the rules without a stored outcome (e.g. because they exceeded the execution
+         *            budget), which must be evaluated again
+         */
+        EntityState(List<Rule> rules, Optional<String> resourceVersion, Object[] attributeValues,
+                Violation[] violations, BitSet unsettledRules) {
+            this.rules = rules;
+            this.resourceVersion = resourceVersion;
+            this.attributeValues = attributeValues;
+            this.violations = violations;
+            this.unsettledRules = unsettledRules;
+        }
+
+        /**
+         * @param currentValues
+         *            the current values of the attributes (see {@link EntityStateStore#snapshot})
+         * @param dependencies
+         *            the attributes read by each of the rules
+         * @return the positions of the rules to evaluate again: those reading a changed attribute, those which are not
+         *         pure, and those without a stored outcome
+         */
+        BitSet getRulesToExecute(Object[] currentValues, RuleDependencies dependencies) {
+            BitSet changedAttributes = new BitSet();
+            for (int i = 0; i < currentValues.length; i++) {
+                if (currentValues[i] == UNCOMPARABLE || !Objects.equals(currentValues[i], attributeValues[i])) {
+                    changedAttributes.set(i);
+                }
+            }
+            BitSet rulesToExecute = dependencies.getAffectedRules(changedAttributes);
+            rulesToExecute.or(unsettledRules);
+            return rulesToExecute;
+        }
+
+        /**
+         * @return the violation previously reported by the rule, or null if the rule passed
+         */
+        Violation getViolation(int rule) {
+            return violations[rule];
+        }
+
+        private long weigh(String key) {
+            long weight = ENTRY_WEIGHT + RuleResultCache.weigh(key);
+            for (Object value : attributeValues) {
+                weight += RuleResultCache.weigh(value);
+            }
+            for (Violation violation : violations) {
+                if (violation != null) {
+                    weight += VIOLATION_WEIGHT + RuleResultCache.weigh(violation.getErrorMessage());
+                }
+            }
+            return weight;
+        }
+    }
+
+    private final SegmentedLruMap<String, EntityState> states;
+    private final LongAdder incrementalValidations = new LongAdder();
+    private final LongAdder fullValidations = new LongAdder();
+    private final LongAdder staleEvents = new LongAdder();
+    private final LongAdder rulesReused = new LongAdder();
+    private final LongAdder rulesExecuted = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxWeight
+     *            the maximum (approximate) size of the store in bytes
+     */
+    public EntityStateStore(long maxWeight) {
+        this.states = new SegmentedLruMap<>(maxWeight);
+    }
+
+    /**
+     * Copy the values of the attributes read by the rules, for comparison with a later version of the entity.
+     *
+     * @param attributePaths
+     *            the attributes read by the rules
+     * @param attributeValues
+     *            the values of the entity's attributes
+     * @return the value of each attribute (in the order of the paths)
+     */
+    static Object[] snapshot(List<String> attributePaths, AttributeValues attributeValues) {
+        Object[] values = new Object[attributePaths.size()];
+        for (int i = 0; i < values.length; i++) {
+            Object value = attributeValues.get(attributePaths.get(i));
+            if (!RuleResultCache.isCacheable(value, true)) {
+                value = UNCOMPARABLE;
+            } else if (value instanceof List) {
+                value = Collections.unmodifiableList(new ArrayList<>((List<?>) value));
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+
+    /**
+     * Get the outcome of the last validation of the entity, provided that the same rules were applied and that the
+     * entity has not since been replaced by a later resource version.
+     *
+     * @param key
+     *            identifies the entity
+     * @param rules
+     *            the rules to be applied to the entity
+     * @param resourceVersion
+     *            the resource version of the entity to be validated
+     * @return the previous state of the entity, or an empty Optional if the entity must be validated in full
+     */
+    Optional<EntityState> getState(String key, List<Rule> rules, Optional<String> resourceVersion) {
+        EntityState state = states.get(key);
+        if (state != null && isOlder(resourceVersion, state.resourceVersion)) {
+            staleEvents.increment();
+            return Optional.empty();
+        }
+        if (state == null || state.rules != rules) {
+            return Optional.empty();
+        }
+        return Optional.of(state);
+    }
+
+    /**
+     * Store the outcome of validating the entity, unless a later resource version of the entity is already stored.
+     *
+     * @param key
+     *            identifies the entity
+     * @param state
+     *            the outcome of the validation
+     * @param rulesExecutedCount
+     *            the number of rules evaluated, or -1 if the validation was not incremental
+     */
+    void putState(String key, EntityState state, int rulesExecutedCount) {
+        if (rulesExecutedCount < 0) {
+            fullValidations.increment();
+            rulesExecuted.add(state.rules.size());
+        } else {
+            incrementalValidations.increment();
+            rulesExecuted.add(rulesExecutedCount);
+            rulesReused.add(state.rules.size() - (long) rulesExecutedCount);
+        }
+        EntityState previous = states.get(key);
+        if (previous == null || !isOlder(state.resourceVersion, previous.resourceVersion)) {
+            evictions.add(states.put(key, state, state.weigh(key)));
+        }
+    }
+
+    /**
+     * Discard the state of an entity (e.g. when it is deleted).
+     */
+    void removeState(String key) {
+        states.remove(key);
+    }
+
+    /**
+     * @return a description of the store usage (for the status report)
+     */
+    public String getStatusReport() {
+        long[] usage = states.getUsage();
+        return String.format("Entity state store incremental validations=%d full validations=%d stale events=%d"
+                + " rules reused=%d executed=%d evictions=%d entities=%d size=%d of %d bytes",
+                incrementalValidations.sum(), fullValidations.sum(), staleEvents.sum(), rulesReused.sum(),
+                rulesExecuted.sum(), evictions.sum(), usage[0], usage[1], states.getMaxWeight());
+    }
+
+    /**
+     * A-AI resource versions are (numeric) timestamps. Versions which are not numeric cannot be ordered.
+     *
+     * @return true if the first resource version is known to precede the second
+     */
+    private static boolean isOlder(Optional<String> resourceVersion, Optional<String> otherVersion) {
+        if (!resourceVersion.isPresent() || !otherVersion.isPresent()) {
+            return false;
+        }
+        try {
+            return Long.parseLong(resourceVersion.get()) < Long.parseLong(otherVersion.get());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
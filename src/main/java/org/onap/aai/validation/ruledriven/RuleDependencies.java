@@ -0,0 +1,81 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.onap.aai.validation.ruledriven.rule.Rule;
+
+/**
+ * An inverted index from each attribute path read by a list of rules to the rules which read it, for finding the rules
+ * affected by a change to an entity's attributes. Rules and attributes are identified by their position (in the list
+ * of rules and in the list of attribute paths respectively).
+ */
+class RuleDependencies {
+
+    private final List<String> attributePaths;
+    private final BitSet[] attributeRules;
+    private final BitSet impureRules = new BitSet();
+
+    /**
+     * @param attributePaths
+     *            the distinct attribute paths read by the rules
+     * @param rules
+     *            the rules
+     */
+    RuleDependencies(List<String> attributePaths, List<Rule> rules) {
+        this.attributePaths = attributePaths;
+        this.attributeRules = new BitSet[attributePaths.size()];
+        Map<String, Integer> attributeIndices = new HashMap<>();
+        for (int i = 0; i < attributePaths.size(); i++) {
+            attributeIndices.put(attributePaths.get(i), i);
+            attributeRules[i] = new BitSet();
+        }
+        for (int rule = 0; rule < rules.size(); rule++) {
+            for (String path : rules.get(rule).getAttributePaths()) {
+                attributeRules[attributeIndices.get(path)].set(rule);
+            }
+            if (!rules.get(rule).isPure()) {
+                impureRules.set(rule);
+            }
+        }
+    }
+
+    /**
+     * @return the attribute paths, in the order used to identify the attributes
+     */
+    List<String> getAttributePaths() {
+        return attributePaths;
+    }
+
+    /**
+     * @param changedAttributes
+     *            the positions of the attributes whose values have changed
+     * @return the positions of the rules which read any of the changed attributes, together with every rule which is
+     *         not pure (whose result may change even when its attributes do not)
+     */
+    BitSet getAffectedRules(BitSet changedAttributes) {
+        BitSet affectedRules = (BitSet) impureRules.clone();
+        for (int i = changedAttributes.nextSetBit(0); i >= 0; i = changedAttributes.nextSetBit(i + 1)) {
+            affectedRules.or(attributeRules[i]);
+        }
+        return affectedRules;
+    }
+}
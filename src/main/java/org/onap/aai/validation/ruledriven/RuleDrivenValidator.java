@@ -23,18 +23,41 @@ package org.onap.aai.validation.ruledriven;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.MessageFormat;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Consumer;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -45,19 +68,27 @@ import org.onap.aai.validation.exception.ValidationServiceError;
 import org.onap.aai.validation.exception.ValidationServiceException;
 import org.onap.aai.validation.logging.ApplicationMsgs;
 import org.onap.aai.validation.logging.LogHelper;
+import org.onap.aai.validation.reader.AttributeExtractionPlan;
 import org.onap.aai.validation.reader.EventReader;
 import org.onap.aai.validation.reader.OxmReader;
 import org.onap.aai.validation.reader.data.AttributeValues;
 import org.onap.aai.validation.reader.data.Entity;
+import org.onap.aai.validation.reader.data.EntityId;
+import org.onap.aai.validation.reader.data.ParsedEvent;
 import org.onap.aai.validation.result.ValidationResult;
 import org.onap.aai.validation.result.ValidationResultBuilder;
 import org.onap.aai.validation.result.Violation;
 import org.onap.aai.validation.result.Violation.ViolationType;
+import org.onap.aai.validation.ruledriven.EntityStateStore.EntityState;
 import org.onap.aai.validation.ruledriven.configuration.EntitySection;
 import org.onap.aai.validation.ruledriven.configuration.GroovyConfigurationException;
+import org.onap.aai.validation.ruledriven.configuration.RulesConfiguration;
 import org.onap.aai.validation.ruledriven.configuration.RulesConfigurationLoader;
 import org.onap.aai.validation.ruledriven.rule.Rule;
+import org.onap.aai.validation.ruledriven.rule.RuleCompiler;
 import org.onap.aai.validation.ruledriven.rule.RuleResult;
+import org.onap.aai.validation.util.ExecutionProfile;
+import org.onap.aai.validation.util.ExecutionProfileReport;
 
 /**
  * Validator using explicit rules.
@@ -68,6 +99,9 @@ public class RuleDrivenValidator implements Validator {
     private static LogHelper applicationLogger = LogHelper.INSTANCE;
 
     private static final String RULES_CONFIG_FILE_SUFFIX = ".groovy";
+    private static final int DEFAULT_PARALLEL_RULE_COST_THRESHOLD = 100;
+    private static final String UPDATE_ACTION = "UPDATE";
+    private static final String DELETE_ACTION = "DELETE";
 
     /**
      * The set of directories/folders containing the rules configuration files. Rules that are common to all event types
@@ -78,8 +112,70 @@ public class RuleDrivenValidator implements Validator {
     private OxmReader oxmReader;
     private EventReader eventReader;
     private Optional<RuleIndexingConfig> ruleIndexingConfig;
-    // Map of event type name against RuleManager for that event type
-    private Map<String, RuleManager> ruleManagers;
+    /** The plan for reading the values of the index attributes (if configured). */
+    private Optional<AttributeExtractionPlan> indexPlan;
+    // Map of event type name against RuleManager for that event type. The map is replaced (never modified) when the
+    // rules are reloaded, so that a validation uses either the previous or the new rules.
+    private volatile Map<String, RuleManager> ruleManagers;
+
+    /** The parsed rules files, keyed by the hash of their content. */
+    private Map<String, RulesConfiguration> rulesFiles = new HashMap<>();
+    /** The hashes of the rules files of each event type (as named by its directory). */
+    private Map<String, List<String>> eventTypeFiles = new HashMap<>();
+    private Optional<RulesCache> rulesCache = Optional.empty();
+    private int loadingParallelism = Runtime.getRuntime().availableProcessors();
+
+    /** Executes the rules of an entity concurrently (if enabled) when their total cost reaches the threshold. */
+    private Optional<ExecutorService> ruleExecutor = Optional.empty();
+    private int parallelRuleCostThreshold = DEFAULT_PARALLEL_RULE_COST_THRESHOLD;
+
+    private volatile Optional<RuleExecutionBudget> executionBudget = Optional.empty();
+    private long ruleExecutionBudgetMillis;
+    private Optional<RuleResultCache> resultCache = Optional.empty();
+    private Optional<EntityStateStore> entityStateStore = Optional.empty();
+    private int ruleQuarantineOverruns;
+
+    /** The profile of validating each entity type, keyed by event type and then by entity type. */
+    private final ConcurrentMap<String, ConcurrentMap<String, ExecutionProfile>> entityProfiles =
+            new ConcurrentHashMap<>();
+
+    private long reloadIntervalSeconds;
+    private RulesDirectoryWatcher rulesWatcher;
+    private final ReloadStatus reloadStatus = new ReloadStatus();
+
+    /**
+     * Record of the reloads of the rules (following changes to the rules files).
+     */
+    private static class ReloadStatus {
+        private int reloads;
+        private int failures;
+        private LocalDateTime lastReloadTime;
+        private long lastReloadMillis;
+        private String lastError;
+
+        @Override
+        public synchronized String toString() {
+            StringBuilder sb = new StringBuilder("Rules reloads=").append(reloads).append(" failures=").append(failures);
+            if (lastReloadTime != null) {
+                sb.append("\nLast reload at ").append(lastReloadTime).append(" took ").append(lastReloadMillis)
+                        .append(" ms");
+            }
+            if (lastError != null) {
+                sb.append("\nLast reload error: ").append(lastError);
+            }
+            return sb.toString();
+        }
+
+        private synchronized void record(long startTime, Optional<ValidationServiceException> error) {
+            reloads++;
+            lastReloadTime = LocalDateTime.now();
+            lastReloadMillis = (System.nanoTime() - startTime) / 1_000_000;
+            if (error.isPresent()) {
+                failures++;
+                lastError = error.get().getMessage();
+            }
+        }
+    }
 
     /**
      * Construct a Validator that is configured using rule files.
@@ -98,16 +194,327 @@ public class RuleDrivenValidator implements Validator {
         this.oxmReader = oxmReader;
         this.eventReader = eventReader;
         this.ruleIndexingConfig = Optional.ofNullable(ruleIndexingConfig);
+        this.indexPlan = this.ruleIndexingConfig.map(RuleIndexingConfig::getIndexAttributes)
+                .filter(attributes -> !attributes.isEmpty()).map(AttributeExtractionPlan::new);
         this.ruleManagers = null;
     }
 
+    /**
+     * Enable the on-disk cache of parsed and compiled rules.
+     *
+     * @param rulesCacheDirectory
+     *            the cache directory, or an empty String to disable the cache
+     */
+    public void setRulesCacheDirectory(String rulesCacheDirectory) {
+        if (StringUtils.isBlank(rulesCacheDirectory)) {
+            rulesCache = Optional.empty();
+        } else {
+            rulesCache = Optional.of(new RulesCache(Paths.get(rulesCacheDirectory)));
+        }
+    }
+
+    /**
+     * Set the number of threads used to parse the rules files and to compile the rules.
+     *
+     * @param loadingParallelism
+     *            the number of threads (1 to load the rules in the calling thread, or 0 for one thread per available
+     *            processor)
+     */
+    public void setLoadingParallelism(int loadingParallelism) {
+        this.loadingParallelism =
+                loadingParallelism > 0 ? loadingParallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Enable concurrent execution of the rules for an entity. The rules are only executed concurrently when their
+     * total cost reaches the threshold (e.g. when the entity has many rules, or rules which call a remote service). The
+     * violations are reported in the order of the rules, exactly as for sequential execution.
+     *
+     * @param ruleExecutionThreads
+     *            the number of threads shared by all validations, or 0 to execute the rules in the validating thread
+     */
+    public void setRuleExecutionThreads(int ruleExecutionThreads) {
+        ruleExecutor.ifPresent(ExecutorService::shutdown);
+        if (ruleExecutionThreads > 0) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "rule-executor-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            // When the queue is full the validating thread executes the rule itself
+            ruleExecutor = Optional.of(new ThreadPoolExecutor(ruleExecutionThreads, ruleExecutionThreads, 0L,
+                    TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(ruleExecutionThreads * 64), threadFactory,
+                    new ThreadPoolExecutor.CallerRunsPolicy()));
+        } else {
+            ruleExecutor = Optional.empty();
+        }
+    }
+
+    /**
+     * @param parallelRuleCostThreshold
+     *            the minimum total cost of an entity's rules for the rules to be executed concurrently (each rule costs
+     *            1, or more if it calls a remote service)
+     * @see Rule#getCost()
+     */
+    public void setParallelRuleCostThreshold(int parallelRuleCostThreshold) {
+        this.parallelRuleCostThreshold = parallelRuleCostThreshold;
+    }
+
+    /**
+     * Limit the time taken to execute each rule. A rule which exceeds the budget is interrupted (where possible) and is
+     * reported as a violation of category RULE_EXECUTION_ERROR.
+     *
+     * @param ruleExecutionBudgetMillis
+     *            the maximum time to execute a single rule, or 0 for no limit
+     */
+    public void setRuleExecutionBudgetMillis(long ruleExecutionBudgetMillis) {
+        this.ruleExecutionBudgetMillis = ruleExecutionBudgetMillis;
+    }
+
+    /**
+     * @param ruleQuarantineOverruns
+     *            the number of times a rule may exceed the execution budget before it is no longer executed (until the
+     *            rule is reloaded), or 0 to always execute the rule. A quarantined rule is reported as a violation of
+     *            category RULE_EXECUTION_ERROR.
+     */
+    public void setRuleQuarantineOverruns(int ruleQuarantineOverruns) {
+        this.ruleQuarantineOverruns = ruleQuarantineOverruns;
+    }
+
+    /**
+     * Enable caching of the results of pure rules (see {@link Rule#isCacheable()}), so that a rule is not executed again
+     * for the same attribute values.
+     *
+     * @param ruleResultCacheBytes
+     *            the maximum (approximate) size of the cache in bytes, or 0 to disable the cache
+     */
+    public void setRuleResultCacheBytes(long ruleResultCacheBytes) {
+        resultCache = ruleResultCacheBytes > 0 ? Optional.of(new RuleResultCache(ruleResultCacheBytes))
+                : Optional.empty();
+    }
+
+    /**
+     * Enable incremental validation of updated entities. The outcome of validating each entity is stored, so that when
+     * the entity is updated only the rules whose attributes have changed (and any rules which are not pure) are
+     * evaluated again. The violations of the other rules are reused.
+     *
+     * @param entityStateStoreBytes
+     *            the maximum (approximate) size of the stored entity state in bytes, or 0 to validate every entity in
+     *            full
+     */
+    public void setEntityStateStoreBytes(long entityStateStoreBytes) {
+        entityStateStore = entityStateStoreBytes > 0 ? Optional.of(new EntityStateStore(entityStateStoreBytes))
+                : Optional.empty();
+    }
+
+    /**
+     * Enable reloading of the rules when the rules files change.
+     *
+     * @param reloadIntervalSeconds
+     *            the interval between checks of the rules directories for changed files, or 0 to disable reloading
+     */
+    public void setReloadIntervalSeconds(long reloadIntervalSeconds) {
+        this.reloadIntervalSeconds = reloadIntervalSeconds;
+    }
+
     @Override
     public void initialise() throws ValidationServiceException {
-        ruleManagers = new HashMap<>();
-        for (String eventType : getSupportedEventTypes()) {
-            ruleManagers.put(eventType.toLowerCase(Locale.getDefault()), loadRulesConfiguration(eventType));
+        // The budget (and its watchdog thread) is created once, after all of the properties have been set
+        if (ruleExecutionBudgetMillis > 0 && !executionBudget.isPresent()) {
+            executionBudget = Optional.of(new RuleExecutionBudget(ruleExecutionBudgetMillis, ruleQuarantineOverruns));
+        }
+        if (reloadIntervalSeconds > 0 && rulesWatcher == null) {
+            // Record the state of the rules files before loading them, so that no subsequent change is missed
+            RulesDirectoryWatcher watcher = new RulesDirectoryWatcher(configurationPaths) {
+                @Override
+                protected void onChange() {
+                    reload();
+                }
+            };
+            loadRules(false);
+            long interval = TimeUnit.SECONDS.toMillis(reloadIntervalSeconds);
+            new Timer("rules-watcher", true).schedule(watcher, interval, interval);
+            rulesWatcher = watcher;
+        } else {
+            loadRules(false);
         }
-        validateRulesConfiguration();
+    }
+
+    /**
+     * Reload the rules files. Only the event types whose rules files have been added, changed or removed are
+     * recompiled; the other event types keep their existing rules. The new rules are not used until every event type
+     * has been loaded, and if the rules cannot be loaded then the previous rules remain in use.
+     *
+     * @return true if the rules were reloaded
+     */
+    public boolean reload() {
+        long startTime = System.nanoTime();
+        Optional<ValidationServiceException> error = Optional.empty();
+        try {
+            loadRules(true);
+        } catch (ValidationServiceException e) {
+            error = Optional.of(e);
+            applicationLogger.error(ApplicationMsgs.RULES_RELOAD_ERROR, e, e.getMessage());
+        }
+        reloadStatus.record(startTime, error);
+        return !error.isPresent();
+    }
+
+    @Override
+    public Optional<String> getStatusReport() {
+        StringBuilder sb = new StringBuilder(reloadStatus.toString());
+        executionBudget.ifPresent(budget -> sb.append('\n').append(budget.getStatusReport()));
+        resultCache.ifPresent(cache -> sb.append('\n').append(cache.getStatusReport()));
+        entityStateStore.ifPresent(store -> sb.append('\n').append(store.getStatusReport()));
+        return Optional.of(sb.toString());
+    }
+
+    /**
+     * Load the rules for every event type and then publish the new rules.
+     *
+     * @param reuseUnchanged
+     *            whether to keep the existing rules of each event type whose rules files are unchanged
+     */
+    private synchronized void loadRules(boolean reuseUnchanged) throws ValidationServiceException {
+        long startTime = System.nanoTime();
+        long metaspaceBefore = getMetaspaceUsed();
+        ForkJoinPool pool = loadingParallelism > 1 ? new ForkJoinPool(loadingParallelism) : null;
+        try {
+            // The rules of every event type are compiled together, so that common rules are compiled once
+            RuleCompiler ruleCompiler = new RuleCompiler(pool);
+            ruleCompiler.setInterruptible(executionBudget.isPresent());
+            Map<String, List<String>> loadedEventTypeFiles = new LinkedHashMap<>();
+            Map<String, RulesConfiguration> loadedFiles = loadRulesFiles(loadedEventTypeFiles, pool);
+            Map<String, RuleManager> loadedManagers = new HashMap<>();
+            List<RuleManager> newManagers = new ArrayList<>();
+            for (Entry<String, List<String>> entry : loadedEventTypeFiles.entrySet()) {
+                String eventType = entry.getKey().toLowerCase(Locale.getDefault());
+                RuleManager ruleManager = null;
+                if (reuseUnchanged && ruleManagers != null
+                        && entry.getValue().equals(eventTypeFiles.get(entry.getKey()))) {
+                    ruleManager = ruleManagers.get(eventType);
+                }
+                if (ruleManager == null) {
+                    List<RulesConfiguration> configurations =
+                            entry.getValue().stream().map(loadedFiles::get).collect(Collectors.toList());
+                    ruleManager = loadRulesConfiguration(configurations, ruleCompiler);
+                    newManagers.add(ruleManager);
+                }
+                loadedManagers.put(eventType, ruleManager);
+            }
+            initialiseRules(newManagers, ruleCompiler, pool);
+            compileAttributePaths(loadedManagers.values());
+
+            // Publish the new rules (discarding any files which are no longer present)
+            rulesFiles = loadedFiles;
+            eventTypeFiles = loadedEventTypeFiles;
+            ruleManagers = loadedManagers;
+            logRulesLoaded(startTime, metaspaceBefore, ruleCompiler, loadedFiles.size(), newManagers.size());
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Compile and initialise the rules. When a pool is supplied the rules are compiled on the pool whilst the entity
+     * types are validated against the OXM model. An error compiling the rules is reported in preference to an OXM
+     * validation error (as though the two steps were performed in sequence).
+     */
+    private void initialiseRules(Collection<RuleManager> managers, RuleCompiler ruleCompiler, ForkJoinPool pool)
+            throws ValidationServiceException {
+        if (pool == null) {
+            compileRules(managers, ruleCompiler);
+            validateRulesConfiguration(managers);
+            return;
+        }
+
+        ForkJoinTask<Void> compilation = pool.submit(() -> {
+            compileRules(managers, ruleCompiler);
+            return null;
+        });
+        ValidationServiceException oxmError = null;
+        try {
+            validateRulesConfiguration(managers);
+        } catch (ValidationServiceException e) {
+            oxmError = e;
+        }
+        join(compilation);
+        if (oxmError != null) {
+            throw oxmError;
+        }
+    }
+
+    private void compileRules(Collection<RuleManager> managers, RuleCompiler ruleCompiler)
+            throws ValidationServiceException {
+        try {
+            if (rulesCache.isPresent()) {
+                rulesCache.get().compile(ruleCompiler);
+            }
+            for (RuleManager ruleManager : managers) {
+                ruleManager.initialise();
+            }
+        } catch (GroovyConfigurationException | IOException | InstantiationException | IllegalAccessException e) {
+            throw new ValidationServiceException(ValidationServiceError.RULES_FILE_ERROR, e,
+                    getConfigurationPathWildcards());
+        }
+    }
+
+    /**
+     * Wait for a loading task to complete, rethrowing any exception thrown by the task.
+     */
+    private <T> T join(ForkJoinTask<T> task) throws ValidationServiceException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValidationServiceException(ValidationServiceError.RULES_FILE_ERROR, e,
+                    getConfigurationPathWildcards());
+        } catch (ExecutionException e) {
+            // The pool wraps checked exceptions in a RuntimeException
+            Throwable cause = e.getCause();
+            while (cause.getClass() == RuntimeException.class && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof ValidationServiceException) {
+                throw (ValidationServiceException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ValidationServiceException(ValidationServiceError.RULES_FILE_ERROR, cause,
+                    getConfigurationPathWildcards());
+        }
+    }
+
+    private void logRulesLoaded(long startTime, long metaspaceBefore, RuleCompiler ruleCompiler, int files,
+            int eventTypesLoaded) {
+        int rules = 0;
+        for (RuleManager ruleManager : ruleManagers.values()) {
+            for (EntitySection entity : ruleManager.getEntities()) {
+                rules += entity.getRules().size();
+            }
+        }
+        applicationLogger.info(ApplicationMsgs.RULES_LOADED, String.valueOf(rules),
+                String.valueOf(eventTypesLoaded), String.valueOf(ruleManagers.size()), String.valueOf(files),
+                String.valueOf(ruleCompiler.getMethodCount()), String.valueOf(ruleCompiler.getClassCount()),
+                String.valueOf((System.nanoTime() - startTime) / 1_000_000), String.valueOf(metaspaceBefore / 1024),
+                String.valueOf(getMetaspaceUsed() / 1024));
+    }
+
+    /**
+     * @return the number of bytes of Metaspace used (where the JVM reports a Metaspace memory pool), otherwise -1
+     */
+    private static long getMetaspaceUsed() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                return pool.getUsage().getUsed();
+            }
+        }
+        return -1;
     }
 
 
@@ -129,31 +536,198 @@ public class RuleDrivenValidator implements Validator {
      */
     @Override
     public List<ValidationResult> validate(String event) throws ValidationServiceException {
+        return validate(eventReader.parseEvent(event));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.onap.aai.validation.Validator#validate(org.onap.aai.validation.reader.data.ParsedEvent)
+     */
+    @Override
+    public List<ValidationResult> validate(ParsedEvent event) throws ValidationServiceException {
         List<ValidationResult> validationResults = new ArrayList<>();
 
-        Entity entity = getEventReader().getEntity(event);
+        // Validate every (nested) instance of the entity type in the event as a batch
         Optional<String> eventType = eventReader.getEventType(event);
-        List<Rule> rules = getRulesToApply(entity, eventType)
+        Optional<RuleManager> ruleManager = getRuleManager(eventType);
+        Optional<String> eventAction =
+                entityStateStore.isPresent() ? eventReader.getEventAction(event) : Optional.empty();
+        for (Entity entity : getEventReader().getEntities(event)) {
+            ExecutionProfile profile = getEntityProfile(eventType.orElse(""), entity.getType());
+            long startTime = System.nanoTime();
+            ValidationResult validationResult;
+            try {
+                validationResult = validate(entity, eventType, eventAction, ruleManager);
+            } catch (ValidationServiceException | RuntimeException e) {
+                profile.recordError(System.nanoTime() - startTime);
+                throw e;
+            }
+            profile.record(System.nanoTime() - startTime, validationResult.getViolations().isEmpty());
+            validationResults.add(validationResult);
+        }
+
+        return validationResults;
+    }
+
+    /**
+     * @return the profile of validating the entity type (created on first use)
+     */
+    private ExecutionProfile getEntityProfile(String eventType, String entityType) {
+        ConcurrentMap<String, ExecutionProfile> profiles = entityProfiles.get(eventType);
+        if (profiles == null) {
+            entityProfiles.putIfAbsent(eventType, new ConcurrentHashMap<>());
+            profiles = entityProfiles.get(eventType);
+        }
+        ExecutionProfile profile = profiles.get(entityType);
+        if (profile == null) {
+            profiles.putIfAbsent(entityType, new ExecutionProfile());
+            profile = profiles.get(entityType);
+        }
+        return profile;
+    }
+
+    /**
+     * The profile of validating each entity type, and of executing each of the current rules (excluding rules which
+     * have not been executed). A rule whose result is reused (from the result cache or from the stored entity state)
+     * is not executed.
+     */
+    @Override
+    public Optional<ExecutionProfileReport> getExecutionProfile() {
+        ExecutionProfileReport report = new ExecutionProfileReport();
+        for (Entry<String, ConcurrentMap<String, ExecutionProfile>> eventProfiles : new TreeMap<>(entityProfiles)
+                .entrySet()) {
+            for (Entry<String, ExecutionProfile> profile : new TreeMap<>(eventProfiles.getValue()).entrySet()) {
+                report.addEntity(eventProfiles.getKey(), profile.getKey(), profile.getValue().getSnapshot());
+            }
+        }
+        Map<String, RuleManager> managers = ruleManagers;
+        if (managers != null) {
+            for (Entry<String, RuleManager> manager : new TreeMap<>(managers).entrySet()) {
+                for (EntitySection entitySection : manager.getValue().getEntities()) {
+                    for (Rule rule : manager.getValue().getRulesForEntity(entitySection.getType())
+                            .orElse(Collections.emptyList())) {
+                        Optional<ExecutionProfile> profile = rule.getExecutionProfile();
+                        if (profile.isPresent() && profile.get().getInvocations() > 0) {
+                            report.addRule(manager.getKey(), entitySection.getType(), rule.getName(),
+                                    profile.get().getSnapshot());
+                        }
+                    }
+                }
+            }
+        }
+        return Optional.of(report);
+    }
+
+    @Override
+    public void resetExecutionProfile() {
+        for (ConcurrentMap<String, ExecutionProfile> profiles : entityProfiles.values()) {
+            profiles.values().forEach(ExecutionProfile::reset);
+        }
+        Map<String, RuleManager> managers = ruleManagers;
+        if (managers != null) {
+            for (RuleManager manager : managers.values()) {
+                for (EntitySection entitySection : manager.getEntities()) {
+                    manager.getRulesForEntity(entitySection.getType()).ifPresent(rules -> rules
+                            .forEach(rule -> rule.getExecutionProfile().ifPresent(ExecutionProfile::reset)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply the rules for the entity type to a single entity.
+     *
+     * @param entity
+     *            the entity to be validated
+     * @param eventType
+     *            the type of the event containing the entity
+     * @param eventAction
+     *            the action of the event (only read when the entity state is stored)
+     * @param ruleManager
+     *            the rules for the event type
+     * @return the result of validating the entity
+     * @throws ValidationServiceException
+     */
+    private ValidationResult validate(Entity entity, Optional<String> eventType, Optional<String> eventAction,
+            Optional<RuleManager> ruleManager) throws ValidationServiceException {
+        Optional<String> rulesKey = ruleManager.map(manager -> getRulesKey(entity, eventType.get(), manager));
+        List<Rule> rules = rulesKey.flatMap(key -> ruleManager.get().getRulesForEntity(key))
                 .orElseThrow(() -> new ValidationServiceException(ValidationServiceError.RULES_NOT_DEFINED,
                         entity.getType(), eventType.orElse(null)));
 
-        ValidationResult validationResult = new ValidationResultBuilder(eventReader, event).build();
+        ValidationResult validationResult = new ValidationResultBuilder(entity).build();
         Violation.Builder builder = new Violation.Builder(entity);
 
-        for (Rule rule : rules) {
-            AttributeValues attributeValues = entity.getAttributeValues(rule.getAttributePaths());
+        // Read the attributes required by all of the rules in one pass of the entity
+        AttributeValues entityAttributeValues =
+                entity.getAttributeValues(ruleManager.get().getExtractionPlan(rulesKey.get()).get());
+
+        // When an entity is updated, only the rules affected by changes to its attributes are evaluated again
+        Optional<String> stateKey = getEntityStateKey(entity, eventType, eventAction);
+        RuleDependencies dependencies = ruleManager.get().getRuleDependencies(rulesKey.get()).get();
+        Object[] attributeSnapshot = stateKey.isPresent()
+                ? EntityStateStore.snapshot(dependencies.getAttributePaths(), entityAttributeValues) : null;
+        Optional<EntityState> previousState = Optional.empty();
+        if (stateKey.isPresent() && UPDATE_ACTION.equalsIgnoreCase(eventAction.orElse(null))) {
+            previousState = entityStateStore.get().getState(stateKey.get(), rules, entity.getResourceVersion());
+        }
+        BitSet rulesToExecute;
+        if (previousState.isPresent()) {
+            rulesToExecute = previousState.get().getRulesToExecute(attributeSnapshot, dependencies);
+        } else {
+            rulesToExecute = new BitSet();
+            rulesToExecute.set(0, rules.size());
+        }
+        Violation[] ruleViolations = new Violation[rules.size()];
+        BitSet unsettledRules = new BitSet();
 
-            // Execute the rule for this particular set of attribute values.
+        // A rule which is not to be executed has no attribute values
+        List<AttributeValues> ruleAttributeValues = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            ruleAttributeValues.add(
+                    rulesToExecute.get(i) ? entityAttributeValues.subset(rules.get(i).getAttributePaths()) : null);
+        }
+        Optional<List<Future<RuleResult>>> concurrentResults = executeConcurrently(rules, ruleAttributeValues);
+
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            AttributeValues attributeValues = ruleAttributeValues.get(i);
+            if (attributeValues == null) {
+                ruleViolations[i] = previousState.get().getViolation(i);
+                logRuleOutcome(entity, rule, "unchanged");
+                if (ruleViolations[i] != null) {
+                    validationResult.addViolation(ruleViolations[i]);
+                }
+                continue;
+            }
+            Future<RuleResult> concurrentResult = concurrentResults.isPresent() ? concurrentResults.get().get(i) : null;
+            if (concurrentResults.isPresent() ? concurrentResult == null : isQuarantined(rule)) {
+                logRuleOutcome(entity, rule, "quarantined");
+                validationResult.addViolation(createBudgetViolation(builder, rule, attributeValues,
+                        ValidationServiceError.RULE_EXECUTION_QUARANTINED));
+                unsettledRules.set(i);
+                continue;
+            }
+
+            // Execute the rule for this particular set of attribute values (or collect the result of the execution).
             RuleResult result = null;
             try {
-                result = rule.execute(attributeValues);
+                result = concurrentResult != null ? getResult(concurrentResult, rule, attributeValues)
+                        : executeRule(rule, attributeValues);
+            } catch (RuleExecutionBudget.BudgetExceededException e) {
+                validationResult.addViolation(createBudgetViolation(builder, rule, attributeValues,
+                        ValidationServiceError.RULE_EXECUTION_BUDGET_EXCEEDED));
+                unsettledRules.set(i);
+                continue;
             } catch (IllegalArgumentException e) {
+                concurrentResults.ifPresent(results -> results.stream().filter(Objects::nonNull)
+                        .forEach(future -> future.cancel(false)));
                 throw new ValidationServiceException(ValidationServiceError.RULE_EXECUTION_ERROR, e, rule,
                         attributeValues);
             }
 
-            applicationLogger.debug(String.format("%s|%s|\"%s\"|%s", entity.getType(), entity.getIds(), rule.getName(),
-                    result.getSuccess() ? "pass" : "fail"));
+            logRuleOutcome(entity, rule, result.getSuccess() ? "pass" : "fail");
 
             if (!result.getSuccess()) {
                 String errorMessage =
@@ -170,30 +744,278 @@ public class RuleDrivenValidator implements Validator {
                         .build();
                 //@formatter:on
 
+                ruleViolations[i] = violation;
                 validationResult.addViolation(violation);
             }
         }
-        validationResults.add(validationResult);
 
-        return validationResults;
+        if (stateKey.isPresent()) {
+            entityStateStore.get().putState(stateKey.get(),
+                    new EntityState(rules, entity.getResourceVersion(), attributeSnapshot, ruleViolations,
+                            unsettledRules),
+                    previousState.isPresent() ? rulesToExecute.cardinality() : -1);
+        }
+
+        return validationResult;
+    }
+
+    /**
+     * Log the outcome of a rule (only formatting the message when debug logging is enabled).
+     */
+    private void logRuleOutcome(Entity entity, Rule rule, String outcome) throws ValidationServiceException {
+        if (applicationLogger.isDebugEnabled()) {
+            applicationLogger.debug(
+                    String.format("%s|%s|\"%s\"|%s", entity.getType(), entity.getIds(), rule.getName(), outcome));
+        }
+    }
+
+    /**
+     * Identify the entity for storing the outcome of its validation. The state of a deleted entity is discarded.
+     *
+     * @return the key of the entity's state, or an empty Optional if the state is not to be stored
+     */
+    private Optional<String> getEntityStateKey(Entity entity, Optional<String> eventType, Optional<String> eventAction)
+            throws ValidationServiceException {
+        if (!entityStateStore.isPresent() || StringUtils.isEmpty(entity.getEntityLink())) {
+            return Optional.empty();
+        }
+        // An event may contain several (nested) entities with the same entity link
+        StringBuilder key = new StringBuilder(eventType.orElse("")).append('|').append(entity.getEntityLink())
+                .append('|').append(entity.getType());
+        for (EntityId id : entity.getIds()) {
+            key.append('|').append(id.getPrimaryKey()).append('=').append(id.getValue());
+        }
+        if (DELETE_ACTION.equalsIgnoreCase(eventAction.orElse(null))) {
+            entityStateStore.get().removeState(key.toString());
+            return Optional.empty();
+        }
+        return Optional.of(key.toString());
+    }
+
+    /**
+     * Submit the rules for execution if concurrent execution is enabled and the rules are costly enough.
+     *
+     * @param ruleAttributeValues
+     *            the attribute values of each rule, or null for a rule which is not to be executed
+     * @return the pending result of each rule, or an empty Optional if the rules are to be executed in sequence
+     */
+    private Optional<List<Future<RuleResult>>> executeConcurrently(List<Rule> rules,
+            List<AttributeValues> ruleAttributeValues) {
+        if (!ruleExecutor.isPresent() || rules.size() < 2) {
+            return Optional.empty();
+        }
+        int cost = 0;
+        for (int i = 0; i < rules.size(); i++) {
+            cost += ruleAttributeValues.get(i) == null ? 0 : rules.get(i).getCost();
+        }
+        if (cost < parallelRuleCostThreshold) {
+            return Optional.empty();
+        }
+
+        // A quarantined rule (or a rule which is not to be executed) has no result
+        List<Future<RuleResult>> results = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            AttributeValues attributeValues = ruleAttributeValues.get(i);
+            results.add(attributeValues == null || isQuarantined(rule) ? null
+                    : ruleExecutor.get().submit(() -> executeRule(rule, attributeValues)));
+        }
+        return Optional.of(results);
+    }
+
+    /**
+     * Execute a rule, or reuse its cached result for the same attribute values (if the result cache is enabled).
+     */
+    private RuleResult executeRule(Rule rule, AttributeValues attributeValues) {
+        if (resultCache.isPresent()) {
+            return resultCache.get().getResult(rule, attributeValues,
+                    () -> executeWithinBudget(rule, attributeValues));
+        }
+        return executeWithinBudget(rule, attributeValues);
+    }
+
+    /**
+     * Execute a rule within the execution budget (if a budget is set).
+     */
+    private RuleResult executeWithinBudget(Rule rule, AttributeValues attributeValues) {
+        Optional<RuleExecutionBudget> budget = executionBudget;
+        return budget.isPresent() ? budget.get().execute(rule, attributeValues) : rule.execute(attributeValues);
+    }
+
+    private boolean isQuarantined(Rule rule) {
+        Optional<RuleExecutionBudget> budget = executionBudget;
+        return budget.isPresent() && budget.get().isQuarantined(rule);
+    }
+
+    /**
+     * @param error
+     *            why the rule has no result: it exceeded the execution budget or it is quarantined (and so was not
+     *            executed)
+     * @return a violation reporting that the rule has no result
+     */
+    private Violation createBudgetViolation(Violation.Builder builder, Rule rule, AttributeValues attributeValues,
+            ValidationServiceError error) throws ValidationServiceException {
+        //@formatter:off
+        return builder
+                .category(ValidationServiceError.RULE_EXECUTION_ERROR.name())
+                .severity(rule.getSeverity())
+                .violationType(ViolationType.RULE)
+                .validationRule(rule.getName())
+                .violationDetails(attributeValues.generateReport())
+                .errorMessage(error.getMessage(rule.getName(),
+                        executionBudget.map(RuleExecutionBudget::getBudgetMillis).orElse(0L)))
+                .build();
+        //@formatter:on
+    }
+
+    /**
+     * Wait for the result of a rule executed concurrently, rethrowing any exception thrown by the rule.
+     */
+    private RuleResult getResult(Future<RuleResult> result, Rule rule, AttributeValues attributeValues)
+            throws ValidationServiceException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValidationServiceException(ValidationServiceError.RULE_EXECUTION_ERROR, e, rule,
+                    attributeValues);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * The attribute paths of all the rules defined for the entity type. For an indexed event type the rules are
+     * selected using the values of the index attributes, and so the paths of all the rules (and of the index
+     * attributes) are returned.
+     */
+    @Override
+    public Optional<Collection<String>> getAttributePaths(String eventType, String entityType)
+            throws ValidationServiceException {
+        Optional<RuleManager> ruleManager = getRuleManager(Optional.ofNullable(eventType));
+        if (!ruleManager.isPresent()) {
+            return Optional.empty();
+        }
+        if (isIndexedEvent(eventType)) {
+            Set<String> attributePaths = new LinkedHashSet<>(ruleManager.get().getAttributePaths());
+            if (ruleIndexingConfig.get().getIndexAttributes() != null) {
+                attributePaths.addAll(ruleIndexingConfig.get().getIndexAttributes());
+            }
+            return Optional.of(attributePaths);
+        }
+        return ruleManager.get().getExtractionPlan(entityType).map(AttributeExtractionPlan::getAttributePaths);
     }
 
     /**
-     * Find and concatenate the text content of all common rules files, and all the eventType-specific rules files.
-     * Invoke the Configuration Loader to parse the text content and create the Groovy Rules.
+     * Find all the eventType-specific rules files, and all common rules files, for each eventType. Parse each file
+     * (unless a file with the same content has already been parsed).
      * 
-     * @param eventType
-     * @return
+     * @param eventTypeFiles
+     *            populated with the hashes of the rules files for each eventType
+     * @param pool
+     *            the pool on which to parse the new files (or null to parse them in the calling thread)
+     * @return the parsed rules files, keyed by the hash of their content
      * @throws ValidationServiceException
      */
-    private RuleManager loadRulesConfiguration(String eventType) throws ValidationServiceException {
-        StringBuilder rulesText = new StringBuilder();
+    private Map<String, RulesConfiguration> loadRulesFiles(Map<String, List<String>> eventTypeFiles,
+            ForkJoinPool pool) throws ValidationServiceException {
+        Map<String, RulesConfiguration> loadedFiles = new HashMap<>();
+        Map<String, String> newFiles = new LinkedHashMap<>();
+        for (String eventType : getSupportedEventTypes()) {
+            List<String> hashes = new ArrayList<>();
+            for (Path path : Stream.concat(getGroovyRulePaths(Optional.of(eventType)),
+                    getGroovyRulePaths(Optional.empty())).collect(Collectors.toList())) {
+                Optional<String> rulesText = readFileContent(path);
+                if (rulesText.isPresent()) {
+                    String hash = RulesConfigurationLoader.hash(rulesText.get());
+                    hashes.add(hash);
+                    Optional<RulesConfiguration> configuration = getParsedRulesFile(hash);
+                    if (configuration.isPresent()) {
+                        loadedFiles.put(hash, configuration.get());
+                    } else {
+                        newFiles.putIfAbsent(hash, rulesText.get());
+                    }
+                }
+            }
+            eventTypeFiles.put(eventType, hashes);
+        }
 
-        Stream.concat(getGroovyRulePaths(Optional.of(eventType)), getGroovyRulePaths(Optional.empty()))
-                .forEach(appendFileContent(rulesText));
+        for (RulesConfiguration configuration : parseRulesFiles(new ArrayList<>(newFiles.values()), pool)) {
+            loadedFiles.put(configuration.getHash(), configuration);
+            rulesCache.ifPresent(cache -> cache.storeConfiguration(configuration));
+        }
+        return loadedFiles;
+    }
 
+    /**
+     * Parse the text of the rules files. When a pool is supplied the files are divided into contiguous batches which
+     * are parsed concurrently. If more than one file cannot be parsed then the error reported is that of the first of
+     * the failing batches.
+     *
+     * @return the parsed rules files, in the order of the supplied text
+     */
+    private List<RulesConfiguration> parseRulesFiles(List<String> dsls, ForkJoinPool pool)
+            throws ValidationServiceException {
+        if (dsls.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int batchSize = pool == null ? dsls.size() : (dsls.size() + pool.getParallelism() - 1) / pool.getParallelism();
+        List<ForkJoinTask<List<RulesConfiguration>>> batches = new ArrayList<>();
+        for (int start = 0; start < dsls.size(); start += batchSize) {
+            List<String> batch = dsls.subList(start, Math.min(start + batchSize, dsls.size()));
+            if (pool == null) {
+                return parseRulesFiles(batch);
+            }
+            batches.add(pool.submit(() -> parseRulesFiles(batch)));
+        }
+        List<RulesConfiguration> configurations = new ArrayList<>();
+        for (ForkJoinTask<List<RulesConfiguration>> batch : batches) {
+            configurations.addAll(join(batch));
+        }
+        return configurations;
+    }
+
+    private List<RulesConfiguration> parseRulesFiles(List<String> dsls) throws ValidationServiceException {
         try {
-            return RulesConfigurationLoader.loadConfiguration(rulesText.toString());
+            return RulesConfigurationLoader.parseConfigurations(dsls);
+        } catch (GroovyConfigurationException e) {
+            throw new ValidationServiceException(ValidationServiceError.RULES_FILE_ERROR, e,
+                    getConfigurationPathWildcards());
+        }
+    }
+
+    /**
+     * @param hash
+     *            the hash of the text of a rules file
+     * @return the configuration previously parsed from the same text, either in memory or in the rules cache
+     */
+    private Optional<RulesConfiguration> getParsedRulesFile(String hash) {
+        RulesConfiguration configuration = rulesFiles.get(hash);
+        if (configuration != null) {
+            return Optional.of(configuration);
+        }
+        return rulesCache.flatMap(cache -> cache.loadConfiguration(hash));
+    }
+
+    /**
+     * Invoke the Configuration Loader to compose the Groovy Rules for an eventType from its parsed rules files.
+     * 
+     * @param configurations
+     *            the parsed rules files for the eventType
+     * @param ruleCompiler
+     *            the compiler shared by the rules of all event types
+     * @return
+     * @throws ValidationServiceException
+     */
+    private RuleManager loadRulesConfiguration(List<RulesConfiguration> configurations, RuleCompiler ruleCompiler)
+            throws ValidationServiceException {
+        try {
+            return RulesConfigurationLoader.loadConfiguration(configurations, ruleCompiler);
         } catch (GroovyConfigurationException e) {
             throw new ValidationServiceException(ValidationServiceError.RULES_FILE_ERROR, e,
                     getConfigurationPathWildcards());
@@ -239,8 +1061,8 @@ public class RuleDrivenValidator implements Validator {
         return groovyRules.stream();
     }
 
-    private void validateRulesConfiguration() throws ValidationServiceException {
-        for (RuleManager ruleManager : ruleManagers.values()) {
+    private void validateRulesConfiguration(Collection<RuleManager> managers) throws ValidationServiceException {
+        for (RuleManager ruleManager : managers) {
             for (EntitySection entity : ruleManager.getEntities()) {
                 if (ruleIndexingConfig.isPresent() && ruleIndexingConfig.get().skipOxmValidation(entity.getName())) {
                     continue;
@@ -253,62 +1075,88 @@ public class RuleDrivenValidator implements Validator {
         }
     }
 
-    private Optional<List<Rule>> getRulesToApply(Entity entity, Optional<String> eventType)
-            throws ValidationServiceException {
-        Optional<List<Rule>> rules = Optional.empty();
+    /**
+     * Compile the JSON paths of all rule attributes (and of the indexing attributes) so that invalid paths are reported
+     * when the rules are loaded.
+     *
+     * @throws ValidationServiceException
+     *             if an attribute path is not valid
+     */
+    private void compileAttributePaths(Collection<RuleManager> managers) throws ValidationServiceException {
+        if (eventReader == null) {
+            return;
+        }
+        for (RuleManager ruleManager : managers) {
+            eventReader.compilePaths(ruleManager.getAttributePaths());
+        }
+        if (ruleIndexingConfig.isPresent() && ruleIndexingConfig.get().getIndexAttributes() != null) {
+            eventReader.compilePaths(ruleIndexingConfig.get().getIndexAttributes());
+        }
+    }
+
+    private Optional<RuleManager> getRuleManager(Optional<String> eventType) throws ValidationServiceException {
         if (eventType.isPresent()) {
-            Optional<RuleManager> ruleManager = getRuleManager(eventType.get().toLowerCase(Locale.getDefault()));
-            if (ruleManager.isPresent()) {
-                if (ruleIndexingConfig.isPresent() && ruleIndexingConfig.get().getIndexedEvents() != null
-                        && ruleIndexingConfig.get().getIndexedEvents().contains(eventType.get())) {
-                    rules = getRulesByIndex(entity, eventType.get(), ruleManager.get());
-                } else {
-                    rules = ruleManager.get().getRulesForEntity(entity.getType());
-                }
-            }
+            return getRuleManager(eventType.get().toLowerCase(Locale.getDefault()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return the key of the rules to apply to the entity: either the entity type or (for indexed events) the index
+     *         key
+     */
+    private String getRulesKey(Entity entity, String eventType, RuleManager ruleManager) {
+        if (isIndexedEvent(eventType)) {
+            return getIndexedRulesKey(entity, eventType, ruleManager);
         }
-        return rules;
+        return entity.getType();
     }
 
-    private Optional<List<Rule>> getRulesByIndex(Entity entity, String eventType, RuleManager ruleManager) {
-        String rulesKey = generateKey(entity, eventType);
-        applicationLogger.debug(String.format("Retrieving indexed rules for key '%s'", rulesKey));
+    private boolean isIndexedEvent(String eventType) {
+        return ruleIndexingConfig.isPresent() && ruleIndexingConfig.get().getIndexedEvents() != null
+                && ruleIndexingConfig.get().getIndexedEvents().contains(eventType);
+    }
 
-        final Optional<List<Rule>> entityRules = ruleManager.getRulesForEntity(rulesKey);
-        final boolean rulesDefined = entityRules.filter(l -> !l.isEmpty()).isPresent();
+    /**
+     * @return the key of the rules selected by the values of the entity's index attributes (falling back to the
+     *         default index), or null if no rules are found
+     */
+    private String getIndexedRulesKey(Entity entity, String eventType, RuleManager ruleManager) {
+        String defaultIndexKey = ruleIndexingConfig.get().getDefaultIndexKey();
+        Optional<String> rulesKey = ruleManager.getIndexedRulesKey(getIndexValues(entity, eventType),
+                StringUtils.isEmpty(defaultIndexKey) ? null : defaultIndexKey);
 
-        if (!rulesDefined && ruleIndexingConfig.isPresent()) {
-            final String defaultIndexKey = ruleIndexingConfig.get().getDefaultIndexKey();
-            if (!StringUtils.isEmpty(defaultIndexKey)) {
-                return ruleManager
-                        .getRulesForEntity(RuleManager.generateKey(Collections.singletonList(defaultIndexKey)));
-            } else {
-                applicationLogger.debug("Default index value not configured, unable to get rules");
-                applicationLogger.error(ApplicationMsgs.CANNOT_VALIDATE_ERROR, eventType);
-            }
+        if (!rulesKey.isPresent() && StringUtils.isEmpty(defaultIndexKey)) {
+            applicationLogger.debug("Default index value not configured, unable to get rules");
+            applicationLogger.error(ApplicationMsgs.CANNOT_VALIDATE_ERROR, eventType);
         }
-
-        return entityRules;
+        return rulesKey.orElse(null);
     }
 
-    private String generateKey(Entity entity, String eventType) {
-        if (!ruleIndexingConfig.isPresent() || ruleIndexingConfig.get().getIndexAttributes() == null
-                || ruleIndexingConfig.get().getIndexAttributes().isEmpty()) {
+    /**
+     * Read the values of the index attributes from the parsed entity (using a single plan for all the attributes).
+     *
+     * @return the value of each index attribute (null where the attribute is not present)
+     */
+    private Object[] getIndexValues(Entity entity, String eventType) {
+        if (!indexPlan.isPresent()) {
             applicationLogger.debug(String.format(
                     "Event '%s' is configured to use indexed rules but indexing attributes are not configured",
                     eventType));
-            return "";
+            return new Object[0];
         }
+        List<String> indexAttributes = indexPlan.get().getAttributePaths();
+        Object[] indexValues = new Object[indexAttributes.size()];
         try {
-            Map<String, Object> valuesMap =
-                    entity.getAttributeValues(ruleIndexingConfig.get().getIndexAttributes()).generateReport();
-            applicationLogger.debug("Generating index using attributes: " + valuesMap);
-            return RuleManager.generateKey(valuesMap.values());
+            AttributeValues attributeValues = entity.getAttributeValues(indexPlan.get());
+            for (int i = 0; i < indexValues.length; i++) {
+                indexValues[i] = attributeValues.get(indexAttributes.get(i));
+            }
         } catch (ValidationServiceException e) {
             applicationLogger.debug("Failed to retrieve index key attributes from event: " + e.getMessage());
             applicationLogger.error(ApplicationMsgs.CANNOT_VALIDATE_ERROR, e, eventType);
-            return "";
         }
+        return indexValues;
     }
 
     private EventReader getEventReader() {
@@ -316,29 +1164,32 @@ public class RuleDrivenValidator implements Validator {
     }
 
     private Optional<RuleManager> getRuleManager(String eventType) throws ValidationServiceException {
-        if (ruleManagers == null) {
+        Map<String, RuleManager> managers = ruleManagers;
+        if (managers == null) {
             initialise();
+            managers = ruleManagers;
         }
-        return Optional.ofNullable(ruleManagers.get(eventType));
+        return Optional.ofNullable(managers.get(eventType));
     }
 
     /**
-     * Read the text content of the specified Path and append this to the specified String
+     * Read the text content of the specified Path
      *
-     * @param sb
-     *            StringBuilder for the rule configuration text
-     * @return a Consumer function that appends file content
+     * @param path
+     *            the rules configuration file
+     * @return the text of the file, or an empty Optional if the file cannot be read
      */
-    private Consumer<? super Path> appendFileContent(StringBuilder sb) {
-        return path -> {
-            try {
-                for (String line : Files.readAllLines(path)) {
-                    sb.append(line).append("\n");
-                }
-            } catch (IOException e) {
-                applicationLogger.error(ApplicationMsgs.READ_FILE_ERROR, e, path.toString());
+    private Optional<String> readFileContent(Path path) {
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (String line : Files.readAllLines(path)) {
+                sb.append(line).append("\n");
             }
-        };
+            return Optional.of(sb.toString());
+        } catch (IOException e) {
+            applicationLogger.error(ApplicationMsgs.READ_FILE_ERROR, e, path.toString());
+            return Optional.empty();
+        }
     }
 
     private Collection<String> getSupportedEventTypes() {
@@ -0,0 +1,215 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.onap.aai.validation.logging.ApplicationMsgs;
+import org.onap.aai.validation.logging.LogHelper;
+import org.onap.aai.validation.reader.data.AttributeValues;
+import org.onap.aai.validation.ruledriven.rule.Rule;
+import org.onap.aai.validation.ruledriven.rule.RuleResult;
+
+/**
+ * Limits the time taken to execute a rule. A watchdog thread interrupts any thread which has been executing a single
+ * rule for longer than the budget; the loops and closures of compiled rule expressions stop when interrupted. A rule
+ * which overruns the budget (whether or not it could be interrupted) fails, and after repeated overruns the rule may
+ * be quarantined so that it is no longer executed.
+ */
+public class RuleExecutionBudget {
+
+    private static LogHelper applicationLogger = LogHelper.INSTANCE;
+
+    /**
+     * Thrown when a rule has exceeded the execution budget.
+     */
+    public static class BudgetExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private BudgetExceededException(Rule rule) {
+            super(rule.getName());
+        }
+    }
+
+    /**
+     * The rule being executed by a thread (if any).
+     */
+    private static class Execution {
+        private final Thread thread;
+        private boolean active;
+        private long deadline;
+        private boolean interrupted;
+
+        private Execution(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    private final long budgetMillis;
+    private final int quarantineOverruns;
+    private final ScheduledExecutorService watchdog;
+    private final Set<Execution> executions = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Execution> currentExecution = ThreadLocal.withInitial(this::register);
+    private final Map<Rule, AtomicInteger> overruns = Collections.synchronizedMap(new WeakHashMap<>());
+    private final AtomicLong totalOverruns = new AtomicLong();
+
+    /**
+     * @param budgetMillis
+     *            the maximum time to execute a single rule
+     * @param quarantineOverruns
+     *            the number of overruns after which a rule is quarantined, or 0 to never quarantine a rule
+     */
+    public RuleExecutionBudget(long budgetMillis, int quarantineOverruns) {
+        this.budgetMillis = budgetMillis;
+        this.quarantineOverruns = quarantineOverruns;
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rule-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, budgetMillis / 4);
+        watchdog.scheduleWithFixedDelay(this::interruptOverruns, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    /**
+     * @return true if the rule has overrun the budget too many times to be executed
+     */
+    public boolean isQuarantined(Rule rule) {
+        AtomicInteger count = overruns.get(rule);
+        return quarantineOverruns > 0 && count != null && count.get() >= quarantineOverruns;
+    }
+
+    /**
+     * Execute the rule within the budget.
+     *
+     * @param rule
+     *            the rule to execute
+     * @param values
+     *            the attribute values to pass to the rule
+     * @return the result of the rule
+     * @throws BudgetExceededException
+     *             if the rule did not complete within the budget
+     */
+    public RuleResult execute(Rule rule, AttributeValues values) {
+        Execution execution = currentExecution.get();
+        long start = System.nanoTime();
+        synchronized (execution) {
+            execution.active = true;
+            execution.deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        }
+        RuleResult result = null;
+        Exception failure = null;
+        boolean interrupted;
+        try {
+            result = rule.execute(values);
+        } catch (Exception e) { // NOSONAR an interrupted Groovy expression throws InterruptedException
+            failure = e;
+        } finally {
+            synchronized (execution) {
+                execution.active = false;
+                interrupted = execution.interrupted;
+                if (interrupted) {
+                    // Clear the interrupt raised by the watchdog
+                    execution.interrupted = false;
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        if (interrupted || System.nanoTime() - start > TimeUnit.MILLISECONDS.toNanos(budgetMillis)) {
+            recordOverrun(rule);
+            throw new BudgetExceededException(rule);
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure != null) {
+            throw new IllegalArgumentException(failure);
+        }
+        return result;
+    }
+
+    /**
+     * @return a description of the overruns (for the status report)
+     */
+    public String getStatusReport() {
+        StringBuilder sb = new StringBuilder("Rule execution budget=").append(budgetMillis).append(" ms overruns=")
+                .append(totalOverruns.get());
+        synchronized (overruns) {
+            String quarantined = overruns.keySet().stream().filter(this::isQuarantined).map(Rule::getName).sorted()
+                    .collect(Collectors.joining(", "));
+            if (!quarantined.isEmpty()) {
+                sb.append("\nQuarantined rules: ").append(quarantined);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Stop the watchdog thread.
+     */
+    public void shutdown() {
+        watchdog.shutdown();
+    }
+
+    private Execution register() {
+        Execution execution = new Execution(Thread.currentThread());
+        executions.add(execution);
+        return execution;
+    }
+
+    private void recordOverrun(Rule rule) {
+        totalOverruns.incrementAndGet();
+        int count = overruns.computeIfAbsent(rule, r -> new AtomicInteger()).incrementAndGet();
+        applicationLogger.warn(ApplicationMsgs.RULE_EXECUTION_OVERRUN, rule.getName(), String.valueOf(budgetMillis),
+                String.valueOf(count));
+        if (count == quarantineOverruns) {
+            applicationLogger.warn(ApplicationMsgs.RULE_QUARANTINED, rule.getName(), String.valueOf(count));
+        }
+    }
+
+    /**
+     * Interrupt each thread whose current rule has exceeded the budget.
+     */
+    private void interruptOverruns() {
+        long now = System.nanoTime();
+        for (Execution execution : executions) {
+            if (!execution.thread.isAlive()) {
+                executions.remove(execution);
+                continue;
+            }
+            synchronized (execution) {
+                if (execution.active && now - execution.deadline > 0 && !execution.interrupted) {
+                    execution.interrupted = true;
+                    execution.thread.interrupt();
+                }
+            }
+        }
+    }
+}
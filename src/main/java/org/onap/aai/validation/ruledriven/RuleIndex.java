@@ -0,0 +1,161 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the entity sections which declare indices, for selecting the rules to apply to an entity from the values
+ * of its index attributes.<br>
+ * The indices of each section are stored as a path in a tree keyed by index value. Every ordering of the indices is
+ * stored, so the values of the index attributes can be looked up in the order in which the attributes are configured
+ * (the indices of a section form a set, so the order of the values does not matter).
+ *
+ * <p>
+ * A lookup tries the following tiers, returning the first section found:
+ * <ol>
+ * <li>the values of all the index attributes that are present (not null)</li>
+ * <li>each partial combination of those values, largest first. Combinations of the same size are tried in the order of
+ * the configured attributes, so a combination retaining the earlier attributes is preferred.</li>
+ * <li>the default index</li>
+ * </ol>
+ * A lookup walks the tree using the values themselves and does not allocate any objects (for String values).
+ */
+class RuleIndex {
+
+    /** Partial combinations are only tried for up to this many index attributes. */
+    private static final int MAX_PARTIAL_ATTRIBUTES = 8;
+
+    /** The combinations of the attributes to try, for each number of attributes. */
+    private static final int[][] COMBINATIONS = new int[MAX_PARTIAL_ATTRIBUTES + 1][];
+
+    static {
+        for (int count = 0; count <= MAX_PARTIAL_ATTRIBUTES; count++) {
+            COMBINATIONS[count] = createCombinations(count);
+        }
+    }
+
+    /**
+     * A node of the tree: the entity section whose indices are the values on the path to the node (if any).
+     */
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private String entityType;
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * Index the entity sections.
+     *
+     * @param indexedEntities
+     *            the indices of each entity section, keyed by entity type. A section without indices is ignored.
+     */
+    RuleIndex(Map<String, ? extends Collection<String>> indexedEntities) {
+        for (Map.Entry<String, ? extends Collection<String>> entry : indexedEntities.entrySet()) {
+            if (entry.getValue() != null && !entry.getValue().isEmpty()) {
+                addPermutations(root, new ArrayList<>(entry.getValue()), entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Find the entity section for the values of the index attributes.
+     *
+     * @param values
+     *            the value of each index attribute, in the configured order (null where an attribute is not present)
+     * @param defaultIndex
+     *            the index of the default entity section, or null if there is no default
+     * @return the type of the entity section whose rules are to be applied, or null if no section is found
+     */
+    String find(Object[] values, String defaultIndex) {
+        int present = 0;
+        for (int i = 0; i < values.length && i < Integer.SIZE - 1; i++) {
+            if (values[i] != null) {
+                present |= 1 << i;
+            }
+        }
+
+        String entityType = find(values, present);
+        if (entityType == null && present != 0 && values.length <= MAX_PARTIAL_ATTRIBUTES) {
+            for (int combination : COMBINATIONS[values.length]) {
+                if ((combination & present) == combination && combination != present) {
+                    entityType = find(values, combination);
+                    if (entityType != null) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (entityType == null && defaultIndex != null) {
+            Node node = root.children.get(defaultIndex);
+            entityType = node == null ? null : node.entityType;
+        }
+        return entityType;
+    }
+
+    /**
+     * @return the entity type for the values selected by the bit mask, or null
+     */
+    private String find(Object[] values, int mask) {
+        if (mask == 0) {
+            return null;
+        }
+        Node node = root;
+        for (int i = 0; i < values.length && i < Integer.SIZE - 1 && node != null; i++) {
+            if ((mask & 1 << i) != 0) {
+                node = node.children.get(String.valueOf(values[i]));
+            }
+        }
+        return node == null ? null : node.entityType;
+    }
+
+    /**
+     * @return every non-empty combination of the attributes (as a bit mask), largest first and then preferring the
+     *         earlier attributes
+     */
+    private static int[] createCombinations(int attributeCount) {
+        List<Integer> masks = new ArrayList<>();
+        for (int mask = 1; mask < 1 << attributeCount; mask++) {
+            masks.add(mask);
+        }
+        // Reversing the bits orders the masks by the first attribute, then by the second, and so on
+        masks.sort(Comparator.comparingInt(Integer::bitCount).reversed()
+                .thenComparing(Comparator.comparingInt((Integer mask) -> Integer.reverse(mask) >>> 1).reversed()));
+        return masks.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static void addPermutations(Node node, List<String> indices, String entityType) {
+        if (indices.isEmpty()) {
+            if (node.entityType == null) {
+                node.entityType = entityType;
+            }
+            return;
+        }
+        for (String index : indices) {
+            List<String> remaining = new ArrayList<>(indices);
+            remaining.remove(index);
+            addPermutations(node.children.computeIfAbsent(index, key -> new Node()), remaining, entityType);
+        }
+    }
+}
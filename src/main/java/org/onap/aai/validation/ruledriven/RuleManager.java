@@ -24,15 +24,19 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import org.onap.aai.validation.reader.AttributeExtractionPlan;
 import org.onap.aai.validation.ruledriven.configuration.EntitySection;
 import org.onap.aai.validation.ruledriven.configuration.GroovyConfigurationException;
 import org.onap.aai.validation.ruledriven.configuration.RuleSection;
 import org.onap.aai.validation.ruledriven.rule.GroovyRule;
 import org.onap.aai.validation.ruledriven.rule.Rule;
+import org.onap.aai.validation.ruledriven.rule.RuleCompiler;
 
 /**
  * Helper class storing the relationships from entity type to rules. This class constructs the actual rules from the
@@ -42,7 +46,12 @@ import org.onap.aai.validation.ruledriven.rule.Rule;
 public class RuleManager {
 
     private Map<String, List<Rule>> rulesMap = new LinkedHashMap<>();
+    private Map<String, AttributeExtractionPlan> extractionPlans = new LinkedHashMap<>();
+    private Map<String, RuleDependencies> ruleDependencies = new LinkedHashMap<>();
     private List<EntitySection> entities;
+    private List<GroovyRule> allRules = new ArrayList<>();
+    private RuleCompiler ruleCompiler;
+    private RuleIndex ruleIndex;
 
     /**
      * Create the rules for each type of entity based on the supplied configuration
@@ -56,20 +65,87 @@ public class RuleManager {
      */
     public RuleManager(List<EntitySection> entities)
             throws InstantiationException, IllegalAccessException, GroovyConfigurationException, IOException {
+        this(entities, new RuleCompiler());
+        initialise();
+    }
+
+    /**
+     * Create the rules for each type of entity based on the supplied configuration, adding their expressions to a
+     * compiler which may be shared with other rule managers. The rules cannot be used until the rule manager has been
+     * initialised (after every rule manager sharing the compiler has been created).
+     *
+     * @param entities
+     *            configuration (all entities)
+     * @param ruleCompiler
+     *            the compiler for the rule expressions
+     */
+    public RuleManager(List<EntitySection> entities, RuleCompiler ruleCompiler) {
         this.entities = entities;
+        this.ruleCompiler = ruleCompiler;
+        Map<String, Set<String>> indexedEntities = new LinkedHashMap<>();
         for (EntitySection entity : entities) {
             List<Rule> rules = new ArrayList<>();
             for (RuleSection section : entity.getRules()) {
-                rules.add(new GroovyRule(section));
+                GroovyRule rule = new GroovyRule(section, ruleCompiler);
+                allRules.add(rule);
+                rules.add(rule);
             }
             rulesMap.put(entity.getType(), rules);
+            AttributeExtractionPlan extractionPlan = createExtractionPlan(rules);
+            extractionPlans.put(entity.getType(), extractionPlan);
+            ruleDependencies.put(entity.getType(), new RuleDependencies(extractionPlan.getAttributePaths(), rules));
+            if (!rules.isEmpty()) {
+                indexedEntities.put(entity.getType(), entity.getIndices());
+            }
         }
+        ruleIndex = new RuleIndex(indexedEntities);
+    }
+
+    /**
+     * Compile the rule expressions (unless the shared compiler has already done so) and initialise the rules.
+     *
+     * @throws InstantiationException
+     * @throws IllegalAccessException
+     * @throws GroovyConfigurationException
+     * @throws IOException
+     */
+    public void initialise()
+            throws InstantiationException, IllegalAccessException, GroovyConfigurationException, IOException {
+        ruleCompiler.compile();
+        for (GroovyRule rule : allRules) {
+            rule.initialise();
+        }
+    }
+
+    /**
+     * @return the number of distinct rule expressions compiled by the (possibly shared) compiler
+     */
+    public int getCompiledExpressionCount() {
+        return ruleCompiler.getMethodCount();
+    }
+
+    /**
+     * @return the number of classes generated by the (possibly shared) compiler
+     */
+    public int getCompiledClassCount() {
+        return ruleCompiler.getClassCount();
     }
 
     public List<EntitySection> getEntities() {
         return entities;
     }
 
+    /**
+     * @return the distinct attribute paths referenced by all of the rules
+     */
+    public Set<String> getAttributePaths() {
+        Set<String> attributePaths = new LinkedHashSet<>();
+        for (AttributeExtractionPlan plan : extractionPlans.values()) {
+            attributePaths.addAll(plan.getAttributePaths());
+        }
+        return attributePaths;
+    }
+
     /**
      * @param entityType
      * @return the Optional rules configured for this entity type
@@ -78,7 +154,46 @@ public class RuleManager {
         return Optional.ofNullable(rulesMap.get(entityType));
     }
 
+    /**
+     * @param entityType
+     * @return the Optional plan for reading the attributes of all the rules configured for this entity type
+     */
+    public Optional<AttributeExtractionPlan> getExtractionPlan(String entityType) {
+        return Optional.ofNullable(extractionPlans.get(entityType));
+    }
+
+    /**
+     * @param entityType
+     * @return the Optional index of the rules configured for this entity type by the attributes they read
+     */
+    Optional<RuleDependencies> getRuleDependencies(String entityType) {
+        return Optional.ofNullable(ruleDependencies.get(entityType));
+    }
+
+    /**
+     * Find the rules to apply to an entity from the values of its index attributes. The rules of the entity section
+     * whose indices match all of the values are selected, otherwise those matching the most values, otherwise those of
+     * the default index (see {@link RuleIndex}).
+     *
+     * @param indexValues
+     *            the value of each index attribute (null where the attribute is not present)
+     * @param defaultIndex
+     *            the index of the default rules, or null if there are no default rules
+     * @return the Optional key of the rules (i.e. the entity type of the indexed entity section)
+     */
+    public Optional<String> getIndexedRulesKey(Object[] indexValues, String defaultIndex) {
+        return Optional.ofNullable(ruleIndex.find(indexValues, defaultIndex));
+    }
+
     public static String generateKey(Collection<Object> collection) {
         return collection.stream().sorted().map(String::valueOf).collect(Collectors.joining("][", "[", "]"));
     }
+
+    private AttributeExtractionPlan createExtractionPlan(List<Rule> rules) {
+        Set<String> attributePaths = new LinkedHashSet<>();
+        for (Rule rule : rules) {
+            attributePaths.addAll(rule.getAttributePaths());
+        }
+        return new AttributeExtractionPlan(attributePaths);
+    }
 }
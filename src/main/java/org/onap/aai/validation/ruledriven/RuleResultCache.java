@@ -0,0 +1,200 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.onap.aai.validation.reader.data.AttributeValues;
+import org.onap.aai.validation.ruledriven.rule.Rule;
+import org.onap.aai.validation.ruledriven.rule.RuleResult;
+
+/**
+ * A bounded cache of the results of cacheable rules, keyed by the rule and the values of its attributes.<br>
+ * The cache is divided into segments, each of which is a least recently used map bounded by the (approximate) size in
+ * bytes of its keys and results. Only values which are cheap to compare and to copy are cached: null, Strings, Numbers,
+ * Booleans and Lists of these. A rule applied to any other value (e.g. a JSON object) is executed without the cache.
+ *
+ * <p>
+ * The results of a rule which is replaced (when the rules are reloaded) are never looked up again, and so are evicted
+ * in time.
+ */
+public class RuleResultCache {
+
+    private static final int ENTRY_WEIGHT = 64;
+    private static final int STRING_WEIGHT = 40;
+    private static final int MAX_LIST_SIZE = 32;
+
+    /**
+     * The rule and the values of its attributes (in the order of the rule's attribute paths).
+     */
+    private static final class Key {
+        private final Rule rule;
+        private final Object[] values;
+        private final int hash;
+
+        private Key(Rule rule, Object[] values) {
+            this.rule = rule;
+            this.values = values;
+            this.hash = 31 * System.identityHashCode(rule) + Arrays.hashCode(values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return rule == other.rule && hash == other.hash && Arrays.equals(values, other.values);
+        }
+    }
+
+    private final SegmentedLruMap<Key, RuleResult> results;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxWeight
+     *            the maximum (approximate) size of the cache in bytes
+     */
+    public RuleResultCache(long maxWeight) {
+        this.results = new SegmentedLruMap<>(maxWeight);
+    }
+
+    /**
+     * Get the cached result of the rule for the attribute values, or execute the rule and cache its result. A rule
+     * which is not cacheable is always executed. Exceptions thrown by the rule are not cached.
+     *
+     * @param rule
+     *            the rule
+     * @param attributeValues
+     *            the values of the rule's attributes
+     * @param execution
+     *            executes the rule
+     * @return the result of the rule
+     */
+    public RuleResult getResult(Rule rule, AttributeValues attributeValues, Supplier<RuleResult> execution) {
+        Object[] values = rule.isCacheable() ? getValues(rule, attributeValues) : null;
+        if (values == null) {
+            bypasses.increment();
+            return execution.get();
+        }
+
+        Key key = new Key(rule, values);
+        RuleResult cachedResult = results.get(key);
+        if (cachedResult != null) {
+            hits.increment();
+            return cachedResult;
+        }
+
+        misses.increment();
+        // Copy any List values (before the rule is executed), so that the key cannot be changed
+        Object[] copy = values.clone();
+        long weight = ENTRY_WEIGHT;
+        for (int i = 0; i < copy.length; i++) {
+            if (copy[i] instanceof List) {
+                copy[i] = Collections.unmodifiableList(new ArrayList<>((List<?>) copy[i]));
+            }
+            weight += weigh(copy[i]);
+        }
+        RuleResult result = execution.get();
+        for (Object argument : result.getErrorArguments()) {
+            weight += weigh(String.valueOf(argument));
+        }
+        evictions.add(results.put(new Key(rule, copy), result, weight));
+        return result;
+    }
+
+    /**
+     * @return the proportion of lookups which found a cached result
+     */
+    public double getHitRate() {
+        long lookups = hits.sum() + misses.sum();
+        return lookups == 0 ? 0 : (double) hits.sum() / lookups;
+    }
+
+    /**
+     * @return a description of the cache usage (for the status report)
+     */
+    public String getStatusReport() {
+        long[] usage = results.getUsage();
+        return String.format("Rule result cache hits=%d misses=%d hit rate=%.1f%% bypasses=%d evictions=%d"
+                + " entries=%d size=%d of %d bytes", hits.sum(), misses.sum(), getHitRate() * 100, bypasses.sum(),
+                evictions.sum(), usage[0], usage[1], results.getMaxWeight());
+    }
+
+    /**
+     * @return the values of the rule's attributes, or null if a value cannot be cached
+     */
+    private Object[] getValues(Rule rule, AttributeValues attributeValues) {
+        List<String> attributePaths = rule.getAttributePaths();
+        Object[] values = new Object[attributePaths.size()];
+        for (int i = 0; i < values.length; i++) {
+            Object value = attributeValues.get(attributePaths.get(i));
+            if (!isCacheable(value, true)) {
+                return null;
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+
+    /**
+     * @return true if the value is cheap to compare and to copy (a scalar or a short List of scalars)
+     */
+    static boolean isCacheable(Object value, boolean allowList) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return true;
+        } else if (allowList && value instanceof List && ((List<?>) value).size() <= MAX_LIST_SIZE) {
+            for (Object element : (List<?>) value) {
+                if (!isCacheable(element, false)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the approximate size of the value in bytes
+     */
+    static long weigh(Object value) {
+        if (value instanceof String) {
+            return STRING_WEIGHT + 2L * ((String) value).length();
+        } else if (value instanceof List) {
+            long weight = STRING_WEIGHT;
+            for (Object element : (List<?>) value) {
+                weight += weigh(element);
+            }
+            return weight;
+        }
+        return Objects.isNull(value) ? 0 : 16;
+    }
+}
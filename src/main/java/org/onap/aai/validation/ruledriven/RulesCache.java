@@ -0,0 +1,303 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import groovy.lang.GroovySystem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import org.onap.aai.validation.logging.ApplicationMsgs;
+import org.onap.aai.validation.logging.LogHelper;
+import org.onap.aai.validation.ruledriven.configuration.EntitySection;
+import org.onap.aai.validation.ruledriven.configuration.GroovyConfigurationException;
+import org.onap.aai.validation.ruledriven.configuration.RuleSection;
+import org.onap.aai.validation.ruledriven.configuration.RulesConfiguration;
+import org.onap.aai.validation.ruledriven.rule.RuleCompiler;
+import org.onap.aai.validation.ruledriven.rule.RuleCompiler.CompiledClasses;
+
+/**
+ * An on-disk cache of parsed rules files and of the classes generated for rule expressions, so that unchanged rules
+ * are not parsed and compiled again when the service restarts.
+ *
+ * <p>
+ * Each entry is stored in a file named after a hash of its content (the rules file text, or the signature of the rule
+ * compiler) together with the versions of the cache format, Groovy and Java. Every file starts with a digest of its
+ * payload. A file which cannot be read, fails the integrity check, or cannot be used is deleted and the rules are
+ * parsed or compiled as normal (and the cache entry is written again).
+ */
+public class RulesCache {
+
+    private static final LogHelper applicationLogger = LogHelper.INSTANCE;
+
+    /** Increment whenever the format of the cache files changes. */
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAGIC = 0x52554C45;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String CONFIGURATION_SUFFIX = ".rules";
+    private static final String CLASSES_SUFFIX = ".classes";
+
+    private final Path directory;
+    private final String versions;
+    private final Gson gson = new Gson();
+
+    /**
+     * @param directory
+     *            the cache directory (which is created if it does not exist)
+     */
+    public RulesCache(Path directory) {
+        this.directory = directory;
+        this.versions = FORMAT_VERSION + "/" + GroovySystem.getVersion() + "/" + System.getProperty("java.version");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @param hash
+     *            the hash of the text of a rules file
+     * @return the configuration parsed from the rules file, if it has been cached
+     */
+    public Optional<RulesConfiguration> loadConfiguration(String hash) {
+        Path file = getFile(hash, CONFIGURATION_SUFFIX);
+        Optional<byte[]> payload = read(file);
+        if (payload.isPresent()) {
+            try {
+                JsonObject json = gson.fromJson(new String(payload.get(), StandardCharsets.UTF_8), JsonObject.class);
+                List<EntitySection> entities =
+                        gson.fromJson(json.get("entities"), new TypeToken<List<EntitySection>>() {}.getType());
+                List<RuleSection> rules =
+                        gson.fromJson(json.get("rules"), new TypeToken<List<RuleSection>>() {}.getType());
+                if (hash.equals(json.get("hash").getAsString())) {
+                    return Optional.of(new RulesConfiguration(hash, entities, rules));
+                }
+                discard(file, "the content does not match the rules file");
+            } catch (JsonParseException | IllegalStateException | NullPointerException e) {
+                discard(file, e.toString());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param configuration
+     *            the configuration parsed from a rules file
+     */
+    public void storeConfiguration(RulesConfiguration configuration) {
+        JsonObject json = new JsonObject();
+        json.addProperty("hash", configuration.getHash());
+        json.add("entities", gson.toJsonTree(configuration.getEntities()));
+        json.add("rules", gson.toJsonTree(configuration.getRules()));
+        write(getFile(configuration.getHash(), CONFIGURATION_SUFFIX),
+                gson.toJson(json).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compile the rule expressions, reusing the classes generated by a previous compilation with the same signature if
+     * possible.
+     *
+     * @param ruleCompiler
+     *            the compiler, to which all the rule expressions have been added
+     * @throws GroovyConfigurationException
+     *             if an expression cannot be compiled
+     * @throws IOException
+     *             if the Groovy class loader throws an internal exception
+     * @throws InstantiationException
+     * @throws IllegalAccessException
+     */
+    public void compile(RuleCompiler ruleCompiler)
+            throws GroovyConfigurationException, IOException, InstantiationException, IllegalAccessException {
+        Path file = getFile(hash(ruleCompiler.getSignature()), CLASSES_SUFFIX);
+        Optional<byte[]> payload = read(file);
+        if (payload.isPresent()) {
+            try {
+                ruleCompiler.load(readClasses(payload.get()));
+                return;
+            } catch (IOException | GroovyConfigurationException | ReflectiveOperationException | LinkageError
+                    | RuntimeException e) {
+                discard(file, e.toString());
+            }
+        }
+
+        ruleCompiler.compile();
+        if (ruleCompiler.getCompiledClasses() != null) {
+            write(file, writeClasses(ruleCompiler.getCompiledClasses()));
+        }
+    }
+
+    private CompiledClasses readClasses(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            Map<String, byte[]> classes = new LinkedHashMap<>();
+            int classCount = in.readInt();
+            for (int i = 0; i < classCount; i++) {
+                String name = in.readUTF();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                classes.put(name, bytes);
+            }
+            Set<Integer> dynamicMethods = new HashSet<>();
+            int dynamicCount = in.readInt();
+            for (int i = 0; i < dynamicCount; i++) {
+                dynamicMethods.add(in.readInt());
+            }
+            return new CompiledClasses(classes, dynamicMethods);
+        }
+    }
+
+    private byte[] writeClasses(CompiledClasses compiledClasses) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(compiledClasses.getClasses().size());
+            for (Entry<String, byte[]> entry : compiledClasses.getClasses().entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                out.write(entry.getValue());
+            }
+            out.writeInt(compiledClasses.getDynamicMethods().size());
+            for (Integer index : compiledClasses.getDynamicMethods()) {
+                out.writeInt(index);
+            }
+        } catch (IOException e) {
+            // Not thrown when writing to a byte array
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the payload of the cache file, if the file exists and passes the integrity check
+     */
+    private Optional<byte[]> read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buffer.remaining() < Integer.BYTES || buffer.getInt() != MAGIC) {
+                discard(file, "not a rules cache file");
+                return Optional.empty();
+            }
+            Optional<byte[]> digest = readBytes(buffer);
+            Optional<byte[]> payload = readBytes(buffer);
+            if (!digest.isPresent() || !payload.isPresent() || buffer.hasRemaining()
+                    || !MessageDigest.isEqual(digest.get(), digest(payload.get()))) {
+                discard(file, "the integrity check failed");
+                return Optional.empty();
+            }
+            return payload;
+        } catch (IOException e) {
+            discard(file, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the length-prefixed bytes at the current position, or an empty Optional if the length is not valid
+     */
+    private static Optional<byte[]> readBytes(ByteBuffer buffer) {
+        if (buffer.remaining() < Integer.BYTES) {
+            return Optional.empty();
+        }
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            return Optional.empty();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return Optional.of(bytes);
+    }
+
+    /**
+     * Write the cache file atomically, so that a partially written file is never read.
+     */
+    private void write(Path file, byte[] payload) {
+        Path tempFile = null;
+        try {
+            Files.createDirectories(directory);
+            tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tempFile))) {
+                byte[] digest = digest(payload);
+                out.writeInt(MAGIC);
+                out.writeInt(digest.length);
+                out.write(digest);
+                out.writeInt(payload.length);
+                out.write(payload);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            applicationLogger.warn(ApplicationMsgs.RULES_CACHE_WRITE_ERROR, file.toString(), e.toString());
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private void discard(Path file, String reason) {
+        applicationLogger.warn(ApplicationMsgs.RULES_CACHE_INVALID, file.toString(), reason);
+        deleteQuietly(file);
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                applicationLogger.debug("Unable to delete " + file + ": " + e);
+            }
+        }
+    }
+
+    private Path getFile(String hash, String suffix) {
+        return directory.resolve(hash(versions + "/" + hash) + suffix);
+    }
+
+    private static String hash(String text) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest(text.getBytes(StandardCharsets.UTF_8))) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static byte[] digest(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM).digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
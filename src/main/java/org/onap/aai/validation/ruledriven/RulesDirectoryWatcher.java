@@ -0,0 +1,105 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimerTask;
+import java.util.stream.Stream;
+import org.onap.aai.validation.logging.ApplicationMsgs;
+import org.onap.aai.validation.logging.LogHelper;
+
+/**
+ * A timer task which polls the rules configuration directories (and their event type sub-directories) and reports
+ * when a rules file has been added, changed or removed.
+ */
+public abstract class RulesDirectoryWatcher extends TimerTask {
+
+    private static LogHelper applicationLogger = LogHelper.INSTANCE;
+
+    private static final String RULES_FILE_SUFFIX = ".groovy";
+
+    private final Collection<Path> configurationPaths;
+    private Map<Path, String> snapshot;
+
+    /**
+     * Instantiates a new watcher, recording the current state of the rules files.
+     *
+     * @param configurationPaths
+     *            the rules configuration directories
+     */
+    public RulesDirectoryWatcher(Collection<Path> configurationPaths) {
+        this.configurationPaths = configurationPaths;
+        this.snapshot = takeSnapshot();
+    }
+
+    /**
+     * Compares the state of the rules files with that recorded by the previous check.
+     *
+     * @see java.util.TimerTask#run()
+     */
+    @Override
+    public final void run() {
+        Map<Path, String> newSnapshot = takeSnapshot();
+        if (!newSnapshot.equals(snapshot)) {
+            snapshot = newSnapshot;
+            applicationLogger.debug("Rules files changed in " + configurationPaths);
+            onChange();
+        }
+    }
+
+    /**
+     * Called (by the timer thread) when one or more rules files have been added, changed or removed.
+     */
+    protected abstract void onChange();
+
+    /**
+     * @return the modification time and size of each rules file, keyed by path
+     */
+    private Map<Path, String> takeSnapshot() {
+        Map<Path, String> files = new HashMap<>();
+        for (Path configurationPath : configurationPaths) {
+            if (!Files.isDirectory(configurationPath)) {
+                continue;
+            }
+            try (Stream<Path> stream = Files.find(configurationPath, 2,
+                    (path, attributes) -> attributes.isRegularFile()
+                            && path.getFileName().toString().endsWith(RULES_FILE_SUFFIX))) {
+                stream.forEach(path -> files.put(path, describe(path)));
+            } catch (IOException | RuntimeException e) {
+                applicationLogger.error(ApplicationMsgs.READ_FILE_ERROR, e, configurationPath.toString());
+            }
+        }
+        return files;
+    }
+
+    private static String describe(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return attributes.lastModifiedTime() + "/" + attributes.size();
+        } catch (IOException e) {
+            // The file has been removed since it was found
+            return "";
+        }
+    }
+}
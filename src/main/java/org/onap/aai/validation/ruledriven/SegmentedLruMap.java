@@ -0,0 +1,151 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * A thread-safe map bounded by the total weight of its entries, evicting the least recently used entries.<br>
+ * The map is divided into segments (selected by the hash of the key), each of which is locked independently and is
+ * bounded by an equal share of the total weight.
+ *
+ * @param <K>
+ *            the type of the keys
+ * @param <V>
+ *            the type of the values
+ */
+class SegmentedLruMap<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+
+        private Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A least recently used map bounded by weight.
+     */
+    private static final class Segment<K, V> {
+        private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final long maxWeight;
+        private long weight;
+
+        private Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        private synchronized V get(K key) {
+            Entry<V> entry = entries.get(key);
+            return entry == null ? null : entry.value;
+        }
+
+        private synchronized int put(K key, Entry<V> entry) {
+            Entry<V> previous = entries.put(key, entry);
+            weight += entry.weight - (previous == null ? 0 : previous.weight);
+            int evictions = 0;
+            Iterator<Entry<V>> eldest = entries.values().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictions++;
+            }
+            return evictions;
+        }
+
+        private synchronized V remove(K key) {
+            Entry<V> previous = entries.remove(key);
+            if (previous == null) {
+                return null;
+            }
+            weight -= previous.weight;
+            return previous.value;
+        }
+    }
+
+    private final long maxWeight;
+    private final List<Segment<K, V>> segments;
+
+    /**
+     * @param maxWeight
+     *            the maximum total weight of the entries
+     */
+    SegmentedLruMap(long maxWeight) {
+        this.maxWeight = maxWeight;
+        this.segments = new ArrayList<>(SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments.add(new Segment<>(maxWeight / SEGMENTS));
+        }
+    }
+
+    /**
+     * @return the value for the key (marking it as the most recently used), or null if there is no entry
+     */
+    V get(K key) {
+        return segment(key).get(key);
+    }
+
+    /**
+     * Add or replace the value for the key, evicting the least recently used entries of the key's segment whilst the
+     * segment exceeds its share of the maximum weight.
+     *
+     * @return the number of entries evicted
+     */
+    int put(K key, V value, long weight) {
+        return segment(key).put(key, new Entry<>(value, weight));
+    }
+
+    /**
+     * @return the value removed, or null if there was no entry for the key
+     */
+    V remove(K key) {
+        return segment(key).remove(key);
+    }
+
+    long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return the number of entries and their total weight
+     */
+    long[] getUsage() {
+        long entries = 0;
+        long weight = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                entries += segment.entries.size();
+                weight += segment.weight;
+            }
+        }
+        return new long[] {entries, weight};
+    }
+
+    private Segment<K, V> segment(K key) {
+        int hash = key.hashCode();
+        return segments.get((hash ^ hash >>> 16) & (SEGMENTS - 1));
+    }
+}
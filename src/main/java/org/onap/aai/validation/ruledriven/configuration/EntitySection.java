@@ -40,6 +40,21 @@ public class EntitySection {
 		// Deliberately empty - invoked when an entity section is read from the rules DSL
 	}
 
+	/**
+	 * Copy an entity section (and its rules) so that the copy may be modified independently.
+	 *
+	 * @param entity
+	 *            the entity section to copy
+	 */
+	public EntitySection(EntitySection entity) {
+		this.name = entity.name;
+		this.type = entity.type;
+		this.indices.addAll(entity.indices);
+		for (RuleSection rule : entity.rules) {
+			this.rules.add(new RuleSection(rule));
+		}
+	}
+
 	@Override
 	public String toString() {
 		return new EntityBuilder(this).toString();
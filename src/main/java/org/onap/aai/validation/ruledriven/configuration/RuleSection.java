@@ -38,6 +38,7 @@ public class RuleSection {
 	private List<String> attributes = new ArrayList<>();
 	private List<String> fields = new ArrayList<>();
 	private String expression;
+	private Boolean pure;
 
 	/**
 	 * Rules may be defined within an entity {} section.
@@ -46,6 +47,27 @@ public class RuleSection {
 		isGenericRule = false;
 	}
 
+	/**
+	 * Copy a rule section so that the copy may be modified independently.
+	 *
+	 * @param rule
+	 *            the rule section to copy
+	 */
+	public RuleSection(RuleSection rule) {
+		this.name = rule.name;
+		this.isGenericRule = rule.isGenericRule;
+		this.description = rule.description;
+		this.category = rule.category;
+		this.errorMessage = rule.errorMessage;
+		this.type = rule.type;
+		this.objectId = rule.objectId;
+		this.severity = rule.severity;
+		this.attributes = rule.attributes == null ? null : new ArrayList<>(rule.attributes);
+		this.fields = rule.fields == null ? null : new ArrayList<>(rule.fields);
+		this.expression = rule.expression;
+		this.pure = rule.pure;
+	}
+
 	/**
 	 * @param attribute
 	 */
@@ -86,6 +108,7 @@ public class RuleSection {
 		setSeverity(genericRule.getSeverity());
 		setExpression(genericRule.getExpression());
 		setErrorMessage(genericRule.getErrorMessage());
+		setPure(genericRule.getPure());
 		if (genericRule.getAttributes() != null) {
 			if (getAttributes().isEmpty()) {
 				addAttributes(genericRule.getAttributes());
@@ -144,6 +167,14 @@ public class RuleSection {
 		return severity;
 	}
 
+	/**
+	 * @return whether the rule is declared to be pure (its result depending only on its attribute values), or null if
+	 *         this is not declared
+	 */
+	public Boolean getPure() {
+		return pure;
+	}
+
 	public boolean isGeneric() {
 		return isGenericRule;
 	}
@@ -176,6 +207,10 @@ public class RuleSection {
 		this.isGenericRule = isGenericRule;
 	}
 
+	public void setPure(Boolean pure) {
+		this.pure = pure;
+	}
+
 	public void setName(String name) {
 		this.name = name;
 	}
@@ -0,0 +1,63 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven.configuration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The sections read from the text of a single rules configuration file.<br>
+ * Instances are shared by the rule sets of every event type that includes the file, so neither the instance nor its
+ * sections may be modified. Rule sets are composed from copies of the entity sections.
+ */
+public class RulesConfiguration {
+
+	private final String hash;
+	private final List<EntitySection> entities;
+	private final List<RuleSection> rules;
+
+	/**
+	 * @param hash
+	 *            the hash of the configuration text
+	 * @param entities
+	 *            the entity {} sections
+	 * @param rules
+	 *            the (generic) rule {} sections
+	 */
+	public RulesConfiguration(String hash, List<EntitySection> entities, List<RuleSection> rules) {
+		this.hash = hash;
+		this.entities = Collections.unmodifiableList(new ArrayList<>(entities));
+		this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+	}
+
+	/**
+	 * @return the hash of the configuration text, identifying the file content
+	 */
+	public String getHash() {
+		return hash;
+	}
+
+	public List<EntitySection> getEntities() {
+		return entities;
+	}
+
+	public List<RuleSection> getRules() {
+		return rules;
+	}
+}
@@ -21,26 +21,103 @@ import groovy.lang.Closure
 import groovy.lang.DelegatesTo
 import groovy.lang.ExpandoMetaClass
 import java.io.File
+import java.nio.charset.StandardCharsets
+import java.security.MessageDigest
 import java.util.List
+import org.codehaus.groovy.control.CompilationUnit
+import org.codehaus.groovy.control.MultipleCompilationErrorsException
+import org.codehaus.groovy.control.Phases
+import org.codehaus.groovy.control.messages.SyntaxErrorMessage
+import org.codehaus.groovy.runtime.InvokerHelper
+import org.codehaus.groovy.tools.GroovyClass
 import org.onap.aai.validation.ruledriven.RuleManager
+import org.onap.aai.validation.ruledriven.rule.RuleCompiler
 
 class RulesConfigurationLoader {
 
+	private static final String RULES_FILE_CLASS = "RulesFile"
+
 	static RuleManager loadConfiguration(File dsl) {
 		return loadConfiguration(dsl.text)
 	}
 
 	static RuleManager loadConfiguration(String dsl) throws GroovyConfigurationException {
-		SettingsSection globalConfiguration = new SettingsSection()
+		RuleManager ruleManager = loadConfiguration([parseConfiguration(dsl)], new RuleCompiler())
+		ruleManager.initialise()
+		return ruleManager
+	}
+
+	/**
+	 * Compose a rule set from the (shared) configuration of one or more rules files. The rules are added to the
+	 * supplied compiler, and so cannot be used until the rule manager has been initialised.
+	 */
+	static RuleManager loadConfiguration(List<RulesConfiguration> configurations, RuleCompiler ruleCompiler)
+			throws GroovyConfigurationException {
 		def List<EntitySection> entities = []
 		def List<RuleSection> rules = []
-		Script dslScript
 
+		for (configuration in configurations) {
+			// Copy the shared entity sections because resolving generic rules modifies them
+			configuration.getEntities().each { entity -> entities.add(new EntitySection(entity)) }
+			rules.addAll(configuration.getRules())
+		}
+
+		loadGenericRules(entities, rules)
+		checkForDuplicateRules(rules)
+
+		return new RuleManager(entities, ruleCompiler)
+	}
+
+	/**
+	 * Parse the text of a single rules file. Generic rules are not resolved because they may be defined in other files.
+	 */
+	static RulesConfiguration parseConfiguration(String dsl) throws GroovyConfigurationException {
+		return parseConfigurations([dsl]).get(0)
+	}
+
+	/**
+	 * Parse the text of each of the rules files. The files are compiled together (which is much quicker than compiling
+	 * them separately) but each file is read into its own configuration.
+	 */
+	static List<RulesConfiguration> parseConfigurations(List<String> dsls) throws GroovyConfigurationException {
+		GroovyClassLoader loader = new GroovyClassLoader(RulesConfigurationLoader.class.getClassLoader())
 		try {
-			dslScript = new GroovyShell().parse(dsl)
-		} catch (org.codehaus.groovy.control.MultipleCompilationErrorsException e) {
-			throw new GroovyConfigurationException(e, dsl)
+			CompilationUnit unit = new CompilationUnit(loader)
+			dsls.eachWithIndex { String dsl, int i -> unit.addSource(RULES_FILE_CLASS + i + ".groovy", dsl) }
+			try {
+				unit.compile(Phases.CLASS_GENERATION)
+			} catch (MultipleCompilationErrorsException e) {
+				throw new GroovyConfigurationException(e, findSource(e, dsls))
+			}
+
+			Map<String, Class> classes = [:]
+			for (GroovyClass groovyClass in unit.getClasses()) {
+				classes[groovyClass.getName()] = loader.defineClass(groovyClass.getName(), groovyClass.getBytes())
+			}
+			List<RulesConfiguration> configurations = []
+			dsls.eachWithIndex { String dsl, int i ->
+				Script dslScript = InvokerHelper.createScript(classes[RULES_FILE_CLASS + i], new Binding())
+				configurations.add(runConfigurationScript(dsl, dslScript))
+			}
+			return configurations
+		} finally {
+			loader.close()
 		}
+	}
+
+	/**
+	 * @return the text of the file in which the (first) compilation error was reported
+	 */
+	static String findSource(MultipleCompilationErrorsException e, List<String> dsls) {
+		def error = e.getErrorCollector().getErrors().find { it instanceof SyntaxErrorMessage }
+		def matcher = error?.getCause()?.getSourceLocator() =~ /${RULES_FILE_CLASS}(\d+)\.groovy/
+		return matcher?.find() ? dsls[matcher.group(1) as int] : dsls.join("\n")
+	}
+
+	private static RulesConfiguration runConfigurationScript(String dsl, Script dslScript) throws GroovyConfigurationException {
+		SettingsSection globalConfiguration = new SettingsSection()
+		def List<EntitySection> entities = []
+		def List<RuleSection> rules = []
 
 		dslScript.metaClass = createEMC(dslScript.class, { ExpandoMetaClass emc ->
 
@@ -73,10 +150,14 @@ class RulesConfigurationLoader {
 			throw new GroovyConfigurationException(e, dsl)
 		}
 
-		loadGenericRules(entities, rules)
-		checkForDuplicateRules(rules)
+		return new RulesConfiguration(hash(dsl), entities, rules)
+	}
 
-		return new RuleManager(entities)
+	/**
+	 * @return the SHA-256 hash of the configuration text, identifying rules files with the same content
+	 */
+	static String hash(String dsl) {
+		return MessageDigest.getInstance("SHA-256").digest(dsl.getBytes(StandardCharsets.UTF_8)).encodeHex().toString()
 	}
 
 	static void loadGenericRules(List<EntitySection> entities, List<RuleSection> rules) {
@@ -267,6 +348,10 @@ class RuleDelegate {
 		this.configuration.setExpression validate
 	}
 
+	void pure(boolean pure) {
+		this.configuration.setPure pure
+	}
+
 	void methodMissing(String name, Object args) {
 		throw new MissingMethodException(name, this.class, args as Object[])
 	}
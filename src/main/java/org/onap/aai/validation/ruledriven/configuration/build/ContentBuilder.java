@@ -138,6 +138,8 @@ public class ContentBuilder {
 			addStringValue((String) value);
 		} else if (value instanceof Number) {
 			addStringValue(value.toString());
+		} else if (value instanceof Boolean) {
+			addContent(value.toString());
 		} else if (value instanceof List<?>) {
 			boolean first = true;
 			for (Object element : (List<?>) value) {
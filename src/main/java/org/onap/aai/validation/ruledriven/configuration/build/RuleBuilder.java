@@ -49,6 +49,7 @@ public class RuleBuilder extends ContentBuilder {
 		appendValue("category", ruleConfig.getCategory());
 		appendValue("description", ruleConfig.getDescription());
 		appendValue("severity", ruleConfig.getSeverity());
+		appendValue("pure", ruleConfig.getPure());
 		if (ruleConfig.isGeneric()) {
 			appendLine(indent + "\t// Passing " + ruleConfig.getAttributes());
 		}
@@ -20,28 +20,30 @@
  */
 package org.onap.aai.validation.ruledriven.rule;
 
-import groovy.lang.GroovyClassLoader;
-import groovy.lang.GroovyObject;
-import groovy.lang.MetaMethod;
 import groovy.lang.MissingMethodException;
 import groovy.lang.MissingPropertyException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.Scanner;
 import java.util.regex.Pattern;
-import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.runtime.InvokerInvocationException;
 import org.onap.aai.cl.api.Logger;
 import org.onap.aai.validation.logging.LogHelper;
 import org.onap.aai.validation.reader.data.AttributeValues;
 import org.onap.aai.validation.ruledriven.configuration.GroovyConfigurationException;
 import org.onap.aai.validation.ruledriven.configuration.RuleSection;
+import org.onap.aai.validation.util.ExecutionProfile;
 import org.onap.aai.validation.util.StringUtils;
 
 /**
- * Rule based on a Groovy script
+ * Rule based on a Groovy script.<br>
+ * The rule expression is compiled by a {@link RuleCompiler} (which may be shared by many rules) and is then called
+ * directly through a {@link RuleFunction}. The expression is compiled statically where it type-checks, and dynamically
+ * otherwise. An expression of a common shape (see {@link RuleExpressionAnalyser}) is evaluated directly in Java instead
+ * of calling the compiled method.
  *
  */
 public class GroovyRule implements Rule {
@@ -54,21 +56,51 @@ public class GroovyRule implements Rule {
     private static final Pattern ATTRIBUTE_NAME_WHITELIST = Pattern.compile("^[a-zA-Z0-9-_.\\*\\[\\]]*$");
     private static final Pattern ATTRIBUTE_NAME_BLACKLIST = Pattern.compile("^(|null)$");
 
+    /**
+     * A call to a built-in function which makes a (blocking) request to another service.
+     */
+    private static final Pattern REMOTE_CALL = Pattern.compile("\\bDataDictionary\\s*\\.");
+    private static final int REMOTE_CALL_COST = 100;
+
+    /**
+     * A call whose result may differ between executions with the same attribute values (e.g. reading the clock).
+     */
+    private static final Pattern NON_DETERMINISTIC_CALL = Pattern.compile(
+            "\\b(System|Runtime|Thread|Math\\s*\\.\\s*random|Random|ThreadLocalRandom|UUID|Date|Calendar|Clock|Instant"
+                    + "|LocalDate|LocalTime|LocalDateTime|ZonedDateTime|OffsetDateTime|now|sleep|getenv)\\b");
+
+    /**
+     * The argument arrays of each thread, indexed by the number of arguments. Rules with more arguments than this are
+     * passed a new array.
+     */
+    private static final int MAX_REUSED_ARGUMENTS = 16;
+    private static final ThreadLocal<Object[][]> ARGUMENT_ARRAYS =
+            ThreadLocal.withInitial(() -> new Object[MAX_REUSED_ARGUMENTS + 1][]);
+
     private String errorCategory;
     private String errorMessage;
     private String severity;
     private List<String> attributes;
     private List<String> attributePaths; // where in the JSON entity to read the attributes from
+    private String[] attributePathArray;
 
-    private String methodName;
-    private GroovyObject groovyObject;
+    private final RuleCompiler ruleCompiler;
+    private RuleCompiler.RuleMethod ruleMethod;
+    private RuleFunction ruleFunction;
+    private RuleFunction groovyFunction;
+    private RuleFunction fastPathFunction;
     private List<String> originalFields;
     private String originalExpression;
     private String groovyExpression; // NOSONAR stored for debugging purposes
     private boolean ruleIsValid = true;
     private String name;
+    private int cost = 1;
+    private boolean pure;
+    private final ExecutionProfile executionProfile = new ExecutionProfile();
 
     /**
+     * Create and compile a rule.
+     *
      * @param ruleConfig
      * @throws GroovyConfigurationException
      *             if the Groovy expression cannot be compiled
@@ -79,6 +111,22 @@ public class GroovyRule implements Rule {
      */
     public GroovyRule(RuleSection ruleConfig)
             throws GroovyConfigurationException, IOException, InstantiationException, IllegalAccessException {
+        this(ruleConfig, new RuleCompiler());
+        ruleCompiler.compile();
+        initialise();
+    }
+
+    /**
+     * Create a rule whose expression is compiled by the supplied compiler (together with the expressions of other
+     * rules). The rule cannot be used until the compiler has compiled its rules and the rule has been initialised.
+     *
+     * @param ruleConfig
+     * @param ruleCompiler
+     *            the compiler which will compile the rule expression
+     * @see #initialise()
+     */
+    public GroovyRule(RuleSection ruleConfig, RuleCompiler ruleCompiler) {
+        this.ruleCompiler = ruleCompiler;
         setName(ruleConfig.getName());
         setErrorCategory(ruleConfig.getCategory());
         setErrorMessage(ruleConfig.getErrorMessage());
@@ -91,30 +139,43 @@ public class GroovyRule implements Rule {
             originalFields.add(StringUtils.stripPrefix(field, "."));
         }
 
-        Class<?> groovyClass = createRule(ruleConfig.getExpressionFieldNames(), ruleConfig.getExpression());
-
-        if (groovyClass != null) {
-            groovyObject = (GroovyObject) groovyClass.newInstance();
+        ruleMethod = createRule(ruleConfig.getExpressionFieldNames(), ruleConfig.getExpression());
+        if (ruleMethod != null) {
+            fastPathFunction = RuleExpressionAnalyser.analyse(groovyExpression, attributes.size()).orElse(null);
+        }
+        if (ruleConfig.getExpression() != null && REMOTE_CALL.matcher(ruleConfig.getExpression()).find()) {
+            cost = REMOTE_CALL_COST;
+        }
+        pure = isPure(ruleConfig);
+    }
 
-            for (MetaMethod method : groovyObject.getMetaClass().getMethods()) {
-                if (method.getName().startsWith("rule")) {
-                    methodName = method.getName();
-                }
-            }
+    /**
+     * Bind the rule to its compiled expression and check the rule using sample data.
+     */
+    public void initialise() {
+        if (ruleMethod == null) {
+            ruleIsValid = false;
+            return;
+        }
 
-            try {
-                executeWithSampleData();
-            } catch (IllegalArgumentException e) { // NOSONAR
-                if (e.getCause() instanceof InvokerInvocationException
-                        && e.getCause().getCause() instanceof MissingMethodException) {
-                    applicationLogger
-                            .debug("WARNING: Rule \"" + getName() + "\" does not accept \"1\" for all input values");
-                } else {
-                    ruleIsValid = false;
-                }
-            }
+        groovyFunction = ruleMethod.getFunction();
+        if (fastPathFunction == null) {
+            ruleFunction = groovyFunction;
         } else {
-            ruleIsValid = false;
+            // Any other number of values is spread across the parameters by the Groovy method
+            int parameterCount = attributes.size();
+            ruleFunction = values -> values.length == parameterCount ? fastPathFunction.apply(values)
+                    : groovyFunction.apply(values);
+        }
+        try {
+            executeWithSampleData();
+        } catch (IllegalArgumentException e) { // NOSONAR
+            if (isMissingMethodInExpression(e.getCause())) {
+                applicationLogger
+                        .debug("WARNING: Rule \"" + getName() + "\" does not accept \"1\" for all input values");
+            } else {
+                ruleIsValid = false;
+            }
         }
     }
 
@@ -122,6 +183,42 @@ public class GroovyRule implements Rule {
         return ruleIsValid;
     }
 
+    /**
+     * @return true if the rule expression type-checked and was compiled statically
+     */
+    public boolean isCompiledStatically() {
+        return ruleMethod != null && ruleMethod.isCompiledStatically();
+    }
+
+    /**
+     * @return true if the rule expression is evaluated directly in Java rather than by its compiled Groovy method
+     */
+    public boolean isFastPath() {
+        return fastPathFunction != null;
+    }
+
+    /**
+     * Evaluate the rule using both the Java fast path and the compiled Groovy method, and compare the results (or the
+     * exceptions thrown).
+     *
+     * @param values
+     *            the attribute values
+     * @return a description of the difference between the results, or empty if the results are the same (or if the
+     *         rule has no fast path)
+     */
+    public Optional<String> compareWithGroovy(Object... values) {
+        if (fastPathFunction == null) {
+            return Optional.empty();
+        }
+        String fastPathResult = describeResult(ruleFunction, values);
+        String groovyResult = describeResult(groovyFunction, values);
+        if (fastPathResult.equals(groovyResult)) {
+            return Optional.empty();
+        }
+        return Optional.of(this + " with values " + Arrays.deepToString(values) + ": fast path returned "
+                + fastPathResult + " but Groovy returned " + groovyResult);
+    }
+
     /**
      * Run the rule expression on the specified attribute values
      *
@@ -130,29 +227,54 @@ public class GroovyRule implements Rule {
      */
     @Override
     public RuleResult execute(AttributeValues attributeValues) {
-        // Obtain the values of each of the attributes to pass into the rule
-        List<Object> valueList = new ArrayList<>();
-        for (String attrName : this.attributePaths) {
-            valueList.add(attributeValues.get(attrName));
+        // Obtain the values of each of the attributes to pass into the rule, reusing this thread's argument array
+        // (which is taken from the thread whilst in use, in case a rule is executed from within another rule)
+        Object[][] argumentArrays = ARGUMENT_ARRAYS.get();
+        int arity = attributePathArray.length;
+        boolean reused = arity < argumentArrays.length && argumentArrays[arity] != null;
+        Object[] values = reused ? argumentArrays[arity] : new Object[arity];
+        if (reused) {
+            argumentArrays[arity] = null;
+        }
+        try {
+            for (int i = 0; i < arity; i++) {
+                values[i] = attributeValues.get(attributePathArray[i]);
+            }
+            return execute(values);
+        } finally {
+            // Do not retain the entity's values
+            Arrays.fill(values, null);
+            if (arity < argumentArrays.length) {
+                argumentArrays[arity] = values;
+            }
         }
-        Object[] attrValuesArray = valueList.toArray();
-        return execute(attrValuesArray);
     }
 
     /**
      * Apply the rule to some attribute(s)
      *
      * @param values
-     *
-     * @param groovyObject
-     *            an instance/object of a Groovy class that implements one or more rule methods
+     *            the attribute values, passed directly to the compiled {@link RuleFunction}
      * @return the result of evaluating the expression
      */
     @Override
     public RuleResult execute(Object... values) {
+        long startTime = System.nanoTime();
+        RuleResult result;
+        try {
+            result = execute(ruleFunction, values);
+        } catch (RuntimeException | Error e) {
+            executionProfile.recordError(System.nanoTime() - startTime);
+            throw e;
+        }
+        executionProfile.record(System.nanoTime() - startTime, result.getSuccess());
+        return result;
+    }
+
+    private RuleResult execute(RuleFunction function, Object... values) {
         Object result = null;
         try {
-            result = groovyObject.invokeMethod(getRuleMethod(), values);
+            result = function.apply(values);
         } catch (MissingPropertyException | MissingMethodException | InvokerInvocationException e) {
             throw new IllegalArgumentException(e);
         } catch (NullPointerException e) {
@@ -161,6 +283,46 @@ public class GroovyRule implements Rule {
         return new RuleResult(result);
     }
 
+    private String describeResult(RuleFunction function, Object... values) {
+        try {
+            return String.valueOf(execute(function, values).getSuccess());
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() instanceof InvokerInvocationException ? e.getCause().getCause() : e.getCause();
+            return e.getClass().getName() + (cause == null ? "" : " caused by " + cause.getClass().getName());
+        }
+    }
+
+    /**
+     * @return the relative cost of the rule: higher for an expression which calls a remote service
+     */
+    @Override
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * @return true if the rule is declared to be pure, or (when not declared) its expression makes no call which may
+     *         give a different result each time
+     */
+    @Override
+    public boolean isPure() {
+        return pure;
+    }
+
+    /**
+     * @return true if the rule is pure and its expression is evaluated by Groovy (a rule evaluated directly in Java is
+     *         cheaper to execute than to look up)
+     */
+    @Override
+    public boolean isCacheable() {
+        return pure && !isFastPath();
+    }
+
+    @Override
+    public Optional<ExecutionProfile> getExecutionProfile() {
+        return Optional.of(executionProfile);
+    }
+
     @Override
     public String toString() {
         return "GroovyRule \"" + name + "\" " + attributePaths + " -> " + originalFields + " {" + originalExpression
@@ -208,12 +370,9 @@ public class GroovyRule implements Rule {
         return attributePaths;
     }
 
-    private String getRuleMethod() {
-        return methodName;
-    }
-
     private void setAttributePaths(List<String> attributePaths) {
         this.attributePaths = attributePaths;
+        this.attributePathArray = attributePaths.toArray(new String[attributePaths.size()]);
     }
 
     private void setAttributes(List<String> attributes) {
@@ -225,29 +384,22 @@ public class GroovyRule implements Rule {
     }
 
     /**
-     * Create an anonymous Java Class implementing a Groovy Rule method for the supplied attributes and rule expression.
+     * Add a Groovy Rule method for the supplied attributes and rule expression to the rule compiler.
      *
      * @param attributes
      *            the attributes that form the parameters of the Groovy method
      * @param expression
      *            a valid Groovy method expression (implementing a rule)
-     * @return the Java Class for accessing the Groovy method
-     * @throws GroovyConfigurationException
-     *             if the Groovy expression cannot be compiled
-     * @throws IOException
-     *             if the Groovy class loader throws an internal exception
+     * @return the method which will implement the rule, or null if an attribute name is not valid
      */
-    private Class<?> createRule(List<String> attributes, String expression)
-            throws GroovyConfigurationException, IOException {
+    private RuleCompiler.RuleMethod createRule(List<String> attributes, String expression) {
         originalExpression = expression;
         groovyExpression = expression;
-        String methodParams = "";
 
         int i = 1;
         for (String attribute : attributes) {
             if (isValidAttributeName(attribute)) {
                 String fieldName = "field" + i++;
-                methodParams = appendParameter(methodParams, fieldName);
                 // Strip any prefixes from the attribute name in case of JayWay expression attributes.
                 attribute = StringUtils.stripPrefix(attribute, ".");
                 String regex = "\\b" + attribute + "\\b(?!\\()";
@@ -258,16 +410,35 @@ public class GroovyRule implements Rule {
             }
         }
 
-        return loadGroovyClass("def rule(" + methodParams + ") {" + groovyExpression + "}");
+        return ruleCompiler.add(attributes.size(), groovyExpression);
     }
 
-    private String appendParameter(String methodParams, String fieldName) {
-        StringBuilder newParams = new StringBuilder();
-        if (methodParams.length() > 0) {
-            newParams.append(methodParams).append(", ");
+    /**
+     * @return true if the exception was thrown by the rule expression calling a method that is not supported by the
+     *         (sample) values, rather than because the rule method itself could not be called
+     */
+    private boolean isMissingMethodInExpression(Throwable e) {
+        Throwable cause = e instanceof InvokerInvocationException ? e.getCause() : e;
+        if (cause instanceof MissingMethodException) {
+            MissingMethodException missingMethod = (MissingMethodException) cause;
+            return !(ruleMethod.getName().equals(missingMethod.getMethod())
+                    && ruleMethod.getRuleClass().equals(missingMethod.getType()));
+        }
+        return false;
+    }
+
+    /**
+     * A rule is pure if it is declared to be, or (when not declared) if its expression makes no call which may give a
+     * different result each time. A rule which makes a remote call is never pure.
+     */
+    private static boolean isPure(RuleSection ruleConfig) {
+        String expression = ruleConfig.getExpression();
+        if (expression == null || REMOTE_CALL.matcher(expression).find()) {
+            return false;
+        } else if (ruleConfig.getPure() != null) {
+            return ruleConfig.getPure();
         }
-        newParams.append("Object ").append(fieldName);
-        return newParams.toString();
+        return !NON_DETERMINISTIC_CALL.matcher(expression).find();
     }
 
     private boolean isValidAttributeName(String attributeName) {
@@ -300,33 +471,7 @@ public class GroovyRule implements Rule {
                 values[i++] = "1";
             }
         }
-        execute(values);
-    }
-
-    /**
-     * Load and parse a Groovy script to create an anonymous Java Class.
-     *
-     * @param script
-     *            valid Groovy content (for the class)
-     * @return the Java Class for accessing the Groovy script
-     * @throws GroovyConfigurationException
-     *             if the Groovy script cannot be compiled
-     * @throws IOException
-     *             if the Groovy class loader throws an internal exception
-     */
-    @SuppressWarnings("rawtypes")
-    private static Class loadGroovyClass(String script) throws GroovyConfigurationException, IOException {
-        ClassLoader parent = GroovyRule.class.getClassLoader();
-        GroovyClassLoader loader = new GroovyClassLoader(parent);
-        Class groovyClass;
-        try {
-            groovyClass = loader.parseClass(script);
-        } catch (CompilationFailedException e) {
-            throw new GroovyConfigurationException(e);
-        } finally {
-            loader.close();
-        }
-        return groovyClass;
+        execute(groovyFunction, values);
     }
 
 }
@@ -0,0 +1,180 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven.rule;
+
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.codehaus.groovy.ast.ClassCodeExpressionTransformer;
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.FieldNode;
+import org.codehaus.groovy.ast.expr.ArgumentListExpression;
+import org.codehaus.groovy.ast.expr.BinaryExpression;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.FieldExpression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.StaticMethodCallExpression;
+import org.codehaus.groovy.ast.expr.TupleExpression;
+import org.codehaus.groovy.classgen.GeneratorContext;
+import org.codehaus.groovy.control.CompilePhase;
+import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.control.customizers.CompilationCustomizer;
+import org.codehaus.groovy.syntax.Types;
+
+/**
+ * Replaces each literal regular expression in the rule expressions with a pattern compiled once (as a static field of
+ * the generated class), so that the pattern is not compiled each time the rule is executed. The literal regular
+ * expressions of the operators <code>==~</code> and <code>=~</code> are replaced with the precompiled pattern (which
+ * the operators accept directly). Calls to <code>matches</code>, <code>replaceAll</code>, <code>replaceFirst</code>
+ * and <code>split</code> with a literal regular expression are replaced with calls to {@link PrecompiledPatterns}.
+ *
+ * <p>
+ * A literal which is not a valid regular expression is left unchanged, so that the rule fails when it is executed
+ * (exactly as before).
+ */
+class PatternHoistingCustomizer extends CompilationCustomizer {
+
+    private static final String FIELD_PREFIX = "PATTERN_";
+    private static final ClassNode PATTERN_TYPE = ClassHelper.make(Pattern.class);
+    private static final ClassNode PRECOMPILED_PATTERNS_TYPE = ClassHelper.make(PrecompiledPatterns.class);
+
+    /** The number of arguments (including the regular expression) of each String method. */
+    private static final Map<String, Integer> METHODS = new HashMap<>();
+
+    static {
+        METHODS.put("matches", 1);
+        METHODS.put("split", 1);
+        METHODS.put("replaceAll", 2);
+        METHODS.put("replaceFirst", 2);
+    }
+
+    PatternHoistingCustomizer() {
+        super(CompilePhase.CANONICALIZATION);
+    }
+
+    @Override
+    public void call(SourceUnit source, GeneratorContext context, ClassNode classNode) {
+        new Transformer(source, classNode).visitClass(classNode);
+    }
+
+    private static class Transformer extends ClassCodeExpressionTransformer {
+        private final SourceUnit source;
+        private final ClassNode classNode;
+        private final Map<String, FieldNode> fields = new HashMap<>();
+        private int fieldCount;
+
+        private Transformer(SourceUnit source, ClassNode classNode) {
+            this.source = source;
+            this.classNode = classNode;
+        }
+
+        @Override
+        protected SourceUnit getSourceUnit() {
+            return source;
+        }
+
+        @Override
+        public Expression transform(Expression expression) {
+            if (expression instanceof ClosureExpression) {
+                ((ClosureExpression) expression).getCode().visit(this);
+                return expression;
+            } else if (expression instanceof BinaryExpression) {
+                return transformBinary((BinaryExpression) expression);
+            } else if (expression instanceof MethodCallExpression) {
+                return transformMethodCall((MethodCallExpression) expression);
+            }
+            return expression == null ? null : expression.transformExpression(this);
+        }
+
+        private Expression transformBinary(BinaryExpression expression) {
+            int operation = expression.getOperation().getType();
+            if (operation != Types.MATCH_REGEX && operation != Types.FIND_REGEX) {
+                return expression.transformExpression(this);
+            }
+            FieldNode field = getPatternField(expression.getRightExpression());
+            if (field == null) {
+                return expression.transformExpression(this);
+            }
+            BinaryExpression transformed = new BinaryExpression(transform(expression.getLeftExpression()),
+                    expression.getOperation(), new FieldExpression(field));
+            transformed.setSourcePosition(expression);
+            return transformed;
+        }
+
+        private Expression transformMethodCall(MethodCallExpression call) {
+            Integer argumentCount = METHODS.get(call.getMethodAsString());
+            List<Expression> arguments = call.getArguments() instanceof TupleExpression
+                    ? ((TupleExpression) call.getArguments()).getExpressions()
+                    : null;
+            if (argumentCount == null || arguments == null || arguments.size() != argumentCount
+                    || call.isImplicitThis() || call.isSafe() || call.isSpreadSafe()) {
+                return call.transformExpression(this);
+            }
+            FieldNode field = getPatternField(arguments.get(0));
+            if (field == null) {
+                return call.transformExpression(this);
+            }
+
+            ArgumentListExpression staticArguments = new ArgumentListExpression();
+            staticArguments.addExpression(transform(call.getObjectExpression()));
+            staticArguments.addExpression(new FieldExpression(field));
+            for (Expression argument : arguments.subList(1, arguments.size())) {
+                staticArguments.addExpression(transform(argument));
+            }
+            StaticMethodCallExpression transformed =
+                    new StaticMethodCallExpression(PRECOMPILED_PATTERNS_TYPE, call.getMethodAsString(), staticArguments);
+            transformed.setSourcePosition(call);
+            return transformed;
+        }
+
+        /**
+         * @return the field holding the pattern compiled from a literal regular expression, or null if the expression
+         *         is not a valid literal regular expression
+         */
+        private FieldNode getPatternField(Expression expression) {
+            if (!(expression instanceof ConstantExpression) || !(((ConstantExpression) expression)
+                    .getValue() instanceof String)) {
+                return null;
+            }
+            String regex = (String) ((ConstantExpression) expression).getValue();
+            if (!fields.containsKey(regex)) {
+                fields.put(regex, createPatternField(regex));
+            }
+            return fields.get(regex);
+        }
+
+        private FieldNode createPatternField(String regex) {
+            try {
+                Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                return null;
+            }
+            // A public field, so that it can be read directly by the closures of the class
+            StaticMethodCallExpression compile = new StaticMethodCallExpression(PATTERN_TYPE, "compile",
+                    new ArgumentListExpression(new ConstantExpression(regex)));
+            return classNode.addField(FIELD_PREFIX + fieldCount++,
+                    Modifier.PUBLIC | Modifier.STATIC | Modifier.FINAL, PATTERN_TYPE, compile);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven.rule;
+
+import groovy.lang.MissingMethodException;
+import java.util.regex.Pattern;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.runtime.metaclass.MissingMethodExceptionNoStack;
+
+/**
+ * The String regular expression methods, called by rule expressions with a precompiled pattern in place of a literal
+ * regular expression (see {@link PatternHoistingCustomizer}).
+ *
+ * <p>
+ * When the receiver is a String (and any replacement is a String) the result is exactly that of the corresponding
+ * String method, which compiles the same pattern on each call. This applies whether the receiver is declared as a
+ * String or (as for a rule parameter) as an Object. Otherwise the method is invoked dynamically with the original
+ * regular expression, exactly as written in the rule expression.
+ */
+public final class PrecompiledPatterns {
+
+    private PrecompiledPatterns() {
+        // Not instantiated
+    }
+
+    /**
+     * @see String#matches(String)
+     */
+    public static boolean matches(String receiver, Pattern pattern) {
+        checkReceiver(receiver, "matches");
+        return pattern.matcher(receiver).matches();
+    }
+
+    public static Object matches(Object receiver, Pattern pattern) {
+        if (receiver instanceof String) {
+            return pattern.matcher((String) receiver).matches();
+        }
+        return invoke(receiver, "matches", pattern.pattern());
+    }
+
+    /**
+     * @see String#replaceAll(String, String)
+     */
+    public static String replaceAll(String receiver, Pattern pattern, String replacement) {
+        checkReceiver(receiver, "replaceAll");
+        return pattern.matcher(receiver).replaceAll(replacement);
+    }
+
+    public static Object replaceAll(Object receiver, Pattern pattern, Object replacement) {
+        if (receiver instanceof String && replacement instanceof String) {
+            return pattern.matcher((String) receiver).replaceAll((String) replacement);
+        }
+        return invoke(receiver, "replaceAll", pattern.pattern(), replacement);
+    }
+
+    /**
+     * @see String#replaceFirst(String, String)
+     */
+    public static String replaceFirst(String receiver, Pattern pattern, String replacement) {
+        checkReceiver(receiver, "replaceFirst");
+        return pattern.matcher(receiver).replaceFirst(replacement);
+    }
+
+    public static Object replaceFirst(Object receiver, Pattern pattern, Object replacement) {
+        if (receiver instanceof String && replacement instanceof String) {
+            return pattern.matcher((String) receiver).replaceFirst((String) replacement);
+        }
+        return invoke(receiver, "replaceFirst", pattern.pattern(), replacement);
+    }
+
+    /**
+     * @see String#split(String)
+     */
+    public static String[] split(String receiver, Pattern pattern) {
+        checkReceiver(receiver, "split");
+        return pattern.split(receiver);
+    }
+
+    public static Object split(Object receiver, Pattern pattern) {
+        if (receiver instanceof String) {
+            return pattern.split((String) receiver);
+        }
+        return invoke(receiver, "split", pattern.pattern());
+    }
+
+    /**
+     * Invoke the method dynamically, reporting a missing method exactly as a call from a rule expression does.
+     */
+    static Object invoke(Object receiver, String method, Object... arguments) {
+        try {
+            return InvokerHelper.invokeMethod(receiver, method, arguments);
+        } catch (MissingMethodExceptionNoStack e) {
+            throw new MissingMethodException(e.getMethod(), e.getType(), e.getArguments(), e.isStatic());
+        }
+    }
+
+    /**
+     * Report a null receiver exactly as Groovy does.
+     */
+    private static void checkReceiver(String receiver, String method) {
+        if (receiver == null) {
+            throw new NullPointerException("Cannot invoke method " + method + "() on null object");
+        }
+    }
+}
@@ -21,7 +21,9 @@
 package org.onap.aai.validation.ruledriven.rule;
 
 import java.util.List;
+import java.util.Optional;
 import org.onap.aai.validation.reader.data.AttributeValues;
+import org.onap.aai.validation.util.ExecutionProfile;
 
 /**
  * A rule that accepts one or more attributes and returns a Boolean result (when executed)
@@ -81,4 +83,44 @@ public interface Rule {
      */
     RuleResult execute(Object... values);
 
+    /**
+     * Gets the relative cost of executing the rule. This is used to decide whether the rules for an entity are worth
+     * executing concurrently.
+     *
+     * @return 1 for a rule evaluated in memory, or more for a rule which makes a remote call
+     */
+    default int getCost() {
+        return 1;
+    }
+
+    /**
+     * Whether the result of the rule depends only on the values of its attributes (and so need not be executed again
+     * when the values are unchanged).
+     *
+     * @return true if executing the rule again with the same attribute values gives the same result
+     */
+    default boolean isPure() {
+        return false;
+    }
+
+    /**
+     * Whether the result of the rule may be cached. This requires the rule to be pure (its result depends only on the
+     * values of its attributes) and costly enough to be worth caching.
+     *
+     * @return true if the result of executing the rule may be reused for the same attribute values
+     */
+    default boolean isCacheable() {
+        return false;
+    }
+
+    /**
+     * Gets the profile of the executions of the rule.
+     *
+     * @return the number of executions, failures and errors and the distribution of the execution times, or an empty
+     *         Optional if the rule is not profiled
+     */
+    default Optional<ExecutionProfile> getExecutionProfile() {
+        return Optional.empty();
+    }
+
 }
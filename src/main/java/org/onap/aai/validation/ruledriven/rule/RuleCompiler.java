@@ -0,0 +1,569 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven.rule;
+
+import groovy.lang.GroovyClassLoader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.MultipleCompilationErrorsException;
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.control.messages.SyntaxErrorMessage;
+import org.codehaus.groovy.tools.GroovyClass;
+import org.onap.aai.validation.ruledriven.configuration.GroovyConfigurationException;
+
+/**
+ * Compiles the expressions of a set of rules together. Each distinct expression (after normalisation) is compiled once,
+ * as a method of a generated rule set class. All of the classes are defined by a single class loader. When the
+ * compiler is given a pool, the expressions are divided between classes which are compiled concurrently.
+ *
+ * <p>
+ * Each method is compiled statically where its expression type-checks, and dynamically otherwise. The methods are
+ * called through a statically compiled dispatch method, so that rules are invoked without using the Groovy meta-object
+ * protocol. Literal regular expressions are compiled once per class (see {@link PatternHoistingCustomizer}).
+ */
+public class RuleCompiler {
+
+    /**
+     * The interface implemented by each generated rule set class.
+     */
+    public interface CompiledRules {
+
+        /**
+         * Evaluate an expression of the rule set.
+         *
+         * @param method
+         *            the index of the expression's method within the class
+         * @param values
+         *            the attribute values
+         * @return the result of evaluating the expression
+         */
+        Object apply(int method, Object[] values);
+    }
+
+    private static final String CLASS_PREFIX = "GeneratedRules";
+    private static final String METHOD_PREFIX = "rule";
+    private static final String COMPILE_STATIC = "@groovy.transform.CompileStatic";
+    /** Loops and closures check whether the thread has been interrupted (e.g. for exceeding an execution budget). */
+    private static final String THREAD_INTERRUPT = "@groovy.transform.ThreadInterrupt(checkOnMethodStart = false)";
+
+    /** The maximum number of methods in each generated class (keeping the dispatch method well within JVM limits). */
+    private static final int MAX_METHODS_PER_CLASS = 500;
+
+    /** The minimum number of methods in each generated class when the classes are compiled concurrently. */
+    private static final int MIN_METHODS_PER_CLASS = 8;
+
+    /** Increment whenever the generated source changes, so that previously generated classes are not reused. */
+    private static final int GENERATOR_VERSION = 5;
+
+    private final Map<String, RuleMethod> methods = new LinkedHashMap<>();
+    private final ForkJoinPool pool;
+    private CompiledClasses compiledClasses;
+    private boolean interruptible;
+    private int classCount;
+    private boolean compiled;
+
+    /**
+     * The classes generated by a compiler, which may be reused by another compiler with the same signature.
+     */
+    public static class CompiledClasses {
+        private final Map<String, byte[]> classes;
+        private final Set<Integer> dynamicMethods;
+
+        /**
+         * @param classes
+         *            the bytecode of each generated class, keyed by class name
+         * @param dynamicMethods
+         *            the indices of the expressions which are compiled dynamically
+         */
+        public CompiledClasses(Map<String, byte[]> classes, Set<Integer> dynamicMethods) {
+            this.classes = Collections.unmodifiableMap(new LinkedHashMap<>(classes));
+            this.dynamicMethods = Collections.unmodifiableSet(new HashSet<>(dynamicMethods));
+        }
+
+        public Map<String, byte[]> getClasses() {
+            return classes;
+        }
+
+        public Set<Integer> getDynamicMethods() {
+            return dynamicMethods;
+        }
+    }
+
+    /**
+     * A distinct rule expression, compiled as a method of a rule set class.
+     */
+    public static class RuleMethod {
+        private final String expression;
+        private final int parameterCount;
+        private final int index;
+        private int classIndex;
+        private int methodIndex;
+        private boolean compileStatic = true;
+        private int firstLine;
+        private int lastLine;
+        private Class<?> ruleClass;
+        private RuleFunction function;
+
+        private RuleMethod(String expression, int parameterCount, int index) {
+            this.expression = expression;
+            this.parameterCount = parameterCount;
+            this.index = index;
+        }
+
+        /**
+         * @return the function calling this method, available once the compiler has compiled its rules
+         */
+        public RuleFunction getFunction() {
+            return function;
+        }
+
+        /**
+         * @return the name of this method within its class
+         */
+        public String getName() {
+            return METHOD_PREFIX + methodIndex;
+        }
+
+        /**
+         * @return the generated class defining this method
+         */
+        public Class<?> getRuleClass() {
+            return ruleClass;
+        }
+
+        /**
+         * @return true if the expression type-checked and was compiled statically
+         */
+        public boolean isCompiledStatically() {
+            return compileStatic;
+        }
+    }
+
+    /**
+     * Create a compiler which compiles its expressions in the calling thread.
+     */
+    public RuleCompiler() {
+        this(null);
+    }
+
+    /**
+     * Create a compiler which divides its expressions between classes that are compiled concurrently.
+     *
+     * @param pool
+     *            the pool on which to compile the classes (or null to compile in the calling thread). The expressions
+     *            are divided between as many classes as the parallelism of the pool, subject to a minimum class size.
+     */
+    public RuleCompiler(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Make the loops and closures of the compiled expressions check whether the executing thread has been interrupted
+     * (as required to stop a rule which exceeds an execution budget). The checks add to the cost of every loop, so are
+     * only generated when requested.
+     *
+     * @param interruptible
+     *            whether the compiled expressions may be interrupted
+     */
+    public void setInterruptible(boolean interruptible) {
+        if (compiled) {
+            throw new IllegalStateException("Rules have already been compiled");
+        }
+        this.interruptible = interruptible;
+    }
+
+    /**
+     * Add a rule expression to be compiled. Expressions which are identical (ignoring surrounding white space and line
+     * terminators) and which have the same number of parameters are compiled once.
+     *
+     * @param parameterCount
+     *            the number of parameters of the expression (named <code>field1</code> to <code>fieldN</code>)
+     * @param expression
+     *            the Groovy expression, referring to the parameters
+     * @return the method which will implement the expression
+     */
+    public RuleMethod add(int parameterCount, String expression) {
+        if (compiled) {
+            throw new IllegalStateException("Rules have already been compiled");
+        }
+        String normalisedExpression = normalise(expression);
+        String key = parameterCount + "{" + normalisedExpression + "}";
+        return methods.computeIfAbsent(key,
+                k -> new RuleMethod(createMethod(parameterCount, normalisedExpression), parameterCount, methods.size()));
+    }
+
+    /**
+     * @return the number of distinct expressions
+     */
+    public int getMethodCount() {
+        return methods.size();
+    }
+
+    /**
+     * @return the number of classes generated
+     */
+    public int getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * @return a description of the distinct expressions, and of how they are compiled. Compilers with the same
+     *         signature generate the same classes (for the same versions of Groovy and Java).
+     */
+    public String getSignature() {
+        StringBuilder signature = new StringBuilder();
+        signature.append(GENERATOR_VERSION).append('/').append(getMethodsPerClass()).append('/')
+                .append(interruptible ? "interruptible" : "uninterruptible");
+        for (String key : methods.keySet()) {
+            signature.append('\0').append(key);
+        }
+        return signature.toString();
+    }
+
+    /**
+     * @return the classes generated by this compiler, or null if the expressions have not been compiled
+     */
+    public CompiledClasses getCompiledClasses() {
+        return compiledClasses;
+    }
+
+    /**
+     * Compile all of the expressions that have been added. Once the expressions have been compiled, further calls have
+     * no effect.
+     *
+     * @throws GroovyConfigurationException
+     *             if an expression cannot be compiled
+     * @throws IOException
+     *             if the Groovy class loader throws an internal exception
+     * @throws InstantiationException
+     * @throws IllegalAccessException
+     */
+    public void compile()
+            throws GroovyConfigurationException, IOException, InstantiationException, IllegalAccessException {
+        if (compiled || methods.isEmpty()) {
+            compiled = true;
+            return;
+        }
+
+        Map<String, byte[]> classBytes = compile(partition());
+        Set<Integer> dynamicMethods = new HashSet<>();
+        int index = 0;
+        for (RuleMethod method : methods.values()) {
+            if (!method.compileStatic) {
+                dynamicMethods.add(index);
+            }
+            index++;
+        }
+        define(new CompiledClasses(classBytes, dynamicMethods));
+    }
+
+    /**
+     * Use classes previously generated by a compiler with the same signature, instead of compiling the expressions. If
+     * the classes cannot be used then the state of this compiler is unchanged (and so the expressions may then be
+     * compiled).
+     *
+     * @param compiledClasses
+     *            the classes generated by a compiler with the same signature
+     * @throws GroovyConfigurationException
+     *             if a rule set class is missing
+     * @throws IOException
+     *             if the Groovy class loader throws an internal exception
+     * @throws InstantiationException
+     * @throws IllegalAccessException
+     */
+    public void load(CompiledClasses compiledClasses)
+            throws GroovyConfigurationException, IOException, InstantiationException, IllegalAccessException {
+        if (compiled || methods.isEmpty()) {
+            compiled = true;
+            return;
+        }
+        partition();
+        define(compiledClasses);
+    }
+
+    /**
+     * @return the number of methods in each class (except the last)
+     */
+    private int getMethodsPerClass() {
+        int parallelism = pool == null ? 1 : pool.getParallelism();
+        int methodsPerClass = (methods.size() + parallelism - 1) / parallelism;
+        return Math.min(MAX_METHODS_PER_CLASS, Math.max(MIN_METHODS_PER_CLASS, methodsPerClass));
+    }
+
+    /**
+     * Divide the methods between the classes, in the order that the expressions were added.
+     *
+     * @return the methods of each class
+     */
+    private List<List<RuleMethod>> partition() {
+        int methodsPerClass = getMethodsPerClass();
+        List<List<RuleMethod>> classes = new ArrayList<>();
+        for (RuleMethod method : methods.values()) {
+            if (method.index % methodsPerClass == 0) {
+                classes.add(new ArrayList<>());
+            }
+            method.classIndex = classes.size() - 1;
+            method.methodIndex = method.index % methodsPerClass;
+            classes.get(method.classIndex).add(method);
+        }
+        return classes;
+    }
+
+    /**
+     * Define the classes and create the function for each expression.
+     */
+    private void define(CompiledClasses compiledClasses)
+            throws GroovyConfigurationException, IOException, InstantiationException, IllegalAccessException {
+        GroovyClassLoader loader = new GroovyClassLoader(RuleCompiler.class.getClassLoader());
+        try {
+            Map<String, Class<?>> definedClasses = new HashMap<>();
+            for (Entry<String, byte[]> entry : compiledClasses.getClasses().entrySet()) {
+                definedClasses.put(entry.getKey(), loader.defineClass(entry.getKey(), entry.getValue()));
+            }
+
+            List<Class<?>> ruleClasses = new ArrayList<>();
+            List<RuleFunction> functions = new ArrayList<>();
+            for (RuleMethod method : methods.values()) {
+                Class<?> ruleClass = definedClasses.get(CLASS_PREFIX + method.classIndex);
+                if (ruleClass == null) {
+                    throw new GroovyConfigurationException("rule class " + CLASS_PREFIX + method.classIndex
+                            + " was not generated");
+                }
+                // A separate instance per expression, so that expressions do not share variables
+                CompiledRules rules = (CompiledRules) ruleClass.newInstance();
+                int methodIndex = method.methodIndex;
+                ruleClasses.add(ruleClass);
+                functions.add(values -> rules.apply(methodIndex, values));
+            }
+
+            int index = 0;
+            for (RuleMethod method : methods.values()) {
+                method.ruleClass = ruleClasses.get(index);
+                method.function = functions.get(index);
+                method.compileStatic = !compiledClasses.getDynamicMethods().contains(index);
+                index++;
+            }
+            classCount = new HashSet<>(ruleClasses).size();
+            this.compiledClasses = compiledClasses;
+            compiled = true;
+        } finally {
+            loader.close();
+        }
+    }
+
+    /**
+     * Compile the classes (concurrently, if the compiler has a pool). If more than one class cannot be compiled then
+     * the error reported is that of the first of these classes (i.e. the error is reported for the earliest expression).
+     *
+     * @return the bytecode of each generated class, keyed by class name
+     */
+    private Map<String, byte[]> compile(List<List<RuleMethod>> classes)
+            throws GroovyConfigurationException, IOException {
+        Map<String, byte[]> classBytes = new LinkedHashMap<>();
+        if (pool == null || classes.size() == 1) {
+            for (int i = 0; i < classes.size(); i++) {
+                classBytes.putAll(compileClass(i, classes.get(i)));
+            }
+            return classBytes;
+        }
+
+        List<ForkJoinTask<Map<String, byte[]>>> tasks = new ArrayList<>();
+        for (int i = 0; i < classes.size(); i++) {
+            int classIndex = i;
+            tasks.add(pool.submit(() -> compileClass(classIndex, classes.get(classIndex))));
+        }
+        for (ForkJoinTask<Map<String, byte[]>> task : tasks) {
+            try {
+                classBytes.putAll(task.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GroovyConfigurationException("interrupted while compiling rules");
+            } catch (ExecutionException e) {
+                throw rethrow(e.getCause());
+            }
+        }
+        return classBytes;
+    }
+
+    /**
+     * @return the exception thrown by a compilation task (which the pool wraps in a RuntimeException if checked)
+     */
+    private static GroovyConfigurationException rethrow(Throwable exception) throws IOException {
+        Throwable cause = exception;
+        while (cause.getClass() == RuntimeException.class && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof GroovyConfigurationException) {
+            return (GroovyConfigurationException) cause;
+        } else if (cause instanceof IOException) {
+            throw (IOException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    /**
+     * Compile a class, repeating the compilation without static compilation for each method that does not type-check.
+     *
+     * @return the bytecode of the class (and of any closures), keyed by class name
+     */
+    private Map<String, byte[]> compileClass(int classIndex, List<RuleMethod> classMethods)
+            throws GroovyConfigurationException, IOException {
+        try (GroovyClassLoader loader = new GroovyClassLoader(RuleCompiler.class.getClassLoader())) {
+            while (true) {
+                String source = createSource(classIndex, classMethods);
+                CompilerConfiguration configuration = new CompilerConfiguration();
+                configuration.addCompilationCustomizers(new PatternHoistingCustomizer());
+                CompilationUnit unit = new CompilationUnit(configuration, null, loader);
+                unit.addSource(CLASS_PREFIX + classIndex + ".groovy", source);
+                try {
+                    unit.compile(Phases.CLASS_GENERATION);
+                } catch (MultipleCompilationErrorsException e) {
+                    if (!excludeFromStaticCompilation(e, classMethods)) {
+                        throw new GroovyConfigurationException(e);
+                    }
+                    continue;
+                } catch (CompilationFailedException e) {
+                    throw new GroovyConfigurationException(e);
+                }
+
+                Map<String, byte[]> classBytes = new LinkedHashMap<>();
+                for (Object generated : unit.getClasses()) {
+                    GroovyClass groovyClass = (GroovyClass) generated;
+                    classBytes.put(groovyClass.getName(), groovyClass.getBytes());
+                }
+                return classBytes;
+            }
+        }
+    }
+
+    /**
+     * Compile the methods reported in error dynamically.
+     *
+     * @return true if every error was reported in a statically compiled method (i.e. the compilation may succeed
+     *         without static compilation of the methods), otherwise false
+     */
+    private boolean excludeFromStaticCompilation(MultipleCompilationErrorsException e, List<RuleMethod> classMethods) {
+        Set<RuleMethod> failedMethods = new HashSet<>();
+        for (Object error : e.getErrorCollector().getErrors()) {
+            RuleMethod method = error instanceof SyntaxErrorMessage
+                    ? findMethod(((SyntaxErrorMessage) error).getCause().getStartLine(), classMethods)
+                    : null;
+            if (method == null || !method.compileStatic) {
+                return false;
+            }
+            failedMethods.add(method);
+        }
+        for (RuleMethod method : failedMethods) {
+            method.compileStatic = false;
+        }
+        return !failedMethods.isEmpty();
+    }
+
+    private RuleMethod findMethod(int line, List<RuleMethod> classMethods) {
+        for (RuleMethod method : classMethods) {
+            if (line >= method.firstLine && line <= method.lastLine) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Generate the source of a rule set class, recording the lines of each method. The class is a Groovy Script, so
+     * that (as for a script) an expression may assign undeclared variables. The dispatch method calls a rule method
+     * directly when the number of values matches the number of parameters. Any other call is dispatched dynamically,
+     * exactly as for a method invoked by name (e.g. a single List value is spread across the parameters). When the
+     * compiler is interruptible, every loop and closure of an expression may be interrupted (by interrupting the thread
+     * executing the expression).
+     */
+    private String createSource(int classIndex, List<RuleMethod> classMethods) {
+        StringBuilder source = new StringBuilder();
+        if (interruptible) {
+            source.append(THREAD_INTERRUPT).append(' ');
+        }
+        source.append("class ").append(CLASS_PREFIX).append(classIndex)
+                .append(" extends groovy.lang.Script implements ")
+                .append(CompiledRules.class.getCanonicalName()).append(" {\n");
+        source.append("Object run() {\nnull\n}\n");
+        int line = 5;
+        for (RuleMethod method : classMethods) {
+            method.firstLine = line;
+            if (method.compileStatic) {
+                source.append(COMPILE_STATIC);
+            }
+            source.append('\n').append("def ").append(method.getName()).append(method.expression).append('\n');
+            line += countLines(method.expression) + 1;
+            method.lastLine = line - 1;
+        }
+
+        source.append(COMPILE_STATIC).append("\nObject apply(int method, Object[] values) {\nswitch (method) {\n");
+        for (RuleMethod method : classMethods) {
+            source.append("case ").append(method.methodIndex).append(": return values.length == ")
+                    .append(method.parameterCount).append(" ? ").append(method.getName()).append('(');
+            for (int p = 0; p < method.parameterCount; p++) {
+                source.append(p > 0 ? ", " : "").append("values[").append(p).append(']');
+            }
+            source.append(") : invokeMethod('").append(method.getName()).append("', values)\n");
+        }
+        source.append("default: throw new IllegalArgumentException(\"No rule method \" + method)\n}\n}\n}\n");
+        return source.toString();
+    }
+
+    /**
+     * @return the parameter list and body of a rule method
+     */
+    private static String createMethod(int parameterCount, String expression) {
+        StringBuilder method = new StringBuilder("(");
+        for (int i = 1; i <= parameterCount; i++) {
+            method.append(i > 1 ? ", " : "").append("Object field").append(i);
+        }
+        return method.append(") {").append(expression).append("}").toString();
+    }
+
+    private static String normalise(String expression) {
+        return expression.replace("\r\n", "\n").trim();
+    }
+
+    private static int countLines(String text) {
+        int lines = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven.rule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.BinaryExpression;
+import org.codehaus.groovy.ast.expr.BooleanExpression;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.ListExpression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.NotExpression;
+import org.codehaus.groovy.ast.expr.TupleExpression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
+import org.codehaus.groovy.ast.stmt.CaseStatement;
+import org.codehaus.groovy.ast.stmt.EmptyStatement;
+import org.codehaus.groovy.ast.stmt.ExpressionStatement;
+import org.codehaus.groovy.ast.stmt.ReturnStatement;
+import org.codehaus.groovy.ast.stmt.Statement;
+import org.codehaus.groovy.ast.stmt.SwitchStatement;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.runtime.ScriptBytecodeAdapter;
+import org.codehaus.groovy.runtime.StringGroovyMethods;
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+import org.codehaus.groovy.syntax.Types;
+
+/**
+ * Recognises the common shapes of rule expression and evaluates them directly in Java, without calling the Groovy
+ * method compiled for the expression. The recognised shapes are:
+ * <ul>
+ * <li>a switch on a parameter whose cases are literals, each returning a literal (e.g. enumerated values)</li>
+ * <li>comparison of a parameter (or of its size) with a literal or with another parameter, including null checks</li>
+ * <li>a regular expression match, using <code>==~</code>, <code>=~</code> or <code>matches</code> with a literal</li>
+ * <li>the String methods <code>contains</code>, <code>startsWith</code>, <code>endsWith</code>,
+ * <code>equalsIgnoreCase</code> and <code>count</code> with a literal</li>
+ * <li>membership of a literal list, using <code>in</code></li>
+ * <li>any combination of these using <code>&amp;&amp;</code>, <code>||</code> and <code>!</code></li>
+ * </ul>
+ *
+ * <p>
+ * Each operation has exactly the semantics of the Groovy expression: values which are Strings (or literals) are
+ * handled directly, and any other value is passed to the same Groovy runtime method that the compiled expression
+ * would call. Apart from a <code>=~</code> match (which creates a Matcher) and the dynamic calls for values which are
+ * not Strings, the evaluators do not allocate. Any other expression is not recognised, and is evaluated by Groovy.
+ */
+final class RuleExpressionAnalyser {
+
+    private static final String PARAMETER_PREFIX = "field";
+
+    /**
+     * Thrown (without a stack trace) when an expression does not have a recognised shape.
+     */
+    private static class UnsupportedExpressionException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private UnsupportedExpressionException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final UnsupportedExpressionException UNSUPPORTED = new UnsupportedExpressionException();
+
+    private final int parameterCount;
+
+    private RuleExpressionAnalyser(int parameterCount) {
+        this.parameterCount = parameterCount;
+    }
+
+    /**
+     * Analyse a rule expression.
+     *
+     * @param expression
+     *            the Groovy expression, referring to its parameters as <code>field1</code> to <code>fieldN</code>
+     * @param parameterCount
+     *            the number of parameters of the expression
+     * @return a function evaluating the expression (when called with exactly one value for each parameter), or empty
+     *         if the expression does not have a recognised shape
+     */
+    static Optional<RuleFunction> analyse(String expression, int parameterCount) {
+        if (expression == null) {
+            return Optional.empty();
+        }
+        try {
+            SourceUnit unit = SourceUnit.create("RuleExpression", expression);
+            unit.parse();
+            unit.completePhase();
+            unit.nextPhase();
+            unit.convert();
+            ModuleNode module = unit.getAST();
+            List<Statement> statements = module.getStatementBlock().getStatements();
+            if (!module.getMethods().isEmpty() || module.getClasses().size() > 1 || statements.size() != 1) {
+                return Optional.empty();
+            }
+            return Optional.of(new RuleExpressionAnalyser(parameterCount).statement(statements.get(0)));
+        } catch (UnsupportedExpressionException | CompilationFailedException e) {
+            return Optional.empty();
+        }
+    }
+
+    private RuleFunction statement(Statement statement) {
+        if (statement instanceof BlockStatement && ((BlockStatement) statement).getStatements().size() == 1) {
+            return statement(((BlockStatement) statement).getStatements().get(0));
+        } else if (statement instanceof ExpressionStatement) {
+            return condition(((ExpressionStatement) statement).getExpression());
+        } else if (statement instanceof ReturnStatement) {
+            return condition(((ReturnStatement) statement).getExpression());
+        } else if (statement instanceof SwitchStatement) {
+            return switchStatement((SwitchStatement) statement);
+        }
+        throw UNSUPPORTED;
+    }
+
+    /**
+     * A switch statement on a value, each case of which is a literal. The code of each case (or of the case into which
+     * it falls through) must return a literal.
+     */
+    private RuleFunction switchStatement(SwitchStatement statement) {
+        RuleFunction value = value(statement.getExpression());
+        List<CaseStatement> cases = statement.getCaseStatements();
+        Object defaultResult = returnedConstant(statement.getDefaultStatement());
+        if (defaultResult == UNSUPPORTED) {
+            throw UNSUPPORTED;
+        }
+
+        Object[] caseValues = new Object[cases.size()];
+        Object[] results = new Object[cases.size()];
+        Object result = defaultResult;
+        for (int i = cases.size() - 1; i >= 0; i--) {
+            CaseStatement caseStatement = cases.get(i);
+            if (!(caseStatement.getExpression() instanceof ConstantExpression)) {
+                throw UNSUPPORTED;
+            }
+            caseValues[i] = ((ConstantExpression) caseStatement.getExpression()).getValue();
+            if (!isEmpty(caseStatement.getCode())) {
+                result = returnedConstant(caseStatement.getCode());
+            }
+            if (result == UNSUPPORTED) {
+                throw UNSUPPORTED;
+            }
+            results[i] = result;
+        }
+
+        return values -> {
+            Object switchValue = value.apply(values);
+            for (int i = 0; i < caseValues.length; i++) {
+                if (isCase(switchValue, caseValues[i])) {
+                    return results[i];
+                }
+            }
+            return defaultResult;
+        };
+    }
+
+    /**
+     * An expression whose result is the result of the rule.
+     */
+    private RuleFunction condition(Expression expression) {
+        if (expression instanceof ConstantExpression) {
+            Object constant = ((ConstantExpression) expression).getValue();
+            if (constant instanceof Boolean) {
+                return values -> constant;
+            }
+        } else if (expression instanceof BinaryExpression || expression instanceof NotExpression
+                || expression instanceof BooleanExpression || expression instanceof MethodCallExpression) {
+            return value(expression);
+        }
+        throw UNSUPPORTED;
+    }
+
+    /**
+     * An expression whose value is used by another expression.
+     */
+    private RuleFunction value(Expression expression) {
+        if (expression instanceof VariableExpression) {
+            int index = parameterIndex(((VariableExpression) expression).getName());
+            return values -> values[index];
+        } else if (expression instanceof ConstantExpression) {
+            Object constant = ((ConstantExpression) expression).getValue();
+            return values -> constant;
+        } else if (expression instanceof NotExpression) {
+            RuleFunction operand = value(((NotExpression) expression).getExpression());
+            return values -> Boolean.valueOf(!truth(operand.apply(values)));
+        } else if (expression instanceof BooleanExpression) {
+            RuleFunction operand = value(((BooleanExpression) expression).getExpression());
+            return values -> Boolean.valueOf(truth(operand.apply(values)));
+        } else if (expression instanceof BinaryExpression) {
+            return binary((BinaryExpression) expression);
+        } else if (expression instanceof MethodCallExpression) {
+            return methodCall((MethodCallExpression) expression);
+        }
+        throw UNSUPPORTED;
+    }
+
+    private RuleFunction binary(BinaryExpression expression) {
+        int operation = expression.getOperation().getType();
+        RuleFunction left = value(expression.getLeftExpression());
+        if (operation == Types.MATCH_REGEX) {
+            Pattern pattern = pattern(expression.getRightExpression());
+            return values -> Boolean.valueOf(InvokerHelper.matchRegex(left.apply(values), pattern));
+        } else if (operation == Types.FIND_REGEX) {
+            Pattern pattern = pattern(expression.getRightExpression());
+            return values -> InvokerHelper.findRegex(left.apply(values), pattern);
+        } else if (operation == Types.KEYWORD_IN) {
+            Object list = list(expression.getRightExpression());
+            return values -> Boolean.valueOf(isCase(left.apply(values), list));
+        }
+
+        RuleFunction right = value(expression.getRightExpression());
+        switch (operation) {
+            case Types.LOGICAL_AND:
+                return values -> Boolean.valueOf(truth(left.apply(values)) && truth(right.apply(values)));
+            case Types.LOGICAL_OR:
+                return values -> Boolean.valueOf(truth(left.apply(values)) || truth(right.apply(values)));
+            case Types.COMPARE_EQUAL:
+                return values -> Boolean.valueOf(ScriptBytecodeAdapter.compareEqual(left.apply(values),
+                        right.apply(values)));
+            case Types.COMPARE_NOT_EQUAL:
+                return values -> Boolean.valueOf(ScriptBytecodeAdapter.compareNotEqual(left.apply(values),
+                        right.apply(values)));
+            case Types.COMPARE_LESS_THAN:
+                return values -> Boolean.valueOf(ScriptBytecodeAdapter.compareLessThan(left.apply(values),
+                        right.apply(values)));
+            case Types.COMPARE_LESS_THAN_EQUAL:
+                return values -> Boolean.valueOf(ScriptBytecodeAdapter.compareLessThanEqual(left.apply(values),
+                        right.apply(values)));
+            case Types.COMPARE_GREATER_THAN:
+                return values -> Boolean.valueOf(ScriptBytecodeAdapter.compareGreaterThan(left.apply(values),
+                        right.apply(values)));
+            case Types.COMPARE_GREATER_THAN_EQUAL:
+                return values -> Boolean.valueOf(ScriptBytecodeAdapter.compareGreaterThanEqual(left.apply(values),
+                        right.apply(values)));
+            default:
+                throw UNSUPPORTED;
+        }
+    }
+
+    /**
+     * A call to a String method with literal arguments. A value which is not a String is passed to the method
+     * dynamically.
+     */
+    private RuleFunction methodCall(MethodCallExpression call) {
+        if (call.isImplicitThis() || call.isSafe() || call.isSpreadSafe()
+                || !(call.getArguments() instanceof TupleExpression)) {
+            throw UNSUPPORTED;
+        }
+        String name = call.getMethodAsString();
+        RuleFunction receiver = value(call.getObjectExpression());
+        List<Expression> arguments = ((TupleExpression) call.getArguments()).getExpressions();
+
+        if (arguments.isEmpty() && "size".equals(name)) {
+            return values -> {
+                Object value = receiver.apply(values);
+                return value instanceof String ? Integer.valueOf(((String) value).length())
+                        : PrecompiledPatterns.invoke(value, name);
+            };
+        } else if (arguments.size() != 1) {
+            throw UNSUPPORTED;
+        } else if ("matches".equals(name)) {
+            Pattern pattern = pattern(arguments.get(0));
+            return values -> {
+                Object value = receiver.apply(values);
+                return value instanceof String ? Boolean.valueOf(PrecompiledPatterns.matches((String) value, pattern))
+                        : PrecompiledPatterns.matches(value, pattern);
+            };
+        }
+
+        String argument = string(arguments.get(0));
+        switch (name) {
+            case "contains":
+                return values -> {
+                    Object value = receiver.apply(values);
+                    return value instanceof String ? Boolean.valueOf(((String) value).contains(argument))
+                            : PrecompiledPatterns.invoke(value, name, argument);
+                };
+            case "startsWith":
+                return values -> {
+                    Object value = receiver.apply(values);
+                    return value instanceof String ? Boolean.valueOf(((String) value).startsWith(argument))
+                            : PrecompiledPatterns.invoke(value, name, argument);
+                };
+            case "endsWith":
+                return values -> {
+                    Object value = receiver.apply(values);
+                    return value instanceof String ? Boolean.valueOf(((String) value).endsWith(argument))
+                            : PrecompiledPatterns.invoke(value, name, argument);
+                };
+            case "equalsIgnoreCase":
+                return values -> {
+                    Object value = receiver.apply(values);
+                    return value instanceof String ? Boolean.valueOf(((String) value).equalsIgnoreCase(argument))
+                            : PrecompiledPatterns.invoke(value, name, argument);
+                };
+            case "count":
+                return values -> {
+                    Object value = receiver.apply(values);
+                    return value instanceof String
+                            ? Integer.valueOf(StringGroovyMethods.count((CharSequence) value, (CharSequence) argument))
+                            : PrecompiledPatterns.invoke(value, name, argument);
+                };
+            default:
+                throw UNSUPPORTED;
+        }
+    }
+
+    /**
+     * @return the literal returned by the statement, or UNSUPPORTED
+     */
+    private Object returnedConstant(Statement statement) {
+        Statement returned = statement;
+        if (returned instanceof BlockStatement && ((BlockStatement) returned).getStatements().size() == 1) {
+            returned = ((BlockStatement) returned).getStatements().get(0);
+        }
+        if (returned instanceof ReturnStatement
+                && ((ReturnStatement) returned).getExpression() instanceof ConstantExpression) {
+            return ((ConstantExpression) ((ReturnStatement) returned).getExpression()).getValue();
+        }
+        return UNSUPPORTED;
+    }
+
+    private boolean isEmpty(Statement statement) {
+        return statement == null || statement instanceof EmptyStatement
+                || statement instanceof BlockStatement && ((BlockStatement) statement).isEmpty();
+    }
+
+    private int parameterIndex(String name) {
+        if (name.startsWith(PARAMETER_PREFIX)) {
+            try {
+                int index = Integer.parseInt(name.substring(PARAMETER_PREFIX.length()));
+                if (index >= 1 && index <= parameterCount && name.equals(PARAMETER_PREFIX + index)) {
+                    return index - 1;
+                }
+            } catch (NumberFormatException e) {
+                // Not a parameter
+            }
+        }
+        throw UNSUPPORTED;
+    }
+
+    private String string(Expression expression) {
+        if (expression instanceof ConstantExpression && ((ConstantExpression) expression).getValue() instanceof String) {
+            return (String) ((ConstantExpression) expression).getValue();
+        }
+        throw UNSUPPORTED;
+    }
+
+    /**
+     * @return the pattern compiled from a literal regular expression (which must be valid)
+     */
+    private Pattern pattern(Expression expression) {
+        try {
+            return Pattern.compile(string(expression));
+        } catch (PatternSyntaxException e) {
+            throw UNSUPPORTED;
+        }
+    }
+
+    /**
+     * @return a list of literals (which is never modified)
+     */
+    private List<Object> list(Expression expression) {
+        if (!(expression instanceof ListExpression)) {
+            throw UNSUPPORTED;
+        }
+        List<Object> list = new ArrayList<>();
+        for (Expression element : ((ListExpression) expression).getExpressions()) {
+            if (!(element instanceof ConstantExpression)) {
+                throw UNSUPPORTED;
+            }
+            list.add(((ConstantExpression) element).getValue());
+        }
+        return list;
+    }
+
+    private static boolean truth(Object value) {
+        return DefaultTypeTransformation.castToBoolean(value);
+    }
+
+    /**
+     * @return the result of the Groovy <code>isCase</code> method, used by switch statements and the in operator
+     */
+    private static boolean isCase(Object switchValue, Object caseValue) {
+        if (caseValue == null) {
+            return switchValue == null;
+        } else if (caseValue instanceof String && switchValue instanceof String) {
+            return caseValue.equals(switchValue);
+        }
+        return truth(InvokerHelper.invokeMethod(caseValue, "isCase", new Object[] {switchValue}));
+    }
+}
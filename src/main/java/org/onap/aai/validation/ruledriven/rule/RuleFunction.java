@@ -0,0 +1,35 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven.rule;
+
+/**
+ * A compiled rule expression. The {@link RuleCompiler} provides a function for each distinct expression so that the
+ * expression is invoked by a direct interface call rather than through the Groovy meta-object protocol.
+ */
+@FunctionalInterface
+public interface RuleFunction {
+
+    /**
+     * Evaluate the rule expression.
+     *
+     * @param values
+     *            the attribute values, one for each parameter of the expression
+     * @return the result of evaluating the expression
+     */
+    Object apply(Object[] values);
+}
@@ -54,4 +54,35 @@ public class InfoService {
         return "Status: Up\n" + validationController.statusReport().toString() + "\n";
     }
 
+    /**
+     * @return the execution profile of each entity type and rule (invocations, failures, errors and latency
+     *         percentiles) as a text table
+     */
+    @RequestMapping(value = "/profile", method = RequestMethod.GET, produces = "text/plain")
+    @ResponseBody
+    public String getProfile() {
+        return validationController.executionProfile().toString();
+    }
+
+    /**
+     * @return the execution profile of each entity type and rule as JSON
+     */
+    @RequestMapping(value = "/profile/json", method = RequestMethod.GET, produces = "application/json")
+    @ResponseBody
+    public String getProfileAsJson() {
+        return validationController.executionProfile().toJson();
+    }
+
+    /**
+     * Discard the recorded execution profile.
+     *
+     * @return a confirmation message
+     */
+    @RequestMapping(value = "/profile/reset", method = RequestMethod.POST, produces = "text/plain")
+    @ResponseBody
+    public String resetProfile() {
+        validationController.resetExecutionProfile();
+        return "Execution profile reset\n";
+    }
+
 }
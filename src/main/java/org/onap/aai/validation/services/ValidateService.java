@@ -61,7 +61,8 @@ public interface ValidateService { // NOSONAR
      * </ul>
      *
      * @param event a JSON object representing an event
-     * @return an HTTP Response containing either a JSON array of ValidationResult objects or a plain-text error message
+     * @return an HTTP Response containing either the ValidationResult (a JSON object, or a JSON array of
+     *         ValidationResult objects where the event has several instances to validate) or a plain-text error message
      *
      * @responseMessage 200 Success
      * @responseMessage 400 Bad Request
@@ -74,4 +75,26 @@ public interface ValidateService { // NOSONAR
             @RequestBody String event);
 
     public ResponseEntity<String> validate(String event);
+
+    /**
+     * Validate an event and, if successful, return the result(s) in JSON format. The request is handled in the same
+     * way as for {@link #validate(HttpHeaders, HttpServletRequest, String)} except that the message body is not
+     * converted to a String: the UTF-8 encoded event is read from the request input stream directly by the JSON
+     * parser.
+     *
+     * @param headers the HTTP request headers
+     * @param servletRequest the HTTP request, the body of which must be a JSON object representing an event
+     * @return an HTTP Response containing either the ValidationResult (a JSON object, or a JSON array of
+     *         ValidationResult objects where the event has several instances to validate) or a plain-text error message
+     *
+     * @responseMessage 200 Success
+     * @responseMessage 400 Bad Request
+     * @responseMessage 500 Internal Server Error
+     *
+     */
+    @RequestMapping(value = "/validate/stream", method = RequestMethod.POST,
+            produces = {"application/json", "text/plain"})
+    @ResponseBody
+    public ResponseEntity<String> validateStream(@RequestHeader HttpHeaders headers,
+            HttpServletRequest servletRequest);
 }
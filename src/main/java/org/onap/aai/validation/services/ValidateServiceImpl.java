@@ -17,8 +17,14 @@
  */
 package org.onap.aai.validation.services;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.Response;
@@ -29,6 +35,7 @@ import org.onap.aai.validation.logging.ApplicationMsgs;
 import org.onap.aai.validation.logging.LogHelper;
 import org.onap.aai.validation.logging.LogHelper.MdcParameter;
 import org.onap.aai.validation.logging.LogHelper.StatusCode;
+import org.onap.aai.validation.util.ReusableByteBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -51,12 +58,22 @@ public class ValidateServiceImpl implements ValidateService {
     public static final String DEFAULT_MESSAGE_FOR_FILTERED_EVENTS =
             "No validation results available. The action value may have caused the event to be filtered. Otherwise the event type or domain may be invalid.";
 
+    private static final int REQUEST_BUFFER_INITIAL_SIZE = 64 * 1024;
+    private static final int REQUEST_BUFFER_MAX_RETAINED_SIZE = 1024 * 1024;
+
     /**
      * Events are passed to the controller which will execute the validation(s).
      */
     private ValidationController controller;
     private AAIMicroServiceAuth aaiMicroServiceAuth;
 
+    /**
+     * Each request thread reads streamed events into its own buffer. Events larger than the retained buffer size are
+     * parsed directly from the request stream.
+     */
+    private ReusableByteBuffer requestBuffer =
+            new ReusableByteBuffer(REQUEST_BUFFER_INITIAL_SIZE, REQUEST_BUFFER_MAX_RETAINED_SIZE);
+
     /**
      * @param controller
      */
@@ -69,6 +86,48 @@ public class ValidateServiceImpl implements ValidateService {
     @Override
     public ResponseEntity<String> validate(@RequestHeader HttpHeaders headers, HttpServletRequest servletRequest,
             @RequestBody String event) {
+        return handleRequest(headers, servletRequest, event, () -> validate(event));
+    }
+
+    @Override
+    public ResponseEntity<String> validateStream(@RequestHeader HttpHeaders headers,
+            HttpServletRequest servletRequest) {
+        return handleRequest(headers, servletRequest, "", () -> validate(servletRequest));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.onap.aai.validation.services.ValidateService#validate(java.lang.String)
+     */
+    @Override
+    public ResponseEntity<String> validate(String event) {
+        return createResponse(() -> controller.execute(event, "http"), () -> event);
+    }
+
+    /**
+     * Validate the event read from the request body. An event that fits within the (reusable) request buffer is read
+     * into the buffer, so that the event header can be read before deciding whether to parse the event. A larger event,
+     * or one of unknown length, is parsed directly from the request input stream.
+     *
+     * @param servletRequest the HTTP request
+     * @return an HTTP Response containing either a JSON array of ValidationResult objects or a plain-text error message
+     * @throws IOException if the request body cannot be read
+     */
+    private ResponseEntity<String> validate(HttpServletRequest servletRequest) throws IOException {
+        InputStream inputStream = servletRequest.getInputStream();
+        int contentLength = servletRequest.getContentLength();
+        if (contentLength >= 0 && contentLength <= requestBuffer.getMaxRetainedCapacity()) {
+            ByteBuffer event = requestBuffer.read(inputStream);
+            return createResponse(() -> controller.execute(event, "http"),
+                    () -> StandardCharsets.UTF_8.decode(event.duplicate()).toString());
+        } else {
+            return createResponse(() -> controller.execute(inputStream, "http"), () -> "");
+        }
+    }
+
+    private ResponseEntity<String> handleRequest(HttpHeaders headers, HttpServletRequest servletRequest, String event,
+            Callable<ResponseEntity<String>> validation) {
         applicationLogger.startAudit(headers, servletRequest);
         applicationLogger.info(ApplicationMsgs.MESSAGE_VALIDATION_REQUEST, headers + event);
 
@@ -104,7 +163,7 @@ public class ValidateServiceImpl implements ValidateService {
                 response = ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body("User not authorized to perform the operation.");
             } else {
-                response = validate(event);
+                response = validation.call();
             }
         } catch (Exception e) {
             applicationLogger.error(ApplicationMsgs.PROCESS_REQUEST_ERROR, e);
@@ -125,17 +184,11 @@ public class ValidateServiceImpl implements ValidateService {
         return response;
     }
 
-    /*
-     * (non-Javadoc)
-     *
-     * @see org.onap.aai.validation.services.ValidateService#validate(java.lang.String)
-     */
-    @Override
-    public ResponseEntity<String> validate(String event) {
+    private ResponseEntity<String> createResponse(Supplier<Result> validation, Supplier<String> event) {
 
         try {
             // Attempt to validate the event
-            Result result = controller.execute(event, "http");
+            Result result = validation.get();
 
             if (result.validationSuccessful()) {
                 return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
@@ -145,7 +198,7 @@ public class ValidateServiceImpl implements ValidateService {
                 if (!errorText.isPresent() || errorText.get().isEmpty()) {
                     errorText = Optional.of(DEFAULT_MESSAGE_FOR_FILTERED_EVENTS);
                 } else {
-                    applicationLogger.error(ApplicationMsgs.MALFORMED_REQUEST_ERROR, event);
+                    applicationLogger.error(ApplicationMsgs.MALFORMED_REQUEST_ERROR, event.get());
                 }
                 return ResponseEntity.badRequest().body(errorText.orElse(""));
             }
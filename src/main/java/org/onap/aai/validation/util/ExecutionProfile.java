@@ -0,0 +1,216 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.util;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the number of executions of an operation (e.g. a rule), the number of failures and errors, and the
+ * distribution of the execution times.<br>
+ * Recording is lock-free and does not allocate, so a profile may be updated concurrently by any number of threads. The
+ * times are counted in a histogram of logarithmic buckets, each power of two being divided into
+ * {@value #SUB_BUCKETS} linear sub-buckets, so a reported percentile is within 12.5% of the recorded time.
+ */
+public class ExecutionProfile {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Times of 2^43 ns (about 2.4 hours) or more are counted in the last bucket. */
+    private static final int MAX_BITS = 43;
+    private static final int BUCKETS = (MAX_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * A copy of the recorded values. Times are in microseconds.
+     */
+    public static class Snapshot {
+        @Expose
+        private final long invocations;
+        @Expose
+        private final long failures;
+        @Expose
+        private final long errors;
+        @Expose
+        @SerializedName("p50Micros")
+        private final double p50;
+        @Expose
+        @SerializedName("p99Micros")
+        private final double p99;
+        @Expose
+        @SerializedName("maxMicros")
+        private final double max;
+
+        private Snapshot(long invocations, long failures, long errors, double p50, double p99, double max) {
+            this.invocations = invocations;
+            this.failures = failures;
+            this.errors = errors;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public long getInvocations() {
+            return invocations;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        public double getMax() {
+            return max;
+        }
+    }
+
+    /**
+     * Record a completed execution.
+     *
+     * @param elapsedNanos
+     *            the execution time
+     * @param success
+     *            false if the execution failed (e.g. a rule was not satisfied)
+     */
+    public void record(long elapsedNanos, boolean success) {
+        recordTime(elapsedNanos);
+        if (!success) {
+            failures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Record an execution which threw an exception.
+     *
+     * @param elapsedNanos
+     *            the execution time
+     */
+    public void recordError(long elapsedNanos) {
+        recordTime(elapsedNanos);
+        errors.incrementAndGet();
+    }
+
+    /**
+     * @return the number of recorded executions
+     */
+    public long getInvocations() {
+        long invocations = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            invocations += buckets.get(i);
+        }
+        return invocations;
+    }
+
+    /**
+     * @return a copy of the recorded values (which may not be consistent with one another if executions are recorded
+     *         whilst the copy is made)
+     */
+    public Snapshot getSnapshot() {
+        long[] counts = new long[BUCKETS];
+        long invocations = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            invocations += counts[i];
+        }
+        long max = maxNanos.get();
+        return new Snapshot(invocations, failures.get(), errors.get(),
+                toMicros(percentile(counts, invocations, 0.5), max), toMicros(percentile(counts, invocations, 0.99), max),
+                toMicros(max, max));
+    }
+
+    /**
+     * Discard the recorded values. Executions recorded during the reset may be partly retained.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        failures.set(0);
+        errors.set(0);
+        maxNanos.set(0);
+    }
+
+    private void recordTime(long elapsedNanos) {
+        long nanos = Math.max(0, elapsedNanos);
+        buckets.incrementAndGet(bucket(nanos));
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * @return the bucket counting the time: the time itself for small times, otherwise the power of two and the
+     *         sub-bucket (given by the bits following the most significant bit)
+     */
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int shift = Math.min(63 - Long.numberOfLeadingZeros(nanos), MAX_BITS) - SUB_BUCKET_BITS;
+        int bucket = (shift + 1) * SUB_BUCKETS + (int) ((nanos >>> shift) & (SUB_BUCKETS - 1));
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    /**
+     * @return the largest time counted by the bucket
+     */
+    static long bucketLimit(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return ((long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << shift) - 1;
+    }
+
+    private static long percentile(long[] counts, long invocations, double fraction) {
+        long rank = (long) Math.ceil(invocations * fraction);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return bucketLimit(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the time in microseconds (no greater than the maximum recorded time)
+     */
+    private static double toMicros(long nanos, long maxNanos) {
+        return Math.min(nanos, maxNanos) / 1000.0;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.util;
+
+import com.google.gson.annotations.Expose;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The execution profiles of the entity types validated (for each event type) and of the rules applied to them, for
+ * reporting by the Info Service as text or JSON.
+ */
+public class ExecutionProfileReport {
+
+    private static final String TEXT_FORMAT = "%-16s %-32s %-48s %12s %10s %8s %12s %12s %12s%n";
+
+    /**
+     * The profile of an entity type, or of a rule applied to an entity type.
+     */
+    public static class Entry {
+        @Expose
+        private final String eventType;
+        @Expose
+        private final String entityType;
+        @Expose
+        private final String rule;
+        @Expose
+        private final ExecutionProfile.Snapshot profile;
+
+        private Entry(String eventType, String entityType, String rule, ExecutionProfile.Snapshot profile) {
+            this.eventType = eventType;
+            this.entityType = entityType;
+            this.rule = rule;
+            this.profile = profile;
+        }
+
+        public String getEventType() {
+            return eventType;
+        }
+
+        public String getEntityType() {
+            return entityType;
+        }
+
+        public String getRule() {
+            return rule;
+        }
+
+        public ExecutionProfile.Snapshot getProfile() {
+            return profile;
+        }
+    }
+
+    @Expose
+    private final List<Entry> entities = new ArrayList<>();
+
+    @Expose
+    private final List<Entry> rules = new ArrayList<>();
+
+    /**
+     * Add the profile of validating the entities of a type.
+     */
+    public void addEntity(String eventType, String entityType, ExecutionProfile.Snapshot profile) {
+        entities.add(new Entry(eventType, entityType, null, profile));
+    }
+
+    /**
+     * Add the profile of executing a rule for the entities of a type.
+     */
+    public void addRule(String eventType, String entityType, String rule, ExecutionProfile.Snapshot profile) {
+        rules.add(new Entry(eventType, entityType, rule, profile));
+    }
+
+    /**
+     * Add all the profiles of another report.
+     */
+    public void addAll(ExecutionProfileReport report) {
+        entities.addAll(report.entities);
+        rules.addAll(report.rules);
+    }
+
+    public List<Entry> getEntities() {
+        return entities;
+    }
+
+    public List<Entry> getRules() {
+        return rules;
+    }
+
+    public String toJson() {
+        return JsonUtil.toJson(this);
+    }
+
+    /**
+     * @return a table of the profiles (times in microseconds)
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Entity validation profile\n");
+        appendTable(sb, "", entities);
+        sb.append("\nRule execution profile\n");
+        appendTable(sb, "rule", rules);
+        return sb.toString();
+    }
+
+    private static void appendTable(StringBuilder sb, String ruleHeading, List<Entry> entries) {
+        sb.append(String.format(TEXT_FORMAT, "event type", "entity type", ruleHeading, "invocations", "failures",
+                "errors", "p50 us", "p99 us", "max us"));
+        for (Entry entry : entries) {
+            ExecutionProfile.Snapshot profile = entry.profile;
+            sb.append(String.format(TEXT_FORMAT, entry.eventType, entry.entityType,
+                    entry.rule == null ? "" : entry.rule, profile.getInvocations(), profile.getFailures(),
+                    profile.getErrors(), String.format("%.1f", profile.getP50()),
+                    String.format("%.1f", profile.getP99()), String.format("%.1f", profile.getMax())));
+        }
+    }
+}
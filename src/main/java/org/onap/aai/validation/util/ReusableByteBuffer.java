@@ -0,0 +1,76 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A byte buffer for each worker thread, used to read request payloads without allocating a new array (or creating an
+ * intermediate String) per request. The buffer grows as needed to read a payload, but a buffer larger than the
+ * configured maximum is discarded after use so that each thread retains a bounded amount of memory.
+ */
+public class ReusableByteBuffer {
+
+    private final int initialCapacity;
+    private final int maxRetainedCapacity;
+    private final ThreadLocal<byte[]> buffers;
+
+    /**
+     * @param initialCapacity the initial size of each thread's buffer
+     * @param maxRetainedCapacity the largest buffer retained by a thread for reuse
+     */
+    public ReusableByteBuffer(int initialCapacity, int maxRetainedCapacity) {
+        this.initialCapacity = Math.max(1, initialCapacity);
+        this.maxRetainedCapacity = Math.max(this.initialCapacity, maxRetainedCapacity);
+        this.buffers = ThreadLocal.withInitial(() -> new byte[this.initialCapacity]);
+    }
+
+    /**
+     * @return the largest buffer retained by a thread for reuse
+     */
+    public int getMaxRetainedCapacity() {
+        return maxRetainedCapacity;
+    }
+
+    /**
+     * Read the full contents of the stream into the current thread's buffer. The returned ByteBuffer shares the
+     * thread's buffer and so is only valid until the next call to this method from the same thread.
+     *
+     * @param inputStream the stream to read (this is not closed)
+     * @return a ByteBuffer holding the bytes read from the stream
+     * @throws IOException if the stream cannot be read
+     */
+    public ByteBuffer read(InputStream inputStream) throws IOException {
+        byte[] buffer = buffers.get();
+        int length = 0;
+        int count;
+        while ((count = inputStream.read(buffer, length, buffer.length - length)) != -1) {
+            length += count;
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, initialCapacity));
+            }
+        }
+        if (buffer.length <= maxRetainedCapacity) {
+            buffers.set(buffer);
+        }
+        return ByteBuffer.wrap(buffer, 0, length);
+    }
+}
@@ -30,18 +30,28 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.stubbing.OngoingStubbing;
 import org.onap.aai.validation.Validator;
 import org.onap.aai.validation.config.ValidationControllerConfig;
+import org.onap.aai.validation.controller.ValidationController.Result;
 import org.onap.aai.validation.exception.ValidationServiceError;
 import org.onap.aai.validation.exception.ValidationServiceException;
 import org.onap.aai.validation.publisher.MessagePublisher;
 import org.onap.aai.validation.reader.EventReader;
+import org.onap.aai.validation.reader.JsonProjection;
 import org.onap.aai.validation.reader.data.Entity;
 import org.onap.aai.validation.reader.data.EntityId;
+import org.onap.aai.validation.reader.data.EventHeader;
+import org.onap.aai.validation.reader.data.ParsedEvent;
 import org.onap.aai.validation.result.ValidationResult;
 import org.onap.aai.validation.result.ValidationResultBuilder;
 import org.onap.aai.validation.result.Violation;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
@@ -94,27 +104,33 @@ public class TestValidationController {
     @Mock
     private Entity entity;
 
+    private Map<String, ParsedEvent> parsedEvents = new HashMap<>();
+
     static {
         System.setProperty("APP_HOME", ".");
     }
 
     @Before
     public void setupMocks() throws ValidationServiceException {
+        when(eventReader.parseEvent(Mockito.anyString()))
+                .thenAnswer(invocation -> parsedEvent(invocation.getArgument(0)));
+        when(eventReader.getEventHeader(Mockito.any(ParsedEvent.class))).thenCallRealMethod();
+
         Map<String, List<ValidationResult>> validationResultsMap = setupTestData();
 
-        when(ruleDrivenValidator.validate(TESTDATA_EVENTTYPE_AAI))
+        when(ruleDrivenValidator.validate(parsedEvent(TESTDATA_EVENTTYPE_AAI)))
                 .thenReturn(validationResultsMap.get(TESTDATA_EVENTTYPE_AAI));
-        when(ruleDrivenValidator.validate(TESTDATA_EVENTTYPE_API))
+        when(ruleDrivenValidator.validate(parsedEvent(TESTDATA_EVENTTYPE_API)))
                 .thenReturn(validationResultsMap.get(TESTDATA_EVENTTYPE_API));
-        when(modelDrivenValidator.validate(TESTDATA_EVENTTYPE_NAMEDQUERY))
+        when(modelDrivenValidator.validate(parsedEvent(TESTDATA_EVENTTYPE_NAMEDQUERY)))
                 .thenReturn(validationResultsMap.get(TESTDATA_EVENTTYPE_NAMEDQUERY));
-        when(ruleDrivenValidator.validate(TESTDATA_EXCEPTION_EVENT))
+        when(ruleDrivenValidator.validate(parsedEvent(TESTDATA_EXCEPTION_EVENT)))
                 .thenThrow(new RuntimeException("Failed to validate"));
-        when(ruleDrivenValidator.validate(TESTDATA_HANDLE_EXCEPTION_EXCEPTION_EVENT))
+        when(ruleDrivenValidator.validate(parsedEvent(TESTDATA_HANDLE_EXCEPTION_EXCEPTION_EVENT)))
                 .thenThrow(new RuntimeException("Failed to validate"));
-        when(ruleDrivenValidator.validate(TESTDATA_VALIDATION_RESULT_PUBLISH_ERROR))
+        when(ruleDrivenValidator.validate(parsedEvent(TESTDATA_VALIDATION_RESULT_PUBLISH_ERROR)))
                 .thenReturn(validationResultsMap.get(TESTDATA_VALIDATION_RESULT_PUBLISH_ERROR));
-        when(ruleDrivenValidator.validate(TESTDATA_EVENTACTION_NULL))
+        when(ruleDrivenValidator.validate(parsedEvent(TESTDATA_EVENTACTION_NULL)))
                 .thenReturn(validationResultsMap.get(TESTDATA_EVENTTYPE_AAI));
 
         Map<String, List<String>> eventTypeDataMap = setupEventTypeData();
@@ -122,47 +138,47 @@ public class TestValidationController {
         when(validationControllerConfig.getEventTypeModel()).thenReturn(eventTypeDataMap.get(MODEL));
         when(validationControllerConfig.getEventTypeEnd()).thenReturn("END-EVENT");
 
-        when(eventReader.getEventType(TESTDATA_EVENTTYPE_AAI)).thenReturn(Optional.of(AAI_EVENT));
-        when(eventReader.getEventType(TESTDATA_EVENTTYPE_API)).thenReturn(Optional.of("AAI-DATA-EXPORT-API"));
-        when(eventReader.getEventType(TESTDATA_EVENTTYPE_NAMEDQUERY)).thenReturn(Optional.of("AAI-DATA-EXPORT-NQ"));
-        when(eventReader.getEventType(TESTDATA_EVENTTYPE_UNKNOWN)).thenReturn(Optional.of("EVENTTYPE-UNKNOWN"));
-        when(eventReader.getEventType(TESTDATA_EVENTTYPE_NULL)).thenReturn(Optional.empty());
-        when(eventReader.getEventType(TESTDATA_EXCEPTION_EVENT)).thenReturn(Optional.of(AAI_EVENT));
-        when(eventReader.getEventType(TESTDATA_HANDLE_EXCEPTION_EXCEPTION_EVENT)).thenReturn(Optional.of(AAI_EVENT));
-        when(eventReader.getEventType(TESTDATA_VALIDATION_RESULT_PUBLISH_ERROR)).thenReturn(Optional.of(AAI_EVENT));
-        when(eventReader.getEventType(TESTDATA_EVENTACTION_NULL)).thenReturn(Optional.of(AAI_EVENT));
+        when(eventReader.getEventType(parsedEvent(TESTDATA_EVENTTYPE_AAI))).thenReturn(Optional.of(AAI_EVENT));
+        when(eventReader.getEventType(parsedEvent(TESTDATA_EVENTTYPE_API))).thenReturn(Optional.of("AAI-DATA-EXPORT-API"));
+        when(eventReader.getEventType(parsedEvent(TESTDATA_EVENTTYPE_NAMEDQUERY))).thenReturn(Optional.of("AAI-DATA-EXPORT-NQ"));
+        when(eventReader.getEventType(parsedEvent(TESTDATA_EVENTTYPE_UNKNOWN))).thenReturn(Optional.of("EVENTTYPE-UNKNOWN"));
+        when(eventReader.getEventType(parsedEvent(TESTDATA_EVENTTYPE_NULL))).thenReturn(Optional.empty());
+        when(eventReader.getEventType(parsedEvent(TESTDATA_EXCEPTION_EVENT))).thenReturn(Optional.of(AAI_EVENT));
+        when(eventReader.getEventType(parsedEvent(TESTDATA_HANDLE_EXCEPTION_EXCEPTION_EVENT))).thenReturn(Optional.of(AAI_EVENT));
+        when(eventReader.getEventType(parsedEvent(TESTDATA_VALIDATION_RESULT_PUBLISH_ERROR))).thenReturn(Optional.of(AAI_EVENT));
+        when(eventReader.getEventType(parsedEvent(TESTDATA_EVENTACTION_NULL))).thenReturn(Optional.of(AAI_EVENT));
 
         when(validationControllerConfig.getEventDomain()).thenReturn(DEV_INT_1);
-        when(eventReader.getEventDomain(TESTDATA_EVENTTYPE_AAI)).thenReturn(Optional.of(DEV_INT_1));
-        when(eventReader.getEventDomain(TESTDATA_EVENTTYPE_API)).thenReturn(Optional.of(DEV_INT_1));
-        when(eventReader.getEventDomain(TESTDATA_EVENTTYPE_NAMEDQUERY)).thenReturn(Optional.of(DEV_INT_1));
-        when(eventReader.getEventDomain(TESTDATA_EVENTTYPE_UNKNOWN)).thenReturn(Optional.of(DEV_INT_1));
-        when(eventReader.getEventDomain(TESTDATA_EVENTTYPE_NULL)).thenReturn(Optional.of(DEV_INT_1));
-        when(eventReader.getEventDomain(TESTDATA_DOMAIN_INVALID)).thenReturn(Optional.of("invalidDomain"));
-        when(eventReader.getEventDomain(TESTDATA_DOMAIN_NULL)).thenReturn(Optional.empty());
-        when(eventReader.getEventDomain(TESTDATA_EXCEPTION_EVENT)).thenReturn(Optional.of(DEV_INT_1));
-        when(eventReader.getEventDomain(TESTDATA_HANDLE_EXCEPTION_EXCEPTION_EVENT)).thenReturn(Optional.of(DEV_INT_1));
-        when(eventReader.getEventDomain(TESTDATA_VALIDATION_RESULT_PUBLISH_ERROR)).thenReturn(Optional.of(DEV_INT_1));
-        when(eventReader.getEventDomain(TESTDATA_EVENTACTION_DELETE)).thenReturn(Optional.of(DEV_INT_1));
-        when(eventReader.getEventDomain(TESTDATA_EVENTACTION_NULL)).thenReturn(Optional.of(DEV_INT_1));
+        when(eventReader.getEventDomain(parsedEvent(TESTDATA_EVENTTYPE_AAI))).thenReturn(Optional.of(DEV_INT_1));
+        when(eventReader.getEventDomain(parsedEvent(TESTDATA_EVENTTYPE_API))).thenReturn(Optional.of(DEV_INT_1));
+        when(eventReader.getEventDomain(parsedEvent(TESTDATA_EVENTTYPE_NAMEDQUERY))).thenReturn(Optional.of(DEV_INT_1));
+        when(eventReader.getEventDomain(parsedEvent(TESTDATA_EVENTTYPE_UNKNOWN))).thenReturn(Optional.of(DEV_INT_1));
+        when(eventReader.getEventDomain(parsedEvent(TESTDATA_EVENTTYPE_NULL))).thenReturn(Optional.of(DEV_INT_1));
+        when(eventReader.getEventDomain(parsedEvent(TESTDATA_DOMAIN_INVALID))).thenReturn(Optional.of("invalidDomain"));
+        when(eventReader.getEventDomain(parsedEvent(TESTDATA_DOMAIN_NULL))).thenReturn(Optional.empty());
+        when(eventReader.getEventDomain(parsedEvent(TESTDATA_EXCEPTION_EVENT))).thenReturn(Optional.of(DEV_INT_1));
+        when(eventReader.getEventDomain(parsedEvent(TESTDATA_HANDLE_EXCEPTION_EXCEPTION_EVENT))).thenReturn(Optional.of(DEV_INT_1));
+        when(eventReader.getEventDomain(parsedEvent(TESTDATA_VALIDATION_RESULT_PUBLISH_ERROR))).thenReturn(Optional.of(DEV_INT_1));
+        when(eventReader.getEventDomain(parsedEvent(TESTDATA_EVENTACTION_DELETE))).thenReturn(Optional.of(DEV_INT_1));
+        when(eventReader.getEventDomain(parsedEvent(TESTDATA_EVENTACTION_NULL))).thenReturn(Optional.of(DEV_INT_1));
 
         List<String> excludedActions = new ArrayList<>();
         excludedActions.add(DELETE);
         when(validationControllerConfig.getExcludedEventActions()).thenReturn(excludedActions);
-        when(eventReader.getEventAction(TESTDATA_EVENTTYPE_AAI)).thenReturn(Optional.of(CREATE));
-        when(eventReader.getEventAction(TESTDATA_EVENTTYPE_API)).thenReturn(Optional.of(CREATE));
-        when(eventReader.getEventAction(TESTDATA_EVENTTYPE_NAMEDQUERY)).thenReturn(Optional.of(CREATE));
-        when(eventReader.getEventAction(TESTDATA_EVENTTYPE_UNKNOWN)).thenReturn(Optional.of(CREATE));
-        when(eventReader.getEventAction(TESTDATA_EVENTTYPE_NULL)).thenReturn(Optional.of(CREATE));
-        when(eventReader.getEventAction(TESTDATA_EXCEPTION_EVENT)).thenReturn(Optional.of(CREATE));
-        when(eventReader.getEventAction(TESTDATA_HANDLE_EXCEPTION_EXCEPTION_EVENT)).thenReturn(Optional.of(CREATE));
-        when(eventReader.getEventAction(TESTDATA_VALIDATION_RESULT_PUBLISH_ERROR)).thenReturn(Optional.of(CREATE));
-        when(eventReader.getEventAction(TESTDATA_EVENTACTION_DELETE)).thenReturn(Optional.of(DELETE));
-        when(eventReader.getEventAction(TESTDATA_EVENTACTION_NULL)).thenReturn(Optional.empty());
-
-        when(eventReader.getEntityType(TESTDATA_EXCEPTION_EVENT)).thenReturn(Optional.of(VSERVER));
-        when(eventReader.getEntity(TESTDATA_EXCEPTION_EVENT)).thenReturn(entity);
-        when(eventReader.getEntityType(TESTDATA_HANDLE_EXCEPTION_EXCEPTION_EVENT)).thenThrow(
+        when(eventReader.getEventAction(parsedEvent(TESTDATA_EVENTTYPE_AAI))).thenReturn(Optional.of(CREATE));
+        when(eventReader.getEventAction(parsedEvent(TESTDATA_EVENTTYPE_API))).thenReturn(Optional.of(CREATE));
+        when(eventReader.getEventAction(parsedEvent(TESTDATA_EVENTTYPE_NAMEDQUERY))).thenReturn(Optional.of(CREATE));
+        when(eventReader.getEventAction(parsedEvent(TESTDATA_EVENTTYPE_UNKNOWN))).thenReturn(Optional.of(CREATE));
+        when(eventReader.getEventAction(parsedEvent(TESTDATA_EVENTTYPE_NULL))).thenReturn(Optional.of(CREATE));
+        when(eventReader.getEventAction(parsedEvent(TESTDATA_EXCEPTION_EVENT))).thenReturn(Optional.of(CREATE));
+        when(eventReader.getEventAction(parsedEvent(TESTDATA_HANDLE_EXCEPTION_EXCEPTION_EVENT))).thenReturn(Optional.of(CREATE));
+        when(eventReader.getEventAction(parsedEvent(TESTDATA_VALIDATION_RESULT_PUBLISH_ERROR))).thenReturn(Optional.of(CREATE));
+        when(eventReader.getEventAction(parsedEvent(TESTDATA_EVENTACTION_DELETE))).thenReturn(Optional.of(DELETE));
+        when(eventReader.getEventAction(parsedEvent(TESTDATA_EVENTACTION_NULL))).thenReturn(Optional.empty());
+
+        when(eventReader.getEntityType(parsedEvent(TESTDATA_EXCEPTION_EVENT))).thenReturn(Optional.of(VSERVER));
+        when(eventReader.getEntity(parsedEvent(TESTDATA_EXCEPTION_EVENT))).thenReturn(entity);
+        when(eventReader.getEntityType(parsedEvent(TESTDATA_HANDLE_EXCEPTION_EXCEPTION_EVENT))).thenThrow(
                 new RuntimeException("Error during handling the exception for an event that couldn't be validated"));
 
         Mockito.doThrow(new ValidationServiceException(ValidationServiceError.EVENT_CLIENT_PUBLISHER_INIT_ERROR))
@@ -189,7 +205,7 @@ public class TestValidationController {
     private Map<String, List<ValidationResult>> setupTestData() throws ValidationServiceException {
         final Map<String, List<ValidationResult>> validationResultsMap = new HashMap<>();
 
-        when(eventReader.getEntity(VSERVER)).thenReturn(entity);
+        when(eventReader.getEntity(parsedEvent(VSERVER))).thenReturn(entity);
         setUpEntityMock("20160525162737-61c49d41-5338-4755-af54-06cee9fe4aca", VSERVER, "1464193654");
 
         ValidationResultBuilder builder = new ValidationResultBuilder(eventReader, VSERVER);
@@ -226,18 +242,42 @@ public class TestValidationController {
     public void testExecuteForAaiEvent() throws Exception {
         // Test for AAI-EVENT
         validationController.execute(TESTDATA_EVENTTYPE_AAI, TEST);
-        verify(ruleDrivenValidator, times(1)).validate(TESTDATA_EVENTTYPE_AAI);
+        verify(ruleDrivenValidator, times(1)).validate(parsedEvent(TESTDATA_EVENTTYPE_AAI));
         verify(messagePublisher, times(2)).publishMessage(Mockito
                 .contains("\"entityId\":{\"vserver-id\":\"20160525162737-61c49d41-5338-4755-af54-06cee9fe4aca\"},"
                         + "\"entityType\":\"vserver\",\"entityLink\":\"entityLink\","
                         + "\"resourceVersion\":\"1464193654\",\"entity\":{},\"violations\":[]}"));
     }
 
+    @Test
+    public void testValidationResultsForNestedInstancesAreReturnedAsAnArray() throws Exception {
+        Result result = validationController.execute(TESTDATA_EVENTTYPE_AAI, TEST);
+        assertThat(result.getValidationResults().size(), is(2));
+
+        JsonArray results = new JsonParser().parse(result.getValidationResultAsJson()).getAsJsonArray();
+        assertThat(results.size(), is(2));
+        for (int i = 0; i < results.size(); i++) {
+            JsonObject validationResult = results.get(i).getAsJsonObject();
+            assertThat(validationResult.get("entityId").getAsJsonObject().get("vserver-id").getAsString(),
+                    is("20160525162737-61c49d41-5338-4755-af54-06cee9fe4aca"));
+            assertThat(validationResult.get("resourceVersion").getAsString(), is("1464193654"));
+        }
+    }
+
+    @Test
+    public void testSingleValidationResultIsReturnedAsAnObject() throws Exception {
+        Result result = validationController.execute(TESTDATA_EVENTTYPE_API, TEST);
+        assertThat(result.getValidationResults().size(), is(1));
+
+        JsonObject validationResult = new JsonParser().parse(result.getValidationResultAsJson()).getAsJsonObject();
+        assertThat(validationResult.get("resourceVersion").getAsString(), is("1464193655"));
+    }
+
     @Test
     public void testExecuteForApiEvent() throws Exception {
         // Test for AAI-DATA-EXPORT-API
         validationController.execute(TESTDATA_EVENTTYPE_API, TEST);
-        verify(ruleDrivenValidator, times(1)).validate(TESTDATA_EVENTTYPE_API);
+        verify(ruleDrivenValidator, times(1)).validate(parsedEvent(TESTDATA_EVENTTYPE_API));
         verify(messagePublisher, times(1)).publishMessage(Mockito
                 .contains("\"entityId\":{\"vserver-id\":\"20160525162737-61c49d41-5338-4755-af54-06cee9fe4acb\"},"
                         + "\"entityType\":\"vserver\",\"entityLink\":\"entityLink\","
@@ -248,7 +288,7 @@ public class TestValidationController {
     public void testExecuteForNqEvent() throws Exception {
         // Test for AAI-DATA-EXPORT-NQ
         validationController.execute(TESTDATA_EVENTTYPE_NAMEDQUERY, TEST);
-        verify(modelDrivenValidator, times(1)).validate(TESTDATA_EVENTTYPE_NAMEDQUERY);
+        verify(modelDrivenValidator, times(1)).validate(parsedEvent(TESTDATA_EVENTTYPE_NAMEDQUERY));
         verify(messagePublisher, times(1)).publishMessage(Mockito
                 .contains("\"entityId\":{\"vserver-id\":\"20160525162737-61c49d41-5338-4755-af54-06cee9fe4acc\"},"
                         + "\"entityType\":\"vserver\",\"entityLink\":\"entityLink\","
@@ -257,14 +297,14 @@ public class TestValidationController {
 
     @Test
     public void testExecuteForNullDomain() throws Exception {
-        doVerifyMockInteractionsTest(TESTDATA_DOMAIN_NULL, TEST, 2);
+        doVerifyMockInteractionsTest(TESTDATA_DOMAIN_NULL, TEST, 1);
     }
 
     private void doVerifyMockInteractionsTest(String event, String eventSource, int eventReaderCallsCount) throws Exception {
         validationController.execute(event, eventSource);
-        verify(eventReader, times(eventReaderCallsCount)).getEventType(Mockito.anyString());
-        verify(ruleDrivenValidator, times(0)).validate(Mockito.anyString());
-        verify(modelDrivenValidator, times(0)).validate(Mockito.anyString());
+        verify(eventReader, times(eventReaderCallsCount)).getEventType(Mockito.any(ParsedEvent.class));
+        verify(ruleDrivenValidator, times(0)).validate(Mockito.any(ParsedEvent.class));
+        verify(modelDrivenValidator, times(0)).validate(Mockito.any(ParsedEvent.class));
         verify(messagePublisher, times(0)).publishMessage(Mockito.anyString());
     }
 
@@ -285,9 +325,9 @@ public class TestValidationController {
     @Test
     public void testExecuteForNullAction() throws Exception {
         validationController.execute(TESTDATA_EVENTACTION_NULL, TEST);
-        verify(eventReader, times(2)).getEventType(Mockito.anyString());
-        verify(ruleDrivenValidator, times(1)).validate(Mockito.anyString());
-        verify(modelDrivenValidator, times(0)).validate(Mockito.anyString());
+        verify(eventReader, times(1)).getEventType(Mockito.any(ParsedEvent.class));
+        verify(ruleDrivenValidator, times(1)).validate(Mockito.any(ParsedEvent.class));
+        verify(modelDrivenValidator, times(0)).validate(Mockito.any(ParsedEvent.class));
         verify(messagePublisher, times(2)).publishMessage(Mockito.anyString());
     }
 
@@ -295,9 +335,9 @@ public class TestValidationController {
 
     private void doEventTypeTest(String event, String eventSource, int numEventReaderInvocations) throws Exception {
         validationController.execute(event, eventSource);
-        verify(eventReader, times(numEventReaderInvocations)).getEventType(event);
-        verify(ruleDrivenValidator, times(0)).validate(Mockito.anyString());
-        verify(modelDrivenValidator, times(0)).validate(Mockito.anyString());
+        verify(eventReader, times(numEventReaderInvocations)).getEventType(parsedEvent(event));
+        verify(ruleDrivenValidator, times(0)).validate(Mockito.any(ParsedEvent.class));
+        verify(modelDrivenValidator, times(0)).validate(Mockito.any(ParsedEvent.class));
         verify(messagePublisher, times(0)).publishMessage(Mockito.anyString());
     }
 
@@ -305,17 +345,97 @@ public class TestValidationController {
     public void testExecuteForNullEventType() throws Exception {
         // The implementation checks whether this is an end event
         // Given that it is not, the event is then examined to see if it is a validation candidate
-        doEventTypeTest(TESTDATA_EVENTTYPE_NULL, TEST, 2);
+        doEventTypeTest(TESTDATA_EVENTTYPE_NULL, TEST, 1);
     }
 
     @Test
     public void testExecuteForUnknownEventType() throws Exception {
-        doEventTypeTest(TESTDATA_EVENTTYPE_UNKNOWN, TEST, 2);
+        doEventTypeTest(TESTDATA_EVENTTYPE_UNKNOWN, TEST, 1);
     }
 
     @Test
     public void testExecuteForEndEventType() throws Exception {
-        doVerifyMockInteractionsTest(TESTDATA_EVENTTYPE_END_EVENT, TEST, 2);
+        doVerifyMockInteractionsTest(TESTDATA_EVENTTYPE_END_EVENT, TEST, 1);
+    }
+
+    @Test
+    public void testFilteredEventsAreNotParsed() throws Exception {
+        when(eventReader.readEventHeader(TESTDATA_EVENTTYPE_END_EVENT)).thenReturn(
+                Optional.of(new EventHeader(Optional.of(DEV_INT_1), Optional.of(CREATE), Optional.of("END-EVENT"))));
+        when(eventReader.readEventHeader(TESTDATA_EVENTACTION_DELETE)).thenReturn(
+                Optional.of(new EventHeader(Optional.of(DEV_INT_1), Optional.of(DELETE), Optional.of(AAI_EVENT))));
+        when(eventReader.readEventHeader(TESTDATA_EVENTTYPE_UNKNOWN)).thenReturn(Optional
+                .of(new EventHeader(Optional.of(DEV_INT_1), Optional.of(CREATE), Optional.of("EVENTTYPE-UNKNOWN"))));
+
+        validationController.execute(TESTDATA_EVENTTYPE_END_EVENT, TEST);
+        validationController.execute(TESTDATA_EVENTACTION_DELETE, TEST);
+        validationController.execute(TESTDATA_EVENTTYPE_UNKNOWN, TEST);
+
+        verify(eventReader, times(0)).parseEvent(TESTDATA_EVENTTYPE_END_EVENT);
+        verify(eventReader, times(0)).parseEvent(TESTDATA_EVENTACTION_DELETE);
+        verify(eventReader, times(0)).parseEvent(TESTDATA_EVENTTYPE_UNKNOWN);
+        verify(ruleDrivenValidator, times(0)).validate(Mockito.any(ParsedEvent.class));
+        verify(modelDrivenValidator, times(0)).validate(Mockito.any(ParsedEvent.class));
+        verify(messagePublisher, times(0)).publishMessage(Mockito.anyString());
+    }
+
+    @Test
+    public void testStreamedEventHeaderIsUsedForValidation() throws Exception {
+        when(eventReader.readEventHeader(TESTDATA_EVENTTYPE_AAI)).thenReturn(
+                Optional.of(new EventHeader(Optional.of(DEV_INT_1), Optional.of(CREATE), Optional.of(AAI_EVENT))));
+
+        validationController.execute(TESTDATA_EVENTTYPE_AAI, TEST);
+
+        verify(eventReader, times(1)).parseEvent(TESTDATA_EVENTTYPE_AAI);
+        verify(eventReader, times(0)).getEventType(Mockito.any(ParsedEvent.class));
+        verify(ruleDrivenValidator, times(1)).validate(parsedEvent(TESTDATA_EVENTTYPE_AAI));
+    }
+
+    @Test
+    public void testByteEventIsValidatedWithoutString() throws Exception {
+        when(eventReader.readEventHeader(Mockito.any(ByteBuffer.class))).thenReturn(
+                Optional.of(new EventHeader(Optional.of(DEV_INT_1), Optional.of(CREATE), Optional.of(AAI_EVENT))));
+        when(eventReader.parseEvent(Mockito.any(ByteBuffer.class))).thenReturn(parsedEvent(TESTDATA_EVENTTYPE_AAI));
+
+        Result result = validationController.execute(TESTDATA_EVENTTYPE_AAI.getBytes(StandardCharsets.UTF_8), TEST);
+
+        assertThat(result.validationSuccessful(), is(true));
+        verify(eventReader, times(1)).parseEvent(Mockito.any(ByteBuffer.class));
+        verify(eventReader, times(0)).parseEvent(TESTDATA_EVENTTYPE_AAI);
+        verify(ruleDrivenValidator, times(1)).validate(parsedEvent(TESTDATA_EVENTTYPE_AAI));
+    }
+
+    @Test
+    public void testLargeEventIsReadWithProjection() throws Exception {
+        when(eventReader.readEventHeader(TESTDATA_EVENTTYPE_AAI)).thenReturn(Optional.of(new EventHeader(
+                Optional.of(DEV_INT_1), Optional.of(CREATE), Optional.of(AAI_EVENT), Optional.of(VSERVER),
+                Optional.empty())));
+        when(eventReader.isLargeEvent(Mockito.anyLong())).thenReturn(true);
+        List<String> attributePaths = Collections.singletonList("prov-status");
+        when(ruleDrivenValidator.getAttributePaths(AAI_EVENT, VSERVER)).thenReturn(Optional.of(attributePaths));
+        JsonProjection projection = new JsonProjection();
+        when(eventReader.createProjection(VSERVER, Optional.empty(), attributePaths)).thenReturn(projection);
+        when(eventReader.parseEvent(TESTDATA_EVENTTYPE_AAI, projection)).thenReturn(parsedEvent(TESTDATA_EVENTTYPE_AAI));
+
+        Result result = validationController.execute(TESTDATA_EVENTTYPE_AAI, TEST);
+
+        assertThat(result.validationSuccessful(), is(true));
+        verify(eventReader, times(1)).parseEvent(TESTDATA_EVENTTYPE_AAI, projection);
+        verify(eventReader, times(0)).parseEvent(TESTDATA_EVENTTYPE_AAI);
+        verify(ruleDrivenValidator, times(1)).validate(parsedEvent(TESTDATA_EVENTTYPE_AAI));
+    }
+
+    @Test
+    public void testStreamedEventIsParsedOnce() throws Exception {
+        when(eventReader.parseEvent(Mockito.any(InputStream.class))).thenReturn(parsedEvent(TESTDATA_EVENTTYPE_AAI));
+
+        Result result = validationController.execute(
+                new ByteArrayInputStream(TESTDATA_EVENTTYPE_AAI.getBytes(StandardCharsets.UTF_8)), TEST);
+
+        assertThat(result.validationSuccessful(), is(true));
+        verify(eventReader, times(1)).parseEvent(Mockito.any(InputStream.class));
+        verify(eventReader, times(0)).parseEvent(TESTDATA_EVENTTYPE_AAI);
+        verify(ruleDrivenValidator, times(1)).validate(parsedEvent(TESTDATA_EVENTTYPE_AAI));
     }
 
     @Test
@@ -329,7 +449,7 @@ public class TestValidationController {
         when(entity.getResourceVersion()).thenReturn(Optional.of(resourceVersion));
         when(entity.getIds()).thenReturn(Collections.singletonList(entityId));
         validationController.execute(TESTDATA_EXCEPTION_EVENT, TEST);
-        verify(ruleDrivenValidator, times(1)).validate(TESTDATA_EXCEPTION_EVENT);
+        verify(ruleDrivenValidator, times(1)).validate(parsedEvent(TESTDATA_EXCEPTION_EVENT));
 
         // @formatter:off
         Violation violation = new Violation.Builder(entity)
@@ -364,7 +484,7 @@ public class TestValidationController {
     public void testExceptionDuringHandlingValidationException() throws Exception {
         // Test for exception during handling of an exception scenario
         validationController.execute(TESTDATA_HANDLE_EXCEPTION_EXCEPTION_EVENT, TEST);
-        verify(ruleDrivenValidator, times(1)).validate(TESTDATA_HANDLE_EXCEPTION_EXCEPTION_EVENT);
+        verify(ruleDrivenValidator, times(1)).validate(parsedEvent(TESTDATA_HANDLE_EXCEPTION_EXCEPTION_EVENT));
         verify(messagePublisher, times(0)).publishMessage(Mockito.anyString());
     }
 
@@ -374,13 +494,20 @@ public class TestValidationController {
         // Cant verify if the static application logger has been called.
         // This test is here for code coverage.
         validationController.execute(TESTDATA_VALIDATION_RESULT_PUBLISH_ERROR, TEST);
-        verify(ruleDrivenValidator, times(1)).validate(TESTDATA_VALIDATION_RESULT_PUBLISH_ERROR);
+        verify(ruleDrivenValidator, times(1)).validate(parsedEvent(TESTDATA_VALIDATION_RESULT_PUBLISH_ERROR));
         verify(messagePublisher, times(1)).publishMessage(
                 Mockito.contains("\"entityId\":{\"vserver-id\":\"instanceid1\"},\"entityType\":\"entitytype1\","
                         + "\"entityLink\":\"entityLink\",\"resourceVersion\":\"resourceVersion1\","
                         + "\"entity\":{},\"violations\":[]}"));
     }
 
+    /**
+     * The test events are not JSON, so each is wrapped (once) in a ParsedEvent without a document.
+     */
+    private ParsedEvent parsedEvent(String event) {
+        return parsedEvents.computeIfAbsent(event, e -> new ParsedEvent(e, null));
+    }
+
     private void setUpEntityMock(String id, String type, String resourceVersion) throws ValidationServiceException {
         when(entity.getType()).thenReturn(type);
         EntityId entityId = new EntityId("vserver-id", id);
@@ -0,0 +1,95 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import com.jayway.jsonpath.DocumentContext;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.onap.aai.validation.exception.ValidationServiceException;
+import org.onap.aai.validation.test.util.TestUtil;
+
+/**
+ * Compares the cost of reading events using each {@link JsonProviderType}. This is not a unit test; run it with the
+ * test classpath, optionally passing the event files (or test resources) and the number of iterations:
+ *
+ * <pre>
+ * java -cp ... org.onap.aai.validation.reader.JsonProviderBenchmark [iterations] [event.json ...]
+ * </pre>
+ *
+ * For each model and event the benchmark reports the mean time to parse the event and the mean time to parse it and
+ * then read every nested entity and its attributes (as the rule-driven validator does).
+ */
+public class JsonProviderBenchmark {
+
+    private static final int DEFAULT_ITERATIONS = 20000;
+    private static final List<String> DEFAULT_EVENTS = Arrays.asList("event-reader/vserver-create-event.json",
+            "event-reader/generic-vnf-create-event.json");
+    private static final List<String> ENTITY_TYPES = Arrays.asList("vserver", "generic-vnf", "l-interface");
+    private static final List<String> ATTRIBUTES = Arrays.asList("vserver-id", "resource-version", "prov-status",
+            "relationship-list.relationship[*].related-to", "relationship-list.relationship[*].relationship-data",
+            "l-interfaces.l-interface[*].interface-name");
+
+    private static volatile Object sink;
+
+    private JsonProviderBenchmark() {
+        // Not instantiated
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS;
+        List<String> events = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : DEFAULT_EVENTS;
+
+        AttributeExtractionPlan plan = new AttributeExtractionPlan(ATTRIBUTES);
+        System.out.println(String.format("%-45s %-10s %12s %12s", "event", "provider", "parse (us)", "read (us)"));
+        for (String filename : events) {
+            String json = TestUtil.getFileAsString(filename);
+            for (JsonProviderType type : JsonProviderType.values()) {
+                JsonReader jsonReader = new JsonReader(type);
+                // Warm up before measuring
+                run(jsonReader, json, plan, iterations / 2, false);
+                run(jsonReader, json, plan, iterations / 2, true);
+                double parse = run(jsonReader, json, plan, iterations, false);
+                double read = run(jsonReader, json, plan, iterations, true);
+                System.out.println(String.format("%-45s %-10s %12.2f %12.2f", filename, type, parse, read));
+            }
+        }
+    }
+
+    /**
+     * @return the mean time per iteration, in microseconds
+     */
+    private static double run(JsonReader jsonReader, String json, AttributeExtractionPlan plan, int iterations,
+            boolean readEntities) throws ValidationServiceException {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            DocumentContext document = jsonReader.parse(json);
+            sink = document;
+            if (readEntities) {
+                NestedEntityIndex index = new NestedEntityIndex(document, "$.entity", new HashSet<>(ENTITY_TYPES));
+                for (String entityType : ENTITY_TYPES) {
+                    for (String entity : index.getEntities(entityType, jsonReader).orElse(Collections.emptyList())) {
+                        sink = plan.extract(jsonReader.parse(entity), jsonReader);
+                    }
+                }
+            }
+        }
+        return (System.nanoTime() - start) / 1000.0 / iterations;
+    }
+}
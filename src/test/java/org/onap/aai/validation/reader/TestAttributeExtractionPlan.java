@@ -0,0 +1,114 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.jayway.jsonpath.DocumentContext;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.onap.aai.validation.test.util.TestUtil;
+
+/**
+ * Compare the values read using an {@link AttributeExtractionPlan} with the values read using JsonPath for each path.
+ */
+public class TestAttributeExtractionPlan {
+
+    static {
+        System.setProperty("APP_HOME", ".");
+    }
+
+    enum TestData {
+        // @formatter:off
+        SAMPLE_ENTITY ("attribute-extraction-plan/sample-entity.json"),
+        VSERVER_EVENT ("event-reader/vserver-create-event.json");
+        // @formatter:on
+
+        private String filename;
+
+        TestData(String filename) {
+            this.filename = filename;
+        }
+
+        public String getFilename() {
+            return this.filename;
+        }
+    }
+
+    private JsonReader jsonReader = new JsonReader();
+
+    @Test
+    public void testSimplePathsMatchJsonPath() throws Exception {
+        List<String> paths = Arrays.asList("string", "number", "boolean", "null-value", "object", "object.property",
+                "object.null-property", "object.missing", "missing", "missing.deeper", "null-value.deeper",
+                "string.deeper", "array", "array.c", "array[*]", "array[*].c", "array[*][*]", "array[*].c.d",
+                "objects[*].c", "objects[*].c[*]", "objects[*].l[*].m", "objects[*].l[*]", "objects[*].l", "objects.c",
+                "map[*].c", "map[*]", "map.k1[*]", "string[*]", "null-value[*]", "empty-array", "empty-array[*]",
+                "empty-object", "empty-object[*]", "missing[*]", "missing[*].c", "object[*]", "$.string",
+                "$.objects[*].c");
+        assertPlanMatchesJsonPath(readDocument(TestData.SAMPLE_ENTITY), paths, 0);
+    }
+
+    @Test
+    public void testUnplannedPathsMatchJsonPath() throws Exception {
+        List<String> paths = Arrays.asList("objects[0].c", "objects[?(@.c)].c", "$..m", "map['k1'].c", "objects[*].c");
+        assertPlanMatchesJsonPath(readDocument(TestData.SAMPLE_ENTITY), paths, 4);
+    }
+
+    @Test
+    public void testRuleAttributesMatchJsonPath() throws Exception {
+        DocumentContext event = readDocument(TestData.VSERVER_EVENT);
+        DocumentContext entity = jsonReader.parse(jsonReader.getJsonElement(event, "$.entity").toString());
+        List<String> paths = Arrays.asList("relationship-list.relationship[*]",
+                "relationship-list.relationship[*].related-to", "relationship-list.relationship[*].relationship-data",
+                "relationship-list.relationship[*].relationship-data[*].relationship-key", "vserver-name",
+                "prov-status", "resource-version", "vertex.properties.ipv4-oam-address",
+                "l-interfaces.l-interface[*].l3-interface-ipv4-address-list");
+        assertPlanMatchesJsonPath(entity, paths, 0);
+    }
+
+    @Test
+    public void testDuplicatePathsAreReadOnce() throws Exception {
+        AttributeExtractionPlan plan = new AttributeExtractionPlan(Arrays.asList("string", "$.string", "string"));
+        assertThat(plan.getAttributePaths(), is(equalTo(Arrays.asList("string", "$.string"))));
+
+        Map<String, Object> values = plan.extract(readDocument(TestData.SAMPLE_ENTITY), jsonReader);
+        assertThat(values.size(), is(2));
+        assertThat(values.get("string"), is(equalTo("x")));
+        assertThat(values.get("$.string"), is(equalTo("x")));
+    }
+
+    private void assertPlanMatchesJsonPath(DocumentContext document, List<String> paths, int unplannedPathCount) {
+        AttributeExtractionPlan plan = new AttributeExtractionPlan(paths);
+        assertThat(plan.getUnplannedPathCount(), is(unplannedPathCount));
+
+        Map<String, Object> values = plan.extract(document, jsonReader);
+        assertThat(values.size(), is(paths.size()));
+        for (String path : paths) {
+            assertThat(path, values.get(path), is(equalTo(jsonReader.getObject(document, path))));
+        }
+    }
+
+    private DocumentContext readDocument(TestData testData) throws Exception {
+        return jsonReader.parse(TestUtil.getFileAsString(testData.getFilename()));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.jayway.jsonpath.DocumentContext;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.validation.config.EventReaderConfig;
+import org.onap.aai.validation.exception.ValidationServiceException;
+import org.onap.aai.validation.reader.data.EntityId;
+
+public class TestEntityIdAccessor {
+
+    static {
+        System.setProperty("APP_HOME", ".");
+    }
+
+    private static final String SAMPLE_JSON = "{\"string\": \"x\", \"number\": 1.50, \"integer\": 1476735182,"
+            + " \"long\": 14767351820001, \"boolean\": false, \"null-value\": null, \"object\": {\"a\": 1},"
+            + " \"array\": [2.0, \"b\"], \"objects\": [{\"c\": \"d\"}], \"nested\": [[1, 2]], \"empty-array\": [],"
+            + " \"parent\": {\"child\": {\"property\": \"value\"}, \"null-child\": null}}";
+
+    private JsonReader jsonReader = new JsonReader();
+    private EventReaderConfig config;
+
+    @Before
+    public void setUp() {
+        config = new EventReaderConfig();
+        config.setEntityIdPath("$.{0},$.vertex.properties.{0}");
+    }
+
+    @Test
+    public void testPropertyPathMatchesJsonPath() throws Exception {
+        DocumentContext document = jsonReader.parse(SAMPLE_JSON);
+        for (String path : Arrays.asList("$.string", "$.number", "$.integer", "$.long", "$.boolean", "$.null-value",
+                "$.object", "$.array", "$.objects", "$.nested", "$.empty-array", "$.missing", "$.parent.child.property",
+                "$.parent.child", "$.parent.null-child.property", "$.string.property", "$.array.property",
+                "$.parent.missing.property", "$.array[1]", "$.objects[*].c")) {
+            assertThat(path, new PropertyPath(path, jsonReader).read(document),
+                    is(equalTo(jsonReader.getAsList(document, path).stream().findFirst())));
+        }
+    }
+
+    @Test
+    public void testReadIdsFromPlainEntity() throws Exception {
+        EntityIdAccessor accessor = new EntityIdAccessor(Arrays.asList("vserver-id"), config, jsonReader);
+        List<EntityId> ids = accessor.getIds(jsonReader.parse("{\"vserver-id\": \"vs1\"}"));
+        assertThat(ids, is(Arrays.asList(new EntityId("vserver-id", "vs1"))));
+    }
+
+    @Test
+    public void testReadCompositeIdsFromVertexProperties() throws Exception {
+        EntityIdAccessor accessor = new EntityIdAccessor(Arrays.asList("key1", "key2"), config, jsonReader);
+        List<EntityId> ids = accessor.getIds(
+                jsonReader.parse("{\"vertex\": {\"properties\": {\"key1\": \"value1\", \"key2\": 2}}}"));
+        assertThat(ids, is(Arrays.asList(new EntityId("key1", "value1"), new EntityId("key2", "2"))));
+    }
+
+    @Test
+    public void testAlternativeLayoutIsUsedWhenKeyIsMissing() throws Exception {
+        EntityIdAccessor accessor = new EntityIdAccessor(Arrays.asList("key1", "key2"), config, jsonReader);
+        List<EntityId> ids = accessor.getIds(
+                jsonReader.parse("{\"key1\": \"value1\", \"vertex\": {\"properties\": {\"key2\": \"value2\"}}}"));
+        assertThat(ids, is(Arrays.asList(new EntityId("key1", "value1"), new EntityId("key2", "value2"))));
+    }
+
+    @Test(expected = ValidationServiceException.class)
+    public void testMissingKey() throws Exception {
+        new EntityIdAccessor(Arrays.asList("key1"), config, jsonReader).getIds(jsonReader.parse("{\"key2\": 1}"));
+    }
+}
@@ -23,12 +23,20 @@ package org.onap.aai.validation.reader;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
+import com.jayway.jsonpath.DocumentContext;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -37,8 +45,11 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.onap.aai.validation.exception.ValidationServiceException;
+import org.onap.aai.validation.reader.data.AttributeValues;
 import org.onap.aai.validation.reader.data.Entity;
 import org.onap.aai.validation.reader.data.EntityId;
+import org.onap.aai.validation.reader.data.EventHeader;
+import org.onap.aai.validation.reader.data.ParsedEvent;
 import org.onap.aai.validation.test.util.TestUtil;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
@@ -159,6 +170,132 @@ public class TestEventReader {
         assertThat(id, is("VAPP-1581"));
     }
 
+    @Test
+    public void testReadParsedEvent() throws Exception {
+        ParsedEvent event = eventReader.parseEvent(vserverEvent);
+
+        assertThat(event.getJson(), is(vserverEvent));
+        assertThat(eventReader.getEventDomain(event).get(), is("devINT1"));
+        assertThat(eventReader.getEventAction(event).get(), is("CREATE"));
+        assertThat(eventReader.getEventType(event).get(), is("AAI-EVENT"));
+        assertThat(eventReader.getEntityType(event).get(), is("vserver"));
+
+        Entity entity = eventReader.getEntity(event);
+        assertThat(entity.getJson(), is(eventReader.getEntity(vserverEvent).getJson()));
+        assertThat(entity.getEntityLink(), is(eventReader.getEntity(vserverEvent).getEntityLink()));
+    }
+
+    @Test
+    public void testInitialiseCompilesConfiguredPaths() throws Exception {
+        eventReader.initialise();
+
+        Entity entity = eventReader.getEntity(eventReader.parseEvent(vserverEvent));
+        assertThat(entity.getType(), is("vserver"));
+    }
+
+    @Test
+    public void testReadEventHeader() throws Exception {
+        EventHeader header = eventReader.readEventHeader(vserverEvent).get();
+
+        assertThat(header.getDomain().get(), is("devINT1"));
+        assertThat(header.getAction().get(), is("CREATE"));
+        assertThat(header.getEventType().get(), is("AAI-EVENT"));
+        assertThat(header.getEntityType().get(), is("vserver"));
+        assertThat(header.getTopEntityType().get(), is("cloud-region"));
+    }
+
+    @Test
+    public void testReadEventHeaderFromBytes() throws Exception {
+        ByteBuffer event = ByteBuffer.wrap(vserverEvent.getBytes(StandardCharsets.UTF_8));
+        EventHeader header = eventReader.readEventHeader(event).get();
+
+        assertThat(header.getDomain().get(), is("devINT1"));
+        assertThat(header.getAction().get(), is("CREATE"));
+        assertThat(header.getEventType().get(), is("AAI-EVENT"));
+        assertThat(event.position(), is(0));
+    }
+
+    @Test
+    public void testParseEventFromBytes() throws Exception {
+        byte[] bytes = vserverEvent.getBytes(StandardCharsets.UTF_8);
+        for (ParsedEvent event : Arrays.asList(eventReader.parseEvent(bytes),
+                eventReader.parseEvent(ByteBuffer.wrap(bytes)),
+                eventReader.parseEvent(new ByteArrayInputStream(bytes)))) {
+            assertThat(eventReader.getEventType(event).get(), is("AAI-EVENT"));
+            Entity entity = eventReader.getEntity(event);
+            assertThat(entity.getIds(), is(eventReader.getEntity(vserverEvent).getIds()));
+            assertThat(new JsonParser().parse(event.getJson()), is(new JsonParser().parse(vserverEvent)));
+        }
+    }
+
+    @Test
+    public void testParseLargeEventWithProjection() throws Exception {
+        List<String> attributePaths = Arrays.asList("vserver-name", "prov-status",
+                "relationship-list.relationship[*].related-to", "l-interfaces.l-interface[*].interface-name");
+        JsonProjection projection =
+                eventReader.createProjection("vserver", Optional.of("cloud-region"), attributePaths);
+        byte[] bytes = vserverEvent.getBytes(StandardCharsets.UTF_8);
+        Entity expected = eventReader.getEntity(vserverEvent);
+        AttributeValues expectedValues = expected.getAttributeValues(attributePaths);
+
+        for (ParsedEvent event : Arrays.asList(eventReader.parseEvent(vserverEvent, projection),
+                eventReader.parseEvent(ByteBuffer.wrap(bytes), projection))) {
+            assertThat(event.isProjected(), is(true));
+            assertThat(event.getRetainedSize(), is(greaterThan(0L)));
+            assertThat(event.getJson().length(), is(lessThan(vserverEvent.length())));
+            assertThat(eventReader.getEntityType(event).get(), is("vserver"));
+
+            Entity entity = eventReader.getEntity(event);
+            assertThat(entity.getIds(), is(expected.getIds()));
+            assertThat(entity.getResourceVersion(), is(expected.getResourceVersion()));
+            assertThat(entity.getEntityLink(), is(expected.getEntityLink()));
+            AttributeValues values = entity.getAttributeValues(attributePaths);
+            for (String path : attributePaths) {
+                assertThat(path, values.get(path), is(equalTo(expectedValues.get(path))));
+            }
+        }
+    }
+
+    @Test
+    public void testIsLargeEvent() throws Exception {
+        long threshold = eventReader.getEventReaderConfig().getLargeEventThreshold();
+        try {
+            eventReader.getEventReaderConfig().setLargeEventThreshold(0);
+            assertThat(eventReader.isLargeEvent(Long.MAX_VALUE), is(false));
+            eventReader.getEventReaderConfig().setLargeEventThreshold(100);
+            assertThat(eventReader.isLargeEvent(99), is(false));
+            assertThat(eventReader.isLargeEvent(100), is(true));
+            assertThat(eventReader.isLargeEvent(-1), is(false));
+        } finally {
+            eventReader.getEventReaderConfig().setLargeEventThreshold(threshold);
+        }
+    }
+
+    @Test(expected = ValidationServiceException.class)
+    public void testParseMalformedEventFromBytes() throws Exception {
+        eventReader.parseEvent("{\"event-header\": ".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testReadEventHeaderWithMissingEventType() throws Exception {
+        EventHeader header = eventReader.readEventHeader(invalidEvent1).get();
+
+        assertThat(header.getEventType().isPresent(), is(false));
+        assertThat(header.getEventType(), is(eventReader.getEventType(invalidEvent1)));
+    }
+
+    @Test
+    public void testReadEventHeaderFromUnrecognisableEvent() throws Exception {
+        assertThat(eventReader.readEventHeader("this-is-not-an-event-but-is-valid-json").isPresent(), is(false));
+        assertThat(eventReader.readEventHeader("{\"event-header\": [1, 2]}").isPresent(), is(false));
+        assertThat(eventReader.readEventHeader("{\"event-header\": {\"event-type\": ").isPresent(), is(false));
+    }
+
+    @Test(expected = ValidationServiceException.class)
+    public void testParseMalformedEvent() throws Exception {
+        eventReader.parseEvent("this is malformed");
+    }
+
     @Test
     public void testEntityLink() throws Exception {
         Entity entity = eventReader.getEntity(vserverEvent);
@@ -196,6 +333,27 @@ public class TestEventReader {
         eventReader.getEntity(invalidEvent4);
     }
 
+    @Test
+    public void testGetAllNestedEntities() throws Exception {
+        List<Entity> entities = eventReader.getEntities(eventReader.parseEvent(invalidEvent4));
+
+        assertThat(entities, hasSize(2));
+        assertThat(entities.get(0).getType(), is("vserver"));
+        assertThat(entities.get(0).getIds().get(0).getValue(), is("!!!!!  TOO_MANY_ENTITIES !!!!!"));
+        assertThat(entities.get(1).getIds().get(0).getValue(), is("example-vserver-id-val-34666"));
+    }
+
+    @Test
+    public void testNestedEntityIndexIsBuiltOnce() throws Exception {
+        ParsedEvent event = eventReader.parseEvent(vserverEvent);
+        eventReader.getEntity(event);
+        NestedEntityIndex index = event.getNestedEntityIndex();
+
+        assertThat(index, is(notNullValue()));
+        assertThat(eventReader.getEntities(event), hasSize(1));
+        assertThat(event.getNestedEntityIndex(), is(sameInstance(index)));
+    }
+
     @Test
     public void testGetEntityIds() throws Exception {
         Entity entity = eventReader.getEntity(vserverEvent);
@@ -251,6 +409,19 @@ public class TestEventReader {
         assertThat(resourceVersion.get(), is("1464193654"));
     }
 
+    @Test
+    public void testEntityDocumentIsSharedByLookups() throws Exception {
+        Entity entity = eventReader.getEntity(vserverEvent);
+        DocumentContext document = entity.getDocument();
+
+        assertThat(entity.getResourceVersion().get(), is("1464193654"));
+        assertThat(entity.getIds(), hasSize(1));
+        AttributeValues values = entity.getAttributeValues(Arrays.asList("vserver-id", "resource-version"));
+        assertThat(values.get("vserver-id"), is("example-vserver-id-val-34666"));
+        assertThat(values.get("resource-version"), is("1464193654"));
+        assertThat(entity.getDocument(), is(sameInstance(document)));
+    }
+
     @Test
     public void testGetResourceVersionMissing() throws Exception {
         Entity entity = eventReader.getEntity(invalidEvent5);
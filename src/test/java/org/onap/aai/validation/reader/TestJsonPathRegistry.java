@@ -0,0 +1,56 @@
+/**
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018-2019 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.jayway.jsonpath.JsonPath;
+import java.util.Arrays;
+import org.junit.Test;
+import org.onap.aai.validation.exception.ValidationServiceException;
+
+public class TestJsonPathRegistry {
+
+    @Test
+    public void testRegisteredPathIsReused() throws ValidationServiceException {
+        JsonPathRegistry registry = new JsonPathRegistry();
+        JsonPath path = registry.register("$.entity.vserver-id");
+        assertThat(registry.isRegistered("$.entity.vserver-id"), is(true));
+        assertThat(registry.get("$.entity.vserver-id"), is(sameInstance(path)));
+    }
+
+    @Test
+    public void testUnregisteredPathsAreNotRetainedByTheRegistry() throws ValidationServiceException {
+        JsonPathRegistry registry = new JsonPathRegistry();
+        registry.registerAll(Arrays.asList("$.event-header", "$.entity"));
+
+        for (int i = 0; i < 1000; i++) {
+            String path = "$.entity.tenants.tenant[?(@.tenant-id == 'tenant" + i + "')]";
+            assertThat(registry.get(path).getPath(), is(JsonPath.compile(path).getPath()));
+            assertThat(registry.isRegistered(path), is(false));
+        }
+        assertThat(registry.size(), is(2));
+    }
+
+    @Test(expected = ValidationServiceException.class)
+    public void testInvalidPathIsRejected() throws ValidationServiceException {
+        new JsonPathRegistry().register("$.entity[?(@.vserver-id ==");
+    }
+}
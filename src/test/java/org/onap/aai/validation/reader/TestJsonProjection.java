@@ -0,0 +1,128 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import com.jayway.jsonpath.DocumentContext;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.onap.aai.validation.exception.ValidationServiceException;
+import org.onap.aai.validation.test.util.TestUtil;
+
+/**
+ * Compare the values read from a projected document with the values read from the full document.
+ */
+public class TestJsonProjection {
+
+    static {
+        System.setProperty("APP_HOME", ".");
+    }
+
+    private static final String VSERVER_EVENT = "event-reader/vserver-create-event.json";
+    private static final String SAMPLE_ENTITY = "attribute-extraction-plan/sample-entity.json";
+
+    private JsonReader jsonReader = new JsonReader();
+
+    @Test
+    public void testRetainedPathsMatchFullDocument() throws Exception {
+        List<String> paths = Arrays.asList("$.string", "$.number", "$.boolean", "$.null-value", "$.object.property",
+                "$.missing", "$.array[*]", "$.objects[*].c", "$.objects[*].l[*].m", "$.map[*].c", "$.map.k1[*]",
+                "$.empty-array", "$.empty-object", "$..m", "$.object.*");
+        String json = TestUtil.getFileAsString(SAMPLE_ENTITY);
+        for (String path : paths) {
+            assertProjectionMatches(json, new JsonProjection().retain(path), Arrays.asList(path));
+        }
+        JsonProjection projection = new JsonProjection();
+        paths.forEach(projection::retain);
+        assertProjectionMatches(json, projection, paths);
+    }
+
+    @Test
+    public void testUnsupportedPathRetainsWholeDocument() throws Exception {
+        String json = TestUtil.getFileAsString(SAMPLE_ENTITY);
+        JsonProjection projection = new JsonProjection().retain("$.objects[0].c");
+        DocumentContext projected = jsonReader.parse(projection.read(new StringReader(json), 0).getJson());
+        assertThat(projected.jsonString(), is(equalTo(jsonReader.parse(json).jsonString())));
+    }
+
+    @Test
+    public void testNestedEntityScope() throws Exception {
+        String json = TestUtil.getFileAsString(VSERVER_EVENT);
+        List<String> entityPaths = Arrays.asList("vserver-id", "resource-version", "vserver-name", "prov-status",
+                "relationship-list.relationship[*].related-to",
+                "l-interfaces.l-interface[*].l3-interface-ipv4-address-list", "$.vertex.properties.vserver-id");
+        JsonProjection projection = new JsonProjection().retain("$.event-header.entity-type");
+        JsonProjection.Scope scope = projection.scope("$.entity..vserver[*]");
+        entityPaths.forEach(scope::retain);
+
+        DocumentContext full = jsonReader.parse(json);
+        JsonProjection.Result result = projection.read(new StringReader(json), 0);
+        DocumentContext projected = jsonReader.parse(result.getJson());
+        assertThat((long) projected.jsonString().length(), is(lessThan((long) json.length())));
+
+        List<String> fullEntities = jsonReader.getAsList(full, "$.entity..vserver[*]");
+        List<String> projectedEntities = jsonReader.getAsList(projected, "$.entity..vserver[*]");
+        assertThat(projectedEntities.size(), is(fullEntities.size()));
+        for (int i = 0; i < fullEntities.size(); i++) {
+            DocumentContext fullEntity = jsonReader.parse(fullEntities.get(i));
+            DocumentContext projectedEntity = jsonReader.parse(projectedEntities.get(i));
+            for (String path : entityPaths) {
+                assertThat(path, jsonReader.getObject(projectedEntity, path),
+                        is(equalTo(jsonReader.getObject(fullEntity, path))));
+            }
+        }
+        assertThat(jsonReader.getAsList(projected, "$.event-header.entity-type"),
+                is(equalTo(jsonReader.getAsList(full, "$.event-header.entity-type"))));
+        assertThat(jsonReader.getAsList(projected, "$.event-header.domain").isEmpty(), is(true));
+    }
+
+    @Test
+    public void testEmptyScopeIsRetained() throws Exception {
+        JsonProjection projection = new JsonProjection();
+        projection.scope("$.entity").retain("missing");
+        DocumentContext projected = jsonReader.parse(
+                projection.read(new StringReader("{\"entity\": {\"a\": 1}, \"other\": 2}"), 0).getJson());
+        assertThat(projected.jsonString(), is("{\"entity\":{}}"));
+    }
+
+    @Test(expected = ValidationServiceException.class)
+    public void testRetainedSizeLimit() throws Exception {
+        String json = TestUtil.getFileAsString(VSERVER_EVENT);
+        new JsonProjection().retain("$.entity").read(new StringReader(json), 1000);
+    }
+
+    @Test(expected = ValidationServiceException.class)
+    public void testMalformedJson() throws Exception {
+        new JsonProjection().retain("$.entity").read(new StringReader("{\"entity\": {"), 0);
+    }
+
+    private void assertProjectionMatches(String json, JsonProjection projection, List<String> paths)
+            throws ValidationServiceException {
+        DocumentContext full = jsonReader.parse(json);
+        DocumentContext projected = jsonReader.parse(projection.read(new StringReader(json), 0).getJson());
+        for (String path : paths) {
+            assertThat(path, jsonReader.getObject(projected, path), is(equalTo(jsonReader.getObject(full, path))));
+        }
+    }
+}
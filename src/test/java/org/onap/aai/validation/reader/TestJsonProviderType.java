@@ -0,0 +1,165 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.spi.json.GsonJsonProvider;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.onap.aai.validation.test.util.TestUtil;
+
+/**
+ * Compare the values read using each JSON tree model with those read using the (default) Gson model.
+ */
+public class TestJsonProviderType {
+
+    static {
+        System.setProperty("APP_HOME", ".");
+    }
+
+    private static final String SAMPLE_ENTITY = "attribute-extraction-plan/sample-entity.json";
+    private static final String VSERVER_EVENT = "event-reader/vserver-create-event.json";
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?([eE][-+]?\\d+)?");
+
+    private static final List<String> PATHS = Arrays.asList("$.string", "$.number", "$.boolean", "$.null-value",
+            "$.object", "$.object.property", "$.object.null-property", "$.missing", "$.array", "$.array[*]",
+            "$.objects[*].c", "$.objects[*].l[*].m", "$.map[*].c", "$.map.k1", "$.empty-array", "$.empty-object",
+            "$..m", "$.objects[?(@.c == '1')].l[0].m");
+
+    private JsonReader gsonReader = new JsonReader();
+
+    @Test
+    public void testReaderDoesNotChangeJsonPathDefaults() {
+        new JsonReader(JsonProviderType.GSON);
+        assertThat(Configuration.defaultConfiguration().jsonProvider(), is(not(instanceOf(GsonJsonProvider.class))));
+    }
+
+    @Test
+    public void testValuesMatchGson() throws Exception {
+        String json = TestUtil.getFileAsString(SAMPLE_ENTITY);
+        DocumentContext expected = gsonReader.parse(json);
+        for (JsonProviderType type : JsonProviderType.values()) {
+            JsonReader jsonReader = new JsonReader(type);
+            DocumentContext document = jsonReader.parse(json);
+            for (String path : PATHS) {
+                String reason = type + " " + path;
+                assertThat(reason, normalise(jsonReader.getObject(document, path)),
+                        is(equalTo(normalise(gsonReader.getObject(expected, path)))));
+                assertThat(reason, normalise(jsonReader.getAsList(document, path)),
+                        is(equalTo(normalise(gsonReader.getAsList(expected, path)))));
+            }
+        }
+    }
+
+    @Test
+    public void testObjectsArePresentedAsGson() throws Exception {
+        for (JsonProviderType type : JsonProviderType.values()) {
+            JsonReader jsonReader = new JsonReader(type);
+            DocumentContext document = jsonReader.parse(TestUtil.getFileAsString(SAMPLE_ENTITY));
+            Object object = jsonReader.getObject(document, "$.object");
+            assertThat(type.name(), object, is(instanceOf(JsonObject.class)));
+            assertThat(type.name(), ((JsonObject) object).get("property").getAsString(), is("q"));
+            assertThat(type.name(), jsonReader.getJsonElement(document).getAsJsonObject().has("string"), is(true));
+        }
+    }
+
+    @Test
+    public void testAttributeExtractionPlanMatchesGson() throws Exception {
+        String json = TestUtil.getFileAsString(SAMPLE_ENTITY);
+        AttributeExtractionPlan plan = new AttributeExtractionPlan(PATHS);
+        Map<String, Object> expected = plan.extract(gsonReader.parse(json), gsonReader);
+        for (JsonProviderType type : JsonProviderType.values()) {
+            JsonReader jsonReader = new JsonReader(type);
+            Map<String, Object> values = plan.extract(jsonReader.parse(json), jsonReader);
+            for (String path : PATHS) {
+                assertThat(type + " " + path, normalise(values.get(path)), is(equalTo(normalise(expected.get(path)))));
+            }
+        }
+    }
+
+    @Test
+    public void testEntitiesMatchGson() throws Exception {
+        String json = TestUtil.getFileAsString(VSERVER_EVENT);
+        List<String> types = Arrays.asList("vserver", "l-interface", "relationship");
+        NestedEntityIndex expected = new NestedEntityIndex(gsonReader.parse(json), "$.entity", new HashSet<>(types));
+        for (JsonProviderType type : JsonProviderType.values()) {
+            JsonReader jsonReader = new JsonReader(type);
+            DocumentContext document = jsonReader.parse(json);
+            NestedEntityIndex index = new NestedEntityIndex(document, "$.entity", new HashSet<>(types));
+            for (String entityType : types) {
+                List<JsonElement> entities = parseAll(expected.getEntities(entityType, gsonReader).get());
+                assertThat(type + " " + entityType, parseAll(index.getEntities(entityType, jsonReader).get()),
+                        is(equalTo(entities)));
+                assertThat(type + " " + entityType,
+                        parseAll(jsonReader.getAsList(document, "$.entity.." + entityType + "[*]")),
+                        is(equalTo(entities)));
+            }
+
+            PropertyPath path = new PropertyPath("$.vserver-id", jsonReader);
+            DocumentContext vserver = jsonReader.parse(index.getEntities("vserver", jsonReader).get().get(0));
+            assertThat(type.name(), path.read(vserver).get(), is("example-vserver-id-val-34666"));
+        }
+    }
+
+    private List<JsonElement> parseAll(List<String> json) {
+        return json.stream().map(new JsonParser()::parse).collect(Collectors.toList());
+    }
+
+    /**
+     * Gson retains the text of numbers, returns JSON nulls as JsonNull and omits null properties from objects, whereas
+     * the other models render numbers from their parsed values and return nulls as null. Serialised objects are
+     * compared as parsed objects.
+     */
+    private Object normalise(Object value) {
+        if (value instanceof JsonObject) {
+            JsonObject object = new JsonObject();
+            for (Entry<String, JsonElement> entry : ((JsonObject) value).entrySet()) {
+                if (!entry.getValue().isJsonNull()) {
+                    object.add(entry.getKey(), (JsonElement) normalise(entry.getValue()));
+                }
+            }
+            return object;
+        } else if (value instanceof List) {
+            return ((List<?>) value).stream().map(this::normalise).collect(Collectors.toList());
+        } else if (value instanceof JsonElement && ((JsonElement) value).isJsonNull() || "null".equals(value)) {
+            return null;
+        } else if (value instanceof String && ((String) value).startsWith("{")) {
+            return normalise(new JsonParser().parse((String) value));
+        } else if (value instanceof String && NUMBER.matcher((String) value).matches()) {
+            return new BigDecimal((String) value).stripTrailingZeros();
+        }
+        return value;
+    }
+}
@@ -18,12 +18,21 @@
 package org.onap.aai.validation.reader;
 
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
+import com.google.gson.JsonNull;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import org.onap.aai.validation.util.JsonUtil;
 import org.junit.Test;
+import org.onap.aai.validation.exception.ValidationServiceException;
 import org.onap.aai.validation.test.util.TestUtil;
 
 public class TestJsonReader {
@@ -54,6 +63,21 @@ public class TestJsonReader {
         assertThat(result.get(0), is("vserver"));
     }
 
+    @Test
+    public void testGetStringUsingCompiledPath() throws Exception {
+        String json = TestUtil.getFileAsString(TestData.SAMPLE_JSON.getFilename());
+        JsonReader jsonReader = new JsonReader();
+        JsonPath path = jsonReader.compile("$.event-header.entity-type");
+        List<String> result = jsonReader.getAsList(jsonReader.parse(json), path);
+        assertThat(result.get(0), is("vserver"));
+        assertThat(jsonReader.compile("$.event-header.entity-type"), is(sameInstance(path)));
+    }
+
+    @Test(expected = ValidationServiceException.class)
+    public void testCompileInvalidPath() throws Exception {
+        new JsonReader().compile("$.event-header..");
+    }
+
     @Test
     public void testGetInteger() throws Exception {
         String json = TestUtil.getFileAsString(TestData.SAMPLE_JSON.getFilename());
@@ -88,6 +112,51 @@ public class TestJsonReader {
         assertThat(result, is(Arrays.asList("one")));
     }
 
+    @Test
+    public void testGsonArrayElementsRetainTheDocumentText() throws Exception {
+        JsonReader jsonReader = new JsonReader();
+        DocumentContext document = jsonReader
+                .parse("{\"array\": [1.50, 1e3, -2000000000000, null, \"s\", true, {\"a\": 1}, [1.0, null]]}");
+        assertThat(jsonReader.getAsList(document, "$.array"), is(Arrays.asList("1.50", "1e3", "-2000000000000",
+                "null", "s", "true", "{\"a\":1}", "[1.0, null]")));
+        assertThat(jsonReader.getAsList(document, "$.array[0]"), is(Arrays.asList("1.50")));
+    }
+
+    @Test
+    public void testGsonArrayViewRetainsTheDocumentText() throws Exception {
+        JsonReader jsonReader = new JsonReader();
+        DocumentContext document = jsonReader.parse("{\"array\": [1.50, -2000000000000, null, [1e3, null]]}");
+        assertThat(jsonReader.getObject(document, "$.array"), is(Arrays.asList("1.50", "-2000000000000",
+                JsonNull.INSTANCE, Arrays.asList("1e3", JsonNull.INSTANCE))));
+    }
+
+    @Test
+    public void testGetArrayAsReadOnlyView() throws Exception {
+        for (JsonProviderType type : JsonProviderType.values()) {
+            JsonReader jsonReader = new JsonReader(type);
+            DocumentContext document = jsonReader.parse("{\"array\": [\"one\", null, [\"two\", true]]}");
+            Object array = jsonReader.getObject(document, "$.array");
+            assertThat(type.name(), array, is(instanceOf(JsonArrayView.class)));
+
+            // The view is equal to a List of the converted elements (Gson presents a JSON null as JsonNull)
+            Object jsonNull = type == JsonProviderType.GSON ? JsonNull.INSTANCE : null;
+            List<Object> expected = new ArrayList<>(Arrays.asList("one", jsonNull, Arrays.asList("two", "true")));
+            assertThat(type.name(), array, is(expected));
+            assertThat(type.name(), array.hashCode(), is(expected.hashCode()));
+            assertThat(type.name(), array.toString(), is("[one, null, [two, true]]"));
+            assertThat(type.name(), JsonUtil.toJson(Collections.singletonMap("array", array)),
+                    is("{\"array\":[\"one\",null,[\"two\",\"true\"]]}"));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testArrayViewCannotBeChanged() throws Exception {
+        JsonReader jsonReader = new JsonReader();
+        @SuppressWarnings("unchecked")
+        List<Object> array = (List<Object>) jsonReader.getObject(jsonReader.parse("{\"array\": [\"one\"]}"), "$.array");
+        array.add("two");
+    }
+
     @Test
     public void testGetWithInvalidPath() throws Exception {
         String json = TestUtil.getFileAsString(TestData.SAMPLE_JSON.getFilename());
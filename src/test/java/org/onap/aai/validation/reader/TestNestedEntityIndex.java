@@ -0,0 +1,89 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.reader;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.jayway.jsonpath.DocumentContext;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.Test;
+import org.onap.aai.validation.test.util.TestUtil;
+
+/**
+ * Compare the entities read from a {@link NestedEntityIndex} with those found by the JsonPath deep scan.
+ */
+public class TestNestedEntityIndex {
+
+    static {
+        System.setProperty("APP_HOME", ".");
+    }
+
+    private static final String ENTITY_PATH = "$.entity";
+    private static final String NESTED_ENTITY_PATH = "$.entity..{0}[*]";
+
+    private static final String NESTED_JSON = "{\"entity\": {\"a\": [{\"id\": 1, \"a\": [{\"id\": 2}]}, {\"id\": 3}],"
+            + " \"b\": {\"k1\": {\"id\": 4}, \"k2\": 1.50, \"k3\": null}, \"c\": \"primitive\", \"d\": null,"
+            + " \"list\": [[{\"a\": [{\"id\": 5}], \"e\": []}], {\"b\": [6, \"x\", null]}]}, \"a\": [{\"id\": 0}]}";
+
+    private JsonReader jsonReader = new JsonReader();
+
+    @Test
+    public void testSupportedPaths() {
+        assertThat(NestedEntityIndex.supports(NESTED_ENTITY_PATH, ENTITY_PATH), is(true));
+        assertThat(NestedEntityIndex.supports("$.event.entity..{0}[*]", "$.event.entity"), is(true));
+        assertThat(NestedEntityIndex.supports("$.entity..{0}", ENTITY_PATH), is(false));
+        assertThat(NestedEntityIndex.supports("$.other..{0}[*]", ENTITY_PATH), is(false));
+        assertThat(NestedEntityIndex.supports("$..{0}[*]", "$"), is(false));
+    }
+
+    @Test
+    public void testIndexMatchesJsonPath() throws Exception {
+        assertIndexMatchesJsonPath(jsonReader.parse(NESTED_JSON), "a", "b", "c", "d", "e", "id", "missing");
+    }
+
+    @Test
+    public void testIndexMatchesJsonPathForEvents() throws Exception {
+        for (String filename : Arrays.asList("event-reader/vserver-create-event.json",
+                "event-reader/invalid-event-4.json", "event-reader/generic-vnf-create-event.json")) {
+            assertIndexMatchesJsonPath(jsonReader.parse(TestUtil.getFileAsString(filename)), "vserver", "tenant",
+                    "volume", "l-interface", "vlan", "relationship", "generic-vnf");
+        }
+    }
+
+    @Test
+    public void testTypeNotIndexed() throws Exception {
+        NestedEntityIndex index =
+                new NestedEntityIndex(jsonReader.parse(NESTED_JSON), ENTITY_PATH, new HashSet<>(Arrays.asList("a")));
+        assertThat(index.getEntities("b", jsonReader), is(Optional.empty()));
+    }
+
+    private void assertIndexMatchesJsonPath(DocumentContext document, String... entityTypes) {
+        Set<String> types = new HashSet<>(Arrays.asList(entityTypes));
+        NestedEntityIndex index = new NestedEntityIndex(document, ENTITY_PATH, types);
+        for (String type : types) {
+            String path = NESTED_ENTITY_PATH.replace("{0}", type);
+            assertThat(type, index.getEntities(type, jsonReader).get(),
+                    is(equalTo(jsonReader.getAsList(document, path))));
+        }
+    }
+}
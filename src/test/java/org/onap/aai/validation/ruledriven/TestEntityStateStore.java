@@ -0,0 +1,167 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+import org.onap.aai.validation.reader.data.AttributeValues;
+import org.onap.aai.validation.result.Violation;
+import org.onap.aai.validation.ruledriven.EntityStateStore.EntityState;
+import org.onap.aai.validation.ruledriven.configuration.RuleSection;
+import org.onap.aai.validation.ruledriven.rule.GroovyRule;
+import org.onap.aai.validation.ruledriven.rule.Rule;
+
+/**
+ * Tests for finding the rules to evaluate again when an entity is updated.
+ */
+public class TestEntityStateStore {
+
+    static {
+        System.setProperty("APP_HOME", ".");
+    }
+
+    private static final String KEY = "AAI-EVENT|/vservers/vserver/v1|vserver|vserver-id=v1";
+
+    private final List<Rule> rules = new ArrayList<>();
+    private RuleDependencies dependencies;
+
+    @Test
+    public void testOnlyRulesReadingChangedAttributesAreExecuted() throws Exception {
+        createRules();
+        EntityState state = createState(Optional.empty(), values("a1", "b1", Arrays.asList("c1")), new BitSet());
+
+        assertThat(state.getRulesToExecute(snapshot(values("a1", "b1", Arrays.asList("c1"))), dependencies),
+                is(bits()));
+        assertThat(state.getRulesToExecute(snapshot(values("a2", "b1", Arrays.asList("c1"))), dependencies),
+                is(bits(0, 1)));
+        assertThat(state.getRulesToExecute(snapshot(values("a1", "b1", Arrays.asList("c1", "c2"))), dependencies),
+                is(bits(2)));
+        assertThat(state.getRulesToExecute(snapshot(values("a1", null, Arrays.asList("c1"))), dependencies),
+                is(bits(1)));
+    }
+
+    @Test
+    public void testRulesWithoutAStoredOutcomeAreExecuted() throws Exception {
+        createRules();
+        rules.add(buildRule("System.currentTimeMillis() > 0 && a != null", "a"));
+        dependencies = new RuleDependencies(Arrays.asList("a", "b", "c"), rules);
+        EntityState state = createState(Optional.empty(), values("a1", "b1", "c1"), bits(2));
+
+        // The third rule has no stored outcome and the fourth rule is not pure
+        assertThat(state.getRulesToExecute(snapshot(values("a1", "b1", "c1")), dependencies), is(bits(2, 3)));
+
+        // An attribute which cannot be compared is always treated as changed
+        assertThat(state.getRulesToExecute(snapshot(values("a1", new JsonObject(), "c1")), dependencies),
+                is(bits(1, 2, 3)));
+    }
+
+    @Test
+    public void testStateIsOnlyReusedForTheSameRules() throws Exception {
+        createRules();
+        EntityStateStore store = new EntityStateStore(100_000);
+        store.putState(KEY, createState(Optional.of("100"), values("a1", "b1", "c1"), new BitSet()), -1);
+
+        assertThat(store.getState(KEY, rules, Optional.of("200")).isPresent(), is(true));
+        assertThat(store.getState("other", rules, Optional.of("200")).isPresent(), is(false));
+        assertThat(store.getState(KEY, new ArrayList<>(rules), Optional.of("200")).isPresent(), is(false));
+
+        store.removeState(KEY);
+        assertThat(store.getState(KEY, rules, Optional.of("200")).isPresent(), is(false));
+    }
+
+    @Test
+    public void testLaterResourceVersionIsNotReplaced() throws Exception {
+        createRules();
+        EntityStateStore store = new EntityStateStore(100_000);
+        EntityState later = createState(Optional.of("200"), values("a2", "b1", "c1"), new BitSet());
+        store.putState(KEY, later, -1);
+
+        // An event for an earlier resource version is validated in full and does not replace the stored state
+        assertThat(store.getState(KEY, rules, Optional.of("100")).isPresent(), is(false));
+        store.putState(KEY, createState(Optional.of("100"), values("a1", "b1", "c1"), new BitSet()), -1);
+        assertThat(store.getState(KEY, rules, Optional.of("200")).get(), is(later));
+
+        store.putState(KEY, createState(Optional.of("300"), values("a3", "b1", "c1"), new BitSet()), 2);
+        assertThat(store.getState(KEY, rules, Optional.of("300")).get() == later, is(false));
+        assertThat(store.getStatusReport(),
+                containsString("incremental validations=1 full validations=2 stale events=1 rules reused=1"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntitiesAreEvicted() throws Exception {
+        createRules();
+        // Each segment holds only a few entities
+        EntityStateStore store = new EntityStateStore(16 * 1000);
+        for (int i = 0; i < 1000; i++) {
+            store.putState(KEY + i, createState(Optional.empty(), values("a" + i, "b", "c"), new BitSet()), -1);
+        }
+        assertThat(store.getState(KEY + 999, rules, Optional.empty()).isPresent(), is(true));
+        assertThat(store.getState(KEY + 0, rules, Optional.empty()).isPresent(), is(false));
+        assertThat(store.getStatusReport().matches("(?s).*evictions=9\\d\\d .*"), is(true));
+    }
+
+    private void createRules() throws Exception {
+        rules.add(buildRule("a != null", "a"));
+        rules.add(buildRule("a != b", "a", "b"));
+        rules.add(buildRule("c.size() > 0", "c"));
+        dependencies = new RuleDependencies(Arrays.asList("a", "b", "c"), rules);
+    }
+
+    private EntityState createState(Optional<String> resourceVersion, AttributeValues attributeValues,
+            BitSet unsettledRules) {
+        return new EntityState(rules, resourceVersion, snapshot(attributeValues), new Violation[rules.size()],
+                unsettledRules);
+    }
+
+    private Object[] snapshot(AttributeValues attributeValues) {
+        return EntityStateStore.snapshot(dependencies.getAttributePaths(), attributeValues);
+    }
+
+    private AttributeValues values(Object a, Object b, Object c) {
+        AttributeValues attributeValues = new AttributeValues();
+        attributeValues.put("a", a);
+        attributeValues.put("b", b);
+        attributeValues.put("c", c);
+        return attributeValues;
+    }
+
+    private BitSet bits(int... indices) {
+        BitSet bits = new BitSet();
+        for (int index : indices) {
+            bits.set(index);
+        }
+        return bits;
+    }
+
+    private GroovyRule buildRule(String expression, String... attributes) throws Exception {
+        RuleSection ruleConfig = new RuleSection();
+        ruleConfig.setName(expression);
+        ruleConfig.setAttributes(Arrays.asList(attributes));
+        ruleConfig.setExpression(expression);
+        return new GroovyRule(ruleConfig);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Test;
+import org.onap.aai.validation.reader.data.AttributeValues;
+import org.onap.aai.validation.ruledriven.configuration.RuleSection;
+import org.onap.aai.validation.ruledriven.rule.GroovyRule;
+import org.onap.aai.validation.ruledriven.rule.RuleCompiler;
+
+/**
+ * Tests for limiting the time taken to execute a rule.
+ */
+public class TestRuleExecutionBudget {
+
+    static {
+        System.setProperty("APP_HOME", ".");
+    }
+
+    private RuleExecutionBudget budget = new RuleExecutionBudget(50, 2);
+
+    @After
+    public void shutdown() {
+        budget.shutdown();
+    }
+
+    @Test
+    public void testRuleWithinBudget() throws Exception {
+        // A generous budget, so that a slow first execution on a loaded host is not counted as an overrun
+        budget.shutdown();
+        budget = new RuleExecutionBudget(60_000, 2);
+        GroovyRule rule = buildRule("loopRule", "while (a == 'loop') {}\n a == 'x'");
+        assertThat(budget.execute(rule, values("x")).getSuccess(), is(true));
+        assertThat(budget.execute(rule, values("y")).getSuccess(), is(false));
+        assertThat(budget.getStatusReport(), containsString("overruns=0"));
+    }
+
+    @Test
+    public void testRunawayRuleIsInterrupted() throws Exception {
+        GroovyRule rule = buildRule("loopRule", "while (a == 'loop') {}\n a == 'x'");
+        long start = System.currentTimeMillis();
+        try {
+            budget.execute(rule, values("loop"));
+            fail("expected the rule to exceed the budget");
+        } catch (RuleExecutionBudget.BudgetExceededException e) {
+            assertThat(e.getMessage(), is("loopRule"));
+        }
+        assertThat(System.currentTimeMillis() - start < 5000, is(true));
+        assertThat(Thread.currentThread().isInterrupted(), is(false));
+        assertThat(budget.isQuarantined(rule), is(false));
+
+        // The rule may still be executed
+        assertThat(budget.execute(rule, values("x")).getSuccess(), is(true));
+    }
+
+    @Test
+    public void testRuleIsQuarantinedAfterRepeatedOverruns() throws Exception {
+        GroovyRule rule = buildRule("slowRule", "(0..100).every { it >= 0 && (it > 0 || sleep(100) == null) }");
+        for (int i = 0; i < 2; i++) {
+            try {
+                budget.execute(rule, values("x"));
+                fail("expected the rule to exceed the budget");
+            } catch (RuleExecutionBudget.BudgetExceededException e) {
+                // Expected
+            }
+        }
+        assertThat(budget.isQuarantined(rule), is(true));
+        assertThat(budget.getStatusReport(), containsString("overruns=2"));
+        assertThat(budget.getStatusReport(), containsString("Quarantined rules: slowRule"));
+    }
+
+    private GroovyRule buildRule(String name, String expression) throws Exception {
+        RuleSection ruleConfig = new RuleSection();
+        ruleConfig.setName(name);
+        ruleConfig.setAttributes(Collections.singletonList("a"));
+        ruleConfig.setExpression(expression);
+        RuleCompiler ruleCompiler = new RuleCompiler();
+        ruleCompiler.setInterruptible(true);
+        GroovyRule rule = new GroovyRule(ruleConfig, ruleCompiler);
+        ruleCompiler.compile();
+        rule.initialise();
+        return rule;
+    }
+
+    private AttributeValues values(String value) {
+        AttributeValues attributeValues = new AttributeValues();
+        attributeValues.put("a", value);
+        return attributeValues;
+    }
+}
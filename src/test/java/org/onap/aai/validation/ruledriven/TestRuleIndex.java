@@ -0,0 +1,85 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * Tests for selecting the indexed entity section from the values of the index attributes.
+ */
+public class TestRuleIndex {
+
+    private static final String DEFAULT_INDEX = "default-rules";
+
+    private final RuleIndex ruleIndex = new RuleIndex(createIndexedEntities());
+
+    @Test
+    public void testFullKey() {
+        assertThat(ruleIndex.find(values("v1", "i1"), DEFAULT_INDEX), is("[i1][v1]"));
+        assertThat(ruleIndex.find(values("i1", "v1"), DEFAULT_INDEX), is("[i1][v1]"));
+        assertThat(ruleIndex.find(values("v1", "i2"), DEFAULT_INDEX), is("[i2][v1]"));
+    }
+
+    @Test
+    public void testPartialKey() {
+        // No section for [i3][v1], so the section for the first attribute is preferred
+        assertThat(ruleIndex.find(values("v1", "i3"), DEFAULT_INDEX), is("[v1]"));
+        assertThat(ruleIndex.find(values("v3", "i3"), DEFAULT_INDEX), is("[i3]"));
+        assertThat(ruleIndex.find(values(null, "i3"), DEFAULT_INDEX), is("[i3]"));
+        assertThat(ruleIndex.find(values("v1", null), DEFAULT_INDEX), is("[v1]"));
+    }
+
+    @Test
+    public void testDefaultKey() {
+        assertThat(ruleIndex.find(values("v3", "i4"), DEFAULT_INDEX), is("[default-rules]"));
+        assertThat(ruleIndex.find(values(null, null), DEFAULT_INDEX), is("[default-rules]"));
+        assertThat(ruleIndex.find(new Object[0], DEFAULT_INDEX), is("[default-rules]"));
+        assertThat(ruleIndex.find(values("v3", "i4"), null), is(nullValue()));
+        assertThat(ruleIndex.find(values("v3", "i4"), "missing"), is(nullValue()));
+    }
+
+    @Test
+    public void testValuesAreComparedAsStrings() {
+        assertThat(ruleIndex.find(values(42, null), null), is("[42]"));
+    }
+
+    private Object[] values(Object... values) {
+        return values;
+    }
+
+    private Map<String, List<String>> createIndexedEntities() {
+        Map<String, List<String>> indexedEntities = new LinkedHashMap<>();
+        indexedEntities.put("[i1][v1]", Arrays.asList("i1", "v1"));
+        indexedEntities.put("[i2][v1]", Arrays.asList("i2", "v1"));
+        indexedEntities.put("[v1]", Collections.singletonList("v1"));
+        indexedEntities.put("[i3]", Collections.singletonList("i3"));
+        indexedEntities.put("[42]", Collections.singletonList("42"));
+        indexedEntities.put("[default-rules]", Collections.singletonList(DEFAULT_INDEX));
+        indexedEntities.put("vserver", Collections.emptyList());
+        return indexedEntities;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.gson.JsonObject;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.onap.aai.validation.reader.data.AttributeValues;
+import org.onap.aai.validation.ruledriven.configuration.RuleSection;
+import org.onap.aai.validation.ruledriven.configuration.RulesConfiguration;
+import org.onap.aai.validation.ruledriven.configuration.RulesConfigurationLoader;
+import org.onap.aai.validation.ruledriven.rule.GroovyRule;
+import org.onap.aai.validation.ruledriven.rule.RuleResult;
+
+/**
+ * Tests for caching the results of pure rules.
+ */
+public class TestRuleResultCache {
+
+    static {
+        System.setProperty("APP_HOME", ".");
+    }
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    public void testResultIsReusedForTheSameValues() throws Exception {
+        RuleResultCache cache = new RuleResultCache(100_000);
+        GroovyRule rule = buildRule("a.toString().toUpperCase() == 'PROV'", null);
+        assertThat(rule.isCacheable(), is(true));
+
+        assertThat(execute(cache, rule, "prov").getSuccess(), is(true));
+        assertThat(execute(cache, rule, "prov").getSuccess(), is(true));
+        assertThat(execute(cache, rule, "decom").getSuccess(), is(false));
+        assertThat(execute(cache, rule, Arrays.asList("prov")).getSuccess(), is(false));
+        assertThat(execute(cache, rule, Arrays.asList("prov")).getSuccess(), is(false));
+        assertThat(executions.get(), is(3));
+        assertThat(cache.getHitRate(), is(0.4));
+        assertThat(cache.getStatusReport(), containsString("hits=2 misses=3"));
+    }
+
+    @Test
+    public void testRulesWhichAreNotPureAreNotCached() throws Exception {
+        for (GroovyRule rule : Arrays.asList( //
+                buildRule("a.toUpperCase() == 'PROV'", false),
+                buildRule("System.currentTimeMillis() > 0 && a.toUpperCase() == 'PROV'", null),
+                buildRule("new Date() != null && a.toUpperCase() == 'PROV'", null),
+                buildRule("org.onap.aai.validation.ruledriven.rule.builtin.DataDictionary.validate("
+                        + "'instance', 'type', 'name', a).isEmpty()", true),
+                buildRule("a == 'PROV'", null))) {
+            assertThat(rule.toString(), rule.isCacheable(), is(false));
+        }
+
+        // Declared pure despite calling a method of System
+        assertThat(buildRule("System.lineSeparator() != a", true).isCacheable(), is(true));
+    }
+
+    @Test
+    public void testValuesWhichCannotBeKeyedAreNotCached() throws Exception {
+        RuleResultCache cache = new RuleResultCache(100_000);
+        GroovyRule rule = buildRule("a.toString().size() > 0", null);
+        execute(cache, rule, new JsonObject());
+        execute(cache, rule, new JsonObject());
+        assertThat(executions.get(), is(2));
+        assertThat(cache.getStatusReport(), containsString("bypasses=2"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResultsAreEvicted() throws Exception {
+        // Each segment holds only a few entries
+        RuleResultCache cache = new RuleResultCache(16 * 400);
+        GroovyRule rule = buildRule("a.toUpperCase() == 'PROV'", null);
+        for (int i = 0; i < 1000; i++) {
+            execute(cache, rule, "value" + i);
+        }
+        assertThat(cache.getStatusReport(), containsString("misses=1000"));
+        assertThat(cache.getStatusReport().matches("(?s).*evictions=9\\d\\d .*"), is(true));
+    }
+
+    @Test
+    public void testPureIsDeclaredInRulesFile() throws Exception {
+        RulesConfiguration configuration = RulesConfigurationLoader.parseConfiguration(
+                "rule {\n name 'impure'\n attributes 'a'\n pure false\n validate 'a != null'\n}");
+        RuleSection ruleSection = configuration.getRules().get(0);
+        assertThat(ruleSection.getPure(), is(false));
+        assertThat(ruleSection.toString(), containsString("pure false"));
+        assertThat(new RuleSection(ruleSection).getPure(), is(false));
+    }
+
+    private RuleResult execute(RuleResultCache cache, GroovyRule rule, Object value) {
+        AttributeValues attributeValues = new AttributeValues();
+        attributeValues.put("a", value);
+        return cache.getResult(rule, attributeValues, () -> {
+            executions.incrementAndGet();
+            return rule.execute(attributeValues);
+        });
+    }
+
+    private GroovyRule buildRule(String expression, Boolean pure) throws Exception {
+        RuleSection ruleConfig = new RuleSection();
+        ruleConfig.setName(expression);
+        ruleConfig.setAttributes(Collections.singletonList("a"));
+        ruleConfig.setExpression(expression);
+        ruleConfig.setPure(pure);
+        return new GroovyRule(ruleConfig);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.onap.aai.validation.ruledriven.configuration.RuleSection;
+import org.onap.aai.validation.ruledriven.configuration.RulesConfiguration;
+import org.onap.aai.validation.ruledriven.configuration.RulesConfigurationLoader;
+import org.onap.aai.validation.ruledriven.rule.GroovyRule;
+import org.onap.aai.validation.ruledriven.rule.RuleCompiler;
+
+/**
+ * Tests for the on-disk cache of parsed and compiled rules.
+ */
+public class TestRulesCache {
+
+    static {
+        System.setProperty("APP_HOME", ".");
+    }
+
+    private static final String RULES = "entity {\n type 'x'\n validation {\n useRule {\n name 'ruleA'\n"
+            + " attributes 'b'\n }\n }\n}\nrule {\n name 'ruleA'\n attributes 'a'\n validate 'a != null'\n}\n";
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    @Test
+    public void testConfigurationIsReadFromCache() throws Exception {
+        RulesCache cache = new RulesCache(testFolder.getRoot().toPath());
+        RulesConfiguration configuration = RulesConfigurationLoader.parseConfiguration(RULES);
+        assertThat(cache.loadConfiguration(configuration.getHash()).isPresent(), is(false));
+        cache.storeConfiguration(configuration);
+
+        Optional<RulesConfiguration> cached = cache.loadConfiguration(configuration.getHash());
+        assertThat(cached.isPresent(), is(true));
+        assertThat(cached.get().getEntities().toString(), is(configuration.getEntities().toString()));
+        assertThat(cached.get().getRules().toString(), is(configuration.getRules().toString()));
+    }
+
+    @Test
+    public void testCompiledClassesAreReused() throws Exception {
+        RulesCache cache = new RulesCache(testFolder.getRoot().toPath());
+        RuleCompiler first = new RuleCompiler();
+        List<GroovyRule> firstRules = buildRules(first);
+        cache.compile(first);
+
+        RuleCompiler second = new RuleCompiler();
+        List<GroovyRule> secondRules = buildRules(second);
+        cache.compile(second);
+
+        assertThat(second.getCompiledClasses().getClasses().keySet(),
+                is(first.getCompiledClasses().getClasses().keySet()));
+        assertThat(second.getClassCount(), is(1));
+        assertRulesWork(firstRules);
+        assertRulesWork(secondRules);
+    }
+
+    @Test
+    public void testCorruptCacheFilesAreDiscarded() throws Exception {
+        Path directory = testFolder.getRoot().toPath();
+        RulesCache cache = new RulesCache(directory);
+        RulesConfiguration configuration = RulesConfigurationLoader.parseConfiguration(RULES);
+        cache.storeConfiguration(configuration);
+        RuleCompiler original = new RuleCompiler();
+        buildRules(original);
+        cache.compile(original);
+
+        File[] files = testFolder.getRoot().listFiles();
+        assertThat(files.length, is(2));
+        for (File file : files) {
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            bytes[bytes.length - 1] ^= 1;
+            Files.write(file.toPath(), bytes);
+        }
+
+        assertThat(cache.loadConfiguration(configuration.getHash()).isPresent(), is(false));
+        RuleCompiler ruleCompiler = new RuleCompiler();
+        List<GroovyRule> rules = buildRules(ruleCompiler);
+        cache.compile(ruleCompiler);
+        assertRulesWork(rules);
+
+        // The corrupt configuration was deleted and the classes were compiled and written again
+        assertThat(testFolder.getRoot().listFiles().length, is(1));
+    }
+
+    @Test
+    public void testValidatorUsesCache() throws Exception {
+        List<Path> rulesPath = Collections.singletonList(new File("bundleconfig/etc/rules").toPath());
+        RuleDrivenValidator validator = new RuleDrivenValidator(rulesPath, null, null, null);
+        validator.setRulesCacheDirectory(testFolder.getRoot().getAbsolutePath());
+        validator.initialise();
+        int files = testFolder.getRoot().listFiles().length;
+
+        RuleDrivenValidator cachedValidator = new RuleDrivenValidator(rulesPath, null, null, null);
+        cachedValidator.setRulesCacheDirectory(testFolder.getRoot().getAbsolutePath());
+        cachedValidator.initialise();
+        assertThat(testFolder.getRoot().listFiles().length, is(files));
+        assertThat(cachedValidator.getRulesForEntity("vserver", "aai-event").get().toString(),
+                is(validator.getRulesForEntity("vserver", "aai-event").get().toString()));
+    }
+
+    private List<GroovyRule> buildRules(RuleCompiler ruleCompiler) {
+        return Arrays.asList(buildRule(ruleCompiler, "a == 'x'"), buildRule(ruleCompiler, "a.trim() == 'x'"));
+    }
+
+    private GroovyRule buildRule(RuleCompiler ruleCompiler, String expression) {
+        RuleSection ruleConfig = new RuleSection();
+        ruleConfig.setName("testRule");
+        ruleConfig.setAttributes(Collections.singletonList("a"));
+        ruleConfig.setExpression(expression);
+        return new GroovyRule(ruleConfig, ruleCompiler);
+    }
+
+    private void assertRulesWork(List<GroovyRule> rules) {
+        rules.forEach(GroovyRule::initialise);
+        assertThat(rules.get(0).isCompiledStatically(), is(true));
+        assertThat(rules.get(1).isCompiledStatically(), is(false));
+        assertThat(rules.get(0).execute("x").getSuccess(), is(true));
+        assertThat(rules.get(1).execute(" x ").getSuccess(), is(true));
+    }
+}
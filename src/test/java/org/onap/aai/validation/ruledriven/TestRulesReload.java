@@ -0,0 +1,138 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for reloading the rules when the rules files change.
+ */
+public class TestRulesReload {
+
+    static {
+        System.setProperty("APP_HOME", ".");
+    }
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    private Path eventA;
+    private Path eventB;
+
+    @Before
+    public void createRulesFiles() throws Exception {
+        eventA = testFolder.newFolder("event-a").toPath();
+        eventB = testFolder.newFolder("event-b").toPath();
+        writeRules(eventA.resolve("a.groovy"), "ruleA");
+        writeRules(eventB.resolve("b.groovy"), "ruleB");
+    }
+
+    @Test
+    public void testOnlyChangedEventTypesAreReloaded() throws Exception {
+        RuleDrivenValidator validator = createValidator();
+        validator.initialise();
+        List<org.onap.aai.validation.ruledriven.rule.Rule> rulesA = getRules(validator, "event-a");
+        List<org.onap.aai.validation.ruledriven.rule.Rule> rulesB = getRules(validator, "event-b");
+
+        writeRules(eventA.resolve("a.groovy"), "ruleC");
+        assertThat(validator.reload(), is(true));
+
+        assertThat(getRules(validator, "event-a").get(0).getName(), is("ruleC"));
+        assertThat(getRules(validator, "event-a"), is(not(sameInstance(rulesA))));
+        assertThat(getRules(validator, "event-b"), is(sameInstance(rulesB)));
+        assertThat(validator.getStatusReport().get(), containsString("reloads=1 failures=0"));
+    }
+
+    @Test
+    public void testFailedReloadKeepsPreviousRules() throws Exception {
+        RuleDrivenValidator validator = createValidator();
+        validator.initialise();
+        List<org.onap.aai.validation.ruledriven.rule.Rule> rulesA = getRules(validator, "event-a");
+
+        Files.write(eventA.resolve("a.groovy"), "entity {".getBytes(StandardCharsets.UTF_8));
+        assertThat(validator.reload(), is(false));
+        assertThat(getRules(validator, "event-a"), is(sameInstance(rulesA)));
+        assertThat(validator.getStatusReport().get(), containsString("reloads=1 failures=1"));
+
+        // Once the file is corrected the event type is reloaded
+        writeRules(eventA.resolve("a.groovy"), "ruleA");
+        assertThat(validator.reload(), is(true));
+        assertThat(getRules(validator, "event-a").get(0).getName(), is("ruleA"));
+    }
+
+    @Test
+    public void testWatcherReportsChangedFiles() throws Exception {
+        AtomicInteger changes = new AtomicInteger();
+        RulesDirectoryWatcher watcher =
+                new RulesDirectoryWatcher(Collections.singletonList(testFolder.getRoot().toPath())) {
+                    @Override
+                    protected void onChange() {
+                        changes.incrementAndGet();
+                    }
+                };
+
+        watcher.run();
+        assertThat(changes.get(), is(0));
+
+        writeRules(eventB.resolve("c.groovy"), "ruleC");
+        watcher.run();
+        assertThat(changes.get(), is(1));
+
+        Files.write(eventB.resolve("notes.txt"), "ignored".getBytes(StandardCharsets.UTF_8));
+        watcher.run();
+        assertThat(changes.get(), is(1));
+
+        Files.delete(eventA.resolve("a.groovy"));
+        watcher.run();
+        assertThat(changes.get(), is(2));
+    }
+
+    private RuleDrivenValidator createValidator() {
+        List<Path> rulesPath = Collections.singletonList(testFolder.getRoot().toPath());
+        RuleDrivenValidator validator = new RuleDrivenValidator(rulesPath, null, null, null);
+        validator.setLoadingParallelism(1);
+        return validator;
+    }
+
+    private List<org.onap.aai.validation.ruledriven.rule.Rule> getRules(RuleDrivenValidator validator,
+            String eventType) {
+        return validator.getRulesForEntity("x", eventType).get();
+    }
+
+    private void writeRules(Path file, String ruleName) throws Exception {
+        String rules = "entity {\n type 'x'\n validation {\n useRule {\n name '" + ruleName + "'\n"
+                + " attributes 'b'\n }\n }\n}\nrule {\n name '" + ruleName + "'\n attributes 'a'\n"
+                + " validate 'a != null'\n}\n";
+        Files.write(file, rules.getBytes(StandardCharsets.UTF_8));
+    }
+}
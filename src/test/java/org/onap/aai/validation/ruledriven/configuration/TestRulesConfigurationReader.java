@@ -20,6 +20,8 @@ package org.onap.aai.validation.ruledriven.configuration;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 import java.io.IOException;
@@ -34,6 +36,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
+import org.onap.aai.validation.ruledriven.RuleManager;
 import org.onap.aai.validation.ruledriven.configuration.EntitySection;
 import org.onap.aai.validation.ruledriven.configuration.GroovyConfigurationException;
 import org.onap.aai.validation.ruledriven.configuration.RuleSection;
@@ -41,6 +44,7 @@ import org.onap.aai.validation.ruledriven.configuration.SettingsSection;
 import org.onap.aai.validation.ruledriven.configuration.build.EntityBuilder;
 import org.onap.aai.validation.ruledriven.configuration.build.RuleBuilder;
 import org.onap.aai.validation.ruledriven.configuration.build.ValidationBuilder;
+import org.onap.aai.validation.ruledriven.rule.RuleCompiler;
 import org.onap.aai.validation.test.util.RandomString;
 
 /**
@@ -145,6 +149,35 @@ public class TestRulesConfigurationReader {
         builder.loadConfiguration();
     }
 
+    /**
+     * Rules files are parsed separately and the parsed (shared) files are composed into the rules for each event type.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testSharedRulesFiles() throws Exception {
+        String commonRules = "rule {\n name 'ruleA'\n attributes 'a'\n validate 'a != null'\n}\n";
+        String entityRules =
+                "entity {\n type 'x'\n validation {\n useRule {\n name 'ruleA'\n attributes 'b'\n }\n }\n}\n";
+        RulesConfiguration common = RulesConfigurationLoader.parseConfiguration(commonRules);
+        RulesConfiguration entity = RulesConfigurationLoader.parseConfiguration(entityRules);
+        assertThat(common.getHash(), is(equalTo(RulesConfigurationLoader.hash(commonRules))));
+        assertThat(common.getHash(), is(not(equalTo(entity.getHash()))));
+
+        RuleCompiler ruleCompiler = new RuleCompiler();
+        RuleManager first = RulesConfigurationLoader.loadConfiguration(Arrays.asList(entity, common), ruleCompiler);
+        RuleManager second = RulesConfigurationLoader.loadConfiguration(Arrays.asList(entity, common), ruleCompiler);
+        first.initialise();
+        second.initialise();
+
+        // The generic rule is resolved in copies of the shared entity section
+        RuleSection sharedRule = entity.getEntities().get(0).getRules().get(0);
+        assertThat(sharedRule.getExpression(), is(nullValue()));
+        assertThat(first.getEntities().get(0).getRules().get(0).getExpression(), is("a != null"));
+        assertThat(second.getRulesForEntity("x").get().get(0).execute("1").getSuccess(), is(true));
+        assertThat(ruleCompiler.getMethodCount(), is(1));
+    }
+
     @Test
     public void testSimpleentity() throws Exception {
         String name = RandomString.generate();
@@ -24,19 +24,22 @@ package org.onap.aai.validation.ruledriven.mock;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyListOf;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 import com.google.gson.JsonObject;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -46,10 +49,12 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 import org.onap.aai.validation.Validator;
 import org.onap.aai.validation.exception.ValidationServiceException;
+import org.onap.aai.validation.reader.AttributeExtractionPlan;
 import org.onap.aai.validation.reader.EventReader;
 import org.onap.aai.validation.reader.data.AttributeValues;
 import org.onap.aai.validation.reader.data.Entity;
 import org.onap.aai.validation.reader.data.EntityId;
+import org.onap.aai.validation.reader.data.ParsedEvent;
 import org.onap.aai.validation.result.ValidationResult;
 import org.onap.aai.validation.result.Violation;
 import org.onap.aai.validation.ruledriven.RuleDrivenValidator;
@@ -117,6 +122,25 @@ public class TestDefaultRules {
     @Mock
     private Entity entity;
 
+    /** The names of the threads which have read the dummy (array) attribute values. */
+    private final Set<String> readingThreads = ConcurrentHashMap.newKeySet();
+
+    /**
+     * An empty List recording the threads which read it (e.g. the threads executing the rules).
+     */
+    private class ThreadRecordingList extends AbstractList<Object> {
+        @Override
+        public Object get(int index) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+
+        @Override
+        public int size() {
+            readingThreads.add(Thread.currentThread().getName());
+            return 0;
+        }
+    }
+
     /**
      * A single instance shared by each test.
      */
@@ -146,6 +170,34 @@ public class TestDefaultRules {
         assertThat(violation.getCategory(), is(equalTo("MISSING_REL")));
     }
 
+    @Test
+    public void testConcurrentExecutionPreservesViolationOrder() throws Exception {
+        createMockEventReader(TestCase.VSERVER);
+        List<Violation> expected = ruleDrivenValidator.validate(TestCase.VSERVER.name()).get(0).getViolations();
+
+        List<Path> configurationPaths = Collections.singletonList(Paths.get("bundleconfig/etc/rules"));
+        RuleDrivenValidator concurrentValidator = new RuleDrivenValidator(configurationPaths, null, eventReader, null);
+        concurrentValidator.setRuleExecutionThreads(4);
+        concurrentValidator.setParallelRuleCostThreshold(1);
+        try {
+            readingThreads.clear();
+            for (int i = 0; i < 10; i++) {
+                List<Violation> violations =
+                        concurrentValidator.validate(TestCase.VSERVER.name()).get(0).getViolations();
+                assertThat(violations.size(), is(expected.size()));
+                for (int v = 0; v < violations.size(); v++) {
+                    assertThat(violations.get(v).getViolationId(), is(equalTo(expected.get(v).getViolationId())));
+                    assertThat(violations.get(v).getErrorMessage(), is(equalTo(expected.get(v).getErrorMessage())));
+                }
+            }
+            // The rules were executed by the rule executor (not only by the validating thread)
+            assertThat(readingThreads.toString(),
+                    readingThreads.stream().anyMatch(name -> name.startsWith("rule-executor-")), is(true));
+        } finally {
+            concurrentValidator.setRuleExecutionThreads(0);
+        }
+    }
+
     @Test(expected = ValidationServiceException.class)
     public void testExecuteRulesForUnsupportedEntityType() throws ValidationServiceException {
         createMockEventReader(TestCase.UNKNOWN);
@@ -157,9 +209,13 @@ public class TestDefaultRules {
      *             if mocking a JSON parsing exception
      */
     private void createMockEventReader(TestCase testCase) throws ValidationServiceException {
-        when(eventReader.getEventType(testCase.name())).thenReturn(testCase.getEventType());
-        when(eventReader.getEntityType(anyString())).thenReturn(Optional.ofNullable(testCase.getEntityType()));
-        when(eventReader.getEntity(anyString())).thenReturn(entity);
+        ParsedEvent event = new ParsedEvent(testCase.name(), null);
+        when(eventReader.parseEvent(testCase.name())).thenReturn(event);
+        when(eventReader.getEventType(event)).thenReturn(testCase.getEventType());
+        when(eventReader.getEntityType(any(ParsedEvent.class)))
+                .thenReturn(Optional.ofNullable(testCase.getEntityType()));
+        when(eventReader.getEntity(any(ParsedEvent.class))).thenReturn(entity);
+        when(eventReader.getEntities(any(ParsedEvent.class))).thenReturn(Collections.singletonList(entity));
 
         // Mocked entity returned by the event reader
         when(entity.getType()).thenReturn(testCase.getEntityType());
@@ -173,16 +229,26 @@ public class TestDefaultRules {
             @SuppressWarnings("unchecked")
             @Override
             public AttributeValues answer(InvocationOnMock invocation) {
-                AttributeValues attributeValues = new AttributeValues();
-                for (String attribute : (List<String>) invocation.getArguments()[0]) {
-                    if (attribute.contains("[*]")) {
-                        attributeValues.put(attribute, Collections.emptyList());
-                    } else {
-                        attributeValues.put(attribute, "");
-                    }
-                }
-                return attributeValues;
+                return createDummyValues((List<String>) invocation.getArguments()[0]);
             }
         });
+        when(entity.getAttributeValues(any(AttributeExtractionPlan.class))).thenAnswer(new Answer<AttributeValues>() {
+            @Override
+            public AttributeValues answer(InvocationOnMock invocation) {
+                return createDummyValues(((AttributeExtractionPlan) invocation.getArguments()[0]).getAttributePaths());
+            }
+        });
+    }
+
+    private AttributeValues createDummyValues(List<String> attributes) {
+        AttributeValues attributeValues = new AttributeValues();
+        for (String attribute : attributes) {
+            if (attribute.contains("[*]")) {
+                attributeValues.put(attribute, new ThreadRecordingList());
+            } else {
+                attributeValues.put(attribute, "");
+            }
+        }
+        return attributeValues;
     }
 }
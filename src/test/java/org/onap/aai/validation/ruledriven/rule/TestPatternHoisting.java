@@ -0,0 +1,165 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven.rule;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyShell;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.codehaus.groovy.runtime.GStringImpl;
+import org.codehaus.groovy.runtime.InvokerInvocationException;
+import org.junit.Test;
+
+/**
+ * Compare the results of rule expressions using precompiled patterns with the results of the same expressions
+ * evaluated as scripts.
+ *
+ * @see PatternHoistingCustomizer
+ */
+public class TestPatternHoisting {
+
+    static {
+        System.setProperty("APP_HOME", ".");
+    }
+
+    private static final List<String> EXPRESSIONS = Arrays.asList( //
+            "field1.matches('[a-z,0-9]{5}[0-9]{3}vbc')", //
+            "field1.matches('a.*')", //
+            "field1 ==~ /\\d+\\.\\d+\\.\\d+\\.\\d+/", //
+            "(field1 =~ /b+/) ? 'found' : 'none'", //
+            "field1.replaceAll('[aeiou]', '_')", //
+            "field1.replaceFirst('[a-c]', { it.toUpperCase() })", //
+            "field1.split(',')", //
+            "field1.split(',').size()", //
+            "field1.toString().every { it.matches('[a-c]') }", //
+            "field1?.matches('a.*')", //
+            "field1.matches('[')");
+
+    private static final List<Object> VALUES = Arrays.asList("abcde123vbc", "a,b,,c,", "1.2.3.4", "bbb", "",
+            new GStringImpl(new Object[] {"ab"}, new String[] {"", "c"}), null, 42);
+
+    @Test
+    public void testResultsMatchScripts() throws Exception {
+        RuleCompiler compiler = new RuleCompiler();
+        List<RuleCompiler.RuleMethod> methods = new ArrayList<>();
+        for (String expression : EXPRESSIONS) {
+            methods.add(compiler.add(1, expression));
+        }
+        compiler.compile();
+
+        for (int i = 0; i < EXPRESSIONS.size(); i++) {
+            for (Object value : VALUES) {
+                String reason = EXPRESSIONS.get(i) + " with " + value;
+                assertThat(reason, evaluate(methods.get(i), value), is(evaluate(EXPRESSIONS.get(i), value)));
+            }
+        }
+    }
+
+    @Test
+    public void testPatternsAreCompiledOnce() throws Exception {
+        RuleCompiler compiler = new RuleCompiler();
+        RuleCompiler.RuleMethod first = compiler.add(1, "field1.matches('a.*') || field1 ==~ /a.*/");
+        RuleCompiler.RuleMethod invalid = compiler.add(1, "field1.matches('[')");
+        compiler.compile();
+
+        List<String> patterns = new ArrayList<>();
+        for (Field field : first.getRuleClass().getFields()) {
+            if (field.getType() == Pattern.class && Modifier.isStatic(field.getModifiers())) {
+                patterns.add(((Pattern) field.get(null)).pattern());
+            }
+        }
+        assertThat(patterns, is(Arrays.asList("a.*")));
+
+        // The calls no longer need to be dispatched dynamically
+        assertThat(first.isCompiledStatically(), is(true));
+        assertThat(invalid.isCompiledStatically(), is(false));
+    }
+
+    @Test
+    public void testPrecompiledPatternIsUsedForStringParameters() throws Exception {
+        // A rule parameter is declared as an Object, so the call binds to the Object method
+        RuleCompiler compiler = new RuleCompiler();
+        RuleCompiler.RuleMethod method = compiler.add(1, "field1.matches('[a-z]+')");
+        compiler.compile();
+        assertThat(method.isCompiledStatically(), is(true));
+
+        // Replace the hoisted pattern with one which matches differently from its regular expression. A call which
+        // compiled the regular expression again would not use the flag.
+        for (Field field : method.getRuleClass().getDeclaredFields()) {
+            if (field.getType() == Pattern.class && Modifier.isStatic(field.getModifiers())) {
+                field.setAccessible(true);
+                Field modifiers = Field.class.getDeclaredField("modifiers");
+                modifiers.setAccessible(true);
+                modifiers.setInt(field, field.getModifiers() & ~Modifier.FINAL);
+                field.set(null, Pattern.compile("[a-z]+", Pattern.CASE_INSENSITIVE));
+            }
+        }
+        assertThat(method.getFunction().apply(new Object[] {"ABC"}), is(true));
+
+        Object receiver = "ABC";
+        Pattern pattern = Pattern.compile("b", Pattern.CASE_INSENSITIVE);
+        assertThat(PrecompiledPatterns.matches(receiver, Pattern.compile("[a-z]+", Pattern.CASE_INSENSITIVE)),
+                is(true));
+        assertThat(PrecompiledPatterns.replaceAll(receiver, pattern, "_"), is("A_C"));
+        assertThat(PrecompiledPatterns.replaceFirst(receiver, pattern, "_"), is("A_C"));
+        assertThat(Arrays.asList((String[]) PrecompiledPatterns.split(receiver, pattern)), is(Arrays.asList("A", "C")));
+    }
+
+    /**
+     * @return the result of the compiled rule method, or the class of the exception thrown
+     */
+    private Object evaluate(RuleCompiler.RuleMethod method, Object value) {
+        try {
+            return normalise(method.getFunction().apply(new Object[] {value}));
+        } catch (Exception e) {
+            return rootCause(e);
+        }
+    }
+
+    /**
+     * @return the result of the expression evaluated as a script, or the class of the exception thrown
+     */
+    private Object evaluate(String expression, Object value) {
+        Binding binding = new Binding();
+        binding.setVariable("field1", value);
+        try {
+            return normalise(new GroovyShell(binding).evaluate(expression));
+        } catch (Exception e) {
+            return rootCause(e);
+        }
+    }
+
+    private Object normalise(Object result) {
+        return result instanceof Object[] ? Arrays.asList((Object[]) result) : result;
+    }
+
+    private Class<?> rootCause(Throwable e) {
+        Throwable cause = e;
+        while (cause instanceof InvokerInvocationException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getClass();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven.rule;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import org.onap.aai.validation.ruledriven.configuration.GroovyConfigurationException;
+import org.onap.aai.validation.ruledriven.configuration.RuleSection;
+
+/**
+ * Tests for compiling the expressions of many rules together.
+ *
+ * @see RuleCompiler
+ */
+public class TestRuleCompiler {
+
+    static {
+        System.setProperty("APP_HOME", ".");
+    }
+
+    @Test
+    public void testIdenticalExpressionsAreCompiledOnce() throws Exception {
+        RuleCompiler compiler = new RuleCompiler();
+        GroovyRule rule1 = buildRule(compiler, Arrays.asList("i"), "i == 44");
+        GroovyRule rule2 = buildRule(compiler, Arrays.asList("j"), "\r\n  j == 44 ");
+        GroovyRule rule3 = buildRule(compiler, Arrays.asList("i", "j"), "i == 44");
+        compile(compiler, rule1, rule2, rule3);
+
+        // The first two rules differ only in the attribute name and surrounding white space
+        assertThat(compiler.getMethodCount(), is(2));
+        assertThat(compiler.getClassCount(), is(1));
+        assertThat(rule1.execute(44).getSuccess(), is(true));
+        assertThat(rule2.execute(5).getSuccess(), is(false));
+        assertThat(rule3.execute(44, 5).getSuccess(), is(true));
+    }
+
+    @Test
+    public void testStaticAndDynamicExpressionsInOneClass() throws Exception {
+        RuleCompiler compiler = new RuleCompiler();
+        GroovyRule staticRule = buildRule(compiler, Arrays.asList("i"), "i == 'x'");
+        GroovyRule dynamicRule = buildRule(compiler, Arrays.asList("i"), "i.trim() == 'x'");
+        compile(compiler, staticRule, dynamicRule);
+
+        assertThat(compiler.getClassCount(), is(1));
+        assertThat(staticRule.isCompiledStatically(), is(true));
+        assertThat(dynamicRule.isCompiledStatically(), is(false));
+        assertThat(staticRule.execute("x").getSuccess(), is(true));
+        assertThat(dynamicRule.execute(" x ").getSuccess(), is(true));
+        assertThat(dynamicRule.isValid(), is(true));
+    }
+
+    @Test
+    public void testManyExpressionsAreSplitAcrossClasses() throws Exception {
+        RuleCompiler compiler = new RuleCompiler();
+        List<GroovyRule> rules = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            rules.add(buildRule(compiler, Arrays.asList("i"), "i == " + i));
+        }
+        compile(compiler, rules.toArray(new GroovyRule[0]));
+
+        assertThat(compiler.getMethodCount(), is(600));
+        assertThat(compiler.getClassCount(), is(2));
+        for (int i = 0; i < rules.size(); i++) {
+            assertThat(rules.get(i).execute(i).getSuccess(), is(true));
+        }
+    }
+
+    @Test(expected = GroovyConfigurationException.class)
+    public void testInvalidExpressionFailsCompilation() throws Exception {
+        RuleCompiler compiler = new RuleCompiler();
+        buildRule(compiler, Arrays.asList("i"), "i == 1");
+        buildRule(compiler, Arrays.asList("i"), "i == ");
+        compiler.compile();
+    }
+
+    @Test
+    public void testConcurrentCompilation() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            RuleCompiler compiler = new RuleCompiler(pool);
+            List<GroovyRule> rules = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                rules.add(buildRule(compiler, Arrays.asList("i"), i % 10 == 0 ? "i.trim() == '" + i + "'" : "i == " + i));
+            }
+            compile(compiler, rules.toArray(new GroovyRule[0]));
+
+            // The expressions are divided between one class per thread
+            assertThat(compiler.getClassCount(), is(4));
+            for (int i = 0; i < rules.size(); i++) {
+                boolean dynamic = i % 10 == 0;
+                assertThat(rules.get(i).isCompiledStatically(), is(!dynamic));
+                assertThat(rules.get(i).execute(dynamic ? " " + i + " " : i).getSuccess(), is(true));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentCompilationReportsFirstError() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int attempt = 0; attempt < 5; attempt++) {
+                RuleCompiler compiler = new RuleCompiler(pool);
+                for (int i = 0; i < 100; i++) {
+                    String expression = i == 30 ? "i == first_error(" : i == 90 ? "i == last_error(" : "i == " + i;
+                    buildRule(compiler, Arrays.asList("i"), expression);
+                }
+                try {
+                    compiler.compile();
+                    fail("expected a compilation error");
+                } catch (GroovyConfigurationException e) {
+                    assertThat(e.getMessage(), containsString("first_error"));
+                    assertThat(e.getMessage(), not(containsString("last_error")));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testLoopsAndClosuresCanBeInterrupted() throws Exception {
+        RuleCompiler compiler = new RuleCompiler();
+        compiler.setInterruptible(true);
+        GroovyRule loopRule = buildRule(compiler, Arrays.asList("i"), "while (i == 'loop') {}\n false");
+        GroovyRule closureRule = buildRule(compiler, Arrays.asList("i"), "i.trim().every { it == 'x' }");
+        compile(compiler, loopRule, closureRule);
+
+        for (GroovyRule rule : Arrays.asList(loopRule, closureRule)) {
+            Thread.currentThread().interrupt();
+            try {
+                rule.execute(rule == loopRule ? "loop" : "xx");
+                fail("expected the rule to be interrupted");
+            } catch (Exception e) {
+                Throwable cause = e;
+                while (!(cause instanceof InterruptedException) && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                assertThat(cause instanceof InterruptedException, is(true));
+            } finally {
+                Thread.interrupted();
+            }
+        }
+        assertThat(closureRule.execute("xx").getSuccess(), is(true));
+    }
+
+    @Test
+    public void testExpressionsAreNotInterruptibleByDefault() throws Exception {
+        RuleCompiler compiler = new RuleCompiler();
+        GroovyRule closureRule = buildRule(compiler, Arrays.asList("i"), "i.trim().every { it == 'x' }");
+        compile(compiler, closureRule);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThat(closureRule.execute("xx").getSuccess(), is(true));
+        } finally {
+            Thread.interrupted();
+        }
+
+        RuleCompiler interruptibleCompiler = new RuleCompiler();
+        interruptibleCompiler.setInterruptible(true);
+        buildRule(interruptibleCompiler, Arrays.asList("i"), "i.trim().every { it == 'x' }");
+        assertThat(interruptibleCompiler.getSignature().equals(compiler.getSignature()), is(false));
+    }
+
+    private GroovyRule buildRule(RuleCompiler compiler, List<String> attributes, String expression) {
+        RuleSection ruleConfig = new RuleSection();
+        ruleConfig.setName("testRule");
+        ruleConfig.setAttributes(attributes);
+        ruleConfig.setExpression(expression);
+        return new GroovyRule(ruleConfig, compiler);
+    }
+
+    private void compile(RuleCompiler compiler, GroovyRule... rules) throws Exception {
+        compiler.compile();
+        for (GroovyRule rule : rules) {
+            rule.initialise();
+        }
+    }
+}
@@ -21,6 +21,8 @@
 package org.onap.aai.validation.ruledriven.rule;
 
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -34,6 +36,7 @@ import java.util.Map.Entry;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.onap.aai.validation.reader.JsonReader;
 import org.onap.aai.validation.reader.data.AttributeValues;
 import org.onap.aai.validation.ruledriven.configuration.GroovyConfigurationException;
 import org.onap.aai.validation.ruledriven.configuration.RuleSection;
@@ -420,6 +423,80 @@ public class TestRuleExecution {
         rule.execute(new Integer(1), new Integer(2));
     }
 
+    @Test
+    public void testTypeCheckedRuleIsCompiledStatically() throws Exception {
+        GroovyRule rule = buildRule("prov-status", "prov-status != null && prov-status != 'ACTIVE'");
+        assertThat(rule.isCompiledStatically(), is(true));
+        assertRuleResult(rule, "PREPROV", true);
+        assertRuleResult(rule, "ACTIVE", false);
+        assertRuleResult(rule, null, false);
+    }
+
+    @Test
+    public void testDynamicRuleIsCompiledDynamically() throws Exception {
+        GroovyRule rule = buildRule("clli", "clli.size() == 8");
+        assertThat(rule.isCompiledStatically(), is(false));
+        assertRuleResult(rule, "12345678", true);
+
+        // Undeclared variables are assigned to the binding, as for a script
+        rule = buildRule("x", "y = x * 2; y == 4");
+        assertThat(rule.isValid(), is(true));
+        assertRuleResult(rule, 2, true);
+    }
+
+    @Test
+    public void testListValueIsSpreadAcrossParameters() throws Exception {
+        for (String expression : Arrays.asList("i == 22 && j == 44", "i.equals(22) && j.equals(44)")) {
+            GroovyRule rule = buildRule(Arrays.asList("i", "j"), expression);
+            assertRuleResult(rule, Arrays.asList(22, 44), true);
+            assertThat(rule.execute(22, 44).getSuccess(), is(true));
+        }
+    }
+
+    @Test
+    public void testRuleReadingArrayView() throws Exception {
+        JsonReader jsonReader = new JsonReader();
+        Object names = jsonReader.getObject(jsonReader.parse("{\"names\": [\"a\", \"b\", \"c\"]}"), "$.names");
+        AttributeValues attributeValues = new AttributeValues();
+        attributeValues.put("names", names);
+        AttributeValues otherValues = new AttributeValues();
+        otherValues.put("names", Arrays.asList("d", "e", "f"));
+        assertThat(buildRule("names", "names != null").execute(attributeValues).getSuccess(), is(true));
+        for (String expression : Arrays.asList("names.size() == 3 && names.contains('b')",
+                "names.get(2) == 'c' && names.any { it == 'a' }", "names == ['a', 'b', 'c']",
+                "names.findAll { it != 'b' }.join(',') == 'a,c'")) {
+            GroovyRule rule = buildRule("names", expression);
+            assertThat(expression, rule.execute(attributeValues).getSuccess(), is(true));
+            assertThat(expression, rule.execute(otherValues).getSuccess(), is(false));
+        }
+    }
+
+    @Test
+    public void testRuleReadingNumericAndNullArrayElements() throws Exception {
+        JsonReader jsonReader = new JsonReader();
+        Object values = jsonReader.getObject(jsonReader.parse("{\"values\": [1.50, -2000000000000, null]}"),
+                "$.values");
+        AttributeValues attributeValues = new AttributeValues();
+        attributeValues.put("values", values);
+        // Numbers retain the text of the document and a JSON null is a (truthy) JsonNull
+        for (String expression : Arrays.asList("values.get(0) == '1.50'", "values.get(1) == '-2000000000000'",
+                "values.get(2) != null && values.get(2).isJsonNull()", "values.get(2) ? true : false",
+                "values.findAll { it }.size() == 3")) {
+            GroovyRule rule = buildRule("values", expression);
+            assertThat(expression, rule.execute(attributeValues).getSuccess(), is(true));
+        }
+    }
+
+    @Test
+    public void testArgumentsAreNotRetainedBetweenExecutions() throws Exception {
+        GroovyRule rule = buildRule(Arrays.asList("i", "j"), "i == null && j == null");
+        AttributeValues attributeValues = new AttributeValues();
+        attributeValues.put("i", 1);
+        attributeValues.put("j", 2);
+        assertThat(rule.execute(attributeValues).getSuccess(), is(false));
+        assertThat(rule.execute(new AttributeValues()).getSuccess(), is(true));
+    }
+
     /**
      * Compare two attributes (using a sub-string match)
      */
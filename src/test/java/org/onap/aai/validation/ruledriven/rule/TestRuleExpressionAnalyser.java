@@ -0,0 +1,170 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.ruledriven.rule;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.codehaus.groovy.runtime.GStringImpl;
+import org.junit.Test;
+import org.onap.aai.validation.ruledriven.configuration.EntitySection;
+import org.onap.aai.validation.ruledriven.configuration.RuleSection;
+import org.onap.aai.validation.ruledriven.configuration.RulesConfiguration;
+import org.onap.aai.validation.ruledriven.configuration.RulesConfigurationLoader;
+
+/**
+ * Tests for the Java evaluation of common rule expression shapes, including a differential test comparing the fast
+ * path with the compiled Groovy method for every rule of the rules files.
+ */
+public class TestRuleExpressionAnalyser {
+
+    static {
+        System.setProperty("APP_HOME", ".");
+    }
+
+    private static final List<String> RULES_PATHS =
+            Arrays.asList("bundleconfig/etc/rules", "src/test/resources/rule-driven-validator/rules");
+
+    private static final List<String> FAST_PATH_EXPRESSIONS = Arrays.asList( //
+            "a != null && a.matches('[a-z]+')", //
+            "a == null || a.size() == 5", //
+            "a != null && a.size() > 0 && !a.equalsIgnoreCase('AAIDEFAULT')", //
+            "a == 'UCPE' || b != null", //
+            "!a.contains('vpe') || b =~ 'me6'", //
+            "a ==~ /\\d+/ && a.startsWith('1') && !a.endsWith('0')", //
+            "a == null || a.count('image') <= 1", //
+            "a in ['x', 'y', null]", //
+            "return a >= b", //
+            "switch (a) {\ncase null:\ncase 'x': return true\ncase 'y': return false\ndefault: return false\n}");
+
+    private static final List<String> GROOVY_EXPRESSIONS = Arrays.asList( //
+            "a.trim().isEmpty()", //
+            "(a =~ 'x').find()", //
+            "a?.matches('x')", //
+            "a.matches('[')", //
+            "a.toUpperCase() == 'X'", //
+            "a == \"${b}\"", //
+            "a.every { it == 'x' }", //
+            "def x = a\nx == 'y'", //
+            "unknown == 'x'", //
+            "switch (a) {\ncase 'x': return true\n}");
+
+    private static final List<Object> VALUES = Arrays.asList("x", "y", "X", "", null, "1", "10", "123", "abc",
+            "AAIDEFAULT", "UCPE", "vpe", "vce-me6", "image image", "abcde123vbc", "1.2.3.4", "PROV", "In Service",
+            new GStringImpl(new Object[] {"x"}, new String[] {"", ""}), 42, 5, true, Arrays.asList("vce", "vpe"),
+            Arrays.asList("{}"));
+
+    @Test
+    public void testRecognisedShapes() throws Exception {
+        for (String expression : FAST_PATH_EXPRESSIONS) {
+            assertThat(expression, buildRule(expression).isFastPath(), is(true));
+        }
+        for (String expression : GROOVY_EXPRESSIONS) {
+            assertThat(expression, buildRule(expression).isFastPath(), is(false));
+        }
+    }
+
+    @Test
+    public void testFastPathMatchesGroovy() throws Exception {
+        List<GroovyRule> rules = new ArrayList<>();
+        for (String expression : FAST_PATH_EXPRESSIONS) {
+            rules.add(buildRule(expression));
+        }
+        assertThat(compare(rules), is(empty()));
+    }
+
+    /**
+     * Differential test: evaluate every rule of the rules files using both the fast path and Groovy.
+     */
+    @Test
+    public void testRulesFilesFastPathMatchesGroovy() throws Exception {
+        RuleCompiler compiler = new RuleCompiler();
+        List<GroovyRule> rules = new ArrayList<>();
+        for (RuleSection ruleSection : readRuleSections()) {
+            rules.add(new GroovyRule(ruleSection, compiler));
+        }
+        compiler.compile();
+        rules.forEach(GroovyRule::initialise);
+
+        List<GroovyRule> fastPathRules = rules.stream().filter(GroovyRule::isFastPath).collect(Collectors.toList());
+        assertThat(fastPathRules.size(), is(greaterThan(rules.size() / 2)));
+        assertThat(compare(fastPathRules), is(empty()));
+    }
+
+    /**
+     * @return a description of each difference between the results of the fast path and of Groovy
+     */
+    private List<String> compare(List<GroovyRule> rules) {
+        List<String> mismatches = new ArrayList<>();
+        for (GroovyRule rule : rules) {
+            int parameterCount = rule.getAttributePaths().size();
+            for (Object first : VALUES) {
+                for (Object second : VALUES) {
+                    Object[] values = new Object[parameterCount];
+                    for (int i = 0; i < parameterCount; i++) {
+                        values[i] = i == 0 ? first : second;
+                    }
+                    rule.compareWithGroovy(values).ifPresent(mismatches::add);
+                    if (parameterCount < 2) {
+                        break;
+                    }
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    private List<RuleSection> readRuleSections() throws Exception {
+        List<RuleSection> ruleSections = new ArrayList<>();
+        for (String rulesPath : RULES_PATHS) {
+            List<Path> files;
+            try (Stream<Path> paths = Files.walk(Paths.get(rulesPath))) {
+                files = paths.filter(path -> path.toString().endsWith(".groovy")).collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                RulesConfiguration configuration = RulesConfigurationLoader
+                        .parseConfiguration(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+                ruleSections.addAll(configuration.getRules());
+                for (EntitySection entity : configuration.getEntities()) {
+                    ruleSections.addAll(entity.getRules());
+                }
+            }
+        }
+        return ruleSections.stream().filter(rule -> rule.getExpression() != null && !rule.getAttributes().isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private GroovyRule buildRule(String expression) throws Exception {
+        RuleSection ruleConfig = new RuleSection();
+        ruleConfig.setName(expression);
+        ruleConfig.setAttributes(Arrays.asList("a", "b"));
+        ruleConfig.setExpression(expression);
+        return new GroovyRule(ruleConfig);
+    }
+}
@@ -21,6 +21,8 @@
 
 package org.onap.aai.validation.ruledriven.validator;
 
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -29,22 +31,30 @@ import com.google.gson.JsonSyntaxException;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.BiPredicate;
 import java.util.stream.Stream;
 import javax.inject.Inject;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.onap.aai.validation.exception.ValidationServiceException;
 import org.onap.aai.validation.reader.EventReader;
+import org.onap.aai.validation.reader.JsonReader;
 import org.onap.aai.validation.reader.OxmReader;
 import org.onap.aai.validation.result.ValidationResult;
+import org.onap.aai.validation.result.Violation;
 import org.onap.aai.validation.ruledriven.RuleDrivenValidator;
 import org.onap.aai.validation.test.util.TestEntity;
 import org.onap.aai.validation.test.util.ValidationResultIsEqual;
@@ -71,6 +81,12 @@ public class TestRuleDrivenValidator {
     @Inject
     private OxmReader oxmReader;
 
+    @Inject
+    private EventReader eventReader;
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
     public static List<TestEntity> getEntities(String testEntitiesPath, String testEventsPath, String resultsPath)
             throws URISyntaxException {
         Path testEvents = findResource(testEntitiesPath, testEventsPath);
@@ -106,12 +122,79 @@ public class TestRuleDrivenValidator {
         validator.initialise();
     }
 
+    @Test(expected = ValidationServiceException.class)
+    public void testInvalidAttributePath() throws ValidationServiceException, URISyntaxException {
+        validator = buildValidator(null, "/invalid_path");
+        validator.initialise();
+    }
+
     @Test
     public void testValidateUnitTestInstances()
             throws ValidationServiceException, JsonSyntaxException, URISyntaxException, IOException {
         validateEntities(UNIT_TEST_FOLDER, TEST_EVENTS_PATH, "/results/expected");
     }
 
+    @Test
+    public void testGetAttributePaths() throws ValidationServiceException {
+        Optional<Collection<String>> attributePaths = validator.getAttributePaths("AAI-EVENT", "complex");
+        assertThat(attributePaths.isPresent(), is(true));
+        assertThat(attributePaths.get(), hasItems("physical-location-id", "street1", "city"));
+        assertThat(validator.getAttributePaths("AAI-EVENT", "unknown-entity-type").isPresent(), is(false));
+        assertThat(validator.getAttributePaths("unknown-event-type", "complex").isPresent(), is(false));
+    }
+
+    @Test
+    public void testIncrementalValidationOfUpdatedEntity() throws Exception {
+        String event = new String(Files.readAllBytes(
+                findResource(UNIT_TEST_FOLDER, TEST_EVENTS_PATH).resolve("vserver-update-AAI-EVENT-devINT1.json")),
+                StandardCharsets.UTF_8);
+        // Correct the prov-status of the vserver
+        String changedEvent = event.replace("\"vserver-name\": \"vm-54\",",
+                "\"vserver-name\": \"vm-54\", \"prov-status\": \"PROV\",");
+        assertThat(validator.validate(changedEvent).get(0).getViolations().size(), is(1));
+
+        RuleDrivenValidator incrementalValidator = new RuleDrivenValidator(
+                Collections.singletonList(findResource(UNIT_TEST_FOLDER, "/rules")), oxmReader, eventReader, null);
+        incrementalValidator.setEntityStateStoreBytes(1_000_000);
+
+        // Each validation must report the same violations as a full validation
+        for (String updateEvent : Arrays.asList(event, event, changedEvent, event)) {
+            List<ValidationResult> results = incrementalValidator.validate(updateEvent);
+            List<ValidationResult> expectedResults = validator.validate(updateEvent);
+            assertThat(results.size(), is(expectedResults.size()));
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).getViolations(), is(expectedResults.get(i).getViolations()));
+            }
+        }
+        assertThat(incrementalValidator.getStatusReport().get(),
+                containsString("incremental validations=3 full validations=1"));
+    }
+
+    @Test
+    public void testQuarantinedRuleIsReportedAsAViolation() throws Exception {
+        Path rulesFolder = testFolder.newFolder("aai-event").toPath();
+        String rules = "entity {\n type 'vserver'\n validation {\n useRule {\n name 'slowRule'\n"
+                + " attributes 'vserver-name'\n }\n }\n}\nrule {\n name 'slowRule'\n attributes 'a'\n"
+                + " validate 'sleep(200) == null'\n}\n";
+        Files.write(rulesFolder.resolve("slow.groovy"), rules.getBytes(StandardCharsets.UTF_8));
+        RuleDrivenValidator budgetValidator = new RuleDrivenValidator(
+                Collections.singletonList(testFolder.getRoot().toPath()), null, eventReader, null);
+        budgetValidator.setRuleExecutionBudgetMillis(50);
+        budgetValidator.setRuleQuarantineOverruns(1);
+        String event = new String(Files.readAllBytes(
+                findResource(UNIT_TEST_FOLDER, TEST_EVENTS_PATH).resolve("vserver-update-AAI-EVENT-devINT1.json")),
+                StandardCharsets.UTF_8);
+
+        // The rule overruns the budget and is then quarantined: either way the entity reports a violation
+        for (String message : Arrays.asList("exceeded its execution budget", "is quarantined")) {
+            List<Violation> violations = budgetValidator.validate(event).get(0).getViolations();
+            assertThat(violations.size(), is(1));
+            assertThat(violations.get(0).getCategory(), is("RULE_EXECUTION_ERROR"));
+            assertThat(violations.get(0).getErrorMessage(), containsString(message));
+        }
+        assertThat(budgetValidator.getStatusReport().get(), containsString("Quarantined rules: slowRule"));
+    }
+
     private static Path findResource(String path, String subPath) throws URISyntaxException {
         URL resource = ClassLoader.getSystemResource(path + subPath);
         if (resource == null) {
@@ -123,7 +206,7 @@ public class TestRuleDrivenValidator {
 
     private RuleDrivenValidator buildValidator(OxmReader oxmReader, String rulesFolder) throws URISyntaxException {
         return new RuleDrivenValidator(Collections.singletonList(findResource(UNIT_TEST_FOLDER, rulesFolder)),
-                oxmReader, new EventReader(null, null, null), null);
+                oxmReader, new EventReader(null, new JsonReader(), null), null);
     }
 
     private void validateEntities(String inputEventsFolder, String testEventsPath, String resultsPath)
@@ -38,6 +38,7 @@ import org.junit.runner.RunWith;
 import org.onap.aai.validation.controller.ValidationController;
 import org.onap.aai.validation.exception.ValidationServiceException;
 import org.onap.aai.validation.publisher.MockEventPublisher;
+import org.onap.aai.validation.ruledriven.RuleDrivenValidator;
 import org.onap.aai.validation.test.util.TestEntity;
 import org.onap.aai.validation.test.util.TestUtil;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -77,6 +78,9 @@ public class TestInfoService {
     @Inject
     MockEventPublisher messagePublisher;
 
+    @Inject
+    private RuleDrivenValidator ruleDrivenValidator;
+
     @Before
     public void setUp() throws ValidationServiceException {
         infoService = new InfoService();
@@ -129,6 +133,23 @@ public class TestInfoService {
         assertThat(info, containsString("total=1"));
     }
 
+    @Test
+    public void testExecutionProfile() throws ValidationServiceException, URISyntaxException, IOException {
+        infoService.resetProfile();
+        assertThat(infoService.getProfileAsJson(), not(containsString("\"invocations\":1,")));
+
+        // Validate directly, so that the event is not counted by the controller's statistics
+        ruleDrivenValidator.validate(TestUtil.getFileAsString(TestData.VSERVER.getFilename()));
+
+        assertThat(infoService.getProfile(), containsString("vserver"));
+        assertThat(infoService.getProfileAsJson(), containsString("\"entityType\":\"vserver\""));
+        assertThat(infoService.getProfileAsJson(), containsString("\"invocations\":1,"));
+
+        infoService.resetProfile();
+        assertThat(infoService.getProfileAsJson(), containsString("\"invocations\":0,"));
+        assertThat(infoService.getProfileAsJson(), containsString("\"rules\":[]"));
+    }
+
     /**
      * Assert that the info service status string contains the expected standard results and formatting.
      *
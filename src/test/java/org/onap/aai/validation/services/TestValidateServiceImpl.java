@@ -25,6 +25,9 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.cert.X509Certificate;
 import java.util.Collections;
 import java.util.List;
@@ -36,6 +39,7 @@ import org.junit.Test;
 import org.mockito.Mockito;
 import org.onap.aai.auth.AAIMicroServiceAuth;
 import org.onap.aai.validation.controller.ValidationController;
+import org.onap.aai.validation.controller.ValidationController.Result;
 import org.onap.aai.validation.test.util.TestUtil;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -107,6 +111,51 @@ public class TestValidateServiceImpl {
         service.validate(headers, servletRequest, "testEvent");
     }
 
+    @Test
+    public void testStreamedRequestIsReadAsBytes() throws Exception {
+        Mockito.when(mockAaiMicroServiceAuth.validateRequest(Mockito.any(), Mockito.anyString(), Mockito.anyString()))
+                .thenReturn(true);
+        Result result = Mockito.mock(Result.class);
+        Mockito.when(result.validationSuccessful()).thenReturn(true);
+        Mockito.when(result.getValidationResultAsJson()).thenReturn("{}");
+        Mockito.when(mockValidationController.execute(Mockito.any(ByteBuffer.class), Mockito.eq("http")))
+                .thenReturn(result);
+
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("POST", TestUtil.VALIDATION_SERVICE_URL);
+        servletRequest.setContent("testEvent".getBytes(StandardCharsets.UTF_8));
+
+        ValidateServiceImpl service = new ValidateServiceImpl(mockValidationController, mockAaiMicroServiceAuth);
+        ResponseEntity<String> response = service.validateStream(new HttpHeaders(), servletRequest);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getBody(), is("{}"));
+        Mockito.verify(mockValidationController, Mockito.never()).execute(Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    public void testStreamedRequestOfUnknownLengthIsParsedFromStream() throws Exception {
+        Mockito.when(mockAaiMicroServiceAuth.validateRequest(Mockito.any(), Mockito.anyString(), Mockito.anyString()))
+                .thenReturn(true);
+        Result result = Mockito.mock(Result.class);
+        Mockito.when(result.validationSuccessful()).thenReturn(true);
+        Mockito.when(mockValidationController.execute(Mockito.any(InputStream.class), Mockito.eq("http")))
+                .thenReturn(result);
+
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("POST", TestUtil.VALIDATION_SERVICE_URL) {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+        };
+        servletRequest.setContent("testEvent".getBytes(StandardCharsets.UTF_8));
+
+        ValidateServiceImpl service = new ValidateServiceImpl(mockValidationController, mockAaiMicroServiceAuth);
+        ResponseEntity<String> response = service.validateStream(new HttpHeaders(), servletRequest);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        Mockito.verify(mockValidationController).execute(Mockito.any(InputStream.class), Mockito.eq("http"));
+    }
+
     private List<String> createSingletonList(String listItem) {
         return Collections.<String>singletonList(listItem);
     }
@@ -0,0 +1,99 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.util;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class TestExecutionProfile {
+
+    @Test
+    public void testBucketsCoverEveryTime() {
+        for (long nanos : new long[] {0, 1, 7, 8, 15, 16, 17, 1000, 123_456_789, 1L << 42, Long.MAX_VALUE}) {
+            int bucket = ExecutionProfile.bucket(nanos);
+            if (nanos < 1L << 43) {
+                assertThat(nanos <= ExecutionProfile.bucketLimit(bucket), is(true));
+                assertThat(bucket == 0 || nanos > ExecutionProfile.bucketLimit(bucket - 1), is(true));
+                // The bucket limit is within 12.5% of the time
+                assertThat((double) ExecutionProfile.bucketLimit(bucket), is(lessThanOrEqualTo(nanos * 1.125 + 1)));
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        ExecutionProfile profile = new ExecutionProfile();
+        for (int i = 1; i <= 100; i++) {
+            profile.record(i * 1000L, i % 10 != 0);
+        }
+        profile.recordError(500_000);
+
+        ExecutionProfile.Snapshot snapshot = profile.getSnapshot();
+        assertThat(snapshot.getInvocations(), is(101L));
+        assertThat(snapshot.getFailures(), is(10L));
+        assertThat(snapshot.getErrors(), is(1L));
+        assertThat(snapshot.getP50(), is(closeTo(51, 51 * 0.125)));
+        assertThat(snapshot.getP99(), is(closeTo(100, 100 * 0.125)));
+        assertThat(snapshot.getMax(), is(500.0));
+
+        profile.reset();
+        assertThat(profile.getSnapshot().getInvocations(), is(0L));
+        assertThat(profile.getSnapshot().getMax(), is(0.0));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        ExecutionProfile profile = new ExecutionProfile();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    profile.record(i, i % 2 == 0);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(profile.getInvocations(), is(40_000L));
+        assertThat(profile.getSnapshot().getFailures(), is(20_000L));
+        assertThat(profile.getSnapshot().getMax(), is(9.999));
+    }
+
+    @Test
+    public void testReport() {
+        ExecutionProfile profile = new ExecutionProfile();
+        profile.record(2000, false);
+        ExecutionProfileReport report = new ExecutionProfileReport();
+        report.addEntity("AAI-EVENT", "vserver", profile.getSnapshot());
+        report.addRule("aai-event", "vserver", "prov-status", profile.getSnapshot());
+
+        assertThat(report.toString(), containsString("vserver"));
+        assertThat(report.toString(), containsString("prov-status"));
+        assertThat(report.toJson(), containsString("\"rule\":\"prov-status\""));
+        assertThat(report.toJson(), containsString("\"maxMicros\":2.0"));
+    }
+}
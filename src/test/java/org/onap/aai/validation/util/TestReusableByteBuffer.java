@@ -0,0 +1,87 @@
+/*
+ * ============LICENSE_START===================================================
+ * Copyright (c) 2018 Amdocs
+ * ============================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=====================================================
+ */
+package org.onap.aai.validation.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class TestReusableByteBuffer {
+
+    @Test
+    public void testBufferIsReused() throws Exception {
+        ReusableByteBuffer reusableBuffer = new ReusableByteBuffer(16, 64);
+        ByteBuffer first = reusableBuffer.read(stream("first event"));
+        assertThat(asString(first), is("first event"));
+
+        ByteBuffer second = reusableBuffer.read(stream("second"));
+        assertThat(asString(second), is("second"));
+        assertThat(second.array(), is(sameInstance(first.array())));
+    }
+
+    @Test
+    public void testBufferGrowsToFitPayload() throws Exception {
+        ReusableByteBuffer reusableBuffer = new ReusableByteBuffer(4, 64);
+        ByteBuffer event = reusableBuffer.read(stream("a payload larger than the initial buffer"));
+        assertThat(asString(event), is("a payload larger than the initial buffer"));
+
+        // The grown buffer is within the maximum and so it is retained
+        assertThat(reusableBuffer.read(stream("x")).array(), is(sameInstance(event.array())));
+    }
+
+    @Test
+    public void testLargeBufferIsNotRetained() throws Exception {
+        ReusableByteBuffer reusableBuffer = new ReusableByteBuffer(4, 8);
+        ByteBuffer small = reusableBuffer.read(stream("abc"));
+        ByteBuffer large = reusableBuffer.read(stream("a payload larger than the maximum buffer"));
+        assertThat(asString(large), is("a payload larger than the maximum buffer"));
+
+        assertThat(reusableBuffer.read(stream("def")).array(), is(sameInstance(small.array())));
+        assertThat(large.array(), is(not(sameInstance(small.array()))));
+    }
+
+    @Test
+    public void testByteBufferInputStream() throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap("0123456789".getBytes(StandardCharsets.UTF_8));
+        buffer.position(2);
+        InputStream inputStream = new ByteBufferInputStream(buffer);
+        assertThat(inputStream.available(), is(8));
+        assertThat(inputStream.read(), is((int) '2'));
+        assertThat(inputStream.skip(3), is(3L));
+        byte[] bytes = new byte[10];
+        assertThat(inputStream.read(bytes, 0, bytes.length), is(4));
+        assertThat(new String(bytes, 0, 4, StandardCharsets.UTF_8), is("6789"));
+        assertThat(inputStream.read(), is(-1));
+        assertThat(buffer.position(), is(2));
+    }
+
+    private InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String asString(ByteBuffer buffer) {
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright (c) 2018-2019 AT&T Intellectual Property. All rights reserved.
+ * Copyright (c) 2018-2019 European Software Marketing Ltd.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+entity {
+    type 'vserver'
+    validation {
+        useRule {
+            name 'dummy'
+            attributes 'relationship-list.relationship.'
+        }
+    }
+}
+
+rule {
+    name        'dummy'
+    category    'INVALID_VALUE'
+    description 'for test purposes'
+    errorText   ''
+    severity    'MINOR'
+    validate    'return false'
+}